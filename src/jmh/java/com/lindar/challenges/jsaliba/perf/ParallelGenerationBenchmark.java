@@ -0,0 +1,33 @@
+package com.lindar.challenges.jsaliba.perf;
+
+import com.lindar.challenges.jsaliba.beans.StripSequence;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk generation of a batch of strips through {@link StripSequence}, as parallelism scales.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = { "-Xms2048m", "-Xmx2048m" })
+public class ParallelGenerationBenchmark {
+
+    @Param({ "1", "2", "4", "8", "16" })
+    public int parallelism;
+
+    @Param({ "100000" })
+    public int strips;
+
+    private final StripSequence sequence = new StripSequence(0);
+
+    @Benchmark
+    public void generate(Blackhole blackhole) {
+        sequence.generate(0, strips, parallelism, (index, cells, offset) -> blackhole.consume(cells));
+    }
+
+}
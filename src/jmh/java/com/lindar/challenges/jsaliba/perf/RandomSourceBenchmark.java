@@ -0,0 +1,65 @@
+package com.lindar.challenges.jsaliba.perf;
+
+import com.lindar.challenges.jsaliba.beans.RandomSource;
+import com.lindar.challenges.jsaliba.beans.StripGenerator;
+import com.lindar.challenges.jsaliba.beans.StripSequence;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of strip generation drawing from every {@link RandomSource}, on all available threads,
+ * each with its own generator and buffer (as {@link StripSequence} does).
+ * <br><br>
+ * {@link #sharedRandom} instead has every thread draw from a single {@link Random}, contending on its seed,
+ * as any code sharing a {@link Random} (or a {@link TicketStrip} created through {@code new TicketStrip(random)}
+ * across threads) would.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = { "-Xms2048m", "-Xmx2048m" })
+@Threads(Threads.MAX)
+public class RandomSourceBenchmark {
+
+    private final StripGenerator generator = new StripGenerator();
+    private final Random random = new Random();
+    private final byte[] cells = new byte[TicketStrip.CELLS];
+    private long index;
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+        final Random random = new Random();
+    }
+
+    @State(Scope.Thread)
+    public static class Source {
+        @Param({ "RANDOM", "SPLITTABLE", "L64X128_MIX", "THREAD_LOCAL", "SECURE" })
+        public RandomSource source;
+
+        StripSequence sequence;
+
+        @Setup
+        public void setUp() {
+            sequence = new StripSequence(42L).withRandomSource(source);
+        }
+    }
+
+    @Benchmark
+    public void sequence(Source source, Blackhole blackhole) {
+        source.sequence.generate(index++, generator, random, cells, 0);
+        blackhole.consume(cells);
+    }
+
+    @Benchmark
+    public void sharedRandom(Shared shared, Blackhole blackhole) {
+        generator.generate(shared.random, cells, 0);
+        blackhole.consume(cells);
+    }
+
+}
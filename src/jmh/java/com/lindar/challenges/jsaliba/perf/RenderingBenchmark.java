@@ -0,0 +1,51 @@
+package com.lindar.challenges.jsaliba.perf;
+
+import com.lindar.challenges.jsaliba.beans.StripSequence;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+import com.lindar.challenges.jsaliba.io.StripRenderer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering a single strip, through {@link TicketStrip#toString()} and through each {@link StripRenderer}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RenderingBenchmark {
+
+    private final TicketStrip strip = new StripSequence(0).get(0);
+
+    @State(Scope.Thread)
+    public static class Renderer {
+
+        @Param({ "text", "csv", "json" })
+        public String format;
+
+        private final byte[] cells = new byte[TicketStrip.CELLS];
+        private StripRenderer renderer;
+        private byte[] out;
+
+        @Setup
+        public void setUp(RenderingBenchmark benchmark) {
+            benchmark.strip.copyCells(cells, 0);
+            renderer = StripRenderer.forFormat(format);
+            out = new byte[renderer.maxStripSize()];
+        }
+    }
+
+    @Benchmark
+    public String ticketStripToString() {
+        return strip.toString();
+    }
+
+    @Benchmark
+    public int renderer(Renderer state) {
+        return state.renderer.render(0, state.cells, 0, state.out, 0);
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.lindar.challenges.jsaliba.perf;
+
+import com.lindar.challenges.jsaliba.beans.StripSequence;
+import com.lindar.challenges.jsaliba.game.CallResult;
+import com.lindar.challenges.jsaliba.game.ShardedGameEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call latency of a {@link ShardedGameEngine}, as shards scale from 1 to the number of cores.
+ * Sample time mode reports the p50 / p90 / p99 ... latency of each call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgs = { "-Xms4096m", "-Xmx4096m" })
+public class ShardedGameBenchmark {
+
+    // Capped at the number of available cores
+    @Param({ "1", "2", "4", "8", "16", "32" })
+    public int shards;
+
+    // 6M tickets
+    @Param({ "1000000" })
+    public int strips;
+
+    private ShardedGameEngine engine;
+    private int nextNumber;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        engine = new ShardedGameEngine(strips, Math.min(shards, Runtime.getRuntime().availableProcessors()));
+        new StripSequence(0).generate(0, strips, Runtime.getRuntime().availableProcessors(), engine);
+        nextNumber = 1;
+    }
+
+    @Setup(Level.Invocation)
+    public void startNewGameWhenAllNumbersAreCalled() {
+        if (nextNumber > 90) {
+            engine.reset();
+            nextNumber = 1;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Benchmark
+    public CallResult call() {
+        return engine.call(nextNumber++);
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.lindar.challenges.jsaliba.perf;
+
+import com.lindar.challenges.jsaliba.beans.StripAlgorithm;
+import com.lindar.challenges.jsaliba.beans.StripGenerationStrategy;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of every {@link StripAlgorithm}, generating into a reused buffer.
+ * See {@link StripDistributionReport} for how the strips they generate are distributed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = { "-Xms2048m", "-Xmx2048m" })
+public class StripAlgorithmBenchmark {
+
+    @Param({ "LEGACY", "CONSTRUCTIVE", "TEMPLATE" })
+    public StripAlgorithm algorithm;
+
+    private StripGenerationStrategy generator;
+    private final Random random = new Random();
+    private final byte[] cells = new byte[TicketStrip.CELLS];
+
+    @Setup
+    public void setUp() {
+        generator = algorithm.newGenerator();
+    }
+
+    @Benchmark
+    public void generate(Blackhole blackhole) {
+        generator.generate(random, cells, 0);
+        blackhole.consume(cells);
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.lindar.challenges.jsaliba.perf;
+
+import com.lindar.challenges.jsaliba.beans.StripBatch;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+import com.lindar.challenges.jsaliba.io.StripCodec;
+import com.lindar.challenges.jsaliba.io.StripFileFormat;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of encoding and decoding batches of strips as compact records (see {@link StripCodec}),
+ * against the 90-byte records of strip files (see {@link StripFileFormat}), in strips per second per thread.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = { "-Xms2048m", "-Xmx2048m" })
+public class StripCodecBenchmark {
+
+    private static final int STRIPS = 1024;
+
+    private final StripCodec codec = new StripCodec();
+    private final byte[] cells = new byte[STRIPS * TicketStrip.CELLS];
+    private final byte[] compact = new byte[STRIPS * StripCodec.ENCODED_SIZE];
+    private final byte[] records = new byte[STRIPS * StripFileFormat.RECORD_SIZE];
+    private final byte[] decoded = new byte[STRIPS * TicketStrip.CELLS];
+
+    @Setup
+    public void setUp() {
+        final StripBatch batch = StripBatch.generate(STRIPS, 42L, 1);
+        for (int strip = 0; strip < STRIPS; strip++) {
+            batch.copyCells(strip, cells, strip * TicketStrip.CELLS);
+        }
+        codec.encode(cells, 0, STRIPS, compact, 0);
+        for (int strip = 0; strip < STRIPS; strip++) {
+            StripFileFormat.encode(cells, strip * TicketStrip.CELLS, records, strip * StripFileFormat.RECORD_SIZE);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STRIPS)
+    public byte[] encodeCompact() {
+        codec.encode(cells, 0, STRIPS, compact, 0);
+        return compact;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STRIPS)
+    public byte[] decodeCompact() {
+        codec.decode(compact, 0, STRIPS, decoded, 0);
+        return decoded;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STRIPS)
+    public byte[] encodeRecord() {
+        for (int strip = 0; strip < STRIPS; strip++) {
+            StripFileFormat.encode(cells, strip * TicketStrip.CELLS, records, strip * StripFileFormat.RECORD_SIZE);
+        }
+        return records;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STRIPS)
+    public byte[] decodeRecord() {
+        for (int strip = 0; strip < STRIPS; strip++) {
+            StripFileFormat.decode(records, strip * StripFileFormat.RECORD_SIZE, decoded, strip * TicketStrip.CELLS);
+        }
+        return decoded;
+    }
+
+}
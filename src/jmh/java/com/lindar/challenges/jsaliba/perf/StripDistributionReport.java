@@ -0,0 +1,71 @@
+package com.lindar.challenges.jsaliba.perf;
+
+import com.lindar.challenges.jsaliba.beans.StripAlgorithm;
+import com.lindar.challenges.jsaliba.beans.StripGenerationStrategy;
+import com.lindar.challenges.jsaliba.beans.Ticket;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+
+import java.util.Random;
+
+/**
+ * Compares how evenly every {@link StripAlgorithm} distributes numbers across the tickets of a strip,
+ * and across the cells of a ticket. For every algorithm, over {@code strips} strips, it reports:
+ * <ul>
+ * <li>The mean count of numbers housed by every ticket in the first, a middle and the last column.
+ * An unbiased algorithm gives every ticket 1.5, 1.667 and 1.833 respectively.</li>
+ * <li>The chi-square statistic of how often each of the 162 cells of a strip houses a number,
+ * against how often it would if numbers were spread evenly over the tickets and rows housing each
+ * column. The cells of a strip are not independent (every row and column adds up to a fixed count),
+ * so it is best read as a relative measure: the lower, the more even.</li>
+ * </ul>
+ * Not a JMH benchmark (see {@link StripAlgorithmBenchmark} for throughput), run it through exec:java instead:
+ * <pre>
+ * ./mvnw -Pjmh test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.lindar.challenges.jsaliba.perf.StripDistributionReport -Dexec.args="1000000"
+ * </pre>
+ */
+public class StripDistributionReport {
+
+    public static void main(String[] args) {
+        final int strips = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        for (StripAlgorithm algorithm : StripAlgorithm.values()) {
+            final StripGenerationStrategy generator = algorithm.newGenerator();
+            final Random random = new Random(0);
+            final byte[] cells = new byte[TicketStrip.CELLS];
+            final long[] occupancy = new long[TicketStrip.CELLS];
+
+            final long start = System.nanoTime();
+            for (int i = 0; i < strips; i++) {
+                generator.generate(random, cells, 0);
+                for (int cell = 0; cell < TicketStrip.CELLS; cell++) {
+                    if (cells[cell] > 0) occupancy[cell]++;
+                }
+            }
+            final long elapsed = System.nanoTime() - start;
+
+            System.out.printf("%s: %,d strips in %d ms%n", algorithm, strips, elapsed / 1_000_000);
+            for (int column : new int[] { 0, 4, Ticket.COLUMNS - 1 }) {
+                final StringBuilder means = new StringBuilder();
+                for (int ticket = 0; ticket < TicketStrip.TICKETS; ticket++) {
+                    long numbers = 0;
+                    for (int row = 0; row < Ticket.ROWS; row++) {
+                        numbers += occupancy[ticket * Ticket.CELLS + row * Ticket.COLUMNS + column];
+                    }
+                    means.append(String.format(" %.3f", (double) numbers / strips));
+                }
+                System.out.printf("  column %d, numbers per ticket:%s%n", column, means);
+            }
+
+            double chiSquare = 0;
+            for (int cell = 0; cell < TicketStrip.CELLS; cell++) {
+                final int column = cell % Ticket.COLUMNS;
+                final int columnSize = column == 0 ? 9 : column == Ticket.COLUMNS - 1 ? 11 : 10;
+                final double expected = (double) strips * columnSize / (TicketStrip.TICKETS * Ticket.ROWS);
+                chiSquare += (occupancy[cell] - expected) * (occupancy[cell] - expected) / expected;
+            }
+            System.out.printf("  cell occupancy chi-square: %.1f%n", chiSquare);
+        }
+    }
+
+}
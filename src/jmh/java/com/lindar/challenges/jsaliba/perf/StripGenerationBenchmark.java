@@ -0,0 +1,70 @@
+package com.lindar.challenges.jsaliba.perf;
+
+import com.lindar.challenges.jsaliba.beans.StripGenerator;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole-strip generation, through {@code new TicketStrip()} and through a reused {@link StripGenerator},
+ * for a varying number of strips per operation, and scaling from 1 thread to all available cores.
+ * <br><br>
+ * Every thread keeps its own generator, random and buffer, so the scaling runs show how well
+ * generation itself scales, without any contention on shared state.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = { "-Xms2048m", "-Xmx2048m" })
+public class StripGenerationBenchmark {
+
+    @Param({ "100", "10000" })
+    public int strips;
+
+    private final StripGenerator generator = new StripGenerator();
+    private final Random random = new Random();
+    private final byte[] cells = new byte[TicketStrip.CELLS];
+
+    @Benchmark
+    public void ticketStrip(Blackhole blackhole) {
+        for (int i = 0; i < strips; i++) {
+            blackhole.consume(new TicketStrip());
+        }
+    }
+
+    @Benchmark
+    public void stripGenerator(Blackhole blackhole) {
+        generate(blackhole);
+    }
+
+    @Benchmark
+    @Threads(2)
+    public void stripGenerator2Threads(Blackhole blackhole) {
+        generate(blackhole);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void stripGenerator4Threads(Blackhole blackhole) {
+        generate(blackhole);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void stripGeneratorAllThreads(Blackhole blackhole) {
+        generate(blackhole);
+    }
+
+    private void generate(Blackhole blackhole) {
+        for (int i = 0; i < strips; i++) {
+            generator.generate(random, cells, 0);
+            blackhole.consume(cells);
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.lindar.challenges.jsaliba.perf;
+
+import com.lindar.challenges.jsaliba.beans.StripGenerator;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Each of the four phases of {@link StripGenerator} in isolation, selected through {@link #phase}.
+ * <br><br>
+ * Every phase picks up where the previous one left off, so before each invocation a batch of
+ * generators is brought up to the phase being measured, and the phase is then run over the whole
+ * batch - amortising the cost of the per-invocation setup over {@link #BATCH} strips.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class StripGenerationPhasesBenchmark {
+
+    static final int BATCH = 1000;
+
+    @Param({ "buildNumberPool", "populateTickets", "spreadRemainingNumbers", "addEmptySpaces" })
+    public String phase;
+
+    private final Random random = new Random();
+    private final StripGenerator[] generators = new StripGenerator[BATCH];
+    private final byte[] cells = new byte[BATCH * TicketStrip.CELLS];
+    private int phaseIndex;
+
+    @Setup(Level.Trial)
+    public void createGenerators() {
+        for (int i = 0; i < BATCH; i++) {
+            generators[i] = new StripGenerator();
+        }
+        phaseIndex = switch (phase) {
+            case "buildNumberPool" -> 0;
+            case "populateTickets" -> 1;
+            case "spreadRemainingNumbers" -> 2;
+            case "addEmptySpaces" -> 3;
+            default -> throw new IllegalArgumentException("Unknown phase " + phase);
+        };
+    }
+
+    /**
+     * Runs every phase preceding the one being measured.
+     */
+    @Setup(Level.Invocation)
+    public void runPrecedingPhases() {
+        for (int i = 0; i < BATCH; i++) {
+            for (int p = 0; p < phaseIndex; p++) {
+                runPhase(p, i);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void phase(Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            runPhase(phaseIndex, i);
+        }
+        blackhole.consume(cells);
+    }
+
+    private void runPhase(int phase, int strip) {
+        final StripGenerator generator = generators[strip];
+        final int offset = strip * TicketStrip.CELLS;
+        switch (phase) {
+            case 0 -> generator.buildNumberPool(random);
+            case 1 -> generator.populateTickets(cells, offset);
+            case 2 -> generator.spreadRemainingNumbers(cells, offset);
+            default -> generator.addEmptySpaces(random, cells, offset);
+        }
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.lindar.challenges.jsaliba.perf;
+
+import com.lindar.challenges.jsaliba.service.StripHttpServer;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test of {@link StripHttpServer}: keeps {@code clients} requests in flight at all times, for
+ * {@code seconds}, then reports requests per second and the latency distribution of whole responses.
+ * <br><br>
+ * Arguments, all optional: {@code clients seconds count format [url]}. Without a URL, a server is
+ * started in-process on any free port. Not a JMH benchmark, run it through exec:java instead:
+ * <pre>
+ * ./mvnw -Pjmh test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.lindar.challenges.jsaliba.perf.StripHttpLoadTest -Dexec.args="2000 30 10 json"
+ * </pre>
+ */
+public class StripHttpLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        final int clients = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        final int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        final int count = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        final String format = args.length > 3 ? args[3] : "json";
+
+        StripHttpServer server = null;
+        String url = args.length > 4 ? args[4] : null;
+        if (url == null) {
+            server = new StripHttpServer("localhost", 0, count);
+            server.start();
+            url = "http://localhost:" + server.getPort() + "/strips";
+        }
+
+        final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+        final HttpRequest request = HttpRequest.newBuilder(URI.create(url + "?count=" + count + "&format=" + format)).GET().build();
+        final Histogram latencies = new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(1), 3);
+        final AtomicLong failures = new AtomicLong();
+        final AtomicLong bytes = new AtomicLong();
+        final Semaphore inFlight = new Semaphore(clients);
+
+        System.out.printf("%s clients requesting %s %s strip(s) each from %s, for %s s%n", clients, count, format, url, seconds);
+        final long start = System.nanoTime();
+        final long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        while (System.nanoTime() < end) {
+            if (!inFlight.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                continue;
+            }
+            final long sent = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).whenComplete((response, error) -> {
+                if (error == null && response.statusCode() == 200) {
+                    latencies.recordValue(Math.min(System.nanoTime() - sent, latencies.getHighestTrackableValue()));
+                    bytes.addAndGet(response.body().length);
+                }
+                else failures.incrementAndGet();
+                inFlight.release();
+            });
+        }
+        inFlight.acquire(clients);
+        final double elapsed = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("Requests:   %s (%s failed)%n", latencies.getTotalCount(), failures.get());
+        System.out.printf("Throughput: %.0f requests/s, %.1f MB/s%n", latencies.getTotalCount() / elapsed, bytes.get() / elapsed / (1 << 20));
+        System.out.printf("Latency:    p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms%n",
+                          latencies.getValueAtPercentile(50) / 1e6,
+                          latencies.getValueAtPercentile(90) / 1e6,
+                          latencies.getValueAtPercentile(99) / 1e6,
+                          latencies.getValueAtPercentile(99.9) / 1e6,
+                          latencies.getMaxValue() / 1e6);
+
+        if (server != null) {
+            server.close();
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.lindar.challenges.jsaliba.perf;
+
+import com.lindar.challenges.jsaliba.beans.PostingIterator;
+import com.lindar.challenges.jsaliba.beans.StripSequence;
+import com.lindar.challenges.jsaliba.beans.Ticket;
+import com.lindar.challenges.jsaliba.beans.TicketStore;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queries against a {@link TicketStore} holding {@code tickets} tickets (50 million would be a large session):
+ * fetching a ticket by serial, the first page of tickets housing a number in a row, and the tickets housing
+ * two numbers in the same row. The store is filled once per fork, which takes a while for the larger sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = { "-Xms1024m", "-Xmx1024m", "-XX:MaxDirectMemorySize=4g" })
+public class TicketStoreBenchmark {
+
+    @Param({ "6000000" })
+    public long tickets;
+
+    private TicketStore store;
+    private final SplittableRandom random = new SplittableRandom(0);
+    private final byte[] cells = new byte[Ticket.CELLS];
+
+    @Setup
+    public void setUp() {
+        store = new TicketStore(tickets);
+        new StripSequence(42L).generate(0, tickets / TicketStrip.TICKETS, Runtime.getRuntime().availableProcessors(), store);
+    }
+
+    @Benchmark
+    public byte[] bySerial() {
+        store.copyCells(random.nextLong(store.size()), cells, 0);
+        return cells;
+    }
+
+    @Benchmark
+    public long[] firstPage() {
+        return store.postings(1 + random.nextInt(90), random.nextInt(Ticket.ROWS)).next(100);
+    }
+
+    @Benchmark
+    public long pageFromRandomSerial() {
+        final PostingIterator postings = store.postings(1 + random.nextInt(90), random.nextInt(Ticket.ROWS));
+        return postings.advance(random.nextLong(store.size()));
+    }
+
+    @Benchmark
+    public void twoNumbersInARow(Blackhole blackhole) {
+        final int row = random.nextInt(Ticket.ROWS);
+        final int first = 1 + random.nextInt(45);
+        final PostingIterator both = PostingIterator.and(store.postings(first, row), store.postings(first + 45, row));
+        blackhole.consume(both.next(100));
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.lindar.challenges.jsaliba;
+
+import com.lindar.challenges.jsaliba.metrics.GenerationRecorder;
+import org.springframework.boot.DefaultApplicationArguments;
+
+import java.io.IOException;
+
+/**
+ * Runs {@link TicketGenerator} as a batch job, taking the same arguments, without starting a Spring application
+ * context. Starting the context takes far longer than generating a few thousand strips, which adds up for
+ * short-lived jobs launched over and over. Batch jobs are neither instrumented (see GenerationMetricsConfiguration)
+ * nor served over HTTP (see StripHttpServerConfiguration), and log how long after the JVM started
+ * the first strip was generated.
+ * <br><br>
+ * Start-up is shortened further still by a class data sharing archive, see the {@code appcds} profile.
+ */
+public class BatchTicketGenerator {
+
+	private BatchTicketGenerator() {
+	}
+
+	public static void main(String[] args) throws IOException {
+		new TicketGenerator(GenerationRecorder.NOOP, null, true).run(new DefaultApplicationArguments(args));
+	}
+
+}
@@ -1,16 +1,47 @@
 package com.lindar.challenges.jsaliba;
 
+import com.lindar.challenges.jsaliba.analysis.FairnessAnalysis;
+import com.lindar.challenges.jsaliba.analysis.FairnessReport;
+import com.lindar.challenges.jsaliba.beans.GenerationProgress;
+import com.lindar.challenges.jsaliba.beans.RandomSource;
+import com.lindar.challenges.jsaliba.beans.StripAlgorithm;
+import com.lindar.challenges.jsaliba.beans.StripSequence;
+import com.lindar.challenges.jsaliba.beans.StripPartition;
+import com.lindar.challenges.jsaliba.beans.StripSink;
+import com.lindar.challenges.jsaliba.beans.TicketRegistry;
 import com.lindar.challenges.jsaliba.beans.TicketStrip;
 import com.lindar.challenges.jsaliba.beans.ValidationException;
+import com.lindar.challenges.jsaliba.game.GameSimulation;
+import com.lindar.challenges.jsaliba.game.GameSimulationReport;
+import com.lindar.challenges.jsaliba.io.GenerationCheckpoint;
+import com.lindar.challenges.jsaliba.io.StripFileMerger;
+import com.lindar.challenges.jsaliba.io.StripFileReader;
+import com.lindar.challenges.jsaliba.io.StripFileWriter;
+import com.lindar.challenges.jsaliba.io.StripPipeline;
+import com.lindar.challenges.jsaliba.io.StripPipelineMetrics;
+import com.lindar.challenges.jsaliba.io.StripRenderer;
+import com.lindar.challenges.jsaliba.io.StripTextWriter;
+import com.lindar.challenges.jsaliba.metrics.GenerationRecorder;
+import com.lindar.challenges.jsaliba.service.StripHttpServer;
+import com.lindar.challenges.jsaliba.validation.StripValidator;
+import com.lindar.challenges.jsaliba.validation.StripViolation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
-import java.util.stream.IntStream;
+import java.util.Random;
 
 @SpringBootApplication
 public class TicketGenerator implements ApplicationRunner {
@@ -21,12 +52,59 @@ public class TicketGenerator implements ApplicationRunner {
 		SpringApplication.run(TicketGenerator.class, args);
 	}
 
-	private int strips;
+	// Only instrumented when bingo90.metrics.enabled=true, see GenerationMetricsConfiguration
+	private final GenerationRecorder recorder;
+	// Only present when bingo90.http.enabled=true, see StripHttpServerConfiguration
+	private final StripHttpServer server;
+	// Only set when started as a batch job, see BatchTicketGenerator
+	private final boolean timeFirstStrip;
+	private volatile long firstStripMillis;
+
+	private long strips;
 	private boolean verbose;
+	private boolean unique;
+	private boolean validate;
+	private Path validateFile;
 	private int generations;
+	private int threads;
+	private Long seed;
+	private Path output;
+	private boolean pipeline;
+	private boolean compress;
+	private String format;
+	private StripAlgorithm algorithm;
+	private RandomSource randomSource;
+	private Long fairness;
+	private Long simulate;
+	private int tickets;
+	private boolean resume;
+	private StripPartition partition;
+	private Path merge;
+	private List<Path> shards;
+	// Only checked when merging, if given
+	private Long expectedStrips;
+
+	@Autowired
+	public TicketGenerator(ObjectProvider<GenerationRecorder> recorder, ObjectProvider<StripHttpServer> server) {
+		this(recorder.getIfAvailable(() -> GenerationRecorder.NOOP), server.getIfAvailable(), false);
+	}
+
+	/**
+	 * @param timeFirstStrip Whether to log how long after the JVM started the first strip was generated.
+	 */
+	TicketGenerator(GenerationRecorder recorder, StripHttpServer server, boolean timeFirstStrip) {
+		this.recorder = recorder;
+		this.server = server;
+		this.timeFirstStrip = timeFirstStrip;
+	}
 
 	@Override
-	public void run(ApplicationArguments args) {
+	public void run(ApplicationArguments args) throws IOException {
+		// Running as a service, strips are only generated upon request
+		if (server != null) {
+			return;
+		}
+
 		try {
 			parseInput(args);
 		}
@@ -35,11 +113,47 @@ public class TicketGenerator implements ApplicationRunner {
 			return;
 		}
 
+		if (validateFile != null) {
+			this.validateFile(validateFile);
+			return;
+		}
+
+		if (merge != null) {
+			this.mergeFiles(merge, shards);
+			return;
+		}
+
+		if (fairness != null) {
+			this.analyseFairness(fairness, seed != null ? seed : new Random().nextLong());
+			return;
+		}
+
+		if (simulate != null) {
+			this.simulateGames(simulate, seed != null ? seed : new Random().nextLong());
+			return;
+		}
+
 		for (int i = 0; i < generations; i++) {
+			final long masterSeed;
+			try {
+				masterSeed = resume ? resumedSeed() : seed != null ? seed : new Random().nextLong();
+			}
+			catch (ValidationException e) {
+				LOGGER.error(e.getMessage());
+				return;
+			}
 			long now = System.currentTimeMillis();
-			this.generateStrips(strips, verbose);
+			this.generateStrips(strips, masterSeed, verbose);
 			long then = System.currentTimeMillis();
-			LOGGER.info("Took {} ms to generate {} ticket strips", then - now, strips);
+			final long generated = partition != null ? partition.toIndex(strips) - partition.fromIndex(strips) : strips;
+			LOGGER.info("Took {} ms to generate {} ticket strips on {} thread(s) with seed {} ({} algorithm, {} random source)", then - now, generated, threads, masterSeed, algorithm.name().toLowerCase(), randomSource.getName());
+		}
+
+		if (recorder != GenerationRecorder.NOOP) {
+			LOGGER.info("Generation metrics: {}", recorder);
+		}
+		if (firstStripMillis != 0) {
+			LOGGER.info("Generated the first ticket strip {} ms after the JVM started", firstStripMillis - ManagementFactory.getRuntimeMXBean().getStartTime());
 		}
 	}
 
@@ -52,9 +166,13 @@ public class TicketGenerator implements ApplicationRunner {
 				throw new ValidationException("No strips given, please specify strips: 'strips=1000'");
 			}
 			final String stripsOption = args.getOptionValues("strips").get(0);
-			strips = Integer.parseInt(stripsOption);
+			strips = Long.parseLong(stripsOption);
+			expectedStrips = strips;
+		}
+		else {
+			strips = 10000;
+			expectedStrips = null;
 		}
-		else strips = 10000;
 
 		if (args.containsOption("generations")) {
 			if (args.getOptionValues("generations").isEmpty()) {
@@ -73,15 +191,416 @@ public class TicketGenerator implements ApplicationRunner {
 			else verbose = true;
 		}
 		else verbose = false;
+
+		if (args.containsOption("unique")) {
+			final List<String> uniqueOption = args.getOptionValues("unique");
+			if (!uniqueOption.isEmpty()) {
+				unique = uniqueOption.get(0).trim().equalsIgnoreCase("true");
+			}
+			else unique = true;
+		}
+		else unique = false;
+
+		if (args.containsOption("validate")) {
+			final List<String> validateOption = args.getOptionValues("validate");
+			if (!validateOption.isEmpty()) {
+				validate = validateOption.get(0).trim().equalsIgnoreCase("true");
+			}
+			else validate = true;
+		}
+		else validate = false;
+
+		if (args.containsOption("validate-file")) {
+			if (args.getOptionValues("validate-file").isEmpty()) {
+				throw new ValidationException("No strip file given, please specify validate-file: 'validate-file=strips.b90'");
+			}
+			validateFile = Path.of(args.getOptionValues("validate-file").get(0));
+		}
+		else validateFile = null;
+
+		if (args.containsOption("threads")) {
+			if (args.getOptionValues("threads").isEmpty()) {
+				throw new ValidationException("No threads given, please specify threads: 'threads=4'");
+			}
+			final String threadsOption = args.getOptionValues("threads").get(0);
+			threads = Integer.parseInt(threadsOption);
+			if (threads < 1) {
+				throw new ValidationException("At least one thread is required, please specify threads: 'threads=4'");
+			}
+		}
+		else threads = 1;
+
+		if (args.containsOption("seed")) {
+			if (args.getOptionValues("seed").isEmpty()) {
+				throw new ValidationException("No seed given, please specify seed: 'seed=1234'");
+			}
+			final String seedOption = args.getOptionValues("seed").get(0);
+			seed = Long.parseLong(seedOption);
+		}
+		else seed = null;
+
+		if (args.containsOption("output")) {
+			if (args.getOptionValues("output").isEmpty()) {
+				throw new ValidationException("No output file given, please specify output: 'output=strips.b90'");
+			}
+			output = Path.of(args.getOptionValues("output").get(0));
+		}
+		else output = null;
+
+		if (args.containsOption("compress")) {
+			final List<String> compressOption = args.getOptionValues("compress");
+			if (!compressOption.isEmpty()) {
+				compress = compressOption.get(0).trim().equalsIgnoreCase("true");
+			}
+			else compress = true;
+		}
+		else compress = false;
+
+		if (args.containsOption("pipeline")) {
+			final List<String> pipelineOption = args.getOptionValues("pipeline");
+			if (!pipelineOption.isEmpty()) {
+				pipeline = pipelineOption.get(0).trim().equalsIgnoreCase("true");
+			}
+			else pipeline = true;
+		}
+		// Only the pipeline compresses
+		else pipeline = compress;
+
+		if (pipeline && output == null) {
+			throw new ValidationException("Only output files are written through the pipeline, please specify output: 'output=strips.b90'");
+		}
+		if (compress && !pipeline) {
+			throw new ValidationException("Only the pipeline compresses output files, please specify pipeline: 'pipeline=true'");
+		}
+
+		if (args.containsOption("format")) {
+			if (args.getOptionValues("format").isEmpty()) {
+				throw new ValidationException("No format given, please specify format: 'format=csv'");
+			}
+			format = args.getOptionValues("format").get(0).trim().toLowerCase();
+			if (!format.equals("binary")) {
+				StripRenderer.forFormat(format);
+			}
+		}
+		else if (output != null) {
+			String fileName = output.getFileName().toString().toLowerCase();
+			if (compress && fileName.endsWith(".gz")) {
+				fileName = fileName.substring(0, fileName.length() - ".gz".length());
+			}
+			if (fileName.endsWith(".b90")) format = "binary";
+			else if (fileName.endsWith(".csv")) format = "csv";
+			else if (fileName.endsWith(".json") || fileName.endsWith(".jsonl")) format = "json";
+			else format = "text";
+		}
+		else format = "text";
+
+		if (args.containsOption("algorithm")) {
+			if (args.getOptionValues("algorithm").isEmpty()) {
+				throw new ValidationException("No algorithm given, please specify algorithm: 'algorithm=constructive'");
+			}
+			algorithm = StripAlgorithm.of(args.getOptionValues("algorithm").get(0));
+		}
+		else algorithm = StripAlgorithm.LEGACY;
+
+		if (args.containsOption("random")) {
+			if (args.getOptionValues("random").isEmpty()) {
+				throw new ValidationException("No random source given, please specify random: 'random=l64x128mix'");
+			}
+			randomSource = RandomSource.of(args.getOptionValues("random").get(0));
+		}
+		else randomSource = RandomSource.RANDOM;
+
+		if (args.containsOption("fairness")) {
+			if (args.getOptionValues("fairness").isEmpty()) {
+				throw new ValidationException("No strips given, please specify fairness: 'fairness=1000000000'");
+			}
+			fairness = Long.parseLong(args.getOptionValues("fairness").get(0));
+		}
+		else fairness = null;
+
+		if (args.containsOption("simulate")) {
+			if (args.getOptionValues("simulate").isEmpty()) {
+				throw new ValidationException("No games given, please specify simulate: 'simulate=1000000'");
+			}
+			simulate = Long.parseLong(args.getOptionValues("simulate").get(0));
+		}
+		else simulate = null;
+
+		if (args.containsOption("tickets")) {
+			if (args.getOptionValues("tickets").isEmpty()) {
+				throw new ValidationException("No tickets given, please specify tickets: 'tickets=600'");
+			}
+			tickets = Integer.parseInt(args.getOptionValues("tickets").get(0));
+		}
+		else tickets = 600;
+
+		if (args.containsOption("resume")) {
+			final List<String> resumeOption = args.getOptionValues("resume");
+			if (!resumeOption.isEmpty()) {
+				resume = resumeOption.get(0).trim().equalsIgnoreCase("true");
+			}
+			else resume = true;
+		}
+		else resume = false;
+
+		if (resume) {
+			if (output == null || !format.equals("binary")) {
+				throw new ValidationException("Only binary strip files can be resumed, please specify output: 'output=strips.b90'");
+			}
+			if (generations != 1) {
+				throw new ValidationException("A single generation can be resumed, please specify generations: 'generations=1'");
+			}
+			if (pipeline) {
+				throw new ValidationException("Generations written through the pipeline are not checkpointed, hence cannot be resumed, please specify pipeline: 'pipeline=false'");
+			}
+			if (unique) {
+				throw new ValidationException("Generations of unique tickets cannot be resumed, since which strips are regenerated depends on the order they were generated in");
+			}
+			if (!randomSource.isReproducible()) {
+				throw new ValidationException("Generations drawing from a random source which is not reproducible cannot be resumed, please specify random: 'random=random'");
+			}
+		}
+
+		if (args.containsOption("partition")) {
+			if (args.getOptionValues("partition").isEmpty()) {
+				throw new ValidationException("No partition given, please specify partition: 'partition=1/4'");
+			}
+			partition = StripPartition.of(args.getOptionValues("partition").get(0));
+		}
+		else partition = null;
+
+		if (partition != null) {
+			if (output == null || !format.equals("binary")) {
+				throw new ValidationException("Only binary strip files can be partitioned, please specify output: 'output=strips-1.b90'");
+			}
+			if (seed == null) {
+				throw new ValidationException("Every partition must be generated with the same seed, please specify seed: 'seed=1234'");
+			}
+			if (generations != 1) {
+				throw new ValidationException("A single generation can be partitioned, please specify generations: 'generations=1'");
+			}
+			if (unique) {
+				throw new ValidationException("Generations of unique tickets cannot be partitioned, since tickets would only be unique within each partition");
+			}
+			if (!randomSource.isReproducible()) {
+				throw new ValidationException("Generations drawing from a random source which is not reproducible cannot be partitioned, please specify random: 'random=random'");
+			}
+		}
+
+		if (args.containsOption("merge")) {
+			if (args.getOptionValues("merge").isEmpty()) {
+				throw new ValidationException("No output file given, please specify merge: 'merge=strips.b90'");
+			}
+			merge = Path.of(args.getOptionValues("merge").get(0));
+			shards = args.getNonOptionArgs().stream().map(Path::of).toList();
+			if (shards.isEmpty()) {
+				throw new ValidationException("No strip files to merge, please list them after merge: 'merge=strips.b90 strips-1.b90 strips-2.b90'");
+			}
+		}
+		else merge = null;
+	}
+
+	/**
+	 * @return The seed of the generation to resume into the output file, as recorded by its checkpoint,
+	 * or the given (or a new) seed if there is nothing to resume.
+	 */
+	private long resumedSeed() throws IOException {
+		final Path checkpoint = GenerationCheckpoint.pathOf(output);
+		if (!Files.exists(checkpoint)) {
+			LOGGER.info("No checkpoint found at {}, generating from scratch", checkpoint);
+			return seed != null ? seed : new Random().nextLong();
+		}
+
+		final long recordedSeed = GenerationCheckpoint.readMasterSeed(checkpoint);
+		if (seed != null && seed != recordedSeed) {
+			throw new ValidationException(String.format("%s records a generation with seed %s, not %s", checkpoint, recordedSeed, seed));
+		}
+		return recordedSeed;
+	}
+
+	private void analyseFairness(long strips, long masterSeed) {
+		long now = System.currentTimeMillis();
+		final FairnessReport report = FairnessAnalysis.analyse(new StripSequence(masterSeed).withAlgorithm(algorithm).withRandomSource(randomSource), strips, threads);
+		long then = System.currentTimeMillis();
+
+		LOGGER.info("Took {} ms to analyse {} ticket strips on {} thread(s) with seed {} ({} algorithm, {} random source)", then - now, strips, threads, masterSeed, algorithm.name().toLowerCase(), randomSource.getName());
+		LOGGER.info("{}", report);
+	}
+
+	private void simulateGames(long games, long masterSeed) {
+		final GameSimulationReport report = GameSimulation.simulate(new StripSequence(masterSeed).withAlgorithm(algorithm).withRandomSource(randomSource), tickets, games, threads);
+
+		LOGGER.info("Took {} ms to simulate {} games of {} tickets on {} thread(s) with seed {} ({} algorithm, {} random source)", report.getElapsedNanos() / 1_000_000, games, tickets, threads, masterSeed, algorithm.name().toLowerCase(), randomSource.getName());
+		LOGGER.info("{}", report);
+	}
+
+	private void validateFile(Path file) throws IOException {
+		try (StripFileReader reader = new StripFileReader(file)) {
+			long now = System.currentTimeMillis();
+			final StripViolation violation = StripValidator.validate(reader, threads);
+			long then = System.currentTimeMillis();
+
+			if (violation != null) {
+				LOGGER.error("{} in {}", violation, file);
+			}
+			else if (reader.isChecksummed() && reader.computeChecksum() != reader.getChecksum()) {
+				LOGGER.error("{} is corrupt, its strips do not match its checksum", file);
+			}
+			else {
+				LOGGER.info("All {} ticket strips in {} are valid, took {} ms on {} thread(s)", reader.getCount(), file, then - now, threads);
+			}
+		}
+	}
+
+	private void mergeFiles(Path output, List<Path> files) throws IOException {
+		long now = System.currentTimeMillis();
+		final StripFileMerger merger;
+		final int checksum;
+		try {
+			merger = new StripFileMerger(files);
+			if (expectedStrips != null && merger.getCount() != expectedStrips) {
+				throw new ValidationException(String.format("The strip files hold %s strips, expected %s", merger.getCount(), expectedStrips));
+			}
+			checksum = merger.merge(output);
+		}
+		catch (ValidationException e) {
+			LOGGER.error(e.getMessage());
+			return;
+		}
+		long then = System.currentTimeMillis();
+
+		LOGGER.info("Took {} ms to merge {} ticket strips with seed {}, starting from {}, out of {} files into {} (checksum {}, see {})", then - now, merger.getCount(),
+		            merger.getMasterSeed(), merger.getFirstIndex(), merger.getShards(), output, String.format("%08x", checksum), StripFileMerger.indexPathOf(output));
 	}
 
-	private void generateStrips(int strips, boolean verbose) {
-		IntStream.range(0, strips).forEach(stripNumber -> {
-			var strip = new TicketStrip();
+	private void generateStrips(long strips, long masterSeed, boolean verbose) throws IOException {
+		// Partitioned, only the partition's own range of strips is generated
+		final long fromIndex = partition != null ? partition.fromIndex(strips) : 0;
+		final long toIndex = partition != null ? partition.toIndex(strips) : strips;
+		final long count = toIndex - fromIndex;
+		if (partition != null) {
+			LOGGER.info("Generating partition {} of {} ticket strips, i.e. strips [{}, {})", partition, strips, fromIndex, toIndex);
+		}
+
+		StripSequence sequence = new StripSequence(masterSeed, recorder).withAlgorithm(algorithm).withRandomSource(randomSource);
+		StripSink sink = (stripNumber, cells, offset) -> { };
+
+		Closeable file = null;
+		StripFileWriter binaryFile = null;
+		// Binary generations are checkpointed as they go, so that they can be resumed should they be interrupted.
+		GenerationCheckpoint checkpoint = null;
+		// Written through the pipeline, strips are only handed over to the sink to be inspected, the pipeline writes them itself.
+		if (output != null && !pipeline) {
+			if (format.equals("binary")) {
+				final Path checkpointFile = GenerationCheckpoint.pathOf(output);
+				final String algorithmName = algorithm.name().toLowerCase();
+				final StripFileWriter writer;
+				if (resume && Files.exists(checkpointFile)) {
+					writer = StripFileWriter.resume(output, sequence, fromIndex, count);
+					try {
+						checkpoint = GenerationCheckpoint.resume(checkpointFile, writer, GenerationCheckpoint.DEFAULT_INTERVAL);
+						checkpoint.check(masterSeed, fromIndex, count, algorithmName, randomSource.getName());
+					}
+					catch (IOException | RuntimeException e) {
+						writer.close();
+						throw e;
+					}
+					LOGGER.info("Resuming the generation into {}, {} of {} ticket strips were completed already", output, checkpoint.getCompleted(), count);
+				}
+				else {
+					writer = new StripFileWriter(output, sequence, fromIndex, count);
+					checkpoint = GenerationCheckpoint.start(checkpointFile, writer, masterSeed, fromIndex, count, algorithmName, randomSource.getName(),
+					                                        GenerationCheckpoint.DEFAULT_INTERVAL);
+				}
+				sink = writer;
+				file = writer;
+				binaryFile = writer;
+			}
+			else {
+				final StripTextWriter writer = new StripTextWriter(output, StripRenderer.forFormat(format), recorder);
+				sink = writer;
+				file = writer;
+			}
+		}
+
+		// Verbose output is rendered straight to the console, rather than through the logger.
+		StripTextWriter console = null;
+		if (verbose) {
+			console = new StripTextWriter(Channels.newChannel(System.out), StripRenderer.forFormat(format.equals("binary") ? "text" : format));
+			sink = sink.andThen(console);
+		}
+
+		// Notes when the first strip was generated, before writing it anywhere.
+		if (timeFirstStrip && firstStripMillis == 0) {
+			final StripSink firstStrip = (stripNumber, cells, offset) -> {
+				if (firstStripMillis == 0) {
+					firstStripMillis = System.currentTimeMillis();
+				}
+			};
+			sink = firstStrip.andThen(sink);
+		}
+
+		// Validates every strip before handing it over to the rest, failing on the first invalid one.
+		if (validate) {
+			sink = new StripValidator().andThen(sink);
+		}
+
+		TicketRegistry registry = null;
+		if (unique) {
+			registry = new TicketRegistry(strips * TicketStrip.TICKETS);
+			sequence = sequence.withUniqueTickets(registry);
+		}
+
+		if (pipeline) {
+			try {
+				writeThroughPipeline(sequence, fromIndex, toIndex, sink);
+			}
+			finally {
+				if (console != null) {
+					console.flush();
+				}
+			}
+			if (registry != null) {
+				LOGGER.info("Regenerated {} ticket strip(s) housing a ticket generated before", registry.getRejected());
+			}
+			return;
+		}
 
-			if (verbose) {
-				LOGGER.info("Strip {}\n{}", stripNumber+1, strip);
+		try {
+			sequence.generate(fromIndex, toIndex, threads, sink, checkpoint != null ? checkpoint : GenerationProgress.NONE);
+			if (binaryFile != null) {
+				binaryFile.seal();
+			}
+		}
+		finally {
+			if (console != null) {
+				console.flush();
+			}
+			if (file != null) {
+				file.close();
 			}
-		});
+		}
+
+		if (checkpoint != null) {
+			checkpoint.finish();
+		}
+		if (registry != null) {
+			LOGGER.info("Regenerated {} ticket strip(s) housing a ticket generated before", registry.getRejected());
+		}
+		if (output != null) {
+			LOGGER.info("Wrote {} ticket strips to {}", count, output);
+		}
+	}
+
+	/**
+	 * Writes strips through a {@link StripPipeline}: as many generating threads as requested, a quarter as many encoding
+	 * ones, and as many compressing ones again when compressing, overlapping with a single writing thread.
+	 */
+	private void writeThroughPipeline(StripSequence sequence, long fromIndex, long toIndex, StripSink inspector) throws IOException {
+		final StripPipeline stripPipeline = new StripPipeline(sequence, format.equals("binary") ? null : StripRenderer.forFormat(format), inspector,
+		                                                      threads, Math.max(1, threads / 4), compress ? threads : 0);
+		final StripPipelineMetrics metrics = stripPipeline.write(output, fromIndex, toIndex);
+
+		LOGGER.info("Wrote {} ticket strips to {}{}, through the pipeline:{}{}", toIndex - fromIndex, output, compress ? ", compressed" : "", System.lineSeparator(), metrics);
 	}
 }
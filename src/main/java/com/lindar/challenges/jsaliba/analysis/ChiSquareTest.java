@@ -0,0 +1,101 @@
+package com.lindar.challenges.jsaliba.analysis;
+
+import static java.lang.String.format;
+
+/**
+ * The outcome of a chi-square test: the statistic, its degrees of freedom, and the probability of a statistic
+ * at least as large if the hypothesis tested holds (i.e. the p-value).
+ */
+public class ChiSquareTest {
+
+    private static final double EPSILON = 1e-15;
+    private static final double TINY = 1e-300;
+    private static final int MAX_ITERATIONS = 10_000;
+
+    private final String name;
+    private final double statistic;
+    private final int degreesOfFreedom;
+
+    public ChiSquareTest(String name, double statistic, int degreesOfFreedom) {
+        this.name = name;
+        this.statistic = statistic;
+        this.degreesOfFreedom = degreesOfFreedom;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getStatistic() {
+        return statistic;
+    }
+
+    public int getDegreesOfFreedom() {
+        return degreesOfFreedom;
+    }
+
+    public double getPValue() {
+        return pValue(statistic, degreesOfFreedom);
+    }
+
+    /**
+     * @return The probability of a chi-square distributed variable with {@code degreesOfFreedom} exceeding
+     * {@code statistic}, i.e. the regularized upper incomplete gamma function Q(k / 2, x / 2).
+     */
+    public static double pValue(double statistic, int degreesOfFreedom) {
+        final double a = degreesOfFreedom / 2d;
+        final double x = statistic / 2;
+        if (x <= 0) {
+            return 1;
+        }
+        final double logPrefix = -x + a * Math.log(x) - logGamma(degreesOfFreedom);
+
+        // Series expansion of the lower function converges fast for small x ...
+        if (x < a + 1) {
+            double term = 1 / a;
+            double sum = term;
+            for (int n = 1; n < MAX_ITERATIONS && Math.abs(term) > Math.abs(sum) * EPSILON; n++) {
+                term *= x / (a + n);
+                sum += term;
+            }
+            return Math.max(0, 1 - sum * Math.exp(logPrefix));
+        }
+
+        // ... and the continued fraction of the upper one for large x (modified Lentz's method)
+        double b = x + 1 - a;
+        double c = 1 / TINY;
+        double d = 1 / b;
+        double fraction = d;
+        for (int i = 1; i < MAX_ITERATIONS; i++) {
+            final double an = -i * (i - a);
+            b += 2;
+            d = an * d + b;
+            if (Math.abs(d) < TINY) d = TINY;
+            c = b + an / c;
+            if (Math.abs(c) < TINY) c = TINY;
+            d = 1 / d;
+            final double delta = d * c;
+            fraction *= delta;
+            if (Math.abs(delta - 1) < EPSILON) break;
+        }
+        return Math.exp(logPrefix) * fraction;
+    }
+
+    /**
+     * @return ln Γ(k / 2), exactly, since k / 2 is either a whole number or a half.
+     */
+    private static double logGamma(int degreesOfFreedom) {
+        final double a = degreesOfFreedom / 2d;
+        double result = degreesOfFreedom % 2 == 0 ? 0 : 0.5 * Math.log(Math.PI);
+        for (double k = degreesOfFreedom % 2 == 0 ? 1 : 0.5; k < a; k++) {
+            result += Math.log(k);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return format("%s: %.1f on %s degrees of freedom, p = %.4g", name, statistic, degreesOfFreedom, getPValue());
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.lindar.challenges.jsaliba.analysis;
+
+import com.lindar.challenges.jsaliba.beans.Ticket;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+
+import static com.lindar.challenges.jsaliba.beans.TicketStrip.TICKETS;
+
+/**
+ * Tallies how numbers are laid out across many strips: how often each cell houses a number, how many
+ * numbers each column of each ticket houses, and which ticket houses each number.
+ * <br><br>
+ * Tallying a strip is a single branch-free pass over its cells, which allocates nothing. Accumulators
+ * are not thread-safe: keep one per thread, and {@link #merge(FairnessAccumulator)} them once done.
+ */
+public class FairnessAccumulator {
+
+    static final int NUMBERS = 90;
+    // Column counts go from 1 to 3, 0 is only there to keep indexing simple (and tally broken strips).
+    static final int COUNTS = Ticket.ROWS + 1;
+
+    long strips;
+    // Strips housing a number in each cell, indexed like the cells of a strip.
+    final long[] occupancy = new long[TicketStrip.CELLS];
+    // Histogram of the numbers housed by each column of each ticket, indexed by (ticket * 9 + column) * 4 + count.
+    final long[] columnCounts = new long[TICKETS * Ticket.COLUMNS * COUNTS];
+    // Strips in which each ticket houses each number, indexed by number * 6 + ticket (number 0 tallying blanks).
+    final long[] numberTickets = new long[(NUMBERS + 1) * TICKETS];
+
+    /**
+     * Tallies the strip starting at {@code offset}.
+     */
+    public void add(byte[] cells, int offset) {
+        strips++;
+        for (int ticket = 0; ticket < TICKETS; ticket++) {
+            final int ticketOffset = ticket * Ticket.CELLS;
+            for (int column = 0; column < Ticket.COLUMNS; column++) {
+                int count = 0;
+                for (int cell = ticketOffset + column; cell < ticketOffset + Ticket.CELLS; cell += Ticket.COLUMNS) {
+                    final int number = cells[offset + cell];
+                    // 1 for a number, 0 for a blank (-1), without branching
+                    final int occupied = 1 + (number >> 31);
+                    occupancy[cell] += occupied;
+                    count += occupied;
+                    numberTickets[(number & ~(number >> 31)) * TICKETS + ticket]++;
+                }
+                columnCounts[(ticket * Ticket.COLUMNS + column) * COUNTS + count]++;
+            }
+        }
+    }
+
+    /**
+     * Adds everything tallied by {@code other} to this accumulator.
+     */
+    public void merge(FairnessAccumulator other) {
+        strips += other.strips;
+        add(occupancy, other.occupancy);
+        add(columnCounts, other.columnCounts);
+        add(numberTickets, other.numberTickets);
+    }
+
+    public long getStrips() {
+        return strips;
+    }
+
+    private static void add(long[] target, long[] source) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] += source[i];
+        }
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.lindar.challenges.jsaliba.analysis;
+
+import com.lindar.challenges.jsaliba.beans.StripGenerationStrategy;
+import com.lindar.challenges.jsaliba.beans.StripSequence;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+import com.lindar.challenges.jsaliba.beans.ValidationException;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static java.lang.String.format;
+
+/**
+ * Generates strips of a {@link StripSequence} (with its {@link com.lindar.challenges.jsaliba.beans.StripAlgorithm}),
+ * and reports how fairly numbers are laid out across them (see {@link FairnessReport}).
+ * <br><br>
+ * Strips are never stored: each thread claims {@link #CHUNK_SIZE} consecutive strips at a time, generates
+ * them into a reused buffer, and tallies them into its own {@link FairnessAccumulator}. Accumulators are only
+ * merged once every thread is done, so threads share nothing but the next chunk to claim, and billions of
+ * strips take as long as generating them.
+ */
+public class FairnessAnalysis {
+
+    /**
+     * Number of consecutive strips claimed by a thread at a time.
+     */
+    static final int CHUNK_SIZE = 4096;
+
+    private FairnessAnalysis() {
+    }
+
+    /**
+     * Analyses strips {@code [0, strips)} of {@code sequence}, spreading the work across {@code parallelism} threads.
+     * The report only depends on the sequence and the number of strips, not on {@code parallelism}.
+     */
+    public static FairnessReport analyse(StripSequence sequence, long strips, int parallelism) {
+        if (strips < 1) {
+            throw new ValidationException(format("At least one strip is required, got %s", strips));
+        }
+        if (parallelism < 1) {
+            throw new ValidationException(format("Parallelism must be at least 1, got %s", parallelism));
+        }
+
+        final AtomicLong nextChunk = new AtomicLong();
+        final FairnessAccumulator total = new FairnessAccumulator();
+
+        if (parallelism == 1) {
+            total.merge(analyseChunks(sequence, strips, nextChunk));
+            return new FairnessReport(total);
+        }
+
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            IntStream.range(0, parallelism)
+              .mapToObj(worker -> pool.submit(() -> analyseChunks(sequence, strips, nextChunk)))
+              .toList()
+              .stream()
+              .map(ForkJoinTask::join)
+              .forEach(total::merge);
+        }
+        finally {
+            pool.shutdown();
+        }
+        return new FairnessReport(total);
+    }
+
+    private static FairnessAccumulator analyseChunks(StripSequence sequence, long strips, AtomicLong nextChunk) {
+        final StripGenerationStrategy generator = sequence.getAlgorithm().newGenerator();
+        final Random random = new Random();
+        final byte[] cells = new byte[TicketStrip.CELLS];
+        final FairnessAccumulator accumulator = new FairnessAccumulator();
+
+        long chunkStart;
+        while ((chunkStart = nextChunk.getAndAdd(CHUNK_SIZE)) < strips) {
+            final long chunkEnd = Math.min(chunkStart + CHUNK_SIZE, strips);
+            for (long index = chunkStart; index < chunkEnd; index++) {
+                sequence.generate(index, generator, random, cells, 0);
+                accumulator.add(cells, 0);
+            }
+        }
+        return accumulator;
+    }
+
+}
@@ -0,0 +1,229 @@
+package com.lindar.challenges.jsaliba.analysis;
+
+import com.lindar.challenges.jsaliba.beans.Ticket;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.lindar.challenges.jsaliba.analysis.FairnessAccumulator.COUNTS;
+import static com.lindar.challenges.jsaliba.analysis.FairnessAccumulator.NUMBERS;
+import static com.lindar.challenges.jsaliba.beans.TicketStrip.TICKETS;
+import static java.lang.String.format;
+import static java.lang.System.lineSeparator;
+
+/**
+ * How numbers were laid out across the strips tallied by a {@link FairnessAccumulator}, tested against
+ * strips drawn uniformly at random from all valid strips.
+ * <br><br>
+ * Whatever the exact distribution of uniformly random strips, swapping any two tickets of a valid strip,
+ * or any two rows of a ticket (re-sorting its columns), yields another valid strip. Hence, if strips are
+ * uniformly random:
+ * <ul>
+ * <li>Every cell of a column is equally likely to house a number (the column's numbers over its 18 cells).</li>
+ * <li>Every ticket houses the same count of numbers in a column, on average (the column's numbers over 6 tickets).</li>
+ * <li>Every ticket is equally likely to house any given number.</li>
+ * </ul>
+ * Each of these is chi-square tested, per column and per number. The cells (or tickets) sharing a column
+ * always add up to the same count, so their tallies are negatively correlated by exactly {@code -1 / (n - 1)}
+ * of their variance; the statistics account for it, and lose a degree of freedom to it.
+ */
+public class FairnessReport {
+
+    private static final int CELLS_PER_COLUMN = TICKETS * Ticket.ROWS;
+
+    private final long strips;
+    private final double[] occupancy;
+    private final double[] columnCounts;
+    private final double[] meanColumnCounts;
+    private final List<ChiSquareTest> occupancyTests = new ArrayList<>();
+    private final List<ChiSquareTest> columnCountTests = new ArrayList<>();
+    private final List<ChiSquareTest> numberTests = new ArrayList<>();
+
+    FairnessReport(FairnessAccumulator accumulator) {
+        this.strips = accumulator.strips;
+        this.occupancy = new double[accumulator.occupancy.length];
+        this.columnCounts = new double[Ticket.COLUMNS * COUNTS];
+        this.meanColumnCounts = new double[TICKETS * Ticket.COLUMNS];
+        if (strips == 0) {
+            return;
+        }
+
+        for (int cell = 0; cell < occupancy.length; cell++) {
+            occupancy[cell] = (double) accumulator.occupancy[cell] / strips;
+        }
+        for (int column = 0; column < Ticket.COLUMNS; column++) {
+            occupancyTests.add(testOccupancy(accumulator, column));
+            columnCountTests.add(testColumnCounts(accumulator, column));
+        }
+        for (int number = 1; number <= NUMBERS; number++) {
+            numberTests.add(testNumber(accumulator, number));
+        }
+    }
+
+    /**
+     * @return The numbers housed by the given column, out of the 90.
+     */
+    static int columnSize(int column) {
+        return column == 0 ? 9 : column == Ticket.COLUMNS - 1 ? 11 : 10;
+    }
+
+    private ChiSquareTest testOccupancy(FairnessAccumulator accumulator, int column) {
+        final double p = (double) columnSize(column) / CELLS_PER_COLUMN;
+        final double expected = strips * p;
+        final double variance = strips * p * (1 - p);
+
+        double sum = 0;
+        for (int ticket = 0; ticket < TICKETS; ticket++) {
+            for (int row = 0; row < Ticket.ROWS; row++) {
+                final double deviation = accumulator.occupancy[ticket * Ticket.CELLS + row * Ticket.COLUMNS + column] - expected;
+                sum += deviation * deviation / variance;
+            }
+        }
+        final double statistic = sum * (CELLS_PER_COLUMN - 1) / CELLS_PER_COLUMN;
+        return new ChiSquareTest(format("Cell occupancy, column %s", column + 1), statistic, CELLS_PER_COLUMN - 1);
+    }
+
+    private ChiSquareTest testColumnCounts(FairnessAccumulator accumulator, int column) {
+        final double mean = (double) columnSize(column) / TICKETS;
+
+        // Variance of a single ticket's count, pooled over all tickets
+        long total = 0;
+        double squares = 0;
+        final long[] sums = new long[TICKETS];
+        for (int ticket = 0; ticket < TICKETS; ticket++) {
+            for (int count = 0; count < COUNTS; count++) {
+                final long tickets = accumulator.columnCounts[(ticket * Ticket.COLUMNS + column) * COUNTS + count];
+                columnCounts[column * COUNTS + count] += tickets;
+                total += tickets;
+                squares += (double) tickets * count * count;
+                sums[ticket] += tickets * count;
+            }
+            meanColumnCounts[ticket * Ticket.COLUMNS + column] = (double) sums[ticket] / strips;
+        }
+        for (int count = 0; count < COUNTS; count++) {
+            columnCounts[column * COUNTS + count] /= total;
+        }
+        final double variance = squares / total - mean * mean;
+
+        double statistic = 0;
+        if (variance > 0) {
+            for (long sum : sums) {
+                final double deviation = sum - strips * mean;
+                statistic += deviation * deviation;
+            }
+            statistic /= strips * variance * TICKETS / (TICKETS - 1);
+        }
+        return new ChiSquareTest(format("Column counts, column %s", column + 1), statistic, TICKETS - 1);
+    }
+
+    private ChiSquareTest testNumber(FairnessAccumulator accumulator, int number) {
+        final double expected = (double) strips / TICKETS;
+        double statistic = 0;
+        for (int ticket = 0; ticket < TICKETS; ticket++) {
+            final double deviation = accumulator.numberTickets[number * TICKETS + ticket] - expected;
+            statistic += deviation * deviation / expected;
+        }
+        return new ChiSquareTest(format("Tickets housing number %s", number), statistic, TICKETS - 1);
+    }
+
+    public long getStrips() {
+        return strips;
+    }
+
+    /**
+     * @return The share of strips housing a number in the given cell (all 0-based).
+     */
+    public double getOccupancy(int ticket, int row, int column) {
+        return occupancy[ticket * Ticket.CELLS + row * Ticket.COLUMNS + column];
+    }
+
+    /**
+     * @return The share of tickets housing {@code count} numbers (1 to 3) in the given column.
+     */
+    public double getColumnCountShare(int column, int count) {
+        return columnCounts[column * COUNTS + count];
+    }
+
+    /**
+     * @return The average count of numbers the given ticket houses in the given column.
+     */
+    public double getMeanColumnCount(int ticket, int column) {
+        return meanColumnCounts[ticket * Ticket.COLUMNS + column];
+    }
+
+    /**
+     * @return Every test carried out: cell occupancy and column counts for every column, then every number.
+     */
+    public List<ChiSquareTest> getTests() {
+        final List<ChiSquareTest> tests = new ArrayList<>(occupancyTests);
+        tests.addAll(columnCountTests);
+        tests.addAll(numberTests);
+        return Collections.unmodifiableList(tests);
+    }
+
+    /**
+     * @return The smallest p-value of all tests, multiplied by the number of tests (Bonferroni correction),
+     * i.e. the probability of any test faring as badly if strips are uniformly random.
+     */
+    public double getAdjustedPValue() {
+        final List<ChiSquareTest> tests = getTests();
+        final double smallest = tests.stream().mapToDouble(ChiSquareTest::getPValue).min().orElse(1);
+        return Math.min(1, smallest * tests.size());
+    }
+
+    /**
+     * @return Whether no test rejects uniformly random strips at the given significance level (e.g. 0.001).
+     */
+    public boolean isUniform(double significance) {
+        return getAdjustedPValue() >= significance;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder(format("Fairness of %,d strips", strips)).append(lineSeparator());
+
+        sb.append("Cell occupancy (% of strips housing a number in each cell, ideally ");
+        for (int column = 0; column < Ticket.COLUMNS; column++) {
+            sb.append(format(column == 0 ? "%.1f" : " / %.1f", 100d * columnSize(column) / CELLS_PER_COLUMN));
+        }
+        sb.append("):").append(lineSeparator());
+        for (int ticket = 0; ticket < TICKETS; ticket++) {
+            for (int row = 0; row < Ticket.ROWS; row++) {
+                sb.append(row == 0 ? format("  Ticket %s ", ticket + 1) : "           ");
+                for (int column = 0; column < Ticket.COLUMNS; column++) {
+                    sb.append(format(" %5.1f", 100 * getOccupancy(ticket, row, column)));
+                }
+                sb.append(lineSeparator());
+            }
+        }
+
+        sb.append("Column counts (% of tickets housing 1 / 2 / 3 numbers, then the mean count of every ticket):").append(lineSeparator());
+        for (int column = 0; column < Ticket.COLUMNS; column++) {
+            sb.append(format("  Column %s  %5.1f %5.1f %5.1f  |", column + 1,
+                             100 * getColumnCountShare(column, 1), 100 * getColumnCountShare(column, 2), 100 * getColumnCountShare(column, 3)));
+            for (int ticket = 0; ticket < TICKETS; ticket++) {
+                sb.append(format(" %.3f", getMeanColumnCount(ticket, column)));
+            }
+            sb.append(lineSeparator());
+        }
+
+        sb.append("Chi-square tests against uniformly random strips:").append(lineSeparator());
+        for (ChiSquareTest test : occupancyTests) {
+            sb.append("  ").append(test).append(lineSeparator());
+        }
+        for (ChiSquareTest test : columnCountTests) {
+            sb.append("  ").append(test).append(lineSeparator());
+        }
+        numberTests.stream()
+          .min(Comparator.comparingDouble(ChiSquareTest::getPValue))
+          .ifPresent(test -> sb.append("  ").append(test).append(" (lowest p-value of all 90 numbers)").append(lineSeparator()));
+
+        final double adjusted = getAdjustedPValue();
+        sb.append(format("Adjusted p-value over %s tests: %.4g - %s", getTests().size(), adjusted,
+                         adjusted < 0.001 ? "NOT uniformly random" : "consistent with uniformly random strips"));
+        return sb.toString();
+    }
+
+}
@@ -3,6 +3,7 @@ package com.lindar.challenges.jsaliba.beans;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
+import java.util.random.RandomGenerator;
 
 public class CollectionShuffler {
 
@@ -21,4 +22,56 @@ public class CollectionShuffler {
         return input;
     }
 
+    /**
+     * Shuffles a list against any {@link RandomGenerator}, which {@link Collections#shuffle(List, Random)}
+     * does not accept before Java 21 (see <a href="https://bugs.openjdk.org/browse/JDK-8294693">JDK-8294693</a>).
+     * Given a {@link java.util.Random}, it produces exactly the same permutation as {@link Collections#shuffle(List, Random)}.
+     *
+     * @param input The input list
+     * @param random A {@link RandomGenerator} to control randomness
+     * @return The shuffled, input list.
+     */
+    public static <T> List<T> shuffle(List<T> input, RandomGenerator random) {
+        for (int i = input.size(); i > 1; i--) {
+            Collections.swap(input, i - 1, random.nextInt(i));
+        }
+        return input;
+    }
+
+    /**
+     * Shuffles a primitive array in place against a given random number generator,
+     * drawing exactly the same random numbers (and hence producing exactly the same
+     * permutation) as {@link Collections#shuffle(List, Random)} would on an equivalent list.
+     *
+     * @param input The input array
+     * @param random A {@link RandomGenerator} to control randomness
+     */
+    public static void shuffle(byte[] input, RandomGenerator random) {
+        shuffle(input, input.length, random);
+    }
+
+    /**
+     * Shuffles the first {@code length} elements of a primitive array in place (Fisher-Yates).
+     */
+    public static void shuffle(byte[] input, int length, RandomGenerator random) {
+        for (int i = length; i > 1; i--) {
+            final int j = random.nextInt(i);
+            final byte swapped = input[i - 1];
+            input[i - 1] = input[j];
+            input[j] = swapped;
+        }
+    }
+
+    /**
+     * Shuffles the first {@code length} elements of a primitive array in place (Fisher-Yates).
+     */
+    public static void shuffle(int[] input, int length, RandomGenerator random) {
+        for (int i = length; i > 1; i--) {
+            final int j = random.nextInt(i);
+            final int swapped = input[i - 1];
+            input[i - 1] = input[j];
+            input[j] = swapped;
+        }
+    }
+
 }
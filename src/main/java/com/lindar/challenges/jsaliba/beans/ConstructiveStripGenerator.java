@@ -0,0 +1,252 @@
+package com.lindar.challenges.jsaliba.beans;
+
+import com.lindar.challenges.jsaliba.metrics.GenerationRecorder;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+import static com.lindar.challenges.jsaliba.beans.TicketStrip.BLANK;
+import static com.lindar.challenges.jsaliba.beans.TicketStrip.TICKETS;
+
+/**
+ * Generates ticket strips by construction, rather than by filling tickets number by number:
+ * <ol>
+ * <li>Sample the 6 x 9 matrix of how many numbers each ticket houses in each column: every entry
+ * between 1 and 3, every ticket (row of the matrix) adding up to 15, and every column to the
+ * 9, 10 ... 10, 11 numbers it houses.</li>
+ * <li>Shuffle the numbers of every column, and deal them to the tickets as per the matrix,
+ * sorting each ticket's column.</li>
+ * <li>Sample the layout of every ticket uniformly, among all those placing 5 numbers on each row.</li>
+ * </ol>
+ * Unlike {@link StripGenerator}, no ticket is favoured over another: the first step hands out the
+ * 36 numbers in excess of one per column to tickets at random, weighted by how many more each ticket
+ * can take, and starts over on the rare (about 1.6%) dead end.
+ */
+public class ConstructiveStripGenerator implements StripGenerationStrategy {
+
+    // Numbers housed by each column of the strip, one per ticket and column at least.
+    private static final int[] COLUMN_SIZES = new int[Ticket.COLUMNS];
+    // Columns housing the most numbers go first, so as to hit fewer dead ends.
+    private static final int[] COLUMN_ORDER = { 8, 1, 2, 3, 4, 5, 6, 7, 0 };
+    private static final int EXTRAS_PER_TICKET = Ticket.MAX_NUMBERS - Ticket.COLUMNS;
+    private static final int[] FACTORIALS = { 1, 1, 2, 6, 24, 120, 720, 5040, 40320, 362880 };
+
+    static {
+        for (int column = 0; column < Ticket.COLUMNS; column++) {
+            COLUMN_SIZES[column] = StripGenerator.COLUMN_STARTS[column + 1] - StripGenerator.COLUMN_STARTS[column];
+        }
+    }
+
+    // Numbers housed by each column of each ticket, indexed by ticket * 9 + column.
+    private final int[] columnSizes = new int[TICKETS * Ticket.COLUMNS];
+    // Numbers each ticket can still take, over and above one per column.
+    private final int[] capacities = new int[TICKETS];
+    private final int[] extras = new int[TICKETS];
+    // Sorted numbers of each column of each ticket, 3 slots per column.
+    private final byte[] columnNumbers = new byte[TICKETS * Ticket.COLUMNS * Ticket.ROWS];
+    private final byte[] shuffled = new byte[COLUMN_SIZES[Ticket.COLUMNS - 1]];
+    // Row of every column housing a single number, and blank row of every column housing two.
+    private final int[] singleRows = new int[Ticket.COLUMNS];
+    private final int[] blankRows = new int[Ticket.COLUMNS];
+
+    private final GenerationRecorder recorder;
+    private final boolean instrumented;
+
+    public ConstructiveStripGenerator() {
+        this(GenerationRecorder.NOOP);
+    }
+
+    public ConstructiveStripGenerator(GenerationRecorder recorder) {
+        this.recorder = recorder;
+        this.instrumented = recorder != GenerationRecorder.NOOP;
+    }
+
+    @Override
+    public void generate(RandomGenerator random, byte[] target, int offset) {
+        final long start = instrumented ? System.nanoTime() : 0;
+
+        sampleColumnSizes(random);
+        dealNumbers(random);
+        Arrays.fill(target, offset, offset + TicketStrip.CELLS, (byte) BLANK);
+        for (int ticket = 0; ticket < TICKETS; ticket++) {
+            layOutTicket(random, ticket, target, offset + ticket * Ticket.CELLS);
+        }
+
+        if (instrumented) {
+            recorder.recordStrip(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Every ticket houses one number per column, plus 6 more spread across its columns. Column by column,
+     * the numbers in excess of one per ticket are handed out one at a time, to a ticket picked at random
+     * amongst those which can take more (i.e. housing less than 3 numbers in the column, and less than 15
+     * overall), weighted by how many more numbers the ticket can take.
+     */
+    void sampleColumnSizes(RandomGenerator random) {
+        boolean deadEnd;
+        do {
+            deadEnd = false;
+            Arrays.fill(capacities, EXTRAS_PER_TICKET);
+
+            for (int column : COLUMN_ORDER) {
+                Arrays.fill(extras, 0);
+                for (int extra = COLUMN_SIZES[column] - TICKETS; extra > 0 && !deadEnd; extra--) {
+                    int total = 0;
+                    for (int ticket = 0; ticket < TICKETS; ticket++) {
+                        if (extras[ticket] < Ticket.ROWS - 1) total += capacities[ticket];
+                    }
+                    if (total == 0) {
+                        deadEnd = true;
+                        break;
+                    }
+
+                    int pick = random.nextInt(total);
+                    int ticket = 0;
+                    while (extras[ticket] == Ticket.ROWS - 1 || pick >= capacities[ticket]) {
+                        if (extras[ticket] < Ticket.ROWS - 1) pick -= capacities[ticket];
+                        ticket++;
+                    }
+                    extras[ticket]++;
+                    capacities[ticket]--;
+                }
+                if (deadEnd) {
+                    break;
+                }
+
+                for (int ticket = 0; ticket < TICKETS; ticket++) {
+                    columnSizes[ticket * Ticket.COLUMNS + column] = 1 + extras[ticket];
+                }
+            }
+        } while (deadEnd);
+    }
+
+    /**
+     * Shuffles the numbers of every column, then deals them to the tickets as per the column sizes.
+     */
+    private void dealNumbers(RandomGenerator random) {
+        for (int column = 0; column < Ticket.COLUMNS; column++) {
+            final int size = COLUMN_SIZES[column];
+            for (int i = 0; i < size; i++) {
+                shuffled[i] = (byte) (StripGenerator.COLUMN_STARTS[column] + i + 1);
+            }
+            CollectionShuffler.shuffle(shuffled, size, random);
+
+            int next = 0;
+            for (int ticket = 0; ticket < TICKETS; ticket++) {
+                final int slot = (ticket * Ticket.COLUMNS + column) * Ticket.ROWS;
+                final int count = columnSizes[ticket * Ticket.COLUMNS + column];
+                for (int i = 0; i < count; i++) {
+                    columnNumbers[slot + i] = shuffled[next++];
+                }
+                sort(slot, count);
+            }
+        }
+    }
+
+    /**
+     * Picks the rows of every column of the ticket, such that every row houses 5 numbers, uniformly
+     * amongst all possible layouts.
+     * <br><br>
+     * Columns housing 3 numbers fill every row. Of the rest, say {@code n1} columns house a single number
+     * and {@code n2} two, for every row to house 5 numbers, row {@code r} has to house the single number of
+     * {@code a[r]} columns and be left blank by {@code a[r] - d} columns of two, with {@code d} the same for
+     * every row. There are {@code n1! / (a[0]! a[1]! a[2]!) * n2! / (b[0]! b[1]! b[2]!)} layouts for any
+     * such {@code a} (and {@code b = a - d}), so {@code a} is drawn with that weight, and the columns are
+     * then shuffled across rows accordingly.
+     */
+    private void layOutTicket(RandomGenerator random, int ticket, byte[] target, int ticketOffset) {
+        int singles = 0;
+        int doubles = 0;
+        int triples = 0;
+        for (int column = 0; column < Ticket.COLUMNS; column++) {
+            switch (columnSizes[ticket * Ticket.COLUMNS + column]) {
+                case 1 -> singles++;
+                case 2 -> doubles++;
+                default -> triples++;
+            }
+        }
+        final int d = Ticket.MAX_NUMBERS / Ticket.ROWS - triples - doubles;
+
+        // Draw the number of singles on each row, weighted by the layouts it allows
+        int total = 0;
+        for (int a0 = 0; a0 <= singles; a0++) {
+            for (int a1 = 0; a0 + a1 <= singles; a1++) {
+                total += layouts(singles, doubles, d, a0, a1);
+            }
+        }
+        int pick = random.nextInt(total);
+        int a0 = 0;
+        int a1 = 0;
+        search:
+        for (a0 = 0; a0 <= singles; a0++) {
+            for (a1 = 0; a0 + a1 <= singles; a1++) {
+                pick -= layouts(singles, doubles, d, a0, a1);
+                if (pick < 0) break search;
+            }
+        }
+        spread(singleRows, singles, a0, a1, random);
+        spread(blankRows, doubles, a0 - d, a1 - d, random);
+
+        int single = 0;
+        int dbl = 0;
+        for (int column = 0; column < Ticket.COLUMNS; column++) {
+            final int slot = (ticket * Ticket.COLUMNS + column) * Ticket.ROWS;
+            final int top = ticketOffset + column;
+            switch (columnSizes[ticket * Ticket.COLUMNS + column]) {
+                case 1 -> target[top + singleRows[single++] * Ticket.COLUMNS] = columnNumbers[slot];
+                case 2 -> {
+                    final int blank = blankRows[dbl++];
+                    int number = slot;
+                    for (int row = 0; row < Ticket.ROWS; row++) {
+                        if (row != blank) target[top + row * Ticket.COLUMNS] = columnNumbers[number++];
+                    }
+                }
+                default -> {
+                    for (int row = 0; row < Ticket.ROWS; row++) {
+                        target[top + row * Ticket.COLUMNS] = columnNumbers[slot + row];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The number of layouts placing {@code a0}, {@code a1} and the rest of the single numbers on
+     * rows 0, 1 and 2 respectively, or 0 if no layout does.
+     */
+    private static int layouts(int singles, int doubles, int d, int a0, int a1) {
+        final int a2 = singles - a0 - a1;
+        final int b0 = a0 - d;
+        final int b1 = a1 - d;
+        final int b2 = a2 - d;
+        if (b0 < 0 || b1 < 0 || b2 < 0) {
+            return 0;
+        }
+        return FACTORIALS[singles] / (FACTORIALS[a0] * FACTORIALS[a1] * FACTORIALS[a2])
+               * (FACTORIALS[doubles] / (FACTORIALS[b0] * FACTORIALS[b1] * FACTORIALS[b2]));
+    }
+
+    /**
+     * Fills {@code rows} with {@code first} 0s, {@code second} 1s and 2s for the rest, in random order.
+     */
+    private static void spread(int[] rows, int count, int first, int second, RandomGenerator random) {
+        for (int i = 0; i < count; i++) {
+            rows[i] = i < first ? 0 : i < first + second ? 1 : 2;
+        }
+        CollectionShuffler.shuffle(rows, count, random);
+    }
+
+    private void sort(int slot, int count) {
+        for (int i = slot + 1; i < slot + count; i++) {
+            final byte number = columnNumbers[i];
+            int j = i - 1;
+            while (j >= slot && columnNumbers[j] > number) {
+                columnNumbers[j + 1] = columnNumbers[j];
+                j--;
+            }
+            columnNumbers[j + 1] = number;
+        }
+    }
+
+}
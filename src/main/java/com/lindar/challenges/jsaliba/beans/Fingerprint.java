@@ -0,0 +1,125 @@
+package com.lindar.challenges.jsaliba.beans;
+
+import static com.lindar.challenges.jsaliba.beans.TicketStrip.BLANK;
+
+/**
+ * A 128-bit fingerprint of a ticket or a strip, computed straight from its packed cells.
+ * <br><br>
+ * A ticket's fingerprint is its canonical form: each of its 27 cells, row-major, packed into 4 bits as
+ * {@code 0} for a blank, or as the number's offset within its column plus one (1 - 9 in the first column,
+ * 1 - 10 in the middle ones, 1 - 11 in the last). That's 108 bits, so two tickets share a fingerprint if,
+ * and only if, they are identical. Both halves of a ticket's fingerprint are never zero, as the first and
+ * last rows always house numbers.
+ * <br><br>
+ * A strip's fingerprint is a hash of its six tickets' fingerprints, and is also never zero in either half.
+ */
+public final class Fingerprint {
+
+    // Cells packed into the low half, the remaining 11 go into the high half.
+    private static final int LOW_CELLS = 16;
+
+    // First number of each column, less one, such that every number is packed as 1 onwards.
+    private static final int[] COLUMN_BASES = { 0, 9, 19, 29, 39, 49, 59, 69, 79 };
+
+    // Same constants as java.util.SplittableRandom
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final long high;
+    private final long low;
+
+    public Fingerprint(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    /**
+     * @return The fingerprint of the ticket whose 27 cells start at {@code cells[offset]}.
+     */
+    public static Fingerprint ofTicket(byte[] cells, int offset) {
+        return new Fingerprint(ticketHigh(cells, offset), ticketLow(cells, offset));
+    }
+
+    /**
+     * @return The fingerprint of the strip whose 162 cells start at {@code cells[offset]}.
+     */
+    public static Fingerprint ofStrip(byte[] cells, int offset) {
+        long high = GOLDEN_GAMMA;
+        long low = ~GOLDEN_GAMMA;
+        for (int ticket = 0; ticket < TicketStrip.TICKETS; ticket++) {
+            final int ticketOffset = offset + ticket * Ticket.CELLS;
+            final long ticketHigh = ticketHigh(cells, ticketOffset);
+            final long ticketLow = ticketLow(cells, ticketOffset);
+            // Two lanes, seeded and fed differently, so that they don't collide together.
+            high = mix(mix(high ^ ticketLow) ^ ticketHigh);
+            low = mix(mix(low + ticketHigh) + ticketLow);
+        }
+        return new Fingerprint(high != 0 ? high : GOLDEN_GAMMA, low != 0 ? low : GOLDEN_GAMMA);
+    }
+
+    /**
+     * @return The low half of the fingerprint of the ticket whose 27 cells start at {@code cells[offset]}.
+     */
+    public static long ticketLow(byte[] cells, int offset) {
+        long low = 0;
+        for (int cell = 0; cell < LOW_CELLS; cell++) {
+            low = low << 4 | pack(cells[offset + cell], cell % Ticket.COLUMNS);
+        }
+        return low;
+    }
+
+    /**
+     * @return The high half of the fingerprint of the ticket whose 27 cells start at {@code cells[offset]}.
+     */
+    public static long ticketHigh(byte[] cells, int offset) {
+        long high = 0;
+        for (int cell = LOW_CELLS; cell < Ticket.CELLS; cell++) {
+            high = high << 4 | pack(cells[offset + cell], cell % Ticket.COLUMNS);
+        }
+        return high;
+    }
+
+    /**
+     * @return A well-mixed 64-bit hash of the fingerprint {@code (high, low)}, fit for hash tables and Bloom filters.
+     */
+    public static long hash(long high, long low) {
+        return mix(high * GOLDEN_GAMMA ^ low);
+    }
+
+    private static int pack(byte number, int column) {
+        return number == BLANK || number == Ticket.UNSET ? 0 : number - COLUMN_BASES[column];
+    }
+
+    // SplitMix64's finalizer, as in StripSequence.seedOf
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    public long getHigh() {
+        return high;
+    }
+
+    public long getLow() {
+        return low;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Fingerprint other && high == other.high && low == other.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(hash(high, low));
+    }
+
+    /**
+     * @return The fingerprint as 32 hexadecimal digits, high half first.
+     */
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", high, low);
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.lindar.challenges.jsaliba.beans;
+
+/**
+ * Keeps track of which chunks of strips are done during bulk generation (see
+ * {@link StripSequence#generate(long, long, int, StripSink, GenerationProgress)}), so that a generation
+ * which was interrupted can be resumed without generating those chunks again.
+ * <br><br>
+ * Implementations must be thread-safe, since chunks are reported by the generating threads.
+ */
+public interface GenerationProgress {
+
+    /**
+     * Tracks nothing, every chunk is generated.
+     */
+    GenerationProgress NONE = new GenerationProgress() {
+        @Override
+        public boolean isCompleted(long fromIndex, long toIndex) {
+            return false;
+        }
+
+        @Override
+        public void completed(long fromIndex, long toIndex) {
+        }
+    };
+
+    /**
+     * @return Whether strips {@code [fromIndex, toIndex)} were all handed over to the sink already.
+     */
+    boolean isCompleted(long fromIndex, long toIndex);
+
+    /**
+     * Called once strips {@code [fromIndex, toIndex)} were all handed over to the sink.
+     */
+    void completed(long fromIndex, long toIndex);
+
+}
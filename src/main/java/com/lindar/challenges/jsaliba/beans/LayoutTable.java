@@ -0,0 +1,155 @@
+package com.lindar.challenges.jsaliba.beans;
+
+import java.util.Arrays;
+
+/**
+ * Every valid ticket layout (see {@link TicketLayouts}), grouped by column counts: how many numbers the layout
+ * places in each column. There are 1,554 column counts (every column housing 1 - 3 numbers, 15 all in all), each
+ * allowing anywhere between a handful and a few thousand layouts. Built once, on first use, in about 3 MB.
+ * <br><br>
+ * Column counts are packed into a {@code long}, 4 bits per column (column {@code c} at bits {@code 4c - 4c+3}),
+ * such that adding packed counts adds them column by column, as long as no column exceeds 15. Each is
+ * identified by its index in {@code [0, size())}, in order of the rank of its first layout.
+ */
+public final class LayoutTable {
+
+    public static final int COUNT_BITS = 4;
+
+    private static final long[] COUNTS;
+    private static final int[] LAYOUT_STARTS;
+    private static final int[] LAYOUTS;
+    private static final double[] WEIGHTS;
+
+    // Open addressing, from packed counts to their index
+    private static final long[] KEYS;
+    private static final int[] INDICES;
+    private static final int HASH_SHIFT;
+
+    static {
+        // First pass, index column counts and count their layouts
+        final long[] counts = new long[TicketLayouts.COUNT];
+        final int[] layoutCounts = new int[TicketLayouts.COUNT];
+        final int[] indices = new int[TicketLayouts.COUNT];
+        final long[] keys = new long[4096];
+        final int[] slots = new int[keys.length];
+        final int hashShift = Long.SIZE - Integer.numberOfTrailingZeros(keys.length);
+        int size = 0;
+
+        for (int rank = 0; rank < TicketLayouts.COUNT; rank++) {
+            final long packed = packedCounts(TicketLayouts.unrank(rank));
+            int slot = slot(packed, hashShift);
+            while (keys[slot] != 0 && keys[slot] != packed) {
+                slot = (slot + 1) & (keys.length - 1);
+            }
+            if (keys[slot] == 0) {
+                keys[slot] = packed;
+                slots[slot] = size;
+                counts[size++] = packed;
+            }
+            indices[rank] = slots[slot];
+            layoutCounts[slots[slot]]++;
+        }
+
+        // Second pass, group layouts by column counts, in order of rank
+        COUNTS = Arrays.copyOf(counts, size);
+        LAYOUT_STARTS = new int[size + 1];
+        for (int index = 0; index < size; index++) {
+            LAYOUT_STARTS[index + 1] = LAYOUT_STARTS[index] + layoutCounts[index];
+        }
+        LAYOUTS = new int[TicketLayouts.COUNT];
+        final int[] next = Arrays.copyOf(LAYOUT_STARTS, size);
+        for (int rank = 0; rank < TicketLayouts.COUNT; rank++) {
+            LAYOUTS[next[indices[rank]]++] = TicketLayouts.unrank(rank);
+        }
+
+        WEIGHTS = new double[size];
+        for (int index = 0; index < size; index++) {
+            double factorials = 1;
+            for (int column = 0; column < Ticket.COLUMNS; column++) {
+                factorials *= count(COUNTS[index], column) == 3 ? 6 : count(COUNTS[index], column);
+            }
+            WEIGHTS[index] = layoutCounts[index] / factorials;
+        }
+
+        KEYS = keys;
+        INDICES = slots;
+        HASH_SHIFT = hashShift;
+    }
+
+    private LayoutTable() {
+    }
+
+    /**
+     * @return Number of distinct column counts.
+     */
+    public static int size() {
+        return COUNTS.length;
+    }
+
+    /**
+     * @return The packed column counts of the given index.
+     */
+    public static long counts(int index) {
+        return COUNTS[index];
+    }
+
+    /**
+     * @return How many numbers {@code counts} places in {@code column}.
+     */
+    public static int count(long counts, int column) {
+        return (int) (counts >>> (column * COUNT_BITS)) & ((1 << COUNT_BITS) - 1);
+    }
+
+    /**
+     * @return The index of the given packed column counts, or {@code -1} if no layout has them.
+     */
+    public static int indexOf(long counts) {
+        int slot = slot(counts, HASH_SHIFT);
+        while (KEYS[slot] != 0) {
+            if (KEYS[slot] == counts) {
+                return INDICES[slot];
+            }
+            slot = (slot + 1) & (KEYS.length - 1);
+        }
+        return -1;
+    }
+
+    /**
+     * @return Number of layouts with the column counts of the given index.
+     */
+    public static int layoutCount(int index) {
+        return LAYOUT_STARTS[index + 1] - LAYOUT_STARTS[index];
+    }
+
+    /**
+     * @return The {@code n}th layout, in order of rank, with the column counts of the given index.
+     */
+    public static int layout(int index, int n) {
+        return LAYOUTS[LAYOUT_STARTS[index] + n];
+    }
+
+    /**
+     * @return The number of layouts with the column counts of the given index, over the product of the
+     * factorials of its counts. A strip's column counts are as likely as the product of the weights
+     * of its tickets' column counts (see {@link TemplateStripGenerator}).
+     */
+    public static double weight(int index) {
+        return WEIGHTS[index];
+    }
+
+    /**
+     * @return The column counts of {@code layout}, packed.
+     */
+    public static long packedCounts(int layout) {
+        long counts = 0;
+        for (int column = 0; column < Ticket.COLUMNS; column++) {
+            counts |= (long) Integer.bitCount(TicketLayouts.columnMask(layout, column)) << (column * COUNT_BITS);
+        }
+        return counts;
+    }
+
+    static int slot(long key, int shift) {
+        return (int) ((key * 0x9e3779b97f4a7c15L) >>> shift);
+    }
+
+}
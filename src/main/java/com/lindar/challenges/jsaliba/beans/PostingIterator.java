@@ -0,0 +1,180 @@
+package com.lindar.challenges.jsaliba.beans;
+
+import java.util.Arrays;
+
+/**
+ * Iterates over ticket serials in ascending order, e.g. those housing a number in a row of a {@link TicketStore}.
+ * <br><br>
+ * Iterators can be combined: {@link #and(PostingIterator...)} yields serials found by all of them (leapfrogging
+ * from one to the next through {@link #advance(long)}, so only a fraction of the postings are ever decoded),
+ * {@link #or(PostingIterator...)} those found by any of them. Iterators are not thread-safe.
+ */
+public abstract class PostingIterator {
+
+    /**
+     * Returned once there are no more serials.
+     */
+    public static final long NO_MORE = Long.MAX_VALUE;
+
+    /**
+     * @return The serial last returned by {@link #next()} or {@link #advance(long)}, -1 before either is called.
+     */
+    public abstract long current();
+
+    /**
+     * @return The next serial, or {@link #NO_MORE}.
+     */
+    public abstract long next();
+
+    /**
+     * Skips to the first serial at least {@code target}, which has to be greater than {@link #current()}.
+     *
+     * @return That serial, or {@link #NO_MORE}.
+     */
+    public abstract long advance(long target);
+
+    /**
+     * @return The most serials this iterator may return, used to lead intersections with the shortest iterator.
+     */
+    public abstract long cost();
+
+    /**
+     * @return Up to {@code limit} of the remaining serials.
+     */
+    public long[] next(int limit) {
+        long[] serials = new long[Math.min(limit, (int) Math.min(cost(), 1024))];
+        int found = 0;
+        long serial;
+        while (found < limit && (serial = next()) != NO_MORE) {
+            if (found == serials.length) {
+                serials = Arrays.copyOf(serials, (int) Math.min(limit, Math.max(16, serials.length * 2L)));
+            }
+            serials[found++] = serial;
+        }
+        return found == serials.length ? serials : Arrays.copyOf(serials, found);
+    }
+
+    /**
+     * @return How many serials remain, consuming them all.
+     */
+    public long count() {
+        long count = 0;
+        while (next() != NO_MORE) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return An iterator over the serials found by every one of {@code iterators}.
+     */
+    public static PostingIterator and(PostingIterator... iterators) {
+        if (iterators.length == 1) {
+            return iterators[0];
+        }
+        return new Intersection(iterators);
+    }
+
+    /**
+     * @return An iterator over the serials found by any of {@code iterators}, each returned once.
+     */
+    public static PostingIterator or(PostingIterator... iterators) {
+        if (iterators.length == 1) {
+            return iterators[0];
+        }
+        return new Union(iterators);
+    }
+
+    private static final class Intersection extends PostingIterator {
+
+        private final PostingIterator[] iterators;
+        private long current = -1;
+
+        private Intersection(PostingIterator[] iterators) {
+            this.iterators = iterators.clone();
+            // Lead with the shortest
+            Arrays.sort(this.iterators, (a, b) -> Long.compare(a.cost(), b.cost()));
+        }
+
+        @Override
+        public long current() {
+            return current;
+        }
+
+        @Override
+        public long next() {
+            return current = leapfrog(iterators[0].next());
+        }
+
+        @Override
+        public long advance(long target) {
+            return current = leapfrog(iterators[0].advance(target));
+        }
+
+        @Override
+        public long cost() {
+            return iterators[0].cost();
+        }
+
+        private long leapfrog(long candidate) {
+            search:
+            while (candidate != NO_MORE) {
+                for (int i = 1; i < iterators.length; i++) {
+                    final PostingIterator iterator = iterators[i];
+                    final long serial = iterator.current() < candidate ? iterator.advance(candidate) : iterator.current();
+                    if (serial != candidate) {
+                        candidate = serial == NO_MORE ? NO_MORE : iterators[0].advance(serial);
+                        continue search;
+                    }
+                }
+                return candidate;
+            }
+            return NO_MORE;
+        }
+    }
+
+    private static final class Union extends PostingIterator {
+
+        private final PostingIterator[] iterators;
+        private long current = -1;
+
+        private Union(PostingIterator[] iterators) {
+            this.iterators = iterators.clone();
+        }
+
+        @Override
+        public long current() {
+            return current;
+        }
+
+        @Override
+        public long next() {
+            long lowest = NO_MORE;
+            for (PostingIterator iterator : iterators) {
+                final long serial = iterator.current() <= current ? iterator.next() : iterator.current();
+                lowest = Math.min(lowest, serial);
+            }
+            return current = lowest;
+        }
+
+        @Override
+        public long advance(long target) {
+            long lowest = NO_MORE;
+            for (PostingIterator iterator : iterators) {
+                final long serial = iterator.current() < target ? iterator.advance(target) : iterator.current();
+                lowest = Math.min(lowest, serial);
+            }
+            return current = lowest;
+        }
+
+        @Override
+        public long cost() {
+            long cost = 0;
+            for (PostingIterator iterator : iterators) {
+                cost += iterator.cost();
+            }
+            return cost;
+        }
+    }
+
+}
@@ -0,0 +1,138 @@
+package com.lindar.challenges.jsaliba.beans;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+import static java.lang.String.format;
+
+/**
+ * The random number generators strips can be generated with (see {@link StripSequence#withRandomSource(RandomSource)}).
+ * <br><br>
+ * Reproducible sources are seeded per strip, from the strip's {@link StripSequence#seedOf(long, long) seed},
+ * so that the same master seed always yields the same strips. The rest ignore seeds altogether: strips drawn
+ * from them can not be reproduced, which is the point of {@link #SECURE}.
+ */
+public enum RandomSource {
+
+    /**
+     * {@link java.util.Random}, re-seeded for every strip rather than re-created. The default, and the only
+     * source yielding the same strips as before random sources could be picked.
+     */
+    RANDOM("random", true) {
+        @Override
+        public RandomGenerator seeded(Random reusable, long seed) {
+            if (reusable == null || reusable.getClass() != Random.class) {
+                return new Random(seed);
+            }
+            reusable.setSeed(seed);
+            return reusable;
+        }
+    },
+
+    /**
+     * {@link SplittableRandom} (SplitMix64), created for every strip.
+     */
+    SPLITTABLE("splittable", true) {
+        @Override
+        public RandomGenerator seeded(Random reusable, long seed) {
+            return new SplittableRandom(seed);
+        }
+    },
+
+    /**
+     * {@code L64X128MixRandom}, the LXM generator recommended for general use since Java 17, created for every strip.
+     */
+    L64X128_MIX("l64x128mix", true) {
+        @Override
+        public RandomGenerator seeded(Random reusable, long seed) {
+            return Factories.L64X128_MIX.create(seed);
+        }
+    },
+
+    /**
+     * {@link ThreadLocalRandom}, ignoring seeds.
+     */
+    THREAD_LOCAL("thread-local", false) {
+        @Override
+        public RandomGenerator seeded(Random reusable, long seed) {
+            return ThreadLocalRandom.current();
+        }
+    },
+
+    /**
+     * A cryptographically secure generator (DRBG, seeded by the operating system's entropy), one per thread,
+     * ignoring seeds. For regulated games, where the strips issued must not be predictable.
+     */
+    SECURE("secure", false) {
+        @Override
+        public RandomGenerator seeded(Random reusable, long seed) {
+            return Factories.SECURE_RANDOMS.get();
+        }
+    };
+
+    private final String name;
+    private final boolean reproducible;
+
+    RandomSource(String name, boolean reproducible) {
+        this.name = name;
+        this.reproducible = reproducible;
+    }
+
+    /**
+     * @param reusable A {@link java.util.Random} which may be re-seeded and returned, rather than creating a
+     *                 new generator, or {@code null}.
+     * @param seed The seed of the strip about to be generated, ignored by sources which are not reproducible.
+     * @return A generator to generate a single strip with.
+     */
+    public abstract RandomGenerator seeded(Random reusable, long seed);
+
+    /**
+     * @return The name of the source, as accepted by {@link #of(String)}.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return Whether the same seed always yields the same strip.
+     */
+    public boolean isReproducible() {
+        return reproducible;
+    }
+
+    /**
+     * @return The source of the given name, case-insensitively.
+     */
+    public static RandomSource of(String name) {
+        for (RandomSource source : values()) {
+            if (source.name.equalsIgnoreCase(name.trim())) {
+                return source;
+            }
+        }
+        throw new ValidationException(format("Unknown random source '%s', expected one of random, splittable, l64x128mix, thread-local or secure", name));
+    }
+
+    /**
+     * Only initialised once a source needing them is used.
+     */
+    private static final class Factories {
+
+        private static final RandomGeneratorFactory<RandomGenerator> L64X128_MIX = RandomGeneratorFactory.of("L64X128MixRandom");
+
+        private static final ThreadLocal<SecureRandom> SECURE_RANDOMS = ThreadLocal.withInitial(() -> {
+            try {
+                return SecureRandom.getInstance("DRBG");
+            }
+            catch (NoSuchAlgorithmException e) {
+                return new SecureRandom();
+            }
+        });
+
+    }
+
+}
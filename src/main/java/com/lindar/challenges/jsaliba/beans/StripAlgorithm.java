@@ -0,0 +1,56 @@
+package com.lindar.challenges.jsaliba.beans;
+
+import com.lindar.challenges.jsaliba.metrics.GenerationRecorder;
+
+import java.util.function.Function;
+
+import static java.lang.String.format;
+
+/**
+ * The available strip generation algorithms.
+ */
+public enum StripAlgorithm {
+
+    /**
+     * The original algorithm (see {@link StripGenerator}), filling the first ticket that can house each number.
+     */
+    LEGACY(StripGenerator::new),
+
+    /**
+     * Samples how many numbers each ticket houses in each column first (see {@link ConstructiveStripGenerator}).
+     */
+    CONSTRUCTIVE(ConstructiveStripGenerator::new),
+
+    /**
+     * Samples the layout of every ticket out of a precomputed table, such that every strip is as likely as any other
+     * (see {@link TemplateStripGenerator}).
+     */
+    TEMPLATE(TemplateStripGenerator::new);
+
+    private final Function<GenerationRecorder, StripGenerationStrategy> factory;
+
+    StripAlgorithm(Function<GenerationRecorder, StripGenerationStrategy> factory) {
+        this.factory = factory;
+    }
+
+    public StripGenerationStrategy newGenerator() {
+        return newGenerator(GenerationRecorder.NOOP);
+    }
+
+    public StripGenerationStrategy newGenerator(GenerationRecorder recorder) {
+        return factory.apply(recorder);
+    }
+
+    /**
+     * @return The algorithm of the given name, case-insensitively.
+     */
+    public static StripAlgorithm of(String name) {
+        for (StripAlgorithm algorithm : values()) {
+            if (algorithm.name().equalsIgnoreCase(name.trim())) {
+                return algorithm;
+            }
+        }
+        throw new ValidationException(format("Unknown algorithm '%s', expected one of legacy, constructive or template", name));
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.lindar.challenges.jsaliba.beans;
+
+import static java.lang.String.format;
+
+/**
+ * An in-memory batch of consecutive strips from a {@link StripSequence}, starting
+ * at index 0, stored back to back as packed cells in a single array.
+ */
+public class StripBatch {
+
+    /**
+     * The largest batch that fits in a single array.
+     */
+    public static final int MAX_STRIPS = Integer.MAX_VALUE / TicketStrip.CELLS;
+
+    private final long masterSeed;
+    private final int count;
+    private final byte[] cells;
+
+    private StripBatch(long masterSeed, int count) {
+        this.masterSeed = masterSeed;
+        this.count = count;
+        this.cells = new byte[count * TicketStrip.CELLS];
+    }
+
+    /**
+     * Generates the first {@code count} strips of the sequence started by {@code masterSeed},
+     * across {@code parallelism} threads. The result is the same regardless of {@code parallelism}.
+     */
+    public static StripBatch generate(long count, long masterSeed, int parallelism) {
+        if (count < 0 || count > MAX_STRIPS) {
+            throw new ValidationException(format("A batch can hold between 0 and %s strips, got %s", MAX_STRIPS, count));
+        }
+
+        final StripBatch batch = new StripBatch(masterSeed, (int) count);
+        new StripSequence(masterSeed).generate(0, count, parallelism,
+          (index, cells, offset) -> System.arraycopy(cells, offset, batch.cells, (int) index * TicketStrip.CELLS, TicketStrip.CELLS));
+
+        return batch;
+    }
+
+    public long getMasterSeed() {
+        return masterSeed;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return A copy of the strip at {@code index}.
+     */
+    public TicketStrip getStrip(int index) {
+        final byte[] strip = new byte[TicketStrip.CELLS];
+        copyCells(index, strip, 0);
+        return new TicketStrip(strip);
+    }
+
+    /**
+     * Copies the packed cells of the strip at {@code index} into {@code target}, starting at {@code offset}.
+     */
+    public void copyCells(int index, byte[] target, int offset) {
+        if (index < 0 || index >= count) {
+            throw new ValidationException(format("Strip %s is out of bounds, the batch holds %s strips", index, count));
+        }
+        System.arraycopy(cells, index * TicketStrip.CELLS, target, offset, TicketStrip.CELLS);
+    }
+
+}
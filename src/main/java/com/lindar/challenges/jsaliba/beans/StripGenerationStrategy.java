@@ -0,0 +1,26 @@
+package com.lindar.challenges.jsaliba.beans;
+
+import com.lindar.challenges.jsaliba.metrics.GenerationRecorder;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * An algorithm generating ticket strips straight into packed cells (see {@link TicketStrip}).
+ * See {@link StripAlgorithm} for the available ones.
+ * <br><br>
+ * Implementations reuse their own primitive scratch buffers, and allocate nothing once constructed. When given
+ * a {@link GenerationRecorder} (see {@link StripAlgorithm#newGenerator(GenerationRecorder)}), they record the time
+ * taken by every strip, as a whole at least. They are not thread-safe, keep one per thread.
+ */
+public interface StripGenerationStrategy {
+
+    /**
+     * Generates a complete strip into {@code target}, starting at {@code offset}.
+     *
+     * @param random Controls the randomness of the generated strip.
+     * @param target Receives the strip's 162 packed cells.
+     * @param offset Where the strip starts in {@code target}.
+     */
+    void generate(RandomGenerator random, byte[] target, int offset);
+
+}
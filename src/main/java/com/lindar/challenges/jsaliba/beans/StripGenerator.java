@@ -0,0 +1,290 @@
+package com.lindar.challenges.jsaliba.beans;
+
+import com.lindar.challenges.jsaliba.metrics.GenerationPhase;
+import com.lindar.challenges.jsaliba.metrics.GenerationRecorder;
+
+import java.util.random.RandomGenerator;
+
+import static com.lindar.challenges.jsaliba.beans.TicketStrip.BLANK;
+import static com.lindar.challenges.jsaliba.beans.TicketStrip.TICKETS;
+import static java.lang.String.format;
+
+/**
+ * Generates ticket strips straight into packed cells (see {@link TicketStrip}),
+ * reusing its own primitive scratch buffers between strips. Once constructed,
+ * generating a strip allocates nothing.
+ * <br><br>
+ * The algorithm is split into four phases, each of which is exposed separately:
+ * <ol>
+ * <li>{@link #buildNumberPool(RandomGenerator)}</li>
+ * <li>{@link #populateTickets(byte[], int)}</li>
+ * <li>{@link #spreadRemainingNumbers(byte[], int)}</li>
+ * <li>{@link #addEmptySpaces(RandomGenerator, byte[], int)}</li>
+ * </ol>
+ * When given a {@link GenerationRecorder}, the time spent in each phase is recorded for every strip.
+ * <br><br>
+ * Instances are not thread-safe, keep one per thread.
+ */
+public class StripGenerator implements StripGenerationStrategy {
+
+    private static final int NUMBERS = 90;
+
+    /**
+     * Index of the first number of each column in the number pool:
+     * 9 numbers in the first column, 11 in the last and 10 in the rest.
+     */
+    static final int[] COLUMN_STARTS = { 0, 9, 19, 29, 39, 49, 59, 69, 79, 90 };
+
+    // Pool of numbers 1-90, grouped by column and shuffled within each group.
+    private final byte[] numberPool = new byte[NUMBERS];
+    // Index of the next unused number in each group of the number pool.
+    private final int[] poolHeads = new int[Ticket.COLUMNS];
+    // Write position of each group while building the number pool.
+    private final int[] poolTails = new int[Ticket.COLUMNS];
+    // Numbers housed by each column of each ticket, indexed by ticket * 9 + column.
+    private final int[] columnSizes = new int[TICKETS * Ticket.COLUMNS];
+    // Numbers housed by each ticket.
+    private final int[] ticketSizes = new int[TICKETS];
+    private final byte[] shuffled = new byte[NUMBERS];
+
+    private final GenerationRecorder recorder;
+    private final boolean instrumented;
+
+    public StripGenerator() {
+        this(GenerationRecorder.NOOP);
+    }
+
+    /**
+     * @param recorder Receives the time spent in each phase, for every strip.
+     */
+    public StripGenerator(GenerationRecorder recorder) {
+        this.recorder = recorder;
+        this.instrumented = recorder != GenerationRecorder.NOOP;
+    }
+
+    /**
+     * Generates a complete strip into {@code target}, starting at {@code offset}.
+     *
+     * @param random Controls the randomness of the generated strip.
+     * @param target Receives the strip's 162 packed cells.
+     * @param offset Where the strip starts in {@code target}.
+     */
+    @Override
+    public void generate(RandomGenerator random, byte[] target, int offset) {
+        if (instrumented) {
+            generateInstrumented(random, target, offset);
+            return;
+        }
+
+        buildNumberPool(random);
+
+        // First pass ... 90 numbers ...
+        //
+        // Allocate one number in each column of every ticket of the
+        // ticket strip. This caters for the first requirement of
+        // having non-empty columns. This uses 54 numbers (9 * 6).
+        populateTickets(target, offset);
+
+        // Second pass ... 36 numbers
+        //
+        spreadRemainingNumbers(target, offset);
+
+        // After all numbers have been allocated to the tickets, then simply infer
+        // the empty spaces in the ticket.
+        addEmptySpaces(random, target, offset);
+    }
+
+    private void generateInstrumented(RandomGenerator random, byte[] target, int offset) {
+        final long start = System.nanoTime();
+        buildNumberPool(random);
+        final long pooled = System.nanoTime();
+        populateTickets(target, offset);
+        final long populated = System.nanoTime();
+        spreadRemainingNumbers(target, offset);
+        final long spread = System.nanoTime();
+        addEmptySpaces(random, target, offset);
+        final long end = System.nanoTime();
+
+        recorder.recordPhase(GenerationPhase.NUMBER_POOL, pooled - start);
+        recorder.recordPhase(GenerationPhase.FIRST_PASS, populated - pooled);
+        recorder.recordPhase(GenerationPhase.SPREAD, spread - populated);
+        recorder.recordPhase(GenerationPhase.EMPTY_SPACES, end - spread);
+        recorder.recordStrip(end - start);
+    }
+
+    /**
+     * Pool all possible numbers, grouped by column number.
+     * Take away from each group after picking a number.
+     * Alleviates the need to "look back" when a number is chosen
+     * to see if it doesn't exist already in same column across
+     * the entire strip.
+     * <br><br>
+     * The numbers 1-90 are shuffled (drawing from {@code random} exactly like
+     * {@link java.util.Collections#shuffle(java.util.List, java.util.Random)}) before being grouped,
+     * so that when numbers are taken from the number pool, numbers are pre-shuffled.
+     * <br>
+     * <ul>
+     * <li>Column 0 -> 1-9</li>
+     * <li>Column 1 -> 10-19</li>
+     * <li>Column 2 -> 20-29</li>
+     * <li>...</li>
+     * <li>Column 8 -> 80-90</li>
+     * </ul>
+     */
+    public void buildNumberPool(RandomGenerator random) {
+        for (int i = 0; i < NUMBERS; i++) {
+            shuffled[i] = (byte) (i + 1);
+        }
+        CollectionShuffler.shuffle(shuffled, random);
+
+        for (int column = 0; column < Ticket.COLUMNS; column++) {
+            poolHeads[column] = COLUMN_STARTS[column];
+            poolTails[column] = COLUMN_STARTS[column];
+        }
+        for (int i = 0; i < NUMBERS; i++) {
+            final byte number = shuffled[i];
+            numberPool[poolTails[Ticket.columnOf(number)]++] = number;
+        }
+    }
+
+    /**
+     * Assign a number to every column of every one of the
+     * six tickets in the ticket strip. This will ensure that
+     * all tickets adhere to the requirement of having at least
+     * one number in every column ... rest of the numbers will
+     * be sorted out later.
+     * <br><br>
+     * It is assumed that the number pool is pre-shuffled, hence the
+     * first number that appears in each column of the number pool
+     * can be assigned to each ticket's respective column.
+     */
+    public void populateTickets(byte[] target, int offset) {
+        for (int ticket = 0; ticket < TICKETS; ticket++) {
+            ticketSizes[ticket] = 0;
+            for (int column = 0; column < Ticket.COLUMNS; column++) {
+                columnSizes[ticket * Ticket.COLUMNS + column] = 0;
+                insertNumber(target, offset, ticket, column, numberPool[poolHeads[column]++]);
+            }
+        }
+    }
+
+    /**
+     * Grab a number from the largest column of unused numbers (i.e. the one housing numbers 80 - 90)
+     * and assign it to the first ticket that can house that number. After doing so, proceed further
+     * to the second-largest column of unused numbers (i.e. the one housing numbers 70-79) and do the same.
+     * Repeat until all numbers have been exhausted from the number pool.
+     * <br><br>
+     * Note: Given that the columns in the number pool are unbalanced, the first column will be empty
+     * before the rest. Similarly, the column housing numbers 80-90 will be the last one to be emptied
+     * despite it being the starting point for this step. This is because it is housing the extra number
+     * 90, as per requirements
+     */
+    public void spreadRemainingNumbers(byte[] target, int offset) {
+        // Should technically always be 36 ...
+        int remainingNumbers = NUMBERS;
+        for (int ticket = 0; ticket < TICKETS; ticket++) {
+            remainingNumbers -= ticketSizes[ticket];
+        }
+
+        for (int i = remainingNumbers - 1; i >= 0; i--) {
+            int column = i % Ticket.COLUMNS;
+
+            // Quick workaround for unevenly-sized columns
+            if (poolHeads[column] == COLUMN_STARTS[column + 1]) {
+                column = 0;
+                while (column < Ticket.COLUMNS && poolHeads[column] == COLUMN_STARTS[column + 1]) {
+                    column++;
+                }
+                // This exception should never be thrown ...
+                if (column == Ticket.COLUMNS) {
+                    throw new ValidationException("Number pool is empty, yet there are still incomplete tickets.");
+                }
+            }
+
+            int ticket = 0;
+            while (ticket < TICKETS && (ticketSizes[ticket] == Ticket.MAX_NUMBERS || columnSizes[ticket * Ticket.COLUMNS + column] == Ticket.ROWS)) {
+                ticket++;
+            }
+            // This exception should never be thrown ...
+            if (ticket == TICKETS) {
+                throw new ValidationException(format("Couldn't find a ticket to house a number from column %s", column));
+            }
+
+            insertNumber(target, offset, ticket, column, numberPool[poolHeads[column]++]);
+        }
+    }
+
+    /**
+     * Assigns empty spaces to every ticket of the strip where applicable,
+     * sorting each ticket column in the process.
+     * <br><br>
+     * Each ticket keeps track of where the last column started placing numbers.
+     * If column 0 started at row 0, column 1 will start at row 1.
+     * If column 0 started at row 2, column 1 will start at row 0.
+     * The starting position of each ticket is randomised to introduce a bit of indeterminism,
+     * since the first column impacts the number positioning of subsequent columns.
+     */
+    public void addEmptySpaces(RandomGenerator random, byte[] target, int offset) {
+        for (int ticket = 0; ticket < TICKETS; ticket++) {
+            final int ticketOffset = offset + ticket * Ticket.CELLS;
+            int positionStartSeed = random.nextInt(3);
+
+            for (int column = 0; column < Ticket.COLUMNS; column++) {
+                final int top = ticketOffset + column;
+                final int middle = top + Ticket.COLUMNS;
+                final int bottom = middle + Ticket.COLUMNS;
+                final byte first = target[top];
+
+                switch (columnSizes[ticket * Ticket.COLUMNS + column]) {
+                    case 3 -> {
+                        // No blank spaces to add ... just sort the column and continue with the next.
+                        final byte second = target[middle];
+                        final byte third = target[bottom];
+                        final byte lowest = (byte) Math.min(first, Math.min(second, third));
+                        final byte highest = (byte) Math.max(first, Math.max(second, third));
+
+                        target[top] = lowest;
+                        target[middle] = (byte) (first + second + third - lowest - highest);
+                        target[bottom] = highest;
+                    }
+                    case 1 -> {
+                        // If there's only one number in the column, add blank spaces
+                        // depending on where the previous column placed its last number.
+                        final int nextStartingPosition = ++positionStartSeed % 3;
+
+                        target[top] = nextStartingPosition == 0 ? first : BLANK;
+                        target[middle] = nextStartingPosition == 1 ? first : BLANK;
+                        target[bottom] = nextStartingPosition == 2 ? first : BLANK;
+                    }
+                    case 2 -> {
+                        // If there are two numbers in the column, order them
+                        // ascending and add a blank space depending on where
+                        // the previous column placed its last number.
+                        final int previousStartingPosition = positionStartSeed % 3;
+                        final byte second = target[middle];
+                        final byte lower = (byte) Math.min(first, second);
+                        final byte higher = (byte) Math.max(first, second);
+
+                        target[top] = previousStartingPosition == 0 ? BLANK : lower;
+                        target[middle] = previousStartingPosition == 0 ? lower : previousStartingPosition == 1 ? BLANK : higher;
+                        target[bottom] = previousStartingPosition == 2 ? BLANK : higher;
+
+                        // Remember to move on twice, otherwise the subsequent
+                        // column will place its first number alongside
+                        // the second number of this column.
+                        positionStartSeed += 2;
+                    }
+                    default -> throw new ValidationException(format("Column %s of ticket %s is empty", column, ticket + 1));
+                }
+            }
+        }
+    }
+
+    private void insertNumber(byte[] target, int offset, int ticket, int column, byte number) {
+        final int columnIdx = ticket * Ticket.COLUMNS + column;
+        target[offset + ticket * Ticket.CELLS + columnSizes[columnIdx] * Ticket.COLUMNS + column] = number;
+        columnSizes[columnIdx]++;
+        ticketSizes[ticket]++;
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.lindar.challenges.jsaliba.beans;
+
+import static java.lang.String.format;
+
+/**
+ * One of {@code N} disjoint, consecutive ranges of strips a generation is split into, e.g. to spread it across
+ * several processes or machines. Every process generates its own partition of the same {@link StripSequence}
+ * (i.e. with the same master seed) into its own file, and the files are merged once all are complete.
+ * <br><br>
+ * Partitions are numbered from 1 to {@code N}, partition {@code i} of {@code S} strips being
+ * {@code [S * (i - 1) / N, S * i / N)}: every strip belongs to exactly one partition, and partitions
+ * differ in size by one strip at most.
+ */
+public final class StripPartition {
+
+    private final int index;
+    private final int count;
+
+    public StripPartition(int index, int count) {
+        if (count < 1 || index < 1 || index > count) {
+            throw new ValidationException(format("Invalid partition %s/%s, expected 1/N to N/N", index, count));
+        }
+        this.index = index;
+        this.count = count;
+    }
+
+    /**
+     * @return The partition described by {@code value}, i.e. {@code i/N}.
+     */
+    public static StripPartition of(String value) {
+        final String[] parts = value.trim().split("/");
+        try {
+            if (parts.length == 2) {
+                return new StripPartition(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+            }
+        }
+        catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new ValidationException(format("Invalid partition '%s', expected i/N, e.g. 1/4", value));
+    }
+
+    /**
+     * @return Which partition this is, from 1 to {@link #getCount()}.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return The index of the first strip of this partition, out of {@code strips}.
+     */
+    public long fromIndex(long strips) {
+        return boundary(strips, index - 1);
+    }
+
+    /**
+     * @return The index following the last strip of this partition, out of {@code strips}.
+     */
+    public long toIndex(long strips) {
+        return boundary(strips, index);
+    }
+
+    /**
+     * @return {@code strips * partitions / count}, without overflowing.
+     */
+    private long boundary(long strips, int partitions) {
+        return strips / count * partitions + strips % count * partitions / count;
+    }
+
+    @Override
+    public String toString() {
+        return index + "/" + count;
+    }
+
+}
@@ -0,0 +1,299 @@
+package com.lindar.challenges.jsaliba.beans;
+
+import com.lindar.challenges.jsaliba.metrics.GenerationRecorder;
+import com.lindar.challenges.jsaliba.metrics.StripBatchEvent;
+
+import jdk.jfr.FlightRecorder;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static java.lang.String.format;
+
+/**
+ * A reproducible, unbounded sequence of ticket strips derived from a master seed.
+ * <br><br>
+ * Every strip is generated from its own seed, derived from the master seed and the strip's
+ * index alone (see {@link #seedOf(long, long)}). Hence strip {@code N} is always the same
+ * for a given master seed, regardless of how many threads generate the sequence, or
+ * in what order, and any strip can be reproduced on its own from (seed, index).
+ * <br><br>
+ * A sequence may also guarantee that none of its tickets are identical (see {@link #withUniqueTickets(TicketRegistry)}),
+ * and be generated by any {@link StripAlgorithm} (see {@link #withAlgorithm(StripAlgorithm)}),
+ * drawing from any {@link RandomSource} (see {@link #withRandomSource(RandomSource)}).
+ * <br><br>
+ * Bulk generation emits a {@link StripBatchEvent} for every chunk of strips, and
+ * reports timings to the sequence's {@link GenerationRecorder}, if any.
+ */
+public class StripSequence {
+
+    /**
+     * Number of consecutive strips claimed by a thread at a time during parallel generation.
+     */
+    static final int CHUNK_SIZE = 4096;
+
+    /**
+     * Most times a strip housing a previously generated ticket is regenerated, before giving up.
+     */
+    static final int MAX_REGENERATIONS = 16;
+
+    // Same constants as java.util.SplittableRandom
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final long masterSeed;
+    private final GenerationRecorder recorder;
+    private final boolean instrumented;
+    private final TicketRegistry registry;
+    private final StripAlgorithm algorithm;
+    private final RandomSource randomSource;
+
+    public StripSequence(long masterSeed) {
+        this(masterSeed, GenerationRecorder.NOOP);
+    }
+
+    /**
+     * @param recorder Receives the timings of every strip and chunk generated in bulk.
+     */
+    public StripSequence(long masterSeed, GenerationRecorder recorder) {
+        this(masterSeed, recorder, null, StripAlgorithm.LEGACY, RandomSource.RANDOM);
+    }
+
+    private StripSequence(long masterSeed, GenerationRecorder recorder, TicketRegistry registry, StripAlgorithm algorithm, RandomSource randomSource) {
+        this.masterSeed = masterSeed;
+        this.recorder = recorder;
+        this.instrumented = recorder != GenerationRecorder.NOOP;
+        this.registry = registry;
+        this.algorithm = algorithm;
+        this.randomSource = randomSource;
+    }
+
+    /**
+     * @return A copy of this sequence which registers every strip it generates (through
+     * {@link #generate(long, StripGenerationStrategy, Random, byte[], int)} or in bulk) with {@code registry}.
+     * A strip housing a ticket registered before is regenerated from its {@link #seedOf(long, long) seed}
+     * mixed with the attempt number, up to {@link #MAX_REGENERATIONS} times. Hence, strips that had to be
+     * regenerated differ from those returned by {@link #get(long)}, and which strips have to be
+     * depends on the order they are generated in.
+     */
+    public StripSequence withUniqueTickets(TicketRegistry registry) {
+        return new StripSequence(masterSeed, recorder, registry, algorithm, randomSource);
+    }
+
+    /**
+     * @return A copy of this sequence generating its strips with {@code algorithm}, rather than
+     * {@link StripAlgorithm#LEGACY}. The same master seed yields different strips with different algorithms.
+     */
+    public StripSequence withAlgorithm(StripAlgorithm algorithm) {
+        return new StripSequence(masterSeed, recorder, registry, algorithm, randomSource);
+    }
+
+    public StripAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * @return A copy of this sequence drawing from {@code randomSource}, rather than {@link RandomSource#RANDOM}.
+     * The same master seed yields different strips with different sources, and sources which are not
+     * {@link RandomSource#isReproducible() reproducible} yield different strips every time.
+     */
+    public StripSequence withRandomSource(RandomSource randomSource) {
+        return new StripSequence(masterSeed, recorder, registry, algorithm, randomSource);
+    }
+
+    public RandomSource getRandomSource() {
+        return randomSource;
+    }
+
+    public long getMasterSeed() {
+        return masterSeed;
+    }
+
+    /**
+     * Derives the seed of a single strip. This is the same mixing function used by
+     * {@link java.util.SplittableRandom} (i.e. SplitMix64) over a Weyl sequence, so
+     * that seeds of neighbouring strips are statistically unrelated.
+     *
+     * @return The seed of the strip at {@code index} of the sequence started by {@code masterSeed}.
+     */
+    public static long seedOf(long masterSeed, long index) {
+        long z = masterSeed + (index + 1) * GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * @return The strip at {@code index} of this sequence.
+     */
+    public TicketStrip get(long index) {
+        final RandomGenerator random = randomSource.seeded(null, seedOf(masterSeed, index));
+        if (algorithm == StripAlgorithm.LEGACY) {
+            return new TicketStrip(random);
+        }
+
+        final byte[] cells = new byte[TicketStrip.CELLS];
+        algorithm.newGenerator().generate(random, cells, 0);
+        return new TicketStrip(cells);
+    }
+
+    /**
+     * @return A lazy stream of strips {@code [fromIndex, toIndex)} of this sequence. Strips are only
+     * generated as the stream is consumed, so memory use does not depend on the length of the range.
+     * The stream may be consumed in parallel, and yields the same strips, in the same order, regardless.
+     */
+    public Stream<TicketStrip> stream(long fromIndex, long toIndex) {
+        if (fromIndex < 0 || toIndex < fromIndex) {
+            throw new ValidationException(format("Invalid strip range [%s, %s)", fromIndex, toIndex));
+        }
+        return LongStream.range(fromIndex, toIndex).mapToObj(this::get);
+    }
+
+    /**
+     * @return A lazy, practically unbounded, stream of the strips of this sequence, starting from the first.
+     */
+    public Stream<TicketStrip> stream() {
+        return stream(0, Long.MAX_VALUE);
+    }
+
+    /**
+     * Generates the strip at {@code index} of this sequence into {@code target}. Drawing from
+     * {@link RandomSource#RANDOM}, the given {@code random} is re-seeded rather than creating a new one,
+     * so that nothing is allocated. Only {@link RandomSource#RANDOM} and {@link RandomSource#THREAD_LOCAL}
+     * are allocation-free: {@link RandomSource#SPLITTABLE} and {@link RandomSource#L64X128_MIX} can not be
+     * re-seeded, and create a generator for every strip, while {@link RandomSource#SECURE} allocates as it draws.
+     */
+    public void generate(long index, StripGenerationStrategy generator, Random random, byte[] target, int offset) {
+        final long seed = seedOf(masterSeed, index);
+        generator.generate(randomSource.seeded(random, seed), target, offset);
+
+        if (registry != null) {
+            for (int attempt = 1; !registry.register(target, offset); attempt++) {
+                if (attempt > MAX_REGENERATIONS) {
+                    throw new ValidationException(format("Could not generate strip %s without repeating a ticket after %s attempts", index, MAX_REGENERATIONS));
+                }
+                generator.generate(randomSource.seeded(random, seedOf(seed, attempt)), target, offset);
+            }
+        }
+    }
+
+    /**
+     * Generates strips {@code [fromIndex, toIndex)} of this sequence, spreading the work across
+     * {@code parallelism} threads. Each thread claims {@link #CHUNK_SIZE} consecutive strips at a time,
+     * and hands them over to {@code sink} one by one as they are generated.
+     * <br><br>
+     * With a {@code parallelism} of 1, strips are generated in order, on the calling thread,
+     * still a chunk at a time.
+     * <br><br>
+     * Should generating or handing over a strip fail, no more chunks are claimed, and the failure is rethrown once
+     * every thread finished its current chunk - hence {@code sink} is never called once this returns.
+     */
+    public void generate(long fromIndex, long toIndex, int parallelism, StripSink sink) {
+        generate(fromIndex, toIndex, parallelism, sink, GenerationProgress.NONE);
+    }
+
+    /**
+     * Same as {@link #generate(long, long, int, StripSink)}, skipping the chunks {@code progress} reports
+     * as completed, and reporting every other chunk to it once all its strips were handed over to {@code sink}.
+     * Chunks always start at {@code fromIndex} plus a multiple of {@link #CHUNK_SIZE}, whatever the parallelism.
+     */
+    public void generate(long fromIndex, long toIndex, int parallelism, StripSink sink, GenerationProgress progress) {
+        if (fromIndex < 0 || toIndex < fromIndex) {
+            throw new ValidationException(format("Invalid strip range [%s, %s)", fromIndex, toIndex));
+        }
+        if (parallelism < 1) {
+            throw new ValidationException(format("Parallelism must be at least 1, got %s", parallelism));
+        }
+
+        if (parallelism == 1) {
+            final StripGenerationStrategy generator = algorithm.newGenerator(recorder);
+            final Random random = new Random();
+            final byte[] cells = new byte[TicketStrip.CELLS];
+            for (long chunkStart = fromIndex; chunkStart < toIndex; chunkStart += CHUNK_SIZE) {
+                generateChunk(chunkStart, Math.min(chunkStart + CHUNK_SIZE, toIndex), generator, random, cells, sink, progress);
+            }
+            return;
+        }
+
+        final AtomicLong nextChunk = new AtomicLong(fromIndex);
+        final AtomicBoolean failed = new AtomicBoolean();
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            final var workers = IntStream.range(0, parallelism)
+              .mapToObj(worker -> pool.submit(() -> {
+                  final StripGenerationStrategy generator = algorithm.newGenerator(recorder);
+                  final Random random = new Random();
+                  final byte[] cells = new byte[TicketStrip.CELLS];
+
+                  try {
+                      long chunkStart;
+                      while (!failed.get() && (chunkStart = nextChunk.getAndAdd(CHUNK_SIZE)) < toIndex) {
+                          generateChunk(chunkStart, Math.min(chunkStart + CHUNK_SIZE, toIndex), generator, random, cells, sink, progress);
+                      }
+                  }
+                  catch (RuntimeException | Error e) {
+                      failed.set(true);
+                      throw e;
+                  }
+              }))
+              .toList();
+
+            // Every worker is joined before rethrowing the first failure, so that none is left handing strips over
+            RuntimeException failure = null;
+            for (ForkJoinTask<?> worker : workers) {
+                try {
+                    worker.join();
+                }
+                catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    private void generateChunk(long fromIndex, long toIndex, StripGenerationStrategy generator, Random random, byte[] cells, StripSink sink,
+                               GenerationProgress progress) {
+        if (progress.isCompleted(fromIndex, toIndex)) {
+            return;
+        }
+
+        // Loading the first event sets JFR up, which takes longer than generating thousands of strips,
+        // so events are only created once a recording was started (e.g. -XX:StartFlightRecording, or jcmd).
+        final StripBatchEvent event = FlightRecorder.isInitialized() ? new StripBatchEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        final long start = instrumented ? System.nanoTime() : 0;
+
+        for (long index = fromIndex; index < toIndex; index++) {
+            generate(index, generator, random, cells, 0);
+            sink.accept(index, cells, 0);
+        }
+
+        if (instrumented) {
+            recorder.recordBatch(toIndex - fromIndex, System.nanoTime() - start);
+        }
+        if (event != null && event.shouldCommit()) {
+            event.masterSeed = masterSeed;
+            event.firstIndex = fromIndex;
+            event.count = toIndex - fromIndex;
+            event.commit();
+        }
+        progress.completed(fromIndex, toIndex);
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.lindar.challenges.jsaliba.beans;
+
+/**
+ * Receives strips as they are generated by a {@link StripSequence}.
+ * <br><br>
+ * Implementations must be thread-safe when used for parallel generation, since
+ * strips are handed over from the generating threads, in no particular order.
+ */
+@FunctionalInterface
+public interface StripSink {
+
+    /**
+     * @param index The strip's index within its sequence.
+     * @param cells Holds the strip's 162 packed cells. The buffer is reused
+     *              as soon as this method returns, so copy whatever needs to be kept.
+     * @param offset Where the strip starts in {@code cells}.
+     */
+    void accept(long index, byte[] cells, int offset);
+
+    /**
+     * @return A sink handing each strip over to this sink, and then to {@code next}.
+     */
+    default StripSink andThen(StripSink next) {
+        return (index, cells, offset) -> {
+            accept(index, cells, offset);
+            next.accept(index, cells, offset);
+        };
+    }
+
+}
@@ -0,0 +1,246 @@
+package com.lindar.challenges.jsaliba.beans;
+
+import com.lindar.challenges.jsaliba.metrics.GenerationRecorder;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+import static com.lindar.challenges.jsaliba.beans.TicketStrip.BLANK;
+import static com.lindar.challenges.jsaliba.beans.TicketStrip.TICKETS;
+
+/**
+ * Generates ticket strips uniformly at random, amongst all valid strips, out of a table of ticket layouts
+ * (see {@link LayoutTable}):
+ * <ol>
+ * <li>Sample the column counts of every ticket (how many numbers it houses in each column).</li>
+ * <li>Pick the layout of every ticket out of those with its column counts, uniformly.</li>
+ * <li>Shuffle the numbers of every column, and deal them to the tickets as per their column counts,
+ * filling each ticket's column from the top, in ascending order.</li>
+ * </ol>
+ * Given the column counts {@code k[t][c]} of every ticket, there are {@code L(k[t])} layouts for each ticket, and
+ * {@code n[c]! / (k[0][c]! ... k[5][c]!)} ways of dealing the {@code n[c]} numbers of every column. Hence, for strips
+ * to be uniform, column counts have to be as likely as the product of {@code w(k[t]) = L(k[t]) / (k[t][0]! ... k[t][8]!)}
+ * (see {@link LayoutTable#weight(int)}) over the tickets, amongst those adding up to 9, 10 ... 10, 11 in every column.
+ * These are sampled exactly, by rejection:
+ * <ol>
+ * <li>Draw the column counts of the first four tickets independently, each with probability proportional to its
+ * weight (through an alias table), and accept them with probability proportional to the sum of
+ * {@code w(k4) w(k5)} over every pair {@code (k4, k5)} adding up to whatever is left (a table of the 69,675 such
+ * sums), about 3% of the time.</li>
+ * <li>Draw the column counts of the fifth ticket the same way, leaving the sixth with whatever is left, and accept
+ * them with probability proportional to the sixth's weight, about 5% of the time.</li>
+ * </ol>
+ * That takes about 200 random numbers per strip on average, over and above the 90 dealing the numbers, in exchange
+ * for strips as likely as each other, up to the precision of a {@code double}.
+ */
+public class TemplateStripGenerator implements StripGenerationStrategy {
+
+    private static final int FREE_TICKETS = TICKETS - 2;
+
+    // Column counts of a whole strip, packed
+    private static final long STRIP_COUNTS;
+
+    // Alias table drawing column counts in proportion to their weight
+    private static final double[] ALIAS_PROBABILITIES;
+    private static final int[] ALIASES;
+    private static final double MAX_WEIGHT;
+
+    // Open addressing, from the packed column counts of a pair of tickets to the sum of their weights' products
+    private static final long[] PAIR_KEYS;
+    private static final double[] PAIR_WEIGHTS;
+    private static final int PAIR_HASH_SHIFT;
+    private static final double MAX_PAIR_WEIGHT;
+    // One bit per slot of a smaller hash of the same pairs, set for the slots of every pair. Most leftovers are
+    // not valid pairs, and this (64 KB) tells so without reaching into the (2 MB) table above, most of the time.
+    private static final long[] PAIR_FILTER = new long[1 << 13];
+    private static final int PAIR_FILTER_SHIFT = Long.SIZE - 19;
+
+    static {
+        long stripCounts = 0;
+        for (int column = 0; column < Ticket.COLUMNS; column++) {
+            stripCounts |= (long) (StripGenerator.COLUMN_STARTS[column + 1] - StripGenerator.COLUMN_STARTS[column]) << (column * LayoutTable.COUNT_BITS);
+        }
+        STRIP_COUNTS = stripCounts;
+
+        final int size = LayoutTable.size();
+        double total = 0;
+        double max = 0;
+        for (int index = 0; index < size; index++) {
+            total += LayoutTable.weight(index);
+            max = Math.max(max, LayoutTable.weight(index));
+        }
+        MAX_WEIGHT = max;
+
+        // Vose's alias method
+        ALIAS_PROBABILITIES = new double[size];
+        ALIASES = new int[size];
+        final double[] scaled = new double[size];
+        final int[] small = new int[size];
+        final int[] large = new int[size];
+        int smalls = 0;
+        int larges = 0;
+        for (int index = 0; index < size; index++) {
+            scaled[index] = LayoutTable.weight(index) * size / total;
+            if (scaled[index] < 1) small[smalls++] = index;
+            else large[larges++] = index;
+        }
+        while (smalls > 0 && larges > 0) {
+            final int less = small[--smalls];
+            final int more = large[--larges];
+            ALIAS_PROBABILITIES[less] = scaled[less];
+            ALIASES[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1;
+            if (scaled[more] < 1) small[smalls++] = more;
+            else large[larges++] = more;
+        }
+        while (larges > 0) {
+            ALIAS_PROBABILITIES[large[--larges]] = 1;
+        }
+        while (smalls > 0) {
+            ALIAS_PROBABILITIES[small[--smalls]] = 1;
+        }
+
+        PAIR_KEYS = new long[1 << 17];
+        PAIR_WEIGHTS = new double[PAIR_KEYS.length];
+        PAIR_HASH_SHIFT = Long.SIZE - Integer.numberOfTrailingZeros(PAIR_KEYS.length);
+        double maxPair = 0;
+        for (int first = 0; first < size; first++) {
+            for (int second = 0; second < size; second++) {
+                final long pair = LayoutTable.counts(first) + LayoutTable.counts(second);
+                int slot = LayoutTable.slot(pair, PAIR_HASH_SHIFT);
+                while (PAIR_KEYS[slot] != 0 && PAIR_KEYS[slot] != pair) {
+                    slot = (slot + 1) & (PAIR_KEYS.length - 1);
+                }
+                PAIR_KEYS[slot] = pair;
+                PAIR_WEIGHTS[slot] += LayoutTable.weight(first) * LayoutTable.weight(second);
+                final int bit = LayoutTable.slot(pair, PAIR_FILTER_SHIFT);
+                PAIR_FILTER[bit >>> 6] |= 1L << bit;
+                maxPair = Math.max(maxPair, PAIR_WEIGHTS[slot]);
+            }
+        }
+        MAX_PAIR_WEIGHT = maxPair;
+    }
+
+    // Index of the column counts of every ticket
+    private final int[] counts = new int[TICKETS];
+    private final int[] layouts = new int[TICKETS];
+    private final byte[] shuffled = new byte[StripGenerator.COLUMN_STARTS[Ticket.COLUMNS] - StripGenerator.COLUMN_STARTS[Ticket.COLUMNS - 1]];
+
+    private final GenerationRecorder recorder;
+    private final boolean instrumented;
+
+    public TemplateStripGenerator() {
+        this(GenerationRecorder.NOOP);
+    }
+
+    public TemplateStripGenerator(GenerationRecorder recorder) {
+        this.recorder = recorder;
+        this.instrumented = recorder != GenerationRecorder.NOOP;
+    }
+
+    @Override
+    public void generate(RandomGenerator random, byte[] target, int offset) {
+        final long start = instrumented ? System.nanoTime() : 0;
+
+        sampleColumnCounts(random);
+        for (int ticket = 0; ticket < TICKETS; ticket++) {
+            layouts[ticket] = LayoutTable.layout(counts[ticket], random.nextInt(LayoutTable.layoutCount(counts[ticket])));
+        }
+        Arrays.fill(target, offset, offset + TicketStrip.CELLS, (byte) BLANK);
+        dealNumbers(random, target, offset);
+
+        if (instrumented) {
+            recorder.recordStrip(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Samples the column counts of every ticket, as likely as the product of their weights.
+     */
+    void sampleColumnCounts(RandomGenerator random) {
+        long remaining;
+        double pairWeight;
+        do {
+            remaining = STRIP_COUNTS;
+            for (int ticket = 0; ticket < FREE_TICKETS; ticket++) {
+                counts[ticket] = drawCounts(random);
+                remaining -= LayoutTable.counts(counts[ticket]);
+            }
+            // Whatever is left over may not be valid column counts for a pair, in which case it is nowhere to be found
+            pairWeight = pairWeight(remaining);
+        } while (pairWeight == 0 || random.nextDouble() * MAX_PAIR_WEIGHT >= pairWeight);
+
+        int last;
+        do {
+            counts[FREE_TICKETS] = drawCounts(random);
+            last = LayoutTable.indexOf(remaining - LayoutTable.counts(counts[FREE_TICKETS]));
+        } while (last < 0 || random.nextDouble() * MAX_WEIGHT >= LayoutTable.weight(last));
+        counts[FREE_TICKETS + 1] = last;
+    }
+
+    /**
+     * @return Column counts in proportion to their weight, out of a single random number.
+     */
+    private static int drawCounts(RandomGenerator random) {
+        final double scaled = random.nextDouble() * ALIAS_PROBABILITIES.length;
+        final int index = (int) scaled;
+        return scaled - index < ALIAS_PROBABILITIES[index] ? index : ALIASES[index];
+    }
+
+    private static double pairWeight(long counts) {
+        final int bit = LayoutTable.slot(counts, PAIR_FILTER_SHIFT);
+        if ((PAIR_FILTER[bit >>> 6] & 1L << bit) == 0) {
+            return 0;
+        }
+        int slot = LayoutTable.slot(counts, PAIR_HASH_SHIFT);
+        while (PAIR_KEYS[slot] != 0) {
+            if (PAIR_KEYS[slot] == counts) {
+                return PAIR_WEIGHTS[slot];
+            }
+            slot = (slot + 1) & (PAIR_KEYS.length - 1);
+        }
+        return 0;
+    }
+
+    /**
+     * Shuffles the numbers of every column, then deals them to the tickets as per their layouts, from the top.
+     */
+    private void dealNumbers(RandomGenerator random, byte[] target, int offset) {
+        for (int column = 0; column < Ticket.COLUMNS; column++) {
+            final int first = StripGenerator.COLUMN_STARTS[column] + 1;
+            final int size = StripGenerator.COLUMN_STARTS[column + 1] - StripGenerator.COLUMN_STARTS[column];
+            for (int i = 0; i < size; i++) {
+                shuffled[i] = (byte) (first + i);
+            }
+            CollectionShuffler.shuffle(shuffled, size, random);
+
+            int next = 0;
+            for (int ticket = 0; ticket < TICKETS; ticket++) {
+                final int mask = TicketLayouts.columnMask(layouts[ticket], column);
+                final int top = offset + ticket * Ticket.CELLS + column;
+                switch (mask) {
+                    case 0b001, 0b010, 0b100 -> target[top + Integer.numberOfTrailingZeros(mask) * Ticket.COLUMNS] = shuffled[next++];
+                    case 0b111 -> {
+                        final byte a = shuffled[next++];
+                        final byte b = shuffled[next++];
+                        final byte c = shuffled[next++];
+                        final byte lowest = (byte) Math.min(a, Math.min(b, c));
+                        final byte highest = (byte) Math.max(a, Math.max(b, c));
+                        target[top] = lowest;
+                        target[top + Ticket.COLUMNS] = (byte) (a + b + c - lowest - highest);
+                        target[top + 2 * Ticket.COLUMNS] = highest;
+                    }
+                    default -> {
+                        final byte a = shuffled[next++];
+                        final byte b = shuffled[next++];
+                        final int upper = Integer.numberOfTrailingZeros(mask);
+                        final int lower = Integer.numberOfTrailingZeros(mask & (mask - 1));
+                        target[top + upper * Ticket.COLUMNS] = (byte) Math.min(a, b);
+                        target[top + lower * Ticket.COLUMNS] = (byte) Math.max(a, b);
+                    }
+                }
+            }
+        }
+    }
+
+}
@@ -1,69 +1,171 @@
 package com.lindar.challenges.jsaliba.beans;
 
 import java.util.*;
-import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static com.lindar.challenges.jsaliba.beans.TicketStrip.BLANK;
-
+import static java.lang.String.format;
+
+/**
+ * A single bingo ticket, backed by 27 packed cells (3 rows of 9 columns, row-major).
+ * <br><br>
+ * A ticket either owns its cells (when created standalone via {@link #Ticket(int)}),
+ * or is a view over a slice of a {@link TicketStrip}'s packed cells. Each cell holds:
+ * <ul>
+ * <li>{@code 0} - not laid out yet (i.e. the ticket is still being built)</li>
+ * <li>{@link TicketStrip#BLANK} - an empty space</li>
+ * <li>{@code 1 - 90} - a number</li>
+ * </ul>
+ * While a ticket is being built, numbers inserted in a column simply occupy the first
+ * free cells of that column, top to bottom, until the column is laid out.
+ */
 public class Ticket {
 
     public static final int MAX_NUMBERS = 15;
     public static final int ROWS = 3;
     public static final int COLUMNS = 9;
+    public static final int CELLS = ROWS * COLUMNS;
 
-    private final int ticketNumber;
-    private final Map<Integer, LinkedList<Integer>> columns = IntStream
-                                                            .range(0, COLUMNS)
-                                                            .boxed()
-                                                            .collect(Collectors.toMap(idx -> idx, idx -> new LinkedList<>() ));
+    static final byte UNSET = 0;
 
-    private int totalNumbers = 0;
+    // Printed form of every cell, as "%2s  ", indexed by number (0 being blank).
+    private static final String[] PRINTED_CELLS = IntStream
+                                                    .rangeClosed(0, 90)
+                                                    .mapToObj(n -> n == 0 ? "--  " : format("%2s  ", n))
+                                                    .toArray(String[]::new);
+
+    private final int ticketNumber;
+    private final byte[] cells;
+    private final int offset;
 
     public Ticket(int ticketNumber) {
+        this(ticketNumber, new byte[CELLS], 0);
+    }
+
+    /**
+     * Creates a ticket as a view over 27 packed cells, starting at {@code offset}.
+     * The cells are not copied.
+     */
+    Ticket(int ticketNumber, byte[] cells, int offset) {
         this.ticketNumber = ticketNumber;
+        this.cells = cells;
+        this.offset = offset;
     }
 
+    /**
+     * @return A snapshot of the ticket's columns, keyed by column index. Changes to
+     * the returned lists are not reflected in the ticket.
+     */
     public Map<Integer, LinkedList<Integer>> getColumns() {
+        final Map<Integer, LinkedList<Integer>> columns = new HashMap<>();
+        for (int j = 0; j < COLUMNS; j++) {
+            columns.put(j, getColumnNumbers(j));
+        }
         return columns;
     }
 
+    /**
+     * @return A snapshot of the ticket's rows, keyed by row index. Changes to
+     * the returned lists are not reflected in the ticket.
+     */
     public Map<Integer, LinkedList<Integer>> getRows() {
         final Map<Integer, LinkedList<Integer>> rows = new HashMap<>();
         for (int i = 0; i < ROWS; i++) {
             LinkedList<Integer> row = new LinkedList<>();
             for (int j = 0; j < COLUMNS; j++) {
-                row.add(columns.get(j).get(i));
+                final int cell = getCell(i, j);
+                if (cell != UNSET) {
+                    row.add(cell);
+                }
             }
             rows.put(i, row);
         }
         return rows;
     }
 
+    /**
+     * @return The index of the column housing {@code number}: 0 for 1-9, 1 for 10-19 ... 8 for 80-90.
+     */
+    public static int columnOf(int number) {
+        if (number < 10) return 0;
+        if (number > 89) return 8;
+
+        return number / 10;
+    }
+
     public int getTicketNumber() {
         return ticketNumber;
     }
 
+    /**
+     * @return A snapshot of the cells in the given column, top to bottom,
+     * including blank spaces once the ticket has been laid out.
+     */
     public LinkedList<Integer> getColumnNumbers(int columnNumber) {
-        return columns.get(columnNumber);
+        final LinkedList<Integer> column = new LinkedList<>();
+        for (int i = 0; i < ROWS; i++) {
+            final int cell = getCell(i, columnNumber);
+            if (cell != UNSET) {
+                column.add(cell);
+            }
+        }
+        return column;
+    }
+
+    /**
+     * @return The number at the given position, {@link TicketStrip#BLANK} for
+     * an empty space, or {@code 0} if the cell has not been laid out yet.
+     */
+    public int getCell(int row, int column) {
+        return cells[offset + row * COLUMNS + column];
+    }
+
+    void setCell(int row, int column, int value) {
+        cells[offset + row * COLUMNS + column] = (byte) value;
+    }
+
+    /**
+     * @return How many numbers (i.e. not blanks) are housed in the given column.
+     */
+    public int getColumnSize(int columnNumber) {
+        int size = 0;
+        for (int i = 0; i < ROWS; i++) {
+            if (getCell(i, columnNumber) > 0) size++;
+        }
+        return size;
     }
 
     public boolean isColumnFull(int columnNumber) {
-        int columnSize = this.getColumnNumbers(columnNumber).size();
-        return columnSize == 3;
+        return getColumnSize(columnNumber) == ROWS;
     }
 
     public void insertNumber(int columnNumber, int number) {
-        columns.get(columnNumber).add(number);
-        totalNumbers++;
+        for (int i = 0; i < ROWS; i++) {
+            if (getCell(i, columnNumber) == UNSET) {
+                setCell(i, columnNumber, number);
+                return;
+            }
+        }
+        throw new ValidationException(format("Column %s of ticket %s is already full", columnNumber, ticketNumber));
+    }
+
+    /**
+     * @return The ticket's {@link Fingerprint}, identical to that of another ticket only if the tickets are identical.
+     */
+    public Fingerprint getFingerprint() {
+        return Fingerprint.ofTicket(cells, offset);
     }
 
     public boolean isComplete() {
-        return totalNumbers == MAX_NUMBERS;
+        return getTotalNumbers() == MAX_NUMBERS;
     }
 
     public int getTotalNumbers() {
-        return totalNumbers;
+        int total = 0;
+        for (int i = 0; i < CELLS; i++) {
+            if (cells[offset + i] > 0) total++;
+        }
+        return total;
     }
 
     public String toString() {
@@ -80,8 +182,8 @@ public class Ticket {
         for (int i = 0; i < ROWS; i++) {
             printedTicket.append("| ");
             for (int j = 0; j < COLUMNS; j++) {
-                int number = columns.get(j).get(i);
-                printedTicket.append(String.format("%2s  ", number != BLANK ? number : "--"));
+                int number = getCell(i, j);
+                printedTicket.append(PRINTED_CELLS[number != BLANK ? number : 0]);
             }
 
             printedTicket.append("| ");
@@ -0,0 +1,163 @@
+package com.lindar.challenges.jsaliba.beans;
+
+import static com.lindar.challenges.jsaliba.beans.TicketStrip.BLANK;
+import static java.lang.String.format;
+
+/**
+ * Enumerates the layouts of a ticket: which of its 27 cells house a number, regardless of the numbers.
+ * <br><br>
+ * A layout is packed into an {@code int} as one 3-bit mask per column (column {@code c} at bits {@code 3c - 3c+2}),
+ * where bit {@code r} of a mask is set if row {@code r} of the column houses a number. A layout is valid if every
+ * column houses at least one number, and every row exactly five. There are {@link #COUNT} valid layouts, each
+ * given a rank in {@code [0, COUNT)} by ordering them column by column, on each column's mask.
+ * <br><br>
+ * Ranks are computed from the number of ways each partial layout can be completed (a few tables, 60 KB all in all),
+ * rather than by looking layouts up, so ranking a layout takes a lookup per column, and unranking a few.
+ */
+public final class TicketLayouts {
+
+    /**
+     * Number of valid ticket layouts.
+     */
+    public static final int COUNT = 735_210;
+
+    private static final int ROW_NUMBERS = Ticket.MAX_NUMBERS / Ticket.ROWS;
+    private static final int MASKS = 1 << Ticket.ROWS;
+    private static final int MASK_BITS = Ticket.ROWS;
+
+    // Row sums, each 0 - 5, packed as (r0 * 6 + r1) * 6 + r2.
+    private static final int SUMS = (ROW_NUMBERS + 1) * (ROW_NUMBERS + 1) * (ROW_NUMBERS + 1);
+    private static final int FULL = packSums(ROW_NUMBERS, ROW_NUMBERS, ROW_NUMBERS);
+    private static final int OVERFLOW = -1;
+
+    // Row sums after adding each mask to each row sums, or OVERFLOW if a row would house more than five numbers.
+    private static final int[] NEXT_SUMS = new int[SUMS * MASKS];
+    // Ways of completing a layout from column c onwards, given the row sums of the columns before it.
+    private static final int[] COMPLETIONS = new int[(Ticket.COLUMNS + 1) * SUMS];
+    // Ways of completing a layout from column c onwards, given the row sums of the columns before it,
+    // starting with a smaller mask than each mask, i.e. what the mask adds to the rank of a layout.
+    private static final int[] PRECEDING = new int[Ticket.COLUMNS * SUMS * MASKS];
+
+    static {
+        for (int sums = 0; sums < SUMS; sums++) {
+            final int r0 = sums / ((ROW_NUMBERS + 1) * (ROW_NUMBERS + 1));
+            final int r1 = sums / (ROW_NUMBERS + 1) % (ROW_NUMBERS + 1);
+            final int r2 = sums % (ROW_NUMBERS + 1);
+            for (int mask = 1; mask < MASKS; mask++) {
+                final int n0 = r0 + (mask & 1);
+                final int n1 = r1 + (mask >>> 1 & 1);
+                final int n2 = r2 + (mask >>> 2 & 1);
+                NEXT_SUMS[sums * MASKS + mask] = n0 > ROW_NUMBERS || n1 > ROW_NUMBERS || n2 > ROW_NUMBERS ? OVERFLOW : packSums(n0, n1, n2);
+            }
+            NEXT_SUMS[sums * MASKS] = OVERFLOW;
+        }
+
+        COMPLETIONS[Ticket.COLUMNS * SUMS + FULL] = 1;
+        for (int column = Ticket.COLUMNS - 1; column >= 0; column--) {
+            for (int sums = 0; sums < SUMS; sums++) {
+                int completions = 0;
+                for (int mask = 1; mask < MASKS; mask++) {
+                    final int next = NEXT_SUMS[sums * MASKS + mask];
+                    if (next != OVERFLOW) {
+                        completions += COMPLETIONS[(column + 1) * SUMS + next];
+                    }
+                }
+                COMPLETIONS[column * SUMS + sums] = completions;
+            }
+        }
+
+        for (int column = 0; column < Ticket.COLUMNS; column++) {
+            for (int sums = 0; sums < SUMS; sums++) {
+                int preceding = 0;
+                for (int mask = 1; mask < MASKS; mask++) {
+                    PRECEDING[(column * SUMS + sums) * MASKS + mask] = preceding;
+                    final int next = NEXT_SUMS[sums * MASKS + mask];
+                    if (next != OVERFLOW) {
+                        preceding += COMPLETIONS[(column + 1) * SUMS + next];
+                    }
+                }
+            }
+        }
+    }
+
+    private TicketLayouts() {
+    }
+
+    /**
+     * @return The layout of the ticket whose 27 cells start at {@code cells[offset]}.
+     */
+    public static int layoutOf(byte[] cells, int offset) {
+        int layout = 0;
+        for (int row = 0; row < Ticket.ROWS; row++) {
+            for (int column = 0; column < Ticket.COLUMNS; column++) {
+                if (cells[offset + row * Ticket.COLUMNS + column] != BLANK) {
+                    layout |= 1 << (column * MASK_BITS + row);
+                }
+            }
+        }
+        return layout;
+    }
+
+    /**
+     * @return The mask of the rows housing a number in {@code column}, in {@code layout}.
+     */
+    public static int columnMask(int layout, int column) {
+        return layout >>> (column * MASK_BITS) & (MASKS - 1);
+    }
+
+    /**
+     * @return The rank of {@code layout}, in {@code [0, COUNT)}.
+     * @throws ValidationException If the layout is not valid.
+     */
+    public static int rank(int layout) {
+        int rank = 0;
+        int sums = 0;
+        for (int column = 0; column < Ticket.COLUMNS; column++) {
+            final int mask = columnMask(layout, column);
+            rank += PRECEDING[(column * SUMS + sums) * MASKS + mask];
+            sums = NEXT_SUMS[sums * MASKS + mask];
+            if (sums == OVERFLOW) {
+                throw new ValidationException(format("Invalid ticket layout %s, column %s is empty or a row houses more than %s numbers", Integer.toOctalString(layout), column, ROW_NUMBERS));
+            }
+        }
+        if (sums != FULL) {
+            throw new ValidationException(format("Invalid ticket layout %s, a row houses less than %s numbers", Integer.toOctalString(layout), ROW_NUMBERS));
+        }
+        return rank;
+    }
+
+    /**
+     * @return The layout of the given rank.
+     * @throws ValidationException If the rank is not in {@code [0, COUNT)}.
+     */
+    public static int unrank(int rank) {
+        if (rank < 0 || rank >= COUNT) {
+            throw new ValidationException(format("Invalid ticket layout rank %s, expected one in [0, %s)", rank, COUNT));
+        }
+
+        int layout = 0;
+        int sums = 0;
+        for (int column = 0; column < Ticket.COLUMNS; column++) {
+            int mask = 1;
+            for (; ; mask++) {
+                final int next = NEXT_SUMS[sums * MASKS + mask];
+                if (next == OVERFLOW) {
+                    continue;
+                }
+                final int completions = COMPLETIONS[(column + 1) * SUMS + next];
+                if (rank < completions) {
+                    sums = next;
+                    break;
+                }
+                rank -= completions;
+            }
+            layout |= mask << (column * MASK_BITS);
+        }
+        return layout;
+    }
+
+    private static int packSums(int r0, int r1, int r2) {
+        return (r0 * (ROW_NUMBERS + 1) + r1) * (ROW_NUMBERS + 1) + r2;
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.lindar.challenges.jsaliba.beans;
+
+import com.lindar.challenges.jsaliba.concurrent.BloomFilter;
+import com.lindar.challenges.jsaliba.concurrent.FingerprintSet;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps track of every ticket of a batch by its {@link Fingerprint}, so as to guarantee that no two tickets
+ * in the batch are identical. Safe for use by many threads at once.
+ * <br><br>
+ * Strips are registered as a whole: a strip is only registered if none of its tickets were registered before.
+ * The fingerprints themselves are kept off-heap, in a {@link FingerprintSet}. Since nearly every strip is
+ * unique, a {@link BloomFilter} is checked first - only when it reports that one of the tickets might have
+ * been registered already are the strip's tickets looked up in the set, before registering any of them.
+ */
+public class TicketRegistry {
+
+    private static final int BLOOM_BITS_PER_TICKET = 10;
+
+    private final FingerprintSet fingerprints;
+    private final BloomFilter bloomFilter;
+    private final LongAdder rejected = new LongAdder();
+    // High half, low half and hash of every ticket's fingerprint
+    private final ThreadLocal<long[]> scratch = ThreadLocal.withInitial(() -> new long[TicketStrip.TICKETS * 3]);
+
+    /**
+     * @param expectedTickets The most tickets expected to be registered, i.e. six per strip.
+     */
+    public TicketRegistry(long expectedTickets) {
+        this.fingerprints = new FingerprintSet(expectedTickets);
+        this.bloomFilter = new BloomFilter(expectedTickets, BLOOM_BITS_PER_TICKET);
+    }
+
+    /**
+     * Registers every ticket of the strip whose 162 cells start at {@code cells[offset]}, unless any of them
+     * was registered before, in which case none of them are.
+     * <br><br>
+     * Only when two threads register identical tickets at the very same time might the rest of the rejected
+     * strip's tickets remain registered. These would only ever cause another strip to be rejected needlessly.
+     *
+     * @return Whether the strip was registered, i.e. {@code false} if any of its tickets were registered before.
+     */
+    public boolean register(byte[] cells, int offset) {
+        final long[] tickets = scratch.get();
+
+        boolean seenBefore = false;
+        for (int ticket = 0; ticket < TicketStrip.TICKETS; ticket++) {
+            final int ticketOffset = offset + ticket * Ticket.CELLS;
+            final long high = Fingerprint.ticketHigh(cells, ticketOffset);
+            final long low = Fingerprint.ticketLow(cells, ticketOffset);
+            final long hash = Fingerprint.hash(high, low);
+            tickets[ticket * 3] = high;
+            tickets[ticket * 3 + 1] = low;
+            tickets[ticket * 3 + 2] = hash;
+            seenBefore |= bloomFilter.mightContain(hash);
+        }
+
+        if (seenBefore) {
+            for (int ticket = 0; ticket < TicketStrip.TICKETS; ticket++) {
+                if (fingerprints.contains(tickets[ticket * 3], tickets[ticket * 3 + 1])) {
+                    rejected.increment();
+                    return false;
+                }
+            }
+        }
+
+        for (int ticket = 0; ticket < TicketStrip.TICKETS; ticket++) {
+            bloomFilter.put(tickets[ticket * 3 + 2]);
+            if (!fingerprints.add(tickets[ticket * 3], tickets[ticket * 3 + 1])) {
+                rejected.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return Whether the given ticket was registered.
+     */
+    public boolean contains(Fingerprint ticket) {
+        return bloomFilter.mightContain(Fingerprint.hash(ticket.getHigh(), ticket.getLow()))
+               && fingerprints.contains(ticket.getHigh(), ticket.getLow());
+    }
+
+    /**
+     * @return How many tickets have been registered.
+     */
+    public long getTickets() {
+        return fingerprints.size();
+    }
+
+    /**
+     * @return How many strips were rejected, for housing a ticket registered before.
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+}
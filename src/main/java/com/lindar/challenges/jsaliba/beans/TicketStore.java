@@ -0,0 +1,389 @@
+package com.lindar.challenges.jsaliba.beans;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static java.lang.String.format;
+
+/**
+ * An append-only inventory of tickets (e.g. every ticket sold in a session), kept off-heap, so that
+ * tens of millions of them take a few hundred megabytes of direct memory, and next to nothing on the heap.
+ * <br><br>
+ * Every ticket is given a serial, in the order it is added, and is stored as its 27 packed cells
+ * (see {@link Ticket}). Every number, in every row, also has a posting list: the ascending serials of
+ * the tickets housing that number in that row. Posting lists are split into blocks of {@value #BLOCK_SIZE}
+ * bytes, each starting with the serial of its first posting, followed by the gaps between consecutive
+ * serials as variable-length integers - a byte apiece for all but the sparsest numbers. Iterators
+ * (see {@link PostingIterator}) decode a block at a time, and binary search blocks by their first serial
+ * to skip ahead, which is what keeps intersections, and hence multi-number queries, fast.
+ * <br><br>
+ * Tickets are added under the store's monitor, one at a time or a strip at a time (the store being a
+ * {@link StripSink}), and may be added while others query the store. Queries see every ticket added
+ * before they started.
+ * <br><br>
+ * Tickets are numbered after their serial (see {@link #get(long)}), so a store holds at most {@link #MAX_TICKETS}.
+ */
+public class TicketStore implements StripSink {
+
+    /**
+     * The most tickets a store holds, the highest serial being numbered {@link Integer#MAX_VALUE}.
+     */
+    public static final long MAX_TICKETS = Integer.MAX_VALUE;
+
+    static final int BLOCK_SIZE = 256;
+
+    private static final int NUMBERS = 90;
+    private static final int LISTS = NUMBERS * Ticket.ROWS;
+    // First serial, then the end of the block's postings (within the block)
+    private static final int BLOCK_HEADER = Long.BYTES + Short.BYTES;
+    private static final int MAX_VARINT_BYTES = 10;
+    private static final int MIN_SEGMENT_SHIFT = 17;
+    // 128 MiB per direct buffer
+    private static final int MAX_SEGMENT_SHIFT = 27;
+    private static final int INITIAL_BLOCKS = 16;
+
+    private final int ticketsPerSegment;
+    private volatile ByteBuffer[] cellSegments = new ByteBuffer[0];
+
+    private final int postingSegmentShift;
+    private final int postingSegmentMask;
+    private volatile ByteBuffer[] postingSegments = new ByteBuffer[0];
+    private long nextBlock;
+
+    // Per posting list: address of every block, how many there are, where the last one ends, and the last serial.
+    private final long[][] blocks = new long[LISTS][];
+    private final int[] blockCounts = new int[LISTS];
+    private final int[] tailEnds = new int[LISTS];
+    private final long[] lastSerials = new long[LISTS];
+    private final long[] postings = new long[LISTS];
+
+    private volatile long size;
+
+    /**
+     * @param expectedTickets How many tickets are expected, which sizes the direct buffers holding them. More may
+     *                        be added regardless, at the cost of allocating more buffers.
+     */
+    public TicketStore(long expectedTickets) {
+        if (expectedTickets < 1) {
+            throw new ValidationException(format("Expected tickets must be at least 1, got %s", expectedTickets));
+        }
+        if (expectedTickets > MAX_TICKETS) {
+            throw new ValidationException(format("A store holds at most %s tickets, expected %s", MAX_TICKETS, expectedTickets));
+        }
+        this.ticketsPerSegment = (int) Math.min(expectedTickets, (1 << MAX_SEGMENT_SHIFT) / Ticket.CELLS);
+
+        // About a byte per posting, plus room for the first block of every list
+        final long expectedBytes = expectedTickets * Ticket.MAX_NUMBERS + (long) LISTS * BLOCK_SIZE;
+        this.postingSegmentShift = Math.max(MIN_SEGMENT_SHIFT, Math.min(MAX_SEGMENT_SHIFT, 64 - Long.numberOfLeadingZeros(expectedBytes - 1)));
+        this.postingSegmentMask = (1 << postingSegmentShift) - 1;
+
+        for (int list = 0; list < LISTS; list++) {
+            blocks[list] = new long[INITIAL_BLOCKS];
+        }
+    }
+
+    /**
+     * Adds a ticket, given its 27 packed cells starting at {@code cells[offset]}.
+     *
+     * @return The ticket's serial.
+     * @throws ValidationException If the store already holds {@link #MAX_TICKETS}.
+     */
+    public synchronized long add(byte[] cells, int offset) {
+        checkCapacity(1);
+        final long serial = size;
+        append(serial, cells, offset);
+        size = serial + 1;
+        return serial;
+    }
+
+    /**
+     * Adds every ticket of a strip, given its 162 packed cells starting at {@code cells[offset]}.
+     *
+     * @return The serial of the strip's first ticket, the rest following it.
+     * @throws ValidationException If the store has no room left for all of them.
+     */
+    public synchronized long addStrip(byte[] cells, int offset) {
+        checkCapacity(TicketStrip.TICKETS);
+        final long first = size;
+        for (int ticket = 0; ticket < TicketStrip.TICKETS; ticket++) {
+            append(first + ticket, cells, offset + ticket * Ticket.CELLS);
+        }
+        size = first + TicketStrip.TICKETS;
+        return first;
+    }
+
+    /**
+     * Adds every ticket of the strip, in the order strips are handed over (not necessarily by index).
+     */
+    @Override
+    public void accept(long index, byte[] cells, int offset) {
+        addStrip(cells, offset);
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Copies the 27 packed cells of the ticket with the given serial into {@code target}, starting at {@code offset}.
+     */
+    public void copyCells(long serial, byte[] target, int offset) {
+        checkSerial(serial);
+        cellSegments[(int) (serial / ticketsPerSegment)].get((int) (serial % ticketsPerSegment) * Ticket.CELLS, target, offset, Ticket.CELLS);
+    }
+
+    /**
+     * @return A copy of the ticket with the given serial, numbered after its serial (i.e. {@code serial + 1}).
+     */
+    public Ticket get(long serial) {
+        final byte[] cells = new byte[Ticket.CELLS];
+        copyCells(serial, cells, 0);
+        // Serials stay below MAX_TICKETS, see checkCapacity
+        return new Ticket((int) (serial + 1), cells, 0);
+    }
+
+    /**
+     * @return How many tickets house {@code number} in the given row (0-based).
+     */
+    public synchronized long count(int number, int row) {
+        return postings[listOf(number, row)];
+    }
+
+    /**
+     * @return The serials of the tickets housing {@code number} in the given row (0-based).
+     */
+    public synchronized PostingIterator postings(int number, int row) {
+        final int list = listOf(number, row);
+        return new BlockIterator(postingSegments, blocks[list], blockCounts[list], tailEnds[list], postings[list]);
+    }
+
+    /**
+     * @return The serials of the tickets housing {@code number}, in any row.
+     */
+    public PostingIterator postings(int number) {
+        final PostingIterator[] rows = new PostingIterator[Ticket.ROWS];
+        for (int row = 0; row < Ticket.ROWS; row++) {
+            rows[row] = postings(number, row);
+        }
+        return PostingIterator.or(rows);
+    }
+
+    /**
+     * @return The direct memory taken by the tickets and their posting lists.
+     */
+    public synchronized long getOffHeapBytes() {
+        long bytes = 0;
+        for (ByteBuffer segment : cellSegments) bytes += segment.capacity();
+        for (ByteBuffer segment : postingSegments) bytes += segment.capacity();
+        return bytes;
+    }
+
+    private void append(long serial, byte[] cells, int offset) {
+        final int segment = (int) (serial / ticketsPerSegment);
+        if (segment == cellSegments.length) {
+            final ByteBuffer[] grown = Arrays.copyOf(cellSegments, segment + 1);
+            grown[segment] = ByteBuffer.allocateDirect(ticketsPerSegment * Ticket.CELLS);
+            cellSegments = grown;
+        }
+        cellSegments[segment].put((int) (serial % ticketsPerSegment) * Ticket.CELLS, cells, offset, Ticket.CELLS);
+
+        for (int cell = 0; cell < Ticket.CELLS; cell++) {
+            final int number = cells[offset + cell];
+            if (number > 0) {
+                post(listOf(number, cell / Ticket.COLUMNS), serial);
+            }
+        }
+    }
+
+    private void post(int list, long serial) {
+        final int blockCount = blockCounts[list];
+        if (blockCount == 0 || tailEnds[list] + MAX_VARINT_BYTES > BLOCK_SIZE) {
+            if (blockCount > 0) {
+                // Seal the last block, readers only rely on the tail end of the last one
+                final long sealed = blocks[list][blockCount - 1];
+                segmentOf(sealed).putShort(offsetOf(sealed) + Long.BYTES, (short) tailEnds[list]);
+            }
+            final long block = allocateBlock();
+            segmentOf(block).putLong(offsetOf(block), serial);
+            if (blockCount == blocks[list].length) {
+                blocks[list] = Arrays.copyOf(blocks[list], blockCount * 2);
+            }
+            blocks[list][blockCount] = block;
+            blockCounts[list] = blockCount + 1;
+            tailEnds[list] = BLOCK_HEADER;
+        }
+        else {
+            final long block = blocks[list][blockCount - 1];
+            tailEnds[list] = writeVarint(segmentOf(block), offsetOf(block) + tailEnds[list], serial - lastSerials[list]) - offsetOf(block);
+        }
+        lastSerials[list] = serial;
+        postings[list]++;
+    }
+
+    private long allocateBlock() {
+        final int segment = (int) (nextBlock >>> postingSegmentShift);
+        if (segment == postingSegments.length) {
+            final ByteBuffer[] grown = Arrays.copyOf(postingSegments, segment + 1);
+            grown[segment] = ByteBuffer.allocateDirect(1 << postingSegmentShift);
+            postingSegments = grown;
+        }
+        final long block = nextBlock;
+        nextBlock += BLOCK_SIZE;
+        return block;
+    }
+
+    private ByteBuffer segmentOf(long address) {
+        return postingSegments[(int) (address >>> postingSegmentShift)];
+    }
+
+    private int offsetOf(long address) {
+        return (int) address & postingSegmentMask;
+    }
+
+    private void checkCapacity(int tickets) {
+        if (size + tickets > MAX_TICKETS) {
+            throw new ValidationException(format("The store is full, it holds at most %s tickets", MAX_TICKETS));
+        }
+    }
+
+    private void checkSerial(long serial) {
+        if (serial < 0 || serial >= size) {
+            throw new ValidationException(format("No ticket with serial %s, the store holds %s", serial, size));
+        }
+    }
+
+    private static int listOf(int number, int row) {
+        if (number < 1 || number > NUMBERS || row < 0 || row >= Ticket.ROWS) {
+            throw new ValidationException(format("No such number %s or row %s", number, row));
+        }
+        return (number - 1) * Ticket.ROWS + row;
+    }
+
+    /**
+     * @return The position following the variable-length integer written.
+     */
+    private static int writeVarint(ByteBuffer buffer, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put(position++, (byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put(position++, (byte) value);
+        return position;
+    }
+
+    /**
+     * Iterates over a snapshot of a posting list: the blocks it had, and where the last one ended, at the time.
+     * Blocks never change once postings are written, so the snapshot stays valid as more tickets are added.
+     * <br><br>
+     * Blocks are decoded whole as they are reached, so that moving within a block is a matter of reading
+     * (or binary searching) an array, rather than decoding every posting on the way.
+     */
+    private final class BlockIterator extends PostingIterator {
+
+        private final ByteBuffer[] segments;
+        private final long[] blocks;
+        private final int blockCount;
+        private final int tailEnd;
+        private final long cost;
+
+        private final byte[] bytes = new byte[BLOCK_SIZE];
+        private final long[] decoded = new long[BLOCK_SIZE - BLOCK_HEADER + 1];
+        private int decodedCount;
+        private int cursor;
+        private int blockIndex = -1;
+        // First serial of the next block, if any
+        private long nextFirst;
+        private long current = -1;
+
+        private BlockIterator(ByteBuffer[] segments, long[] blocks, int blockCount, int tailEnd, long cost) {
+            this.segments = segments;
+            this.blocks = blocks;
+            this.blockCount = blockCount;
+            this.tailEnd = tailEnd;
+            this.cost = cost;
+            this.nextFirst = blockCount > 0 ? firstSerial(0) : NO_MORE;
+        }
+
+        @Override
+        public long current() {
+            return current;
+        }
+
+        @Override
+        public long next() {
+            if (cursor == decodedCount) {
+                if (nextFirst == NO_MORE) {
+                    return current = NO_MORE;
+                }
+                decode(blockIndex + 1);
+            }
+            return current = decoded[cursor++];
+        }
+
+        @Override
+        public long advance(long target) {
+            // Skip whole blocks when the target lies past the next one's first serial
+            if (nextFirst <= target) {
+                int low = blockIndex + 1;
+                int high = blockCount - 1;
+                while (low < high) {
+                    final int middle = (low + high + 1) >>> 1;
+                    if (firstSerial(middle) <= target) low = middle;
+                    else high = middle - 1;
+                }
+                decode(low);
+            }
+            if (cursor < decodedCount && decoded[decodedCount - 1] >= target) {
+                // Mostly a few postings ahead, when leapfrogging through lists of similar lengths
+                while (decoded[cursor] < target) {
+                    cursor++;
+                }
+                return current = decoded[cursor++];
+            }
+            // Past this block, hence at the next one's first serial at most
+            cursor = decodedCount;
+            return next();
+        }
+
+        @Override
+        public long cost() {
+            return cost;
+        }
+
+        private long firstSerial(int index) {
+            final long block = blocks[index];
+            return segments[(int) (block >>> postingSegmentShift)].getLong((int) block & postingSegmentMask);
+        }
+
+        private void decode(int index) {
+            final long block = blocks[index];
+            final ByteBuffer segment = segments[(int) (block >>> postingSegmentShift)];
+            final int start = (int) block & postingSegmentMask;
+            final int end = start + (index == blockCount - 1 ? tailEnd : segment.getShort(start + Long.BYTES));
+
+            // One bulk copy, then decoding plain bytes
+            segment.get(start + BLOCK_HEADER, bytes, 0, end - start - BLOCK_HEADER);
+            long serial = segment.getLong(start);
+            decoded[0] = serial;
+            int count = 1;
+            for (int position = 0; position < end - start - BLOCK_HEADER; ) {
+                long gap = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = bytes[position++];
+                    gap |= (long) (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                serial += gap;
+                decoded[count++] = serial;
+            }
+
+            blockIndex = index;
+            nextFirst = index + 1 < blockCount ? firstSerial(index + 1) : NO_MORE;
+            decodedCount = count;
+            cursor = 0;
+        }
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.lindar.challenges.jsaliba.concurrent;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free, blocked Bloom filter over 64-bit hashes.
+ * <br><br>
+ * Every hash maps to a single block of 512 bits (i.e. one cache line), within which it sets {@link #HASHES} bits,
+ * so that checking or adding a hash costs a single cache miss at most. At 10 bits per entry, false positives
+ * occur about 1% of the time - and false negatives never.
+ */
+public class BloomFilter {
+
+    static final int HASHES = 6;
+
+    private static final int BLOCK_LONGS = 8;
+    private static final int BLOCK_BITS = BLOCK_LONGS * Long.SIZE;
+
+    private final AtomicLongArray bits;
+    private final long blockMask;
+
+    /**
+     * @param expectedEntries The most entries expected.
+     * @param bitsPerEntry    The bits to set aside per entry, trading memory for fewer false positives.
+     */
+    public BloomFilter(long expectedEntries, int bitsPerEntry) {
+        if (expectedEntries < 1 || bitsPerEntry < 1) {
+            throw new IllegalArgumentException("Invalid Bloom filter: " + expectedEntries + " entries, " + bitsPerEntry + " bits per entry");
+        }
+        final long blocks = Math.max(1, Long.highestOneBit(Math.max(1, expectedEntries * bitsPerEntry / BLOCK_BITS) * 2 - 1));
+        if (blocks * BLOCK_LONGS > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Bloom filter too large: " + expectedEntries + " entries, " + bitsPerEntry + " bits per entry");
+        }
+        this.bits = new AtomicLongArray((int) (blocks * BLOCK_LONGS));
+        this.blockMask = blocks - 1;
+    }
+
+    /**
+     * Adds a hash to the filter.
+     *
+     * @return Whether the filter changed, i.e. {@code true} if the hash was definitely not there before.
+     */
+    public boolean put(long hash) {
+        final int block = blockOf(hash);
+        final long positions = positionsOf(hash);
+
+        boolean changed = false;
+        for (int i = 0; i < HASHES; i++) {
+            final int bit = (int) (positions >>> (i * 9)) & (BLOCK_BITS - 1);
+            final int index = block + (bit >>> 6);
+            final long mask = 1L << bit;
+            if ((bits.get(index) & mask) == 0) {
+                bits.getAndAccumulate(index, mask, (current, m) -> current | m);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * @return {@code false} if the hash was definitely never added, {@code true} if it might have been.
+     */
+    public boolean mightContain(long hash) {
+        final int block = blockOf(hash);
+        final long positions = positionsOf(hash);
+
+        for (int i = 0; i < HASHES; i++) {
+            final int bit = (int) (positions >>> (i * 9)) & (BLOCK_BITS - 1);
+            if ((bits.get(block + (bit >>> 6)) & 1L << bit) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitSize() {
+        return (long) bits.length() * Long.SIZE;
+    }
+
+    private int blockOf(long hash) {
+        return (int) (hash & blockMask) * BLOCK_LONGS;
+    }
+
+    // Positions within the block are drawn from a remix of the hash, independent of the block itself.
+    private static long positionsOf(long hash) {
+        long z = hash * 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+}
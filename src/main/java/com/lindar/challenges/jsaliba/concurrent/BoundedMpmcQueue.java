@@ -0,0 +1,110 @@
+package com.lindar.challenges.jsaliba.concurrent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A lock-free, bounded, multi-producer / multi-consumer queue, after Dmitry Vyukov's
+ * bounded MPMC queue.
+ * <br><br>
+ * Every slot carries a sequence number telling producers whether it is free for the current lap,
+ * and consumers whether it has been filled. Producers and consumers claim slots by advancing their
+ * respective counters with a single CAS, so neither ever blocks the other. Neither {@link #offer(Object)}
+ * nor {@link #poll()} allocate.
+ */
+public class BoundedMpmcQueue<E> {
+
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong dequeued = new AtomicLong();
+
+    /**
+     * @param capacity Rounded up to the next power of two.
+     */
+    public BoundedMpmcQueue(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30, got " + capacity);
+        }
+        final int slots = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.elements = new AtomicReferenceArray<>(slots);
+        this.sequences = new AtomicLongArray(slots);
+        this.mask = slots - 1;
+        for (int slot = 0; slot < slots; slot++) {
+            sequences.set(slot, slot);
+        }
+    }
+
+    /**
+     * @return {@code false} if the queue is full.
+     */
+    public boolean offer(E element) {
+        long position = enqueued.get();
+        while (true) {
+            final int slot = (int) (position & mask);
+            final long difference = sequences.get(slot) - position;
+            if (difference == 0) {
+                if (enqueued.compareAndSet(position, position + 1)) {
+                    elements.lazySet(slot, element);
+                    sequences.set(slot, position + 1);
+                    return true;
+                }
+                position = enqueued.get();
+            }
+            else if (difference < 0) {
+                // The slot still holds an element from the previous lap
+                return false;
+            }
+            else {
+                position = enqueued.get();
+            }
+        }
+    }
+
+    /**
+     * @return {@code null} if the queue is empty.
+     */
+    public E poll() {
+        long position = dequeued.get();
+        while (true) {
+            final int slot = (int) (position & mask);
+            final long difference = sequences.get(slot) - (position + 1);
+            if (difference == 0) {
+                if (dequeued.compareAndSet(position, position + 1)) {
+                    final E element = elements.get(slot);
+                    elements.lazySet(slot, null);
+                    sequences.set(slot, position + mask + 1);
+                    return element;
+                }
+                position = dequeued.get();
+            }
+            else if (difference < 0) {
+                // The slot has not been filled yet
+                return null;
+            }
+            else {
+                position = dequeued.get();
+            }
+        }
+    }
+
+    /**
+     * @return An estimate of the number of elements in the queue, exact when no
+     * other thread is offering or polling.
+     */
+    public int size() {
+        final long size = enqueued.get() - dequeued.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+}
@@ -0,0 +1,139 @@
+package com.lindar.challenges.jsaliba.concurrent;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free, fixed-capacity set of 128-bit fingerprints (see {@link com.lindar.challenges.jsaliba.beans.Fingerprint}),
+ * stored off-heap so that hundreds of millions of them neither bloat nor slow down the heap.
+ * <br><br>
+ * Fingerprints are stored in a linearly-probed open-addressing table of 16-byte slots, split across direct buffers
+ * of up to 1 GiB each. A thread claims an empty slot by CAS-ing the fingerprint's high half into it, then publishes
+ * the low half. Threads probing past a slot whose high half matches theirs wait for the low half to be published
+ * before comparing it - hence neither half of a fingerprint may be zero (which is never the case of a ticket or strip
+ * fingerprint). Entries cannot be removed.
+ */
+public class FingerprintSet {
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private static final int SLOT_BYTES = 16;
+    // 2^26 slots of 16 bytes, i.e. 1 GiB per buffer
+    private static final int SEGMENT_SHIFT = 26;
+    private static final long MAX_CAPACITY = 1L << 40;
+
+    private final ByteBuffer[] segments;
+    private final long capacity;
+    private final long mask;
+    private final int segmentMask;
+    private final LongAdder size = new LongAdder();
+
+    /**
+     * @param expectedEntries The most entries expected. The table is sized to stay at most half full
+     *                        with that many entries, rounded up to the next power of two.
+     */
+    public FingerprintSet(long expectedEntries) {
+        if (expectedEntries < 1 || expectedEntries > MAX_CAPACITY / 2) {
+            throw new IllegalArgumentException("Expected entries must be between 1 and 2^39, got " + expectedEntries);
+        }
+        final long slots = Math.max(16, Long.highestOneBit(expectedEntries * 2 - 1) << 1);
+        final int segmentSlots = (int) Math.min(slots, 1L << SEGMENT_SHIFT);
+
+        this.capacity = slots;
+        this.mask = slots - 1;
+        this.segmentMask = segmentSlots - 1;
+        this.segments = new ByteBuffer[(int) (slots / segmentSlots)];
+        for (int i = 0; i < segments.length; i++) {
+            // Aligned, since atomic access to longs requires it
+            segments[i] = ByteBuffer.allocateDirect(segmentSlots * SLOT_BYTES + Long.BYTES).alignedSlice(Long.BYTES).order(ByteOrder.nativeOrder());
+        }
+    }
+
+    /**
+     * Adds a fingerprint to the set, unless it is already there.
+     *
+     * @return Whether the fingerprint was added, i.e. {@code false} if it was already there.
+     * @throws IllegalStateException If the set is full.
+     */
+    public boolean add(long high, long low) {
+        checkFingerprint(high, low);
+
+        long slot = slotOf(high, low);
+        for (long probes = 0; probes < capacity; probes++, slot = (slot + 1) & mask) {
+            final ByteBuffer segment = segments[(int) (slot >>> SEGMENT_SHIFT)];
+            final int position = ((int) slot & segmentMask) * SLOT_BYTES;
+
+            long slotHigh = (long) LONGS.getAcquire(segment, position);
+            if (slotHigh == 0) {
+                if (LONGS.compareAndSet(segment, position, 0L, high)) {
+                    LONGS.setRelease(segment, position + Long.BYTES, low);
+                    size.increment();
+                    return true;
+                }
+                slotHigh = (long) LONGS.getAcquire(segment, position);
+            }
+            if (slotHigh == high && lowOf(segment, position) == low) {
+                return false;
+            }
+        }
+        throw new IllegalStateException("Fingerprint set is full, with " + capacity + " entries");
+    }
+
+    /**
+     * @return Whether the set holds the given fingerprint.
+     */
+    public boolean contains(long high, long low) {
+        checkFingerprint(high, low);
+
+        long slot = slotOf(high, low);
+        for (long probes = 0; probes < capacity; probes++, slot = (slot + 1) & mask) {
+            final ByteBuffer segment = segments[(int) (slot >>> SEGMENT_SHIFT)];
+            final int position = ((int) slot & segmentMask) * SLOT_BYTES;
+
+            final long slotHigh = (long) LONGS.getAcquire(segment, position);
+            if (slotHigh == 0) {
+                return false;
+            }
+            if (slotHigh == high && lowOf(segment, position) == low) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long size() {
+        return size.sum();
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    private long slotOf(long high, long low) {
+        long z = high * 0x9e3779b97f4a7c15L ^ low;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return (z ^ (z >>> 31)) & mask;
+    }
+
+    /**
+     * Reads the low half of a claimed slot, waiting for the claiming thread to publish it if need be.
+     */
+    private static long lowOf(ByteBuffer segment, int position) {
+        long low;
+        while ((low = (long) LONGS.getAcquire(segment, position + Long.BYTES)) == 0) {
+            Thread.onSpinWait();
+        }
+        return low;
+    }
+
+    private static void checkFingerprint(long high, long low) {
+        if (high == 0 || low == 0) {
+            throw new IllegalArgumentException("Neither half of a fingerprint may be zero");
+        }
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.lindar.challenges.jsaliba.game;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A lock-free, bounded, single-producer / multi-consumer ring buffer, through which every
+ * published value is seen by every consumer, in order.
+ * <br><br>
+ * The producer claims the next slot once every consumer is done with the value it previously
+ * held, writes the value, and then publishes it by advancing its cursor. Each consumer keeps
+ * a cursor of its own, spinning briefly before parking while it waits for the next value.
+ * The producer unparks parked consumers after publishing.
+ */
+class CallBroadcast {
+
+    private static final int SPINS = 10_000;
+
+    private final int[] values;
+    private final int mask;
+    private final AtomicLong published = new AtomicLong(-1);
+    private final AtomicLong[] consumed;
+    private final AtomicReferenceArray<Thread> parked;
+
+    CallBroadcast(int capacity, int consumers) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two, got " + capacity);
+        }
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+        this.consumed = new AtomicLong[consumers];
+        for (int i = 0; i < consumers; i++) {
+            consumed[i] = new AtomicLong(-1);
+        }
+        this.parked = new AtomicReferenceArray<>(consumers);
+    }
+
+    /**
+     * Publishes a value to all consumers, waiting for the slowest consumer
+     * if the ring buffer is full. Must only be called by one thread.
+     */
+    void publish(int value) {
+        final long sequence = published.get() + 1;
+        while (sequence - slowestConsumer() > values.length) {
+            Thread.onSpinWait();
+        }
+        values[(int) (sequence & mask)] = value;
+        published.set(sequence);
+
+        for (int consumer = 0; consumer < consumed.length; consumer++) {
+            final Thread thread = parked.get(consumer);
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    /**
+     * Waits for, and returns, the next value the given consumer has not seen yet.
+     */
+    int take(int consumer) throws InterruptedException {
+        final long sequence = consumed[consumer].get() + 1;
+
+        int spins = 0;
+        while (published.get() < sequence) {
+            if (spins++ < SPINS) {
+                Thread.onSpinWait();
+                continue;
+            }
+            parked.set(consumer, Thread.currentThread());
+            // Re-check after registering, in case the value was published in between
+            if (published.get() < sequence) {
+                LockSupport.park(this);
+            }
+            parked.set(consumer, null);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+
+        final int value = values[(int) (sequence & mask)];
+        consumed[consumer].set(sequence);
+        return value;
+    }
+
+    private long slowestConsumer() {
+        long slowest = Long.MAX_VALUE;
+        for (AtomicLong cursor : consumed) {
+            slowest = Math.min(slowest, cursor.get());
+        }
+        return slowest;
+    }
+
+}
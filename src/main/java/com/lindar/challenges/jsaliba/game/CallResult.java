@@ -0,0 +1,45 @@
+package com.lindar.challenges.jsaliba.game;
+
+/**
+ * The outcome of calling a number: the tickets which completed their first, second
+ * or third row with this number. Tickets are identified by {@code strip * 6 + ticket}
+ * (both 0-based), as loaded into the {@link GameEngine}.
+ */
+public class CallResult {
+
+    private final int number;
+    private final int calls;
+    private final int[][] winners;
+
+    CallResult(int number, int calls, int[][] winners) {
+        this.number = number;
+        this.calls = calls;
+        this.winners = winners;
+    }
+
+    /**
+     * @return The number that was called.
+     */
+    public int getNumber() {
+        return number;
+    }
+
+    /**
+     * @return How many numbers have been called so far in this game, including this one.
+     */
+    public int getCalls() {
+        return calls;
+    }
+
+    /**
+     * @return The tickets which reached {@code prize} with this number, in ascending order.
+     */
+    public int[] getWinners(Prize prize) {
+        return winners[prize.ordinal()].clone();
+    }
+
+    public boolean hasWinners(Prize prize) {
+        return winners[prize.ordinal()].length > 0;
+    }
+
+}
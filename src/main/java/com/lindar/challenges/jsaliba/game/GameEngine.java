@@ -0,0 +1,196 @@
+package com.lindar.challenges.jsaliba.game;
+
+import com.lindar.challenges.jsaliba.beans.StripSink;
+import com.lindar.challenges.jsaliba.beans.Ticket;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+import com.lindar.challenges.jsaliba.beans.ValidationException;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.lindar.challenges.jsaliba.beans.TicketStrip.BLANK;
+import static java.lang.String.format;
+
+/**
+ * Plays a game of bingo over a fixed number of strips, finding the tickets which complete
+ * one, two or three rows whenever a number is called.
+ * <br><br>
+ * Every number appears exactly once in every strip, so the engine keeps an inverted index from each
+ * number to the row housing it in every strip: one byte per strip per number ({@code ticket * 3 + row}),
+ * laid out number-major, such that calling a number scans a single contiguous run of bytes.
+ * Alongside, it keeps one counter of remaining numbers per row and one counter of complete rows
+ * per ticket. Calling a number only touches the rows housing it - one per strip - and never scans
+ * the tickets themselves.
+ * <br><br>
+ * All state is kept in flat primitive arrays: 90 bytes per strip for the index, 3 per ticket
+ * for the rows and 1 per ticket for complete rows, i.e. ~190MB for 10M tickets.
+ * <br><br>
+ * Strips may be loaded concurrently (e.g. as a {@link StripSink} of parallel generation, where
+ * strip {@code N} is loaded at position {@code N}). Calling numbers is not thread-safe.
+ */
+public class GameEngine implements StripSink {
+
+    public static final int NUMBERS = 90;
+
+    private static final int ROWS_PER_STRIP = TicketStrip.TICKETS * Ticket.ROWS;
+
+    private final int strips;
+    // Inverted index, postings[(number - 1) * strips + strip] = ticket * 3 + row
+    private final byte[] postings;
+    // Numbers yet to be called, per row, indexed by strip * 18 + ticket * 3 + row
+    private final byte[] remainingNumbers;
+    // Complete rows per ticket, indexed by strip * 6 + ticket
+    private final byte[] completeRows;
+    private final boolean[] called = new boolean[NUMBERS + 1];
+    private final AtomicInteger loadedStrips = new AtomicInteger();
+    private final WinnerBuffer[] winners = { new WinnerBuffer(), new WinnerBuffer(), new WinnerBuffer() };
+
+    private int calls;
+
+    public GameEngine(int strips) {
+        if (strips < 1 || (long) strips * NUMBERS > Integer.MAX_VALUE) {
+            throw new ValidationException(format("A game can hold between 1 and %s strips, got %s", Integer.MAX_VALUE / NUMBERS, strips));
+        }
+        this.strips = strips;
+        this.postings = new byte[strips * NUMBERS];
+        this.remainingNumbers = new byte[strips * ROWS_PER_STRIP];
+        this.completeRows = new byte[strips * TicketStrip.TICKETS];
+        reset();
+    }
+
+    /**
+     * @return An engine loaded with the given strips, in order.
+     */
+    public static GameEngine of(List<TicketStrip> strips) {
+        final GameEngine engine = new GameEngine(strips.size());
+        final byte[] cells = new byte[TicketStrip.CELLS];
+        for (int strip = 0; strip < strips.size(); strip++) {
+            strips.get(strip).copyCells(cells, 0);
+            engine.load(strip, cells, 0);
+        }
+        return engine;
+    }
+
+    /**
+     * Loads the strip at {@code cells[offset]} at position {@code strip}. Its tickets
+     * are then identified by {@code strip * 6} to {@code strip * 6 + 5}.
+     */
+    public void load(int strip, byte[] cells, int offset) {
+        if (strip < 0 || strip >= strips) {
+            throw new ValidationException(format("Strip %s is out of bounds, the game holds %s strips", strip, strips));
+        }
+        for (int position = 0; position < ROWS_PER_STRIP; position++) {
+            final int rowStart = offset + position * Ticket.COLUMNS;
+            for (int column = 0; column < Ticket.COLUMNS; column++) {
+                final int number = cells[rowStart + column];
+                if (number != BLANK) {
+                    postings[(number - 1) * strips + strip] = (byte) position;
+                }
+            }
+        }
+        loadedStrips.incrementAndGet();
+    }
+
+    /**
+     * Loads strip {@code index} of a sequence at position {@code index}.
+     */
+    @Override
+    public void accept(long index, byte[] cells, int offset) {
+        load((int) index, cells, offset);
+    }
+
+    /**
+     * Daubs {@code number} on every ticket housing it.
+     *
+     * @return The tickets which completed a row with this number, grouped by how many rows they have complete now.
+     */
+    public CallResult call(int number) {
+        if (number < 1 || number > NUMBERS) {
+            throw new ValidationException(format("Only numbers from 1 to %s can be called, got %s", NUMBERS, number));
+        }
+        if (called[number]) {
+            throw new ValidationException(format("Number %s has already been called", number));
+        }
+        if (!isLoaded()) {
+            throw new ValidationException(format("Only %s out of %s strips have been loaded", loadedStrips.get(), strips));
+        }
+        called[number] = true;
+        calls++;
+
+        for (WinnerBuffer buffer : winners) {
+            buffer.size = 0;
+        }
+
+        final int base = (number - 1) * strips;
+        for (int strip = 0; strip < strips; strip++) {
+            final int position = postings[base + strip];
+            if (--remainingNumbers[strip * ROWS_PER_STRIP + position] == 0) {
+                final int ticket = strip * TicketStrip.TICKETS + position / Ticket.ROWS;
+                winners[++completeRows[ticket] - 1].add(ticket);
+            }
+        }
+
+        return new CallResult(number, calls, new int[][] { winners[0].toArray(), winners[1].toArray(), winners[2].toArray() });
+    }
+
+    /**
+     * @return How many rows of the given ticket are complete.
+     */
+    public int getCompleteRows(int ticket) {
+        return completeRows[ticket];
+    }
+
+    /**
+     * @return Whether every strip has been loaded, i.e. the game can start.
+     */
+    public boolean isLoaded() {
+        return loadedStrips.get() >= strips;
+    }
+
+    public boolean isCalled(int number) {
+        return called[number];
+    }
+
+    public int getCalls() {
+        return calls;
+    }
+
+    public int getStrips() {
+        return strips;
+    }
+
+    public int getTickets() {
+        return strips * TicketStrip.TICKETS;
+    }
+
+    /**
+     * Starts a new game over the same strips.
+     */
+    public void reset() {
+        Arrays.fill(remainingNumbers, (byte) (Ticket.MAX_NUMBERS / Ticket.ROWS));
+        Arrays.fill(completeRows, (byte) 0);
+        Arrays.fill(called, false);
+        calls = 0;
+    }
+
+    /**
+     * A growable list of ticket ids, reused from one call to the next.
+     */
+    private static final class WinnerBuffer {
+        private int[] tickets = new int[64];
+        private int size;
+
+        private void add(int ticket) {
+            if (size == tickets.length) {
+                tickets = Arrays.copyOf(tickets, size * 2);
+            }
+            tickets[size++] = ticket;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(tickets, size);
+        }
+    }
+
+}
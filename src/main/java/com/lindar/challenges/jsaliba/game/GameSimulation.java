@@ -0,0 +1,186 @@
+package com.lindar.challenges.jsaliba.game;
+
+import com.lindar.challenges.jsaliba.beans.CollectionShuffler;
+import com.lindar.challenges.jsaliba.beans.StripGenerationStrategy;
+import com.lindar.challenges.jsaliba.beans.StripSequence;
+import com.lindar.challenges.jsaliba.beans.Ticket;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+import com.lindar.challenges.jsaliba.beans.ValidationException;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+import static java.lang.String.format;
+
+/**
+ * Simulates many games of bingo, each over freshly sold tickets, and reports how many calls it took to win every
+ * prize (see {@link GameSimulationReport}), e.g. to model payouts.
+ * <br><br>
+ * Game {@code g} is played over strips {@code [g * s, (g + 1) * s)} of a {@link StripSequence}, {@code s} being
+ * however many strips it takes to sell the given number of tickets (any tickets left over on the last strip
+ * are not sold). The numbers are called in an order drawn from the sequence's random source, seeded with
+ * {@link StripSequence#seedOf(long, long) seedOf(seed, -g - 1)}, such that every game only depends on
+ * the sequence's seed and its own number, whatever the parallelism.
+ * <br><br>
+ * Games are not played call by call: once the order of the calls is known, a row is complete with the last of
+ * its numbers to be called, and a ticket wins a prize with its first, second or third row to be complete.
+ * Each ticket is hence scanned once, and the game's winners are the tickets winning each prize the earliest.
+ * Each thread claims {@link #CHUNK_SIZE} consecutive games at a time, with its own generator, random number
+ * generator, buffers and {@link GameSimulationAccumulator}, so that threads share nothing but the next chunk to claim.
+ */
+public class GameSimulation {
+
+    /**
+     * Number of consecutive games claimed by a thread at a time.
+     */
+    static final int CHUNK_SIZE = 64;
+
+    private GameSimulation() {
+    }
+
+    /**
+     * Simulates games {@code [0, games)}, each selling {@code tickets} tickets of {@code sequence},
+     * spreading the work across {@code parallelism} threads.
+     */
+    public static GameSimulationReport simulate(StripSequence sequence, int tickets, long games, int parallelism) {
+        if (tickets < 1) {
+            throw new ValidationException(format("At least one ticket has to be sold, got %s", tickets));
+        }
+        if (games < 1) {
+            throw new ValidationException(format("At least one game is required, got %s", games));
+        }
+        if (parallelism < 1) {
+            throw new ValidationException(format("Parallelism must be at least 1, got %s", parallelism));
+        }
+
+        final AtomicLong nextChunk = new AtomicLong();
+        final GameSimulationAccumulator total = new GameSimulationAccumulator();
+        final long start = System.nanoTime();
+
+        if (parallelism == 1) {
+            total.merge(simulateChunks(sequence, tickets, games, nextChunk));
+            return new GameSimulationReport(tickets, total, System.nanoTime() - start);
+        }
+
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            IntStream.range(0, parallelism)
+              .mapToObj(worker -> pool.submit(() -> simulateChunks(sequence, tickets, games, nextChunk)))
+              .toList()
+              .stream()
+              .map(ForkJoinTask::join)
+              .forEach(total::merge);
+        }
+        finally {
+            pool.shutdown();
+        }
+        return new GameSimulationReport(tickets, total, System.nanoTime() - start);
+    }
+
+    private static GameSimulationAccumulator simulateChunks(StripSequence sequence, int tickets, long games, AtomicLong nextChunk) {
+        final Game game = new Game(sequence, tickets);
+        final GameSimulationAccumulator accumulator = new GameSimulationAccumulator();
+
+        long chunkStart;
+        while ((chunkStart = nextChunk.getAndAdd(CHUNK_SIZE)) < games) {
+            final long chunkEnd = Math.min(chunkStart + CHUNK_SIZE, games);
+            for (long index = chunkStart; index < chunkEnd; index++) {
+                game.play(index, accumulator);
+            }
+        }
+        return accumulator;
+    }
+
+    /**
+     * The state of a single thread playing games, reused from one game to the next.
+     */
+    private static final class Game {
+
+        private final StripSequence sequence;
+        private final int tickets;
+        private final int strips;
+        private final StripGenerationStrategy generator;
+        private final Random random = new Random();
+        private final byte[] cells = new byte[TicketStrip.CELLS];
+        private final byte[] order = new byte[GameEngine.NUMBERS];
+        // The call completing each number, indexed by number, 0 for blanks
+        private final int[] callOf = new int[GameEngine.NUMBERS + 1];
+        // Earliest call winning each prize, and how many tickets won it then
+        private final int[] earliest = new int[GameSimulationAccumulator.PRIZES];
+        private final int[] winners = new int[GameSimulationAccumulator.PRIZES];
+
+        private Game(StripSequence sequence, int tickets) {
+            this.sequence = sequence;
+            this.tickets = tickets;
+            this.strips = (tickets + TicketStrip.TICKETS - 1) / TicketStrip.TICKETS;
+            this.generator = sequence.getAlgorithm().newGenerator();
+        }
+
+        private void play(long game, GameSimulationAccumulator accumulator) {
+            final RandomGenerator calls = sequence.getRandomSource().seeded(random, StripSequence.seedOf(sequence.getMasterSeed(), -game - 1));
+            for (int i = 0; i < GameEngine.NUMBERS; i++) {
+                order[i] = (byte) (i + 1);
+            }
+            CollectionShuffler.shuffle(order, calls);
+            for (int i = 0; i < GameEngine.NUMBERS; i++) {
+                callOf[order[i]] = i + 1;
+            }
+
+            for (int prize = 0; prize < earliest.length; prize++) {
+                earliest[prize] = Integer.MAX_VALUE;
+                winners[prize] = 0;
+            }
+
+            int sold = tickets;
+            for (int strip = 0; strip < strips; strip++) {
+                sequence.generate(game * strips + strip, generator, random, cells, 0);
+                for (int ticket = 0; ticket < TicketStrip.TICKETS && sold > 0; ticket++, sold--) {
+                    final int ticketOffset = ticket * Ticket.CELLS;
+                    final int first = completion(ticketOffset);
+                    final int second = completion(ticketOffset + Ticket.COLUMNS);
+                    final int third = completion(ticketOffset + 2 * Ticket.COLUMNS);
+
+                    final int oneLine = Math.min(first, Math.min(second, third));
+                    final int fullHouse = Math.max(first, Math.max(second, third));
+                    tally(0, oneLine);
+                    tally(1, first + second + third - oneLine - fullHouse);
+                    tally(2, fullHouse);
+                }
+            }
+
+            accumulator.games++;
+            for (Prize prize : Prize.values()) {
+                accumulator.add(prize, earliest[prize.ordinal()], winners[prize.ordinal()]);
+            }
+        }
+
+        /**
+         * @return The call completing the row starting at {@code rowOffset}, i.e. calling the last of its numbers.
+         */
+        private int completion(int rowOffset) {
+            int last = 0;
+            for (int column = 0; column < Ticket.COLUMNS; column++) {
+                final int number = cells[rowOffset + column];
+                // Blanks (-1) map to 0, without branching
+                last = Math.max(last, callOf[number & ~(number >> 31)]);
+            }
+            return last;
+        }
+
+        private void tally(int prize, int call) {
+            if (call < earliest[prize]) {
+                earliest[prize] = call;
+                winners[prize] = 1;
+            }
+            else if (call == earliest[prize]) {
+                winners[prize]++;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.lindar.challenges.jsaliba.game;
+
+/**
+ * Tallies the outcome of many simulated games (see {@link GameSimulation}): for every prize, how many calls it took
+ * to be won, and by how many tickets at once.
+ * <br><br>
+ * Accumulators are not thread-safe: keep one per thread, and {@link #merge(GameSimulationAccumulator)} them once done.
+ */
+public class GameSimulationAccumulator {
+
+    static final int PRIZES = Prize.values().length;
+    static final int MAX_CALLS = GameEngine.NUMBERS;
+    // Prizes shared by more tickets than this are tallied together
+    static final int MAX_WINNERS = 32;
+
+    long games;
+    // Games in which each prize was won with each call, indexed by prize * 91 + calls
+    final long[] calls = new long[PRIZES * (MAX_CALLS + 1)];
+    // Games in which each prize was shared by each number of tickets, indexed by prize * 33 + winners
+    final long[] winners = new long[PRIZES * (MAX_WINNERS + 1)];
+
+    /**
+     * Tallies a game in which {@code prize} was won with call {@code calls}, by {@code winners} tickets at once.
+     */
+    void add(Prize prize, int calls, int winners) {
+        this.calls[prize.ordinal() * (MAX_CALLS + 1) + calls]++;
+        this.winners[prize.ordinal() * (MAX_WINNERS + 1) + Math.min(winners, MAX_WINNERS)]++;
+    }
+
+    /**
+     * Adds everything tallied by {@code other} to this accumulator.
+     */
+    public void merge(GameSimulationAccumulator other) {
+        games += other.games;
+        for (int i = 0; i < calls.length; i++) {
+            calls[i] += other.calls[i];
+        }
+        for (int i = 0; i < winners.length; i++) {
+            winners[i] += other.winners[i];
+        }
+    }
+
+}
@@ -0,0 +1,130 @@
+package com.lindar.challenges.jsaliba.game;
+
+import static com.lindar.challenges.jsaliba.game.GameSimulationAccumulator.MAX_CALLS;
+import static com.lindar.challenges.jsaliba.game.GameSimulationAccumulator.MAX_WINNERS;
+import static java.lang.String.format;
+import static java.lang.System.lineSeparator;
+
+/**
+ * How many calls it took to win every prize, over the games tallied by a {@link GameSimulationAccumulator}.
+ */
+public class GameSimulationReport {
+
+    private static final double[] PERCENTILES = { 0.01, 0.1, 0.5, 0.9, 0.99 };
+
+    private final int tickets;
+    private final long games;
+    private final long elapsedNanos;
+    private final long[] calls;
+    private final long[] winners;
+
+    GameSimulationReport(int tickets, GameSimulationAccumulator accumulator, long elapsedNanos) {
+        this.tickets = tickets;
+        this.games = accumulator.games;
+        this.elapsedNanos = elapsedNanos;
+        this.calls = accumulator.calls.clone();
+        this.winners = accumulator.winners.clone();
+    }
+
+    /**
+     * @return The tickets sold for every game.
+     */
+    public int getTickets() {
+        return tickets;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getGamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * @return The games in which {@code prize} was won with call {@code call} (1 to 90).
+     */
+    public long getGames(Prize prize, int call) {
+        return calls[prize.ordinal() * (MAX_CALLS + 1) + call];
+    }
+
+    /**
+     * @return The average call {@code prize} was won with.
+     */
+    public double getMeanCalls(Prize prize) {
+        double sum = 0;
+        for (int call = 1; call <= MAX_CALLS; call++) {
+            sum += (double) call * getGames(prize, call);
+        }
+        return games == 0 ? 0 : sum / games;
+    }
+
+    /**
+     * @return The earliest call by which {@code prize} was won in at least the given share (0 to 1) of games.
+     */
+    public int getPercentileCalls(Prize prize, double share) {
+        long seen = 0;
+        for (int call = 1; call <= MAX_CALLS; call++) {
+            seen += getGames(prize, call);
+            if (seen > 0 && seen >= share * games) {
+                return call;
+            }
+        }
+        return MAX_CALLS;
+    }
+
+    /**
+     * @return The games in which {@code prize} was shared by {@code winners} tickets, those shared by
+     * {@value GameSimulationAccumulator#MAX_WINNERS} or more tickets being tallied together.
+     */
+    public long getGamesWithWinners(Prize prize, int winners) {
+        return this.winners[prize.ordinal() * (MAX_WINNERS + 1) + Math.min(winners, MAX_WINNERS)];
+    }
+
+    /**
+     * @return The average number of tickets sharing {@code prize}.
+     */
+    public double getMeanWinners(Prize prize) {
+        double sum = 0;
+        for (int count = 1; count <= MAX_WINNERS; count++) {
+            sum += (double) count * getGamesWithWinners(prize, count);
+        }
+        return games == 0 ? 0 : sum / games;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder(format("Simulated %,d games of %,d tickets in %.3f s (%,.0f games/s)", games, tickets,
+                                                          elapsedNanos / 1e9, getGamesPerSecond()))
+          .append(lineSeparator());
+
+        sb.append("Calls to win each prize (mean, then percentiles");
+        for (double percentile : PERCENTILES) {
+            sb.append(format(" p%s", Math.round(percentile * 100)));
+        }
+        sb.append(", then mean winners):").append(lineSeparator());
+        for (Prize prize : Prize.values()) {
+            sb.append(format("  %-10s %6.2f |", prize, getMeanCalls(prize)));
+            for (double percentile : PERCENTILES) {
+                sb.append(format(" %3d", getPercentileCalls(prize, percentile)));
+            }
+            sb.append(format(" | %.3f", getMeanWinners(prize))).append(lineSeparator());
+        }
+
+        sb.append("Games won with each call (one column per prize):").append(lineSeparator());
+        for (int call = 1; call <= MAX_CALLS; call++) {
+            final long oneLine = getGames(Prize.ONE_LINE, call);
+            final long twoLines = getGames(Prize.TWO_LINES, call);
+            final long fullHouse = getGames(Prize.FULL_HOUSE, call);
+            if (oneLine + twoLines + fullHouse > 0) {
+                sb.append(format("  %2d %,12d %,12d %,12d", call, oneLine, twoLines, fullHouse)).append(lineSeparator());
+            }
+        }
+        return sb.toString().stripTrailing();
+    }
+
+}
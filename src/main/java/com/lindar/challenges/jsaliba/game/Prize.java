@@ -0,0 +1,29 @@
+package com.lindar.challenges.jsaliba.game;
+
+/**
+ * The prizes of a bingo 90 game, won by the first ticket(s) to complete one, two or all three of their rows.
+ */
+public enum Prize {
+
+    ONE_LINE(1),
+    TWO_LINES(2),
+    FULL_HOUSE(3);
+
+    private final int lines;
+
+    Prize(int lines) {
+        this.lines = lines;
+    }
+
+    /**
+     * @return How many complete rows a ticket needs to win this prize.
+     */
+    public int getLines() {
+        return lines;
+    }
+
+    public static Prize ofLines(int lines) {
+        return values()[lines - 1];
+    }
+
+}
@@ -0,0 +1,175 @@
+package com.lindar.challenges.jsaliba.game;
+
+import com.lindar.challenges.jsaliba.beans.StripSink;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+import com.lindar.challenges.jsaliba.beans.ValidationException;
+
+import java.io.Closeable;
+import java.util.concurrent.Phaser;
+
+import static java.lang.String.format;
+
+/**
+ * A game spread across several {@link GameEngine}s (shards), each holding a contiguous range
+ * of strips and owned by a worker thread of its own.
+ * <br><br>
+ * Called numbers are broadcast to all workers through a lock-free ring buffer; each worker daubs
+ * its own shard and arrives at a {@link Phaser}, on which the caller waits before merging the
+ * shards' winners. Since shards hold ascending ranges of strips, merged winners stay in ascending order.
+ * <br><br>
+ * Ticket ids are the same as they would be in a single {@link GameEngine}: {@code strip * 6 + ticket}.
+ * Strips may be loaded concurrently, calling numbers is not thread-safe.
+ */
+public class ShardedGameEngine implements StripSink, Closeable {
+
+    // Signals the workers to stop
+    private static final int STOP = 0;
+
+    private final int strips;
+    private final int stripsPerShard;
+    private final GameEngine[] shards;
+    private final CallResult[] shardResults;
+    private final CallBroadcast broadcast;
+    private final Phaser phaser;
+    private final Thread[] workers;
+    private volatile RuntimeException failure;
+
+    private int calls;
+
+    public ShardedGameEngine(int strips, int shards) {
+        if (shards < 1 || shards > strips) {
+            throw new ValidationException(format("Between 1 and %s shards are needed for %s strips, got %s", strips, strips, shards));
+        }
+        this.strips = strips;
+        this.stripsPerShard = (strips + shards - 1) / shards;
+        this.shards = new GameEngine[(strips + stripsPerShard - 1) / stripsPerShard];
+        for (int shard = 0; shard < this.shards.length; shard++) {
+            this.shards[shard] = new GameEngine(Math.min(stripsPerShard, strips - shard * stripsPerShard));
+        }
+        this.shardResults = new CallResult[this.shards.length];
+        this.broadcast = new CallBroadcast(128, this.shards.length);
+        this.phaser = new Phaser(this.shards.length + 1);
+
+        this.workers = new Thread[this.shards.length];
+        for (int shard = 0; shard < workers.length; shard++) {
+            final int shardIdx = shard;
+            workers[shard] = new Thread(() -> work(shardIdx), "game-shard-" + shard);
+            workers[shard].setDaemon(true);
+            workers[shard].start();
+        }
+    }
+
+    /**
+     * Loads strip {@code index} of a sequence, for the shard holding it.
+     */
+    @Override
+    public void accept(long index, byte[] cells, int offset) {
+        if (index < 0 || index >= strips) {
+            throw new ValidationException(format("Strip %s is out of bounds, the game holds %s strips", index, strips));
+        }
+        shards[(int) index / stripsPerShard].load((int) index % stripsPerShard, cells, offset);
+    }
+
+    /**
+     * Daubs {@code number} across all shards in parallel.
+     *
+     * @see GameEngine#call(int)
+     */
+    public CallResult call(int number) {
+        if (number < 1 || number > GameEngine.NUMBERS) {
+            throw new ValidationException(format("Only numbers from 1 to %s can be called, got %s", GameEngine.NUMBERS, number));
+        }
+        if (shards[0].isCalled(number)) {
+            throw new ValidationException(format("Number %s has already been called", number));
+        }
+        for (GameEngine shard : shards) {
+            if (!shard.isLoaded()) {
+                throw new ValidationException("Not all strips have been loaded yet");
+            }
+        }
+
+        broadcast.publish(number);
+        phaser.arriveAndAwaitAdvance();
+
+        final RuntimeException shardFailure = failure;
+        if (shardFailure != null) {
+            failure = null;
+            throw shardFailure;
+        }
+
+        final int[][] winners = new int[Prize.values().length][];
+        for (Prize prize : Prize.values()) {
+            int total = 0;
+            for (CallResult result : shardResults) {
+                total += result.getWinners(prize).length;
+            }
+
+            winners[prize.ordinal()] = new int[total];
+            int merged = 0;
+            for (int shard = 0; shard < shardResults.length; shard++) {
+                final int firstTicket = shard * stripsPerShard * TicketStrip.TICKETS;
+                for (int ticket : shardResults[shard].getWinners(prize)) {
+                    winners[prize.ordinal()][merged++] = firstTicket + ticket;
+                }
+            }
+        }
+
+        return new CallResult(number, ++calls, winners);
+    }
+
+    /**
+     * Starts a new game over the same strips. Must not be called while a number is being called.
+     */
+    public void reset() {
+        for (GameEngine shard : shards) {
+            shard.reset();
+        }
+        calls = 0;
+    }
+
+    public int getShards() {
+        return shards.length;
+    }
+
+    public int getTickets() {
+        return strips * TicketStrip.TICKETS;
+    }
+
+    /**
+     * Stops the worker threads.
+     */
+    @Override
+    public void close() {
+        broadcast.publish(STOP);
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void work(int shard) {
+        try {
+            int number;
+            while ((number = broadcast.take(shard)) != STOP) {
+                try {
+                    shardResults[shard] = shards[shard].call(number);
+                }
+                catch (RuntimeException e) {
+                    // Keep all shards in step, and let the caller know
+                    shardResults[shard] = new CallResult(number, 0, new int[][] { {}, {}, {} });
+                    failure = e;
+                }
+                phaser.arrive();
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.lindar.challenges.jsaliba.io;
+
+import com.lindar.challenges.jsaliba.beans.Ticket;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+
+import static com.lindar.challenges.jsaliba.beans.TicketStrip.BLANK;
+import static com.lindar.challenges.jsaliba.io.RenderingSupport.*;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Renders strips as ASCII grids, preceded by a {@code Strip N} line. The grids are
+ * the same as those of {@link TicketStrip#toString()}:
+ * <pre>
+ *  -------------------------------------
+ * | --  13  --  31  --  51  60  --  82  |
+ * | --  --  26  --  42  52  --  71  87  |
+ * |  9  --  --  35  49  --  62  74  --  |
+ *  -------------------------------------
+ * </pre>
+ */
+public class AsciiGridRenderer implements StripRenderer {
+
+    private static final byte[] NEW_LINE = System.lineSeparator().getBytes(US_ASCII);
+    private static final byte[] STRIP = "Strip ".getBytes(US_ASCII);
+    private static final byte[] BORDER = (" " + "-".repeat(37) + " ").getBytes(US_ASCII);
+    private static final byte[] ROW_START = "| ".getBytes(US_ASCII);
+
+    private static final int ROW_SIZE = 2 * ROW_START.length + Ticket.COLUMNS * 4;
+
+    // Strip line, then per ticket 2 borders, 3 rows and an empty line
+    private static final int MAX_STRIP_SIZE = STRIP.length + MAX_LONG_DIGITS + 2 * NEW_LINE.length
+      + TicketStrip.TICKETS * (2 * (BORDER.length + NEW_LINE.length) + Ticket.ROWS * (ROW_SIZE + NEW_LINE.length) + NEW_LINE.length);
+
+    @Override
+    public int maxStripSize() {
+        return MAX_STRIP_SIZE;
+    }
+
+    @Override
+    public int render(long index, byte[] cells, int offset, byte[] out, int position) {
+        position = write(STRIP, out, position);
+        position = writeLong(index + 1, out, position);
+        position = write(NEW_LINE, out, position);
+        position = write(NEW_LINE, out, position);
+
+        for (int ticket = 0; ticket < TicketStrip.TICKETS; ticket++) {
+            position = write(BORDER, out, position);
+            position = write(NEW_LINE, out, position);
+
+            for (int row = 0; row < Ticket.ROWS; row++) {
+                position = write(ROW_START, out, position);
+                final int rowStart = offset + ticket * Ticket.CELLS + row * Ticket.COLUMNS;
+                for (int column = 0; column < Ticket.COLUMNS; column++) {
+                    final int number = cells[rowStart + column];
+                    if (number == BLANK) {
+                        out[position++] = '-';
+                        out[position++] = '-';
+                    }
+                    else {
+                        out[position++] = PADDED_DIGITS[2 * number];
+                        out[position++] = PADDED_DIGITS[2 * number + 1];
+                    }
+                    out[position++] = ' ';
+                    out[position++] = ' ';
+                }
+                position = write(ROW_START, out, position);
+                position = write(NEW_LINE, out, position);
+            }
+
+            position = write(BORDER, out, position);
+            position = write(NEW_LINE, out, position);
+            position = write(NEW_LINE, out, position);
+        }
+        return position;
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.lindar.challenges.jsaliba.io;
+
+import com.lindar.challenges.jsaliba.beans.Ticket;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+
+import static com.lindar.challenges.jsaliba.beans.TicketStrip.BLANK;
+import static com.lindar.challenges.jsaliba.io.RenderingSupport.*;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Renders strips as CSV, one line per ticket row, with blank spaces left empty:
+ * <pre>
+ * strip,ticket,row,c1,c2,c3,c4,c5,c6,c7,c8,c9
+ * 1,1,1,,13,,31,,51,60,,82
+ * </pre>
+ * Ticket and row numbers start from 1.
+ */
+public class CsvRenderer implements StripRenderer {
+
+    private static final byte[] HEADER = "strip,ticket,row,c1,c2,c3,c4,c5,c6,c7,c8,c9\n".getBytes(US_ASCII);
+
+    // strip number, ticket, row, 9 cells of up to 2 digits, 11 commas, new line
+    private static final int MAX_LINE_SIZE = MAX_LONG_DIGITS + 2 + Ticket.COLUMNS * 2 + 11 + 1;
+    private static final int MAX_STRIP_SIZE = TicketStrip.TICKETS * Ticket.ROWS * MAX_LINE_SIZE;
+
+    @Override
+    public int maxStripSize() {
+        return MAX_STRIP_SIZE;
+    }
+
+    @Override
+    public byte[] header() {
+        return HEADER.clone();
+    }
+
+    @Override
+    public int render(long index, byte[] cells, int offset, byte[] out, int position) {
+        // Rendered once, and copied over to every line of the strip
+        final int stripNumberStart = position;
+        final int stripNumberEnd = writeLong(index + 1, out, position);
+        final int stripNumberLength = stripNumberEnd - stripNumberStart;
+
+        for (int ticket = 0; ticket < TicketStrip.TICKETS; ticket++) {
+            for (int row = 0; row < Ticket.ROWS; row++) {
+                if (position != stripNumberStart) {
+                    System.arraycopy(out, stripNumberStart, out, position, stripNumberLength);
+                }
+                position += stripNumberLength;
+                out[position++] = ',';
+                out[position++] = (byte) ('1' + ticket);
+                out[position++] = ',';
+                out[position++] = (byte) ('1' + row);
+
+                final int rowStart = offset + ticket * Ticket.CELLS + row * Ticket.COLUMNS;
+                for (int column = 0; column < Ticket.COLUMNS; column++) {
+                    out[position++] = ',';
+                    final int number = cells[rowStart + column];
+                    if (number != BLANK) {
+                        position = writeNumber(number, out, position);
+                    }
+                }
+                out[position++] = '\n';
+            }
+        }
+        return position;
+    }
+
+}
@@ -0,0 +1,269 @@
+package com.lindar.challenges.jsaliba.io;
+
+import com.lindar.challenges.jsaliba.beans.GenerationProgress;
+import com.lindar.challenges.jsaliba.beans.ValidationException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Properties;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+
+import static java.lang.String.format;
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Records the progress of a generation into a binary strip file, so that it can be resumed where it stopped
+ * should the process die (see {@link #resume(Path, StripFileWriter, Duration)}).
+ * <br><br>
+ * Every strip of a sequence only depends on the master seed and its index, and every strip is written at an
+ * offset which only depends on its index. Hence, only the ranges of strips completed so far need recording:
+ * resuming generates every other strip, and the file ends up identical to that of an uninterrupted generation.
+ * <br><br>
+ * A checkpoint is recorded at most once per interval, as chunks complete. The strips written so far are flushed
+ * to the storage device first, then the checkpoint is written to a temporary file, flushed, and atomically moved
+ * over the previous checkpoint - hence a checkpoint never claims strips that did not make it to the device, and
+ * is never left half-written. It is a plain properties file, e.g.:
+ * <pre>
+ * seed=42
+ * first-index=0
+ * strips=100000000
+ * algorithm=legacy
+ * random=random
+ * completed=0-1048576,1056768-1060864
+ * resume-offset=94371904
+ * </pre>
+ * {@code resume-offset} is the file offset of the first strip not yet completed.
+ */
+public class GenerationCheckpoint implements GenerationProgress {
+
+    public static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(10);
+
+    private static final String VERSION = "1";
+
+    private final Path file;
+    private final StripFileWriter writer;
+    private final long masterSeed;
+    private final long firstIndex;
+    private final long count;
+    private final String algorithm;
+    private final String random;
+    private final long intervalNanos;
+
+    // Completed ranges, start to (exclusive) end, never adjacent
+    private final TreeMap<Long, Long> completed = new TreeMap<>();
+    private long lastRecorded = System.nanoTime();
+
+    private GenerationCheckpoint(Path file, StripFileWriter writer, long masterSeed, long firstIndex, long count,
+                                 String algorithm, String random, Duration interval) {
+        this.file = file;
+        this.writer = writer;
+        this.masterSeed = masterSeed;
+        this.firstIndex = firstIndex;
+        this.count = count;
+        this.algorithm = algorithm;
+        this.random = random;
+        this.intervalNanos = interval.toNanos();
+    }
+
+    /**
+     * @return Where the checkpoint of a generation into {@code output} is kept.
+     */
+    public static Path pathOf(Path output) {
+        return output.resolveSibling(output.getFileName() + ".checkpoint");
+    }
+
+    /**
+     * Starts recording the progress of a new generation into {@code writer}, without recording anything yet.
+     *
+     * @param algorithm Name of the algorithm generating the strips, which a resumed generation must use as well.
+     * @param random Name of the random source the strips are drawn from, likewise.
+     */
+    public static GenerationCheckpoint start(Path file, StripFileWriter writer, long masterSeed, long firstIndex, long count,
+                                             String algorithm, String random, Duration interval) {
+        return new GenerationCheckpoint(file, writer, masterSeed, firstIndex, count, algorithm, random, interval);
+    }
+
+    /**
+     * Loads the checkpoint recorded in {@code file}, to resume the generation it records, into {@code writer}
+     * (see {@link StripFileWriter#resume(Path, long, long, long)}).
+     */
+    public static GenerationCheckpoint resume(Path file, StripFileWriter writer, Duration interval) throws IOException {
+        final Properties properties = read(file);
+        final GenerationCheckpoint checkpoint = new GenerationCheckpoint(
+          file, writer, getLong(properties, "seed", file), getLong(properties, "first-index", file), getLong(properties, "strips", file),
+          properties.getProperty("algorithm"), properties.getProperty("random"), interval);
+
+        final String ranges = properties.getProperty("completed", "");
+        if (!ranges.isBlank()) {
+            for (String range : ranges.split(",")) {
+                final String[] bounds = range.trim().split("-");
+                try {
+                    checkpoint.completed(Long.parseLong(bounds[0]), Long.parseLong(bounds[1]));
+                }
+                catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                    throw new ValidationException(format("Invalid completed range '%s' in %s", range, file));
+                }
+            }
+        }
+        return checkpoint;
+    }
+
+    /**
+     * @return The properties of the checkpoint recorded in {@code file}.
+     * @throws ValidationException If the file is not a checkpoint.
+     */
+    public static Properties read(Path file) throws IOException {
+        final Properties properties = new Properties();
+        try (var reader = Files.newBufferedReader(file, StandardCharsets.ISO_8859_1)) {
+            properties.load(reader);
+        }
+        if (!VERSION.equals(properties.getProperty("version"))) {
+            throw new ValidationException(format("%s is not a generation checkpoint", file));
+        }
+        return properties;
+    }
+
+    /**
+     * @return The master seed of the generation the checkpoint recorded in {@code file} records.
+     * @throws ValidationException If the file is not a checkpoint, or records no valid seed.
+     */
+    public static long readMasterSeed(Path file) throws IOException {
+        return getLong(read(file), "seed", file);
+    }
+
+    /**
+     * @throws ValidationException Unless the checkpoint records a generation of the given strips, by the given
+     * algorithm and random source.
+     */
+    public void check(long masterSeed, long firstIndex, long count, String algorithm, String random) {
+        if (masterSeed != this.masterSeed || firstIndex != this.firstIndex || count != this.count
+            || !algorithm.equals(this.algorithm) || !random.equals(this.random)) {
+            throw new ValidationException(format(
+              "%s records the generation of %s strips starting from %s with seed %s (%s algorithm, %s random source), not of %s strips starting from %s with seed %s (%s algorithm, %s random source)",
+              file, this.count, this.firstIndex, this.masterSeed, this.algorithm, this.random, count, firstIndex, masterSeed, algorithm, random));
+        }
+    }
+
+    @Override
+    public synchronized boolean isCompleted(long fromIndex, long toIndex) {
+        final Map.Entry<Long, Long> range = completed.floorEntry(fromIndex);
+        return range != null && range.getValue() >= toIndex;
+    }
+
+    @Override
+    public void completed(long fromIndex, long toIndex) {
+        synchronized (this) {
+            long start = fromIndex;
+            long end = toIndex;
+            final Map.Entry<Long, Long> previous = completed.floorEntry(start);
+            if (previous != null && previous.getValue() >= start) {
+                start = previous.getKey();
+                end = Math.max(end, previous.getValue());
+            }
+            Map.Entry<Long, Long> next;
+            while ((next = completed.ceilingEntry(start + 1)) != null && next.getKey() <= end) {
+                end = Math.max(end, next.getValue());
+                completed.remove(next.getKey());
+            }
+            completed.put(start, end);
+
+            if (System.nanoTime() - lastRecorded < intervalNanos) {
+                return;
+            }
+            try {
+                record();
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * @return How many strips were completed so far.
+     */
+    public synchronized long getCompleted() {
+        long strips = 0;
+        for (Map.Entry<Long, Long> range : completed.entrySet()) {
+            strips += range.getValue() - range.getKey();
+        }
+        return strips;
+    }
+
+    public long getMasterSeed() {
+        return masterSeed;
+    }
+
+    /**
+     * Flushes every strip written so far to the storage device, then records them as completed.
+     */
+    public synchronized void record() throws IOException {
+        lastRecorded = System.nanoTime();
+        final StringJoiner ranges = new StringJoiner(",");
+        completed.forEach((start, end) -> ranges.add(start + "-" + end));
+        final Map.Entry<Long, Long> first = completed.firstEntry();
+        final long resumeIndex = first != null && first.getKey() == firstIndex ? first.getValue() : firstIndex;
+
+        writer.force();
+
+        final String content = "# Generation checkpoint, see GenerationCheckpoint\n"
+                               + "version=" + VERSION + "\n"
+                               + "seed=" + masterSeed + "\n"
+                               + "first-index=" + firstIndex + "\n"
+                               + "strips=" + count + "\n"
+                               + "algorithm=" + algorithm + "\n"
+                               + "random=" + random + "\n"
+                               + "completed=" + ranges + "\n"
+                               + "resume-offset=" + StripFileFormat.recordOffset(resumeIndex - firstIndex) + "\n";
+
+        final Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, CREATE, TRUNCATE_EXISTING, WRITE)) {
+            final ByteBuffer bytes = ByteBuffer.wrap(content.getBytes(StandardCharsets.ISO_8859_1));
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        forceDirectory(file.toAbsolutePath().getParent());
+    }
+
+    /**
+     * Deletes the checkpoint, once the generation is complete.
+     */
+    public synchronized void finish() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(file.resolveSibling(file.getFileName() + ".tmp"));
+    }
+
+    /**
+     * Makes the move of the checkpoint durable, where the platform allows opening directories (not on Windows).
+     */
+    private static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, READ)) {
+            channel.force(true);
+        }
+        catch (IOException e) {
+            // Best effort
+        }
+    }
+
+    private static long getLong(Properties properties, String name, Path file) {
+        try {
+            return Long.parseLong(properties.getProperty(name));
+        }
+        catch (NumberFormatException e) {
+            throw new ValidationException(format("Invalid or missing %s in %s", name, file));
+        }
+    }
+
+}
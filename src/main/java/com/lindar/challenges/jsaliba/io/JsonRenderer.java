@@ -0,0 +1,60 @@
+package com.lindar.challenges.jsaliba.io;
+
+import com.lindar.challenges.jsaliba.beans.Ticket;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+
+import static com.lindar.challenges.jsaliba.beans.TicketStrip.BLANK;
+import static com.lindar.challenges.jsaliba.io.RenderingSupport.*;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Renders strips as JSON Lines, i.e. one JSON object per line, holding the strip's
+ * tickets as arrays of rows, with blank spaces as {@code null}:
+ * <pre>
+ * {"strip":1,"tickets":[[[null,13,null,31,null,51,60,null,82],[...],[...]],...]}
+ * </pre>
+ */
+public class JsonRenderer implements StripRenderer {
+
+    private static final byte[] STRIP = "{\"strip\":".getBytes(US_ASCII);
+    private static final byte[] TICKETS = ",\"tickets\":[".getBytes(US_ASCII);
+    private static final byte[] NULL = "null".getBytes(US_ASCII);
+    private static final byte[] END = "]}\n".getBytes(US_ASCII);
+
+    // 2 brackets and a comma per ticket and per row, and up to 4 characters and a comma per cell
+    private static final int MAX_STRIP_SIZE = STRIP.length + MAX_LONG_DIGITS + TICKETS.length + END.length
+      + TicketStrip.TICKETS * (3 + Ticket.ROWS * (3 + Ticket.COLUMNS * 5));
+
+    @Override
+    public int maxStripSize() {
+        return MAX_STRIP_SIZE;
+    }
+
+    @Override
+    public int render(long index, byte[] cells, int offset, byte[] out, int position) {
+        position = write(STRIP, out, position);
+        position = writeLong(index + 1, out, position);
+        position = write(TICKETS, out, position);
+
+        for (int ticket = 0; ticket < TicketStrip.TICKETS; ticket++) {
+            if (ticket > 0) out[position++] = ',';
+            out[position++] = '[';
+
+            for (int row = 0; row < Ticket.ROWS; row++) {
+                if (row > 0) out[position++] = ',';
+                out[position++] = '[';
+
+                final int rowStart = offset + ticket * Ticket.CELLS + row * Ticket.COLUMNS;
+                for (int column = 0; column < Ticket.COLUMNS; column++) {
+                    if (column > 0) out[position++] = ',';
+                    final int number = cells[rowStart + column];
+                    position = number == BLANK ? write(NULL, out, position) : writeNumber(number, out, position);
+                }
+                out[position++] = ']';
+            }
+            out[position++] = ']';
+        }
+        return write(END, out, position);
+    }
+
+}
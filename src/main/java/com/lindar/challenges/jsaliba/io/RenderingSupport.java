@@ -0,0 +1,59 @@
+package com.lindar.challenges.jsaliba.io;
+
+/**
+ * Lookup tables and helpers shared by the {@link StripRenderer}s.
+ */
+final class RenderingSupport {
+
+    /**
+     * Two ASCII digits for every number from 0 to 99, the first of which is a space for numbers below 10.
+     */
+    static final byte[] PADDED_DIGITS = new byte[200];
+
+    static {
+        for (int n = 0; n < 100; n++) {
+            PADDED_DIGITS[2 * n] = (byte) (n < 10 ? ' ' : '0' + n / 10);
+            PADDED_DIGITS[2 * n + 1] = (byte) ('0' + n % 10);
+        }
+    }
+
+    /**
+     * Enough room for the digits of any long.
+     */
+    static final int MAX_LONG_DIGITS = 20;
+
+    private RenderingSupport() {
+    }
+
+    /**
+     * Writes a number from 1 to 99 without padding.
+     */
+    static int writeNumber(int number, byte[] out, int position) {
+        if (number >= 10) {
+            out[position++] = PADDED_DIGITS[2 * number];
+        }
+        out[position++] = PADDED_DIGITS[2 * number + 1];
+        return position;
+    }
+
+    /**
+     * Writes a non-negative long without padding.
+     */
+    static int writeLong(long value, byte[] out, int position) {
+        int digits = 1;
+        for (long v = value / 10; v > 0; v /= 10) {
+            digits++;
+        }
+        for (int i = position + digits - 1; i >= position; i--) {
+            out[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return position + digits;
+    }
+
+    static int write(byte[] bytes, byte[] out, int position) {
+        System.arraycopy(bytes, 0, out, position, bytes.length);
+        return position + bytes.length;
+    }
+
+}
@@ -0,0 +1,316 @@
+package com.lindar.challenges.jsaliba.io;
+
+import com.lindar.challenges.jsaliba.beans.Ticket;
+import com.lindar.challenges.jsaliba.beans.TicketLayouts;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+import com.lindar.challenges.jsaliba.beans.ValidationException;
+
+import java.util.Arrays;
+
+import static com.lindar.challenges.jsaliba.beans.TicketStrip.BLANK;
+import static com.lindar.challenges.jsaliba.beans.TicketStrip.TICKETS;
+import static java.lang.String.format;
+
+/**
+ * Packs valid strips into {@link #ENCODED_SIZE} bytes apiece, for the wire, rather than the 90 bytes of a
+ * strip file record (see {@link StripFileFormat}), or the 162 bytes of packed cells.
+ * <br><br>
+ * A strip is fully determined by:
+ * <ol>
+ * <li>the layout of each of its tickets, i.e. which cells house a number (see {@link TicketLayouts}), which in turn
+ * determines how many numbers each ticket houses in each column, and</li>
+ * <li>for each column, which ticket houses each of its numbers, given how many each ticket houses. Within a ticket,
+ * a column's numbers are sorted from top to bottom, so that's enough to place every number.</li>
+ * </ol>
+ * Each ticket's layout is encoded as its rank among all layouts (20 bits), and each column's assignment of numbers
+ * to tickets as its rank among all assignments with the same number of numbers per ticket, i.e. among
+ * {@code n! / (k0! k1! ... k5!)} for a column of {@code n} numbers (16 bits for the first column, 18 for the middle
+ * ones and 21 for the last). That's 283 bits, packed least significant bit first into 36 bytes.
+ * <br><br>
+ * Only valid strips can be encoded: every column of every ticket sorted, every row housing five numbers, and so on.
+ * Anything else is rejected, rather than silently encoded as some other strip. Likewise, decoding rejects bytes
+ * which no strip encodes to.
+ * <br><br>
+ * Encoding costs far more than copying 90-byte records (see {@code StripCodecBenchmark}), hence compact records are
+ * only issued over HTTP, on request ({@code format=compact}, see {@link com.lindar.challenges.jsaliba.service.StripHttpServer}),
+ * where the bandwidth saved outweighs it. Strip files keep their 90-byte records.
+ * <br><br>
+ * Instances keep a few scratch buffers, hence are not thread-safe, keep one per thread.
+ */
+public class StripCodec {
+
+    public static final int ENCODED_SIZE = 36;
+
+    private static final int LAYOUT_BITS = 20;
+    private static final int[] COLUMN_BITS = { 16, 18, 18, 18, 18, 18, 18, 18, 21 };
+    private static final int[] COLUMN_STARTS = { 1, 10, 20, 30, 40, 50, 60, 70, 80, 91 };
+    private static final int NUMBERS = 90;
+
+    private static final int MAX_COLUMN_NUMBERS = 11;
+
+    // Multinomial coefficients are computed from factorials, 11! fits comfortably in a long.
+    private static final long[] FACTORIALS = new long[MAX_COLUMN_NUMBERS + 1];
+
+    // Ranking divides by the numbers left in a column at every step. Dividends stay below 2^24, so dividing by
+    // n is exactly multiplying by ceil(2^40 / n) and shifting right by 40, which is several times faster.
+    private static final int RECIPROCAL_SHIFT = 40;
+    private static final long[] RECIPROCALS = new long[MAX_COLUMN_NUMBERS + 1];
+
+    static {
+        FACTORIALS[0] = 1;
+        for (int i = 1; i <= MAX_COLUMN_NUMBERS; i++) {
+            FACTORIALS[i] = FACTORIALS[i - 1] * i;
+            RECIPROCALS[i] = ((1L << RECIPROCAL_SHIFT) + i - 1) / i;
+        }
+    }
+
+    private final int[] layouts = new int[TICKETS];
+    // Ticket housing each number, while encoding.
+    private final byte[] ticketOf = new byte[NUMBERS + 1];
+    // Numbers each ticket has yet to be given in the column being ranked.
+    private final int[] remaining = new int[TICKETS];
+    // Rows of each ticket yet to be given a number in the column being decoded.
+    private final int[] rows = new int[TICKETS];
+
+    /**
+     * Encodes the strip whose 162 cells start at {@code cells[offset]} into {@link #ENCODED_SIZE} bytes,
+     * starting at {@code target[targetOffset]}.
+     *
+     * @throws ValidationException If the strip is not valid.
+     */
+    public void encode(byte[] cells, int offset, byte[] target, int targetOffset) {
+        Arrays.fill(ticketOf, (byte) -1);
+        for (int ticket = 0; ticket < TICKETS; ticket++) {
+            final int ticketOffset = offset + ticket * Ticket.CELLS;
+            int layout = 0;
+            for (int column = 0; column < Ticket.COLUMNS; column++) {
+                int previous = COLUMN_STARTS[column] - 1;
+                for (int row = 0; row < Ticket.ROWS; row++) {
+                    final int number = cells[ticketOffset + row * Ticket.COLUMNS + column];
+                    if (number == BLANK) {
+                        continue;
+                    }
+                    // Sorted within the column's range, and not seen before
+                    if (number <= previous || number >= COLUMN_STARTS[column + 1] || ticketOf[number] != -1) {
+                        throw new ValidationException(format("Cannot encode number %s at row %s, column %s of ticket %s, it is out of place or repeated", number, row, column, ticket + 1));
+                    }
+                    ticketOf[number] = (byte) ticket;
+                    layout |= 1 << (column * Ticket.ROWS + row);
+                    previous = number;
+                }
+            }
+            layouts[ticket] = layout;
+        }
+
+        final BitWriter bits = new BitWriter(target, targetOffset);
+        for (int ticket = 0; ticket < TICKETS; ticket++) {
+            bits.write(TicketLayouts.rank(layouts[ticket]), LAYOUT_BITS);
+        }
+        for (int column = 0; column < Ticket.COLUMNS; column++) {
+            int numbers = 0;
+            for (int ticket = 0; ticket < TICKETS; ticket++) {
+                remaining[ticket] = Integer.bitCount(TicketLayouts.columnMask(layouts[ticket], column));
+                numbers += remaining[ticket];
+            }
+            if (numbers != COLUMN_STARTS[column + 1] - COLUMN_STARTS[column]) {
+                throw new ValidationException(format("Cannot encode a strip housing %s numbers in column %s", numbers, column));
+            }
+            bits.write(rankColumn(column, numbers), COLUMN_BITS[column]);
+        }
+        bits.flush();
+    }
+
+    /**
+     * Encodes {@code count} consecutive strips, starting at {@code cells[offset]}, back to back into {@code target}.
+     */
+    public void encode(byte[] cells, int offset, int count, byte[] target, int targetOffset) {
+        for (int strip = 0; strip < count; strip++) {
+            encode(cells, offset + strip * TicketStrip.CELLS, target, targetOffset + strip * ENCODED_SIZE);
+        }
+    }
+
+    /**
+     * @return The encoding of {@code strip}.
+     */
+    public byte[] encode(TicketStrip strip) {
+        final byte[] cells = new byte[TicketStrip.CELLS];
+        strip.copyCells(cells, 0);
+        final byte[] encoded = new byte[ENCODED_SIZE];
+        encode(cells, 0, encoded, 0);
+        return encoded;
+    }
+
+    /**
+     * Decodes the {@link #ENCODED_SIZE} bytes at {@code source[sourceOffset]} into the strip's 162 cells,
+     * starting at {@code cells[offset]}.
+     *
+     * @throws ValidationException If no strip encodes to the given bytes.
+     */
+    public void decode(byte[] source, int sourceOffset, byte[] cells, int offset) {
+        final BitReader bits = new BitReader(source, sourceOffset);
+        for (int ticket = 0; ticket < TICKETS; ticket++) {
+            layouts[ticket] = TicketLayouts.unrank((int) bits.read(LAYOUT_BITS));
+        }
+
+        Arrays.fill(cells, offset, offset + TicketStrip.CELLS, (byte) BLANK);
+        for (int column = 0; column < Ticket.COLUMNS; column++) {
+            int numbers = 0;
+            for (int ticket = 0; ticket < TICKETS; ticket++) {
+                rows[ticket] = TicketLayouts.columnMask(layouts[ticket], column);
+                remaining[ticket] = Integer.bitCount(rows[ticket]);
+                numbers += remaining[ticket];
+            }
+            if (numbers != COLUMN_STARTS[column + 1] - COLUMN_STARTS[column]) {
+                throw new ValidationException(format("Corrupt strip encoding, its tickets house %s numbers in column %s", numbers, column));
+            }
+            unrankColumn(column, numbers, bits.read(COLUMN_BITS[column]), cells, offset);
+        }
+        if (bits.read(ENCODED_SIZE * Byte.SIZE - bits.position()) != 0) {
+            throw new ValidationException("Corrupt strip encoding, its padding is not zeroed");
+        }
+    }
+
+    /**
+     * Decodes {@code count} strips encoded back to back, starting at {@code source[sourceOffset]}, into consecutive cells.
+     */
+    public void decode(byte[] source, int sourceOffset, int count, byte[] cells, int offset) {
+        for (int strip = 0; strip < count; strip++) {
+            decode(source, sourceOffset + strip * ENCODED_SIZE, cells, offset + strip * TicketStrip.CELLS);
+        }
+    }
+
+    /**
+     * @return The strip encoded as {@code encoded}.
+     */
+    public TicketStrip decode(byte[] encoded) {
+        final byte[] cells = new byte[TicketStrip.CELLS];
+        decode(encoded, 0, cells, 0);
+        return new TicketStrip(cells);
+    }
+
+    /**
+     * Ranks the sequence of tickets housing the column's numbers, in ascending order, among all sequences
+     * where each ticket appears {@code remaining[ticket]} times (a multiset permutation).
+     */
+    private long rankColumn(int column, int numbers) {
+        long permutations = multinomial(numbers);
+        long rank = 0;
+        for (int number = COLUMN_STARTS[column]; number < COLUMN_STARTS[column + 1]; number++, numbers--) {
+            final int ticket = ticketOf[number];
+            // Sequences placing an earlier ticket here all come first, there are permutations * remaining / numbers of each
+            int earlier = 0;
+            for (int other = 0; other < ticket; other++) {
+                earlier += remaining[other];
+            }
+            rank += divide(permutations * earlier, numbers);
+            permutations = divide(permutations * remaining[ticket], numbers);
+            remaining[ticket]--;
+        }
+        return rank;
+    }
+
+    private void unrankColumn(int column, int numbers, long rank, byte[] cells, int offset) {
+        long permutations = multinomial(numbers);
+        if (rank >= permutations) {
+            throw new ValidationException(format("Corrupt strip encoding, column %s is ranked %s of %s", column, rank, permutations));
+        }
+
+        for (int number = COLUMN_STARTS[column]; number < COLUMN_STARTS[column + 1]; number++, numbers--) {
+            int ticket = 0;
+            long following = divide(permutations * remaining[0], numbers);
+            while (rank >= following) {
+                rank -= following;
+                following = divide(permutations * remaining[++ticket], numbers);
+            }
+            permutations = following;
+            remaining[ticket]--;
+
+            // Numbers fill the ticket's column from the top
+            final int row = Integer.numberOfTrailingZeros(rows[ticket]);
+            rows[ticket] &= rows[ticket] - 1;
+            cells[offset + ticket * Ticket.CELLS + row * Ticket.COLUMNS + column] = (byte) number;
+        }
+    }
+
+    private static long divide(long dividend, int divisor) {
+        return dividend * RECIPROCALS[divisor] >>> RECIPROCAL_SHIFT;
+    }
+
+    private long multinomial(int numbers) {
+        long divisor = 1;
+        for (int ticket = 0; ticket < TICKETS; ticket++) {
+            divisor *= FACTORIALS[remaining[ticket]];
+        }
+        return FACTORIALS[numbers] / divisor;
+    }
+
+    /**
+     * Writes fields of up to 32 bits, least significant bit first.
+     */
+    private static final class BitWriter {
+
+        private final byte[] target;
+        private int position;
+        private long pending;
+        private int pendingBits;
+
+        private BitWriter(byte[] target, int offset) {
+            this.target = target;
+            this.position = offset;
+        }
+
+        private void write(long value, int bits) {
+            pending |= value << pendingBits;
+            pendingBits += bits;
+            while (pendingBits >= Byte.SIZE) {
+                target[position++] = (byte) pending;
+                pending >>>= Byte.SIZE;
+                pendingBits -= Byte.SIZE;
+            }
+        }
+
+        private void flush() {
+            if (pendingBits > 0) {
+                target[position++] = (byte) pending;
+                pending = 0;
+                pendingBits = 0;
+            }
+        }
+
+    }
+
+    private static final class BitReader {
+
+        private final byte[] source;
+        private final int offset;
+        private int position;
+        private long pending;
+        private int pendingBits;
+
+        private BitReader(byte[] source, int offset) {
+            this.source = source;
+            this.offset = offset;
+            this.position = offset;
+        }
+
+        private long read(int bits) {
+            while (pendingBits < bits) {
+                pending |= (source[position++] & 0xFFL) << pendingBits;
+                pendingBits += Byte.SIZE;
+            }
+            final long value = pending & ((1L << bits) - 1);
+            pending >>>= bits;
+            pendingBits -= bits;
+            return value;
+        }
+
+        /**
+         * @return Number of bits read so far.
+         */
+        private int position() {
+            return (position - offset) * Byte.SIZE - pendingBits;
+        }
+
+    }
+
+}
@@ -0,0 +1,185 @@
+package com.lindar.challenges.jsaliba.io;
+
+import com.lindar.challenges.jsaliba.beans.RandomSource;
+import com.lindar.challenges.jsaliba.beans.StripAlgorithm;
+import com.lindar.challenges.jsaliba.beans.StripSequence;
+import com.lindar.challenges.jsaliba.beans.Ticket;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+import com.lindar.challenges.jsaliba.beans.ValidationException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static com.lindar.challenges.jsaliba.beans.TicketStrip.BLANK;
+import static java.lang.String.format;
+
+/**
+ * Layout of binary strip files ({@code .b90}): a fixed 64-byte header, followed by one
+ * fixed-width record per strip, so that strip {@code N} is found at
+ * {@code HEADER_SIZE + N * RECORD_SIZE} without parsing the rest of the file.
+ * <br><br>
+ * Header (big-endian):
+ * <ul>
+ * <li>{@code 0} - magic, {@code "B90S"}</li>
+ * <li>{@code 4} - format version (short)</li>
+ * <li>{@code 6} - record size (short), {@link #RECORD_SIZE}, or {@link StripCodec#ENCODED_SIZE} for streams of compact records,
+ * which are only issued over HTTP and which {@link StripFileReader} does not read</li>
+ * <li>{@code 8} - master seed of the {@link com.lindar.challenges.jsaliba.beans.StripSequence} (long)</li>
+ * <li>{@code 16} - sequence index of the first strip in the file (long)</li>
+ * <li>{@code 24} - number of strips in the file (long)</li>
+ * <li>{@code 32} - flags (int), {@link #FLAG_CHECKSUM} once every strip was written</li>
+ * <li>{@code 36} - CRC32C of all records (int), if flagged</li>
+ * <li>{@code 40} - name of the {@link StripAlgorithm} generating the strips (12 ASCII bytes, zero-padded)</li>
+ * <li>{@code 52} - name of the {@link RandomSource} the strips are drawn from (12 ASCII bytes, zero-padded)</li>
+ * </ul>
+ * Files are written in any order (see {@link StripFileWriter}), so the checksum is only computed
+ * once all strips were, and tells complete files apart from interrupted ones. The same seed yields different
+ * strips with different algorithms and random sources, hence both are recorded next to it: files written
+ * before they were have those bytes zeroed, and do not tell.
+ * Record: one byte per number, where byte {@code n - 1} holds {@code ticket * 3 + row}
+ * of the cell housing number {@code n}. The column of a number is implied by the number
+ * itself, and blanks are whatever is left, so this is enough to rebuild the whole strip.
+ */
+public final class StripFileFormat {
+
+    public static final int MAGIC = 0x42393053; // "B90S"
+    public static final short VERSION = 1;
+    public static final int HEADER_SIZE = 64;
+    public static final int RECORD_SIZE = 90;
+    public static final int CHECKSUM_OFFSET = 32;
+    public static final int FLAG_CHECKSUM = 1;
+    public static final int ALGORITHM_OFFSET = 40;
+    public static final int RANDOM_SOURCE_OFFSET = 52;
+    public static final int NAME_SIZE = 12;
+
+    private StripFileFormat() {
+    }
+
+    /**
+     * @return The position of the record of the strip at {@code position} within the file.
+     */
+    public static long recordOffset(long position) {
+        return HEADER_SIZE + position * RECORD_SIZE;
+    }
+
+    public static long fileSize(long count) {
+        return recordOffset(count);
+    }
+
+    /**
+     * Packs the strip starting at {@code cells[offset]} into a 90-byte record at {@code record[recordOffset]}.
+     */
+    public static void encode(byte[] cells, int offset, byte[] record, int recordOffset) {
+        for (int ticket = 0; ticket < TicketStrip.TICKETS; ticket++) {
+            for (int row = 0; row < Ticket.ROWS; row++) {
+                final int rowStart = offset + ticket * Ticket.CELLS + row * Ticket.COLUMNS;
+                for (int column = 0; column < Ticket.COLUMNS; column++) {
+                    final int number = cells[rowStart + column];
+                    if (number != BLANK) {
+                        record[recordOffset + number - 1] = (byte) (ticket * Ticket.ROWS + row);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Unpacks the 90-byte record at {@code record[recordOffset]} into the strip's cells, starting at {@code cells[offset]}.
+     */
+    public static void decode(byte[] record, int recordOffset, byte[] cells, int offset) {
+        Arrays.fill(cells, offset, offset + TicketStrip.CELLS, (byte) BLANK);
+        for (int number = 1; number <= RECORD_SIZE; number++) {
+            final int position = record[recordOffset + number - 1];
+            if (position < 0 || position >= TicketStrip.TICKETS * Ticket.ROWS) {
+                throw new ValidationException(format("Corrupt record, number %s is placed at position %s", number, position));
+            }
+            cells[offset + position * Ticket.COLUMNS + Ticket.columnOf(number)] = (byte) number;
+        }
+    }
+
+    /**
+     * @return The 64-byte header of a file holding {@code count} strips of {@code sequence}, starting from {@code firstIndex}.
+     */
+    public static ByteBuffer header(StripSequence sequence, long firstIndex, long count) {
+        return header(sequence.getMasterSeed(), sequence.getAlgorithm(), sequence.getRandomSource(), firstIndex, count, RECORD_SIZE);
+    }
+
+    /**
+     * @return The 64-byte header of a file holding {@code count} strips of the default sequence started by
+     * {@code masterSeed} (i.e. {@code new StripSequence(masterSeed)}), starting from {@code firstIndex}.
+     */
+    public static ByteBuffer header(long masterSeed, long firstIndex, long count) {
+        return header(masterSeed, firstIndex, count, RECORD_SIZE);
+    }
+
+    /**
+     * @return The 64-byte header of {@code count} strips of the default sequence started by {@code masterSeed},
+     * starting from {@code firstIndex}, in records of {@code recordSize} bytes.
+     */
+    public static ByteBuffer header(long masterSeed, long firstIndex, long count, int recordSize) {
+        return header(masterSeed, StripAlgorithm.LEGACY, RandomSource.RANDOM, firstIndex, count, recordSize);
+    }
+
+    /**
+     * @return The 64-byte header of {@code count} strips of a sequence, generated by {@code algorithm} drawing
+     * from {@code randomSource}, starting from {@code firstIndex}, in records of {@code recordSize} bytes.
+     * Either may be {@code null}, leaving it unrecorded.
+     */
+    public static ByteBuffer header(long masterSeed, StripAlgorithm algorithm, RandomSource randomSource, long firstIndex, long count, int recordSize) {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.BIG_ENDIAN);
+        header.putInt(MAGIC)
+          .putShort(VERSION)
+          .putShort((short) recordSize)
+          .putLong(masterSeed)
+          .putLong(firstIndex)
+          .putLong(count)
+          .put(ALGORITHM_OFFSET, name(algorithm != null ? algorithm.name().toLowerCase() : ""))
+          .put(RANDOM_SOURCE_OFFSET, name(randomSource != null ? randomSource.getName() : ""));
+        return header.clear();
+    }
+
+    /**
+     * @return The algorithm recorded by {@code header}, or {@code null} if it records none.
+     */
+    public static StripAlgorithm algorithmOf(ByteBuffer header) {
+        final String name = nameAt(header, ALGORITHM_OFFSET);
+        return name.isEmpty() ? null : StripAlgorithm.of(name);
+    }
+
+    /**
+     * @return The random source recorded by {@code header}, or {@code null} if it records none.
+     */
+    public static RandomSource randomSourceOf(ByteBuffer header) {
+        final String name = nameAt(header, RANDOM_SOURCE_OFFSET);
+        return name.isEmpty() ? null : RandomSource.of(name);
+    }
+
+    private static byte[] name(String name) {
+        final byte[] bytes = name.getBytes(StandardCharsets.US_ASCII);
+        if (bytes.length > NAME_SIZE) {
+            throw new ValidationException(format("'%s' is longer than the %s bytes a strip file header records", name, NAME_SIZE));
+        }
+        return Arrays.copyOf(bytes, NAME_SIZE);
+    }
+
+    private static String nameAt(ByteBuffer header, int offset) {
+        final byte[] bytes = new byte[NAME_SIZE];
+        header.get(offset, bytes);
+        int length = 0;
+        while (length < NAME_SIZE && bytes[length] != 0) {
+            length++;
+        }
+        return new String(bytes, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * @return The 8 bytes to write at {@link #CHECKSUM_OFFSET} of the header of a complete file,
+     * the CRC32C of whose records is {@code checksum}.
+     */
+    public static ByteBuffer checksum(int checksum) {
+        return ByteBuffer.allocate(8).order(ByteOrder.BIG_ENDIAN).putInt(FLAG_CHECKSUM).putInt(checksum).clear();
+    }
+
+}
@@ -0,0 +1,266 @@
+package com.lindar.challenges.jsaliba.io;
+
+import com.lindar.challenges.jsaliba.beans.RandomSource;
+import com.lindar.challenges.jsaliba.beans.StripAlgorithm;
+import com.lindar.challenges.jsaliba.beans.ValidationException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import static com.lindar.challenges.jsaliba.io.StripFileFormat.*;
+import static java.lang.String.format;
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Merges binary strip files holding consecutive ranges of the same sequence, e.g. the partitions of a generation
+ * spread across several processes (see {@link com.lindar.challenges.jsaliba.beans.StripPartition}), into a single
+ * strip file, in sequence order.
+ * <br><br>
+ * Every shard must be complete (i.e. checksummed, see {@link StripFileFormat}), share the same master seed, algorithm
+ * and random source - lest the merged file mix up strips of different sequences - and the shards must cover a single
+ * range of strips, without gaps nor overlaps - all of which is checked upfront.
+ * Shards are then copied one after the other, sequentially, verifying every shard's checksum as it is read,
+ * and the merged file is checksummed in turn. Next to it, an index (see {@link #indexPathOf(Path)}) records which
+ * range of strips came from which shard, where it starts in the merged file, and its checksum, e.g.:
+ * <pre>
+ * seed=42
+ * algorithm=legacy
+ * random=random
+ * first-index=0
+ * strips=1000000
+ * checksum=5f0e3a1c
+ * shards=2
+ * shard.1.file=strips-1.b90
+ * shard.1.first-index=0
+ * shard.1.strips=500000
+ * shard.1.offset=64
+ * shard.1.checksum=0c7b29d4
+ * ...
+ * </pre>
+ */
+public class StripFileMerger {
+
+    private static final String VERSION = "1";
+    private static final int BLOCK_SIZE = 1 << 20;
+
+    private final List<Shard> shards = new ArrayList<>();
+    private final long masterSeed;
+    private final StripAlgorithm algorithm;
+    private final RandomSource randomSource;
+    private final long firstIndex;
+    private final long count;
+
+    /**
+     * Reads the header of every shard, and checks that they can be merged.
+     *
+     * @throws ValidationException If any shard is incomplete, or the shards do not make up a single range of a sequence.
+     */
+    public StripFileMerger(List<Path> files) throws IOException {
+        if (files.isEmpty()) {
+            throw new ValidationException("No strip files to merge");
+        }
+        for (Path file : files) {
+            try (StripFileReader reader = new StripFileReader(file)) {
+                if (!reader.isChecksummed()) {
+                    throw new ValidationException(format("%s is incomplete, it has no checksum", file));
+                }
+                shards.add(new Shard(file, reader.getMasterSeed(), reader.getAlgorithm(), reader.getRandomSource(), reader.getFirstIndex(), reader.getCount(),
+                                     reader.getChecksum()));
+            }
+        }
+        shards.sort(Comparator.comparingLong(shard -> shard.firstIndex));
+
+        final Shard first = shards.get(0);
+        long nextIndex = first.firstIndex;
+        for (Shard shard : shards) {
+            if (shard.masterSeed != first.masterSeed) {
+                throw new ValidationException(format("%s holds strips with seed %s, while %s holds strips with seed %s",
+                                                     shard.file, shard.masterSeed, first.file, first.masterSeed));
+            }
+            if (shard.algorithm != first.algorithm || shard.randomSource != first.randomSource) {
+                throw new ValidationException(format("%s holds strips generated by the %s algorithm from the %s random source, while %s holds strips generated by the %s algorithm from the %s random source",
+                                                     shard.file, nameOf(shard.algorithm), nameOf(shard.randomSource), first.file, nameOf(first.algorithm), nameOf(first.randomSource)));
+            }
+            if (shard.firstIndex != nextIndex) {
+                throw new ValidationException(format("%s starts from strip %s, expected %s: %s", shard.file, shard.firstIndex, nextIndex,
+                                                     shard.firstIndex > nextIndex ? "strips are missing" : "shards overlap"));
+            }
+            nextIndex += shard.count;
+        }
+        this.masterSeed = first.masterSeed;
+        this.algorithm = first.algorithm;
+        this.randomSource = first.randomSource;
+        this.firstIndex = first.firstIndex;
+        this.count = nextIndex - firstIndex;
+    }
+
+    /**
+     * @return Where the index of a merged strip file is kept.
+     */
+    public static Path indexPathOf(Path output) {
+        return output.resolveSibling(output.getFileName() + ".index");
+    }
+
+    public long getMasterSeed() {
+        return masterSeed;
+    }
+
+    /**
+     * @return The algorithm which generated every shard's strips, or {@code null} if the shards do not record it.
+     */
+    public StripAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * @return The random source every shard's strips were drawn from, or {@code null} if the shards do not record it.
+     */
+    public RandomSource getRandomSource() {
+        return randomSource;
+    }
+
+    /**
+     * @return The sequence index of the first strip of the merged file.
+     */
+    public long getFirstIndex() {
+        return firstIndex;
+    }
+
+    /**
+     * @return How many strips all shards hold.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return How many shards are merged.
+     */
+    public int getShards() {
+        return shards.size();
+    }
+
+    /**
+     * Writes every strip of every shard to {@code output}, in sequence order, then writes its index.
+     *
+     * @return The checksum of the merged file.
+     * @throws ValidationException If any shard does not match its checksum, in which case {@code output} is deleted.
+     */
+    public int merge(Path output) throws IOException {
+        for (Shard shard : shards) {
+            if (Files.exists(output) && Files.isSameFile(shard.file, output)) {
+                throw new ValidationException(format("%s can not be merged into itself", shard.file));
+            }
+        }
+
+        final CRC32C checksum = new CRC32C();
+        try (FileChannel target = FileChannel.open(output, CREATE, TRUNCATE_EXISTING, WRITE)) {
+            target.write(header(masterSeed, algorithm, randomSource, firstIndex, count, RECORD_SIZE), 0);
+
+            final ByteBuffer block = ByteBuffer.allocateDirect(BLOCK_SIZE);
+            long position = HEADER_SIZE;
+            for (Shard shard : shards) {
+                final CRC32C shardChecksum = new CRC32C();
+                try (FileChannel source = FileChannel.open(shard.file, READ)) {
+                    long remaining = shard.count * RECORD_SIZE;
+                    long sourcePosition = HEADER_SIZE;
+                    while (remaining > 0) {
+                        block.clear().limit((int) Math.min(BLOCK_SIZE, remaining));
+                        while (block.hasRemaining()) {
+                            final int read = source.read(block, sourcePosition);
+                            if (read < 0) {
+                                throw new ValidationException(format("%s is truncated, expected %s strips", shard.file, shard.count));
+                            }
+                            sourcePosition += read;
+                        }
+                        block.flip();
+                        shardChecksum.update(block);
+                        block.rewind();
+                        checksum.update(block);
+                        block.rewind();
+                        while (block.hasRemaining()) {
+                            position += target.write(block, position);
+                        }
+                        remaining -= block.limit();
+                    }
+                }
+
+                if ((int) shardChecksum.getValue() != shard.checksum) {
+                    throw new ValidationException(format("%s is corrupt, its strips' checksum is %08x rather than %08x",
+                                                         shard.file, (int) shardChecksum.getValue(), shard.checksum));
+                }
+            }
+
+            target.write(StripFileFormat.checksum((int) checksum.getValue()), CHECKSUM_OFFSET);
+            target.force(true);
+        }
+        catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(output);
+            throw e;
+        }
+
+        writeIndex(output, (int) checksum.getValue());
+        return (int) checksum.getValue();
+    }
+
+    private void writeIndex(Path output, int checksum) throws IOException {
+        final StringBuilder index = new StringBuilder("# Merged strip file index, see StripFileMerger\n")
+          .append("version=").append(VERSION).append('\n')
+          .append("seed=").append(masterSeed).append('\n')
+          .append("algorithm=").append(nameOf(algorithm)).append('\n')
+          .append("random=").append(nameOf(randomSource)).append('\n')
+          .append("first-index=").append(firstIndex).append('\n')
+          .append("strips=").append(count).append('\n')
+          .append("checksum=").append(format("%08x", checksum)).append('\n')
+          .append("shards=").append(shards.size()).append('\n');
+        for (int i = 0; i < shards.size(); i++) {
+            final Shard shard = shards.get(i);
+            final String prefix = "shard." + (i + 1) + ".";
+            index.append(prefix).append("file=").append(shard.file.getFileName()).append('\n')
+              .append(prefix).append("first-index=").append(shard.firstIndex).append('\n')
+              .append(prefix).append("strips=").append(shard.count).append('\n')
+              .append(prefix).append("offset=").append(recordOffset(shard.firstIndex - firstIndex)).append('\n')
+              .append(prefix).append("checksum=").append(format("%08x", shard.checksum)).append('\n');
+        }
+        Files.writeString(indexPathOf(output), index, StandardCharsets.ISO_8859_1);
+    }
+
+    private static String nameOf(StripAlgorithm algorithm) {
+        return algorithm != null ? algorithm.name().toLowerCase() : "unrecorded";
+    }
+
+    private static String nameOf(RandomSource randomSource) {
+        return randomSource != null ? randomSource.getName() : "unrecorded";
+    }
+
+    private static final class Shard {
+
+        private final Path file;
+        private final long masterSeed;
+        private final StripAlgorithm algorithm;
+        private final RandomSource randomSource;
+        private final long firstIndex;
+        private final long count;
+        private final int checksum;
+
+        private Shard(Path file, long masterSeed, StripAlgorithm algorithm, RandomSource randomSource, long firstIndex, long count, int checksum) {
+            this.file = file;
+            this.masterSeed = masterSeed;
+            this.algorithm = algorithm;
+            this.randomSource = randomSource;
+            this.firstIndex = firstIndex;
+            this.count = count;
+            this.checksum = checksum;
+        }
+
+    }
+
+}
@@ -0,0 +1,165 @@
+package com.lindar.challenges.jsaliba.io;
+
+import com.lindar.challenges.jsaliba.beans.RandomSource;
+import com.lindar.challenges.jsaliba.beans.StripAlgorithm;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+import com.lindar.challenges.jsaliba.beans.ValidationException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.zip.CRC32C;
+
+import static com.lindar.challenges.jsaliba.io.StripFileFormat.*;
+import static com.lindar.challenges.jsaliba.io.StripFileWriter.RECORDS_PER_REGION;
+import static java.lang.String.format;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Random access to the strips of a binary strip file (see {@link StripFileFormat}).
+ * <br><br>
+ * Only the header is read upfront; the records are memory-mapped, and reading any strip
+ * takes constant time. Reading is thread-safe.
+ */
+public class StripFileReader implements Closeable {
+
+    private static final ThreadLocal<byte[]> RECORDS = ThreadLocal.withInitial(() -> new byte[RECORD_SIZE]);
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] regions;
+    private final long masterSeed;
+    private final long firstIndex;
+    private final long count;
+    private final boolean checksummed;
+    private final int checksum;
+    private final StripAlgorithm algorithm;
+    private final RandomSource randomSource;
+
+    public StripFileReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, READ);
+        try {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            header.flip();
+
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+                throw new ValidationException(format("%s is not a strip file", file));
+            }
+            final short version = header.getShort();
+            final short recordSize = header.getShort();
+            if (version == VERSION && recordSize == StripCodec.ENCODED_SIZE) {
+                throw new ValidationException(format("%s is a stream of compact records (see StripCodec), not a strip file", file));
+            }
+            if (version != VERSION || recordSize != RECORD_SIZE) {
+                throw new ValidationException(format("Unsupported strip file version %s with %s-byte records", version, recordSize));
+            }
+            this.masterSeed = header.getLong();
+            this.firstIndex = header.getLong();
+            this.count = header.getLong();
+            this.checksummed = (header.getInt() & FLAG_CHECKSUM) != 0;
+            this.checksum = header.getInt();
+            this.algorithm = algorithmOf(header);
+            this.randomSource = randomSourceOf(header);
+
+            if (channel.size() < fileSize(count)) {
+                throw new ValidationException(format("%s is truncated, expected %s strips", file, count));
+            }
+            this.regions = StripFileWriter.map(channel, FileChannel.MapMode.READ_ONLY, count);
+        }
+        catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long getMasterSeed() {
+        return masterSeed;
+    }
+
+    /**
+     * @return The algorithm which generated the strips, or {@code null} if the file does not record it.
+     */
+    public StripAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * @return The random source the strips were drawn from, or {@code null} if the file does not record it.
+     */
+    public RandomSource getRandomSource() {
+        return randomSource;
+    }
+
+    /**
+     * @return The sequence index of the first strip in the file.
+     */
+    public long getFirstIndex() {
+        return firstIndex;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return Whether the file records the checksum of its strips, i.e. whether all of them were written.
+     */
+    public boolean isChecksummed() {
+        return checksummed;
+    }
+
+    /**
+     * @return The CRC32C of all records, as recorded by the file, if {@link #isChecksummed() checksummed}.
+     */
+    public int getChecksum() {
+        return checksum;
+    }
+
+    /**
+     * @return The CRC32C of all records, as read back from the file.
+     */
+    public int computeChecksum() {
+        final CRC32C crc = new CRC32C();
+        for (MappedByteBuffer region : regions) {
+            crc.update(region.duplicate().clear());
+        }
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Reads the raw 90-byte record of the strip at {@code position} (0-based, within the file).
+     */
+    public void readRecord(long position, byte[] record, int offset) {
+        if (position < 0 || position >= count) {
+            throw new ValidationException(format("Strip %s is out of bounds, the file holds %s strips", position, count));
+        }
+        regions[(int) (position / RECORDS_PER_REGION)].get((int) (position % RECORDS_PER_REGION) * RECORD_SIZE, record, offset, RECORD_SIZE);
+    }
+
+    /**
+     * Reads the packed cells of the strip at {@code position} (0-based, within the file) into {@code cells}, starting at {@code offset}.
+     */
+    public void read(long position, byte[] cells, int offset) {
+        final byte[] record = RECORDS.get();
+        readRecord(position, record, 0);
+        decode(record, 0, cells, offset);
+    }
+
+    /**
+     * @return The strip at {@code position} (0-based, within the file).
+     */
+    public TicketStrip get(long position) {
+        final byte[] cells = new byte[TicketStrip.CELLS];
+        read(position, cells, 0);
+        return new TicketStrip(cells);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+}
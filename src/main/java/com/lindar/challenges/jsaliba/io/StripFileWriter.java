@@ -0,0 +1,170 @@
+package com.lindar.challenges.jsaliba.io;
+
+import com.lindar.challenges.jsaliba.beans.RandomSource;
+import com.lindar.challenges.jsaliba.beans.StripAlgorithm;
+import com.lindar.challenges.jsaliba.beans.StripSequence;
+import com.lindar.challenges.jsaliba.beans.StripSink;
+import com.lindar.challenges.jsaliba.beans.ValidationException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.zip.CRC32C;
+
+import static com.lindar.challenges.jsaliba.io.StripFileFormat.*;
+import static java.lang.String.format;
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Writes a fixed number of consecutive strips of a {@link com.lindar.challenges.jsaliba.beans.StripSequence}
+ * to a binary strip file (see {@link StripFileFormat}).
+ * <br><br>
+ * The file is sized up front and memory-mapped, and every strip is written at an offset computed
+ * from its index alone. Hence strips may be written concurrently, by any number of threads and in
+ * any order - this writer can be handed over as a {@link StripSink} to parallel generation as is.
+ */
+public class StripFileWriter implements StripSink, Closeable {
+
+    /**
+     * Records per mapped region, keeping each region well below the 2GB limit of a {@link MappedByteBuffer}.
+     */
+    static final int RECORDS_PER_REGION = 1 << 22;
+
+    private static final ThreadLocal<byte[]> RECORDS = ThreadLocal.withInitial(() -> new byte[RECORD_SIZE]);
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] regions;
+    private final long firstIndex;
+    private final long count;
+
+    /**
+     * Creates (or truncates) {@code file}, ready to receive strips {@code [firstIndex, firstIndex + count)}
+     * of {@code sequence}, whose seed, algorithm and random source the file records.
+     */
+    public StripFileWriter(Path file, StripSequence sequence, long firstIndex, long count) throws IOException {
+        this(file, sequence.getMasterSeed(), sequence.getAlgorithm(), sequence.getRandomSource(), firstIndex, count, false);
+    }
+
+    /**
+     * Creates (or truncates) {@code file}, ready to receive strips {@code [firstIndex, firstIndex + count)}
+     * of the default sequence started by {@code masterSeed} (i.e. {@code new StripSequence(masterSeed)}).
+     */
+    public StripFileWriter(Path file, long masterSeed, long firstIndex, long count) throws IOException {
+        this(file, masterSeed, StripAlgorithm.LEGACY, RandomSource.RANDOM, firstIndex, count, false);
+    }
+
+    private StripFileWriter(Path file, long masterSeed, StripAlgorithm algorithm, RandomSource randomSource, long firstIndex, long count,
+                            boolean resume) throws IOException {
+        if (count < 0 || firstIndex < 0) {
+            throw new ValidationException(format("Invalid strip range, %s strips starting from %s", count, firstIndex));
+        }
+        this.firstIndex = firstIndex;
+        this.count = count;
+        this.channel = resume ? FileChannel.open(file, READ, WRITE) : FileChannel.open(file, CREATE, TRUNCATE_EXISTING, READ, WRITE);
+
+        try {
+            final ByteBuffer expected = header(masterSeed, algorithm, randomSource, firstIndex, count, RECORD_SIZE);
+            if (resume) {
+                // Only the strips are compared, a checksum is out of date as soon as the file is written to again
+                final ByteBuffer actual = ByteBuffer.allocate(HEADER_SIZE);
+                channel.read(actual, 0);
+                actual.flip();
+                if (!actual.limit(CHECKSUM_OFFSET).equals(expected.limit(CHECKSUM_OFFSET))
+                    || !actual.clear().position(ALGORITHM_OFFSET).equals(expected.clear().position(ALGORITHM_OFFSET))) {
+                    throw new ValidationException(format("%s does not hold %s strips starting from %s with seed %s (%s algorithm, %s random source)",
+                                                         file, count, firstIndex, masterSeed, algorithm.name().toLowerCase(), randomSource.getName()));
+                }
+                channel.write(ByteBuffer.allocate(8), CHECKSUM_OFFSET);
+            }
+            else {
+                channel.write(expected, 0);
+            }
+            this.regions = map(channel, FileChannel.MapMode.READ_WRITE, count);
+        }
+        catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Re-opens {@code file}, as created by {@link #StripFileWriter(Path, StripSequence, long, long)} with the same arguments,
+     * keeping every strip written to it so far, e.g. to resume an interrupted generation.
+     *
+     * @throws ValidationException If the file holds other strips, or strips of a sequence with another seed,
+     * algorithm or random source.
+     */
+    public static StripFileWriter resume(Path file, StripSequence sequence, long firstIndex, long count) throws IOException {
+        return new StripFileWriter(file, sequence.getMasterSeed(), sequence.getAlgorithm(), sequence.getRandomSource(), firstIndex, count, true);
+    }
+
+    /**
+     * Re-opens {@code file}, as created by {@link #StripFileWriter(Path, long, long, long)} with the same arguments,
+     * keeping every strip written to it so far.
+     */
+    public static StripFileWriter resume(Path file, long masterSeed, long firstIndex, long count) throws IOException {
+        return new StripFileWriter(file, masterSeed, StripAlgorithm.LEGACY, RandomSource.RANDOM, firstIndex, count, true);
+    }
+
+    /**
+     * Writes the strip at sequence index {@code index}, which must fall within the range this file was created for.
+     */
+    @Override
+    public void accept(long index, byte[] cells, int offset) {
+        final long position = index - firstIndex;
+        if (position < 0 || position >= count) {
+            throw new ValidationException(format("Strip %s falls outside of the file's range [%s, %s)", index, firstIndex, firstIndex + count));
+        }
+
+        final byte[] record = RECORDS.get();
+        encode(cells, offset, record, 0);
+        regions[(int) (position / RECORDS_PER_REGION)].put((int) (position % RECORDS_PER_REGION) * RECORD_SIZE, record, 0, RECORD_SIZE);
+    }
+
+    /**
+     * Records the checksum of all strips (see {@link StripFileFormat}), once every one of them was written,
+     * then flushes the file to the storage device.
+     */
+    public void seal() throws IOException {
+        final CRC32C checksum = new CRC32C();
+        for (MappedByteBuffer region : regions) {
+            checksum.update(region.duplicate().clear());
+        }
+        channel.write(StripFileFormat.checksum((int) checksum.getValue()), CHECKSUM_OFFSET);
+        force();
+    }
+
+    /**
+     * Flushes all strips written so far to the storage device.
+     */
+    public void force() throws IOException {
+        for (MappedByteBuffer region : regions) {
+            region.force();
+        }
+        channel.force(true);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            force();
+        }
+        finally {
+            channel.close();
+        }
+    }
+
+    static MappedByteBuffer[] map(FileChannel channel, FileChannel.MapMode mode, long count) throws IOException {
+        final MappedByteBuffer[] regions = new MappedByteBuffer[(int) ((count + RECORDS_PER_REGION - 1) / RECORDS_PER_REGION)];
+        for (int i = 0; i < regions.length; i++) {
+            final long firstRecord = (long) i * RECORDS_PER_REGION;
+            final long records = Math.min(RECORDS_PER_REGION, count - firstRecord);
+            regions[i] = channel.map(mode, recordOffset(firstRecord), records * RECORD_SIZE);
+        }
+        return regions;
+    }
+
+}
@@ -0,0 +1,612 @@
+package com.lindar.challenges.jsaliba.io;
+
+import com.lindar.challenges.jsaliba.beans.StripGenerationStrategy;
+import com.lindar.challenges.jsaliba.beans.StripSequence;
+import com.lindar.challenges.jsaliba.beans.StripSink;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+import com.lindar.challenges.jsaliba.beans.ValidationException;
+import com.lindar.challenges.jsaliba.concurrent.BoundedMpmcQueue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.CRC32C;
+import java.util.zip.Deflater;
+
+import static java.lang.String.format;
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Generates strips into a file through four stages, each running on threads of its own, so that generating,
+ * encoding, compressing and writing strips all overlap rather than take turns:
+ * <ol>
+ * <li>Generate - {@code generators} threads generate consecutive blocks of {@link #BLOCK_STRIPS} strips.</li>
+ * <li>Encode - {@code encoders} threads encode every block as binary records (see {@link StripFileFormat}),
+ * or render it (see {@link StripRenderer}).</li>
+ * <li>Compress - optionally, {@code compressors} threads deflate every block on its own.</li>
+ * <li>Write - a single thread puts the blocks back in order, and writes them sequentially to a {@link FileChannel},
+ * {@link #WRITE_SIZE} bytes at a time, at offsets that are multiples of it.</li>
+ * </ol>
+ * Stages hand blocks over through {@link BoundedMpmcQueue}s, and blocks are recycled once written. There are only
+ * so many blocks, so a stage running ahead of the next one soon runs out of them and waits (back-pressure), and
+ * memory use does not depend on the number of strips. Waiting threads spin briefly, then park.
+ * <br><br>
+ * Binary files are checksummed as they are written (see {@link StripFileFormat}), compressed or not.
+ * <br><br>
+ * Compressed files are standard gzip files, which decompress into the very file an uncompressed run writes: every
+ * block is deflated independently and sync-flushed (as {@code pigz} does), so the blocks concatenate into a single
+ * deflate stream. The header of a binary file can only be written once all strips were checksummed, so it makes up a
+ * gzip member of its own, stored rather than deflated so that its size is known upfront, and written last, ahead of
+ * the member holding the strips. Decompressors concatenate the members of a gzip file.
+ * <br><br>
+ * Every stage counts the blocks it handles, the time its threads spend working and waiting for input, and samples
+ * the depth of its input queue (see {@link #getMetrics()}). The stage holding the others back is the busiest one,
+ * while the others wait - the generators waiting for blocks to be written and recycled, past it, and the stages
+ * after it waiting for blocks to come through.
+ */
+public class StripPipeline {
+
+    /**
+     * Strips generated, encoded, compressed and written at a time.
+     */
+    static final int BLOCK_STRIPS = 1024;
+
+    /**
+     * Bytes written to the file at a time.
+     */
+    static final int WRITE_SIZE = 1 << 22;
+
+    private static final int GENERATE_STAGE = 0;
+    private static final int ENCODE_STAGE = 1;
+    private static final int COMPRESS_STAGE = 2;
+    private static final int WRITE_STAGE = 3;
+
+    private static final int SPINS = 100;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    // gzip member header: magic, deflate, no flags, no modification time, no extra flags, unknown OS
+    private static final byte[] GZIP_HEADER = { 0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+    // A final, empty, fixed Huffman block, ending the deflate stream
+    private static final byte[] DEFLATE_END = { 0x03, 0x00 };
+    // A final, stored (i.e. not deflated) block, followed by its length and the length's one's complement
+    private static final byte STORED_BLOCK = 0x01;
+    // gzip member holding the header of a binary file in a stored block, followed by its CRC32 and length
+    private static final int HEADER_MEMBER_SIZE = GZIP_HEADER.length + 5 + StripFileFormat.HEADER_SIZE + 8;
+
+    private final StripSequence sequence;
+    private final StripRenderer renderer;
+    private final StripSink inspector;
+    private final int generators;
+    private final int encoders;
+    private final int compressors;
+
+    private volatile Stage[] stages;
+    private volatile long startNanos;
+    private volatile long endNanos;
+
+    /**
+     * @param renderer Renders the strips, or {@code null} to write a binary strip file.
+     * @param inspector Handed every strip as it is generated, by the generating threads, e.g. to validate them,
+     * or {@code null}.
+     * @param compressors Number of threads compressing the file, or 0 not to compress it.
+     */
+    public StripPipeline(StripSequence sequence, StripRenderer renderer, StripSink inspector, int generators, int encoders, int compressors) {
+        if (generators < 1 || encoders < 1 || compressors < 0) {
+            throw new ValidationException(format("Invalid pipeline: %s generator(s), %s encoder(s), %s compressor(s)", generators, encoders, compressors));
+        }
+        this.sequence = sequence;
+        this.renderer = renderer;
+        this.inspector = inspector;
+        this.generators = generators;
+        this.encoders = encoders;
+        this.compressors = compressors;
+        this.stages = newStages();
+    }
+
+    private Stage[] newStages() {
+        // Enough blocks for every thread to hold one, and as many again queued up between stages
+        final int blocks = 2 * (generators + encoders + compressors + 1);
+        return new Stage[] {
+          new Stage("generate", generators, blocks),
+          new Stage("encode", encoders, blocks),
+          new Stage("compress", compressors, blocks),
+          new Stage("write", 1, blocks)
+        };
+    }
+
+    /**
+     * Generates strips {@code [fromIndex, toIndex)} of the sequence into {@code output}, and returns once all
+     * were written and flushed to the storage device. Should any stage fail, every other stage stops, and
+     * {@code output} is deleted rather than left half-written.
+     */
+    public StripPipelineMetrics write(Path output, long fromIndex, long toIndex) throws IOException {
+        if (fromIndex < 0 || toIndex < fromIndex) {
+            throw new ValidationException(format("Invalid strip range [%s, %s)", fromIndex, toIndex));
+        }
+
+        final long totalBlocks = (toIndex - fromIndex + BLOCK_STRIPS - 1) / BLOCK_STRIPS;
+        final Stage[] stages = this.stages = newStages();
+        final int encodedSize = BLOCK_STRIPS * (renderer != null ? renderer.maxStripSize() : StripFileFormat.RECORD_SIZE);
+        final int blocks = stages[GENERATE_STAGE].queue.capacity();
+        for (int i = 0; i < blocks; i++) {
+            stages[GENERATE_STAGE].queue.offer(new Block(encodedSize, compressors > 0));
+        }
+
+        final Run run = new Run(fromIndex, toIndex, totalBlocks);
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < generators; i++) {
+            threads.add(new Thread(() -> run.work(this::generate), "strip-pipeline-generate-" + i));
+        }
+        for (int i = 0; i < encoders; i++) {
+            threads.add(new Thread(() -> run.work(this::encode), "strip-pipeline-encode-" + i));
+        }
+        for (int i = 0; i < compressors; i++) {
+            threads.add(new Thread(() -> run.work(this::compress), "strip-pipeline-compress-" + i));
+        }
+
+        startNanos = System.nanoTime();
+        endNanos = 0;
+        threads.forEach(Thread::start);
+        try (FileChannel channel = FileChannel.open(output, CREATE, TRUNCATE_EXISTING, WRITE)) {
+            write(run, channel);
+        }
+        catch (IOException | RuntimeException e) {
+            run.fail(e);
+        }
+        finally {
+            for (Thread thread : threads) {
+                try {
+                    thread.join();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    run.fail(e);
+                }
+            }
+            endNanos = System.nanoTime();
+        }
+
+        final Throwable failure = run.failure.get();
+        if (failure != null) {
+            Files.deleteIfExists(output);
+        }
+        if (failure instanceof IOException e) {
+            throw e;
+        }
+        if (failure instanceof RuntimeException e) {
+            throw e;
+        }
+        if (failure != null) {
+            throw new IOException("Pipeline interrupted", failure);
+        }
+        return getMetrics();
+    }
+
+    /**
+     * @return A snapshot of the counters of every stage of the last run, which may be taken while it runs.
+     */
+    public StripPipelineMetrics getMetrics() {
+        final Stage[] stages = this.stages;
+        final long start = startNanos;
+        final long end = endNanos;
+        final long elapsed = start == 0 ? 0 : (end != 0 ? end : System.nanoTime()) - start;
+
+        final List<StripPipelineMetrics.Stage> snapshots = new ArrayList<>();
+        for (Stage stage : stages) {
+            if (stage.threads > 0) {
+                snapshots.add(new StripPipelineMetrics.Stage(
+                  stage.name, stage.threads, stage.blocks.sum(), stage.strips.sum(), stage.bytes.sum(), stage.busyNanos.sum(), stage.idleNanos.sum(),
+                  stage.queue.size(), stage.queue.capacity(), stage.meanQueueDepth()));
+            }
+        }
+        return new StripPipelineMetrics(elapsed, snapshots);
+    }
+
+    private void generate(Run run) {
+        final StripGenerationStrategy generator = sequence.getAlgorithm().newGenerator();
+        final Random random = new Random();
+        final Stage stage = stages[GENERATE_STAGE];
+
+        while (true) {
+            // Take a block before claiming a number, so that the writer never waits on a block that has yet to be taken
+            final Block block = run.take(stage);
+            final long number = run.nextBlock.getAndIncrement();
+            if (number >= run.totalBlocks) {
+                run.put(stage, block);
+                return;
+            }
+
+            final long start = System.nanoTime();
+            block.number = number;
+            block.fromIndex = run.fromIndex + number * BLOCK_STRIPS;
+            block.strips = (int) Math.min(BLOCK_STRIPS, run.toIndex - block.fromIndex);
+            for (int i = 0; i < block.strips; i++) {
+                sequence.generate(block.fromIndex + i, generator, random, block.cells, i * TicketStrip.CELLS);
+                if (inspector != null) {
+                    inspector.accept(block.fromIndex + i, block.cells, i * TicketStrip.CELLS);
+                }
+            }
+            stage.processed(block.strips, (long) block.strips * TicketStrip.CELLS, System.nanoTime() - start);
+
+            run.put(stages[ENCODE_STAGE], block);
+        }
+    }
+
+    private void encode(Run run) {
+        final Stage stage = stages[ENCODE_STAGE];
+        while (run.encodeClaims.getAndIncrement() < run.totalBlocks) {
+            final Block block = run.take(stage);
+
+            final long start = System.nanoTime();
+            int position = 0;
+            for (int i = 0; i < block.strips; i++) {
+                if (renderer != null) {
+                    position = renderer.render(block.fromIndex + i, block.cells, i * TicketStrip.CELLS, block.encoded, position);
+                }
+                else {
+                    StripFileFormat.encode(block.cells, i * TicketStrip.CELLS, block.encoded, position);
+                    position += StripFileFormat.RECORD_SIZE;
+                }
+            }
+            block.encodedLength = position;
+            stage.processed(block.strips, position, System.nanoTime() - start);
+
+            run.put(stages[compressors > 0 ? COMPRESS_STAGE : WRITE_STAGE], block);
+        }
+    }
+
+    private void compress(Run run) {
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        final Stage stage = stages[COMPRESS_STAGE];
+        try {
+            while (run.compressClaims.getAndIncrement() < run.totalBlocks) {
+                final Block block = run.take(stage);
+
+                final long start = System.nanoTime();
+                deflater.reset();
+                deflater.setInput(block.encoded, 0, block.encodedLength);
+                block.compressed = deflate(deflater, block.compressed);
+                block.compressedLength = deflater.getTotalOut();
+                stage.processed(block.strips, block.compressedLength, System.nanoTime() - start);
+
+                run.put(stages[WRITE_STAGE], block);
+            }
+        }
+        finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Deflates all input of {@code deflater} into {@code out}, growing it if need be, and sync-flushes it,
+     * so that the output ends on a byte boundary, and can be followed by more deflated blocks.
+     *
+     * @return {@code out}, or a larger copy of it.
+     */
+    private static byte[] deflate(Deflater deflater, byte[] out) {
+        int length = 0;
+        while (true) {
+            length += deflater.deflate(out, length, out.length - length, Deflater.SYNC_FLUSH);
+            if (length < out.length) {
+                return out;
+            }
+            out = Arrays.copyOf(out, out.length * 2);
+        }
+    }
+
+    private void write(Run run, FileChannel channel) throws IOException {
+        final Stage stage = stages[WRITE_STAGE];
+        // Compressed, the header of a binary file is left out until all strips were checksummed
+        final boolean headerLast = renderer == null && compressors > 0;
+        final Output out = new Output(channel, headerLast ? HEADER_MEMBER_SIZE : 0);
+        final int blocks = stage.queue.capacity();
+        // Blocks which arrived ahead of their turn, by block number modulo the number of blocks
+        final Block[] early = new Block[blocks];
+        final CRC32C checksum = new CRC32C();
+
+        if (renderer != null) {
+            out.write(renderer.header(), 0, renderer.header().length);
+        }
+        else if (!headerLast) {
+            final ByteBuffer header = StripFileFormat.header(sequence, run.fromIndex, run.toIndex - run.fromIndex);
+            out.write(header.array(), 0, header.remaining());
+        }
+
+        for (long number = 0; number < run.totalBlocks; number++) {
+            final int slot = (int) (number % blocks);
+            Block block = early[slot];
+            early[slot] = null;
+            while (block == null) {
+                final Block next = run.take(stage);
+                if (next.number == number) {
+                    block = next;
+                }
+                else {
+                    early[(int) (next.number % blocks)] = next;
+                }
+            }
+
+            final long start = System.nanoTime();
+            if (renderer == null) {
+                checksum.update(block.encoded, 0, block.encodedLength);
+            }
+            if (compressors > 0) {
+                out.crc.update(block.encoded, 0, block.encodedLength);
+                out.rawLength += block.encodedLength;
+                out.buffer(block.compressed, 0, block.compressedLength);
+            }
+            else {
+                out.buffer(block.encoded, 0, block.encodedLength);
+            }
+            stage.processed(block.strips, compressors > 0 ? block.compressedLength : block.encodedLength, System.nanoTime() - start);
+
+            run.put(stages[GENERATE_STAGE], block);
+        }
+
+        out.finish();
+        if (headerLast) {
+            final ByteBuffer header = StripFileFormat.header(sequence, run.fromIndex, run.toIndex - run.fromIndex);
+            header.put(StripFileFormat.CHECKSUM_OFFSET, StripFileFormat.checksum((int) checksum.getValue()), 0, 8);
+            writeFully(channel, storedMember(header.array()), 0);
+        }
+        else if (renderer == null) {
+            channel.write(StripFileFormat.checksum((int) checksum.getValue()), StripFileFormat.CHECKSUM_OFFSET);
+        }
+        channel.force(true);
+    }
+
+    /**
+     * @return A gzip member holding {@code bytes} as is, in a single stored block.
+     */
+    private static ByteBuffer storedMember(byte[] bytes) {
+        final CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return ByteBuffer.allocate(GZIP_HEADER.length + 5 + bytes.length + 8).order(ByteOrder.LITTLE_ENDIAN)
+          .put(GZIP_HEADER)
+          .put(STORED_BLOCK).putShort((short) bytes.length).putShort((short) ~bytes.length)
+          .put(bytes)
+          .putInt((int) crc.getValue()).putInt(bytes.length)
+          .flip();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer bytes, long position) throws IOException {
+        while (bytes.hasRemaining()) {
+            position += channel.write(bytes, position);
+        }
+    }
+
+    /**
+     * Buffers bytes on their way to the file, writing them {@link #WRITE_SIZE} bytes at a time, gzipped when compressing.
+     */
+    private final class Output {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_SIZE);
+        private final CRC32 crc = new CRC32();
+        private long rawLength;
+        private long position;
+
+        /**
+         * @param position Where to start writing, leaving whatever comes before it to be written later.
+         */
+        private Output(FileChannel channel, long position) throws IOException {
+            this.channel = channel;
+            this.position = position;
+            if (compressors > 0) {
+                buffer(GZIP_HEADER, 0, GZIP_HEADER.length);
+            }
+        }
+
+        /**
+         * Writes raw bytes, deflating them on this thread when compressing (only ever the file's header).
+         */
+        private void write(byte[] bytes, int offset, int length) throws IOException {
+            if (compressors == 0) {
+                buffer(bytes, offset, length);
+                return;
+            }
+            final Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+            try {
+                deflater.setInput(bytes, offset, length);
+                final byte[] deflated = deflate(deflater, new byte[length + 64]);
+                buffer(deflated, 0, deflater.getTotalOut());
+                crc.update(bytes, offset, length);
+                rawLength += length;
+            }
+            finally {
+                deflater.end();
+            }
+        }
+
+        private void buffer(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                final int chunk = Math.min(length, buffer.remaining());
+                buffer.put(bytes, offset, chunk);
+                offset += chunk;
+                length -= chunk;
+                if (!buffer.hasRemaining()) {
+                    drain();
+                }
+            }
+        }
+
+        private void finish() throws IOException {
+            if (compressors > 0) {
+                buffer(DEFLATE_END, 0, DEFLATE_END.length);
+                final ByteBuffer trailer = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+                trailer.putInt((int) crc.getValue()).putInt((int) rawLength);
+                buffer(trailer.array(), 0, trailer.capacity());
+            }
+            drain();
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            buffer.clear();
+        }
+
+    }
+
+    /**
+     * The state shared by every thread of a single run.
+     */
+    private final class Run {
+
+        private final long fromIndex;
+        private final long toIndex;
+        private final long totalBlocks;
+        private final AtomicLong nextBlock = new AtomicLong();
+        private final AtomicLong encodeClaims = new AtomicLong();
+        private final AtomicLong compressClaims = new AtomicLong();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        private Run(long fromIndex, long toIndex, long totalBlocks) {
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+            this.totalBlocks = totalBlocks;
+        }
+
+        private void work(Consumer<Run> stage) {
+            try {
+                stage.accept(this);
+            }
+            catch (Aborted e) {
+                // Another thread failed
+            }
+            catch (RuntimeException | Error e) {
+                fail(e);
+            }
+        }
+
+        private void fail(Throwable e) {
+            failure.compareAndSet(null, e);
+        }
+
+        /**
+         * Takes the next block off the input queue of {@code stage}, waiting for one if need be.
+         */
+        private Block take(Stage stage) {
+            Block block = stage.queue.poll();
+            if (block == null) {
+                final long start = System.nanoTime();
+                for (int spins = 0; block == null; spins++) {
+                    if (failure.get() != null) {
+                        throw new Aborted();
+                    }
+                    if (spins < SPINS) {
+                        Thread.onSpinWait();
+                    }
+                    else {
+                        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    }
+                    block = stage.queue.poll();
+                }
+                stage.idleNanos.add(System.nanoTime() - start);
+            }
+            stage.sampleQueueDepth();
+            return block;
+        }
+
+        /**
+         * Hands {@code block} over to the input queue of {@code stage}. This never waits: every queue has room
+         * for all blocks, it is running out of blocks that holds stages back.
+         */
+        private void put(Stage stage, Block block) {
+            if (!stage.queue.offer(block)) {
+                throw new IllegalStateException("Pipeline queue " + stage.name + " overflowed");
+            }
+        }
+
+    }
+
+    /**
+     * A stage's input queue and counters, kept across runs.
+     */
+    private static final class Stage {
+
+        private final String name;
+        private final int threads;
+        private final BoundedMpmcQueue<Block> queue;
+        private final LongAdder blocks = new LongAdder();
+        private final LongAdder strips = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder busyNanos = new LongAdder();
+        private final LongAdder idleNanos = new LongAdder();
+        private final LongAdder queueDepths = new LongAdder();
+        private final LongAdder queueSamples = new LongAdder();
+
+        private Stage(String name, int threads, int capacity) {
+            this.name = name;
+            this.threads = threads;
+            this.queue = new BoundedMpmcQueue<>(capacity);
+        }
+
+        private void processed(int strips, long bytes, long nanos) {
+            this.blocks.increment();
+            this.strips.add(strips);
+            this.bytes.add(bytes);
+            this.busyNanos.add(nanos);
+        }
+
+        private void sampleQueueDepth() {
+            queueDepths.add(queue.size());
+            queueSamples.increment();
+        }
+
+        private double meanQueueDepth() {
+            final long samples = queueSamples.sum();
+            return samples == 0 ? 0 : (double) queueDepths.sum() / samples;
+        }
+
+    }
+
+    /**
+     * Strips on their way through the pipeline, in all their forms.
+     */
+    private static final class Block {
+
+        private final byte[] cells = new byte[BLOCK_STRIPS * TicketStrip.CELLS];
+        private final byte[] encoded;
+        private byte[] compressed;
+        private long number;
+        private long fromIndex;
+        private int strips;
+        private int encodedLength;
+        private int compressedLength;
+
+        private Block(int encodedSize, boolean compressed) {
+            this.encoded = new byte[encodedSize];
+            this.compressed = compressed ? new byte[encodedSize / 2] : null;
+        }
+
+    }
+
+    /**
+     * Unwinds a thread once another one failed.
+     */
+    private static final class Aborted extends RuntimeException {
+
+        private Aborted() {
+            super(null, null, false, false);
+        }
+
+    }
+
+}
@@ -0,0 +1,186 @@
+package com.lindar.challenges.jsaliba.io;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A point-in-time snapshot of the stages of a {@link StripPipeline}.
+ */
+public class StripPipelineMetrics {
+
+    private final long elapsedNanos;
+    private final List<Stage> stages;
+
+    StripPipelineMetrics(long elapsedNanos, List<Stage> stages) {
+        this.elapsedNanos = elapsedNanos;
+        this.stages = List.copyOf(stages);
+    }
+
+    /**
+     * @return How long the pipeline has been running, or ran.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return Every stage, in pipeline order. The compression stage is left out unless compressing.
+     */
+    public List<Stage> getStages() {
+        return stages;
+    }
+
+    /**
+     * @return The stage named {@code name}, or {@code null} if the pipeline has no such stage.
+     */
+    public Stage getStage(String name) {
+        return stages.stream().filter(stage -> stage.name.equals(name)).findFirst().orElse(null);
+    }
+
+    /**
+     * @return The stage whose threads were busy for the largest share of the time, which holds the others back.
+     */
+    public Stage getBottleneck() {
+        return stages.stream().max(Comparator.comparingDouble(stage -> stage.getUtilisation(elapsedNanos))).orElse(null);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder table = new StringBuilder(String.format("%-9s %7s %10s %12s %10s %11s %8s %11s%n",
+                                                                    "stage", "threads", "blocks", "strips/s", "MB/s", "utilisation", "idle", "queue"));
+        for (Stage stage : stages) {
+            table.append(String.format("%-9s %7d %10d %12.0f %10.1f %10.0f%% %7.0f%% %5.1f/%-5d%n", stage.name, stage.threads, stage.blocks,
+                                       stage.getStripsPerSecond(elapsedNanos), stage.getMegabytesPerSecond(elapsedNanos),
+                                       100 * stage.getUtilisation(elapsedNanos), 100 * stage.getIdleShare(elapsedNanos),
+                                       stage.meanQueueDepth, stage.queueCapacity));
+        }
+        final Stage bottleneck = getBottleneck();
+        if (bottleneck != null) {
+            table.append(String.format("bottleneck: %s, %.1f s elapsed", bottleneck.name, elapsedNanos / 1e9));
+        }
+        return table.toString();
+    }
+
+    /**
+     * A snapshot of a single stage's counters.
+     */
+    public static class Stage {
+
+        private final String name;
+        private final int threads;
+        private final long blocks;
+        private final long strips;
+        private final long bytes;
+        private final long busyNanos;
+        private final long idleNanos;
+        private final int queueDepth;
+        private final int queueCapacity;
+        private final double meanQueueDepth;
+
+        Stage(String name, int threads, long blocks, long strips, long bytes, long busyNanos, long idleNanos, int queueDepth, int queueCapacity,
+              double meanQueueDepth) {
+            this.name = name;
+            this.threads = threads;
+            this.blocks = blocks;
+            this.strips = strips;
+            this.bytes = bytes;
+            this.busyNanos = busyNanos;
+            this.idleNanos = idleNanos;
+            this.queueDepth = queueDepth;
+            this.queueCapacity = queueCapacity;
+            this.meanQueueDepth = meanQueueDepth;
+        }
+
+        /**
+         * @return One of {@code generate}, {@code encode}, {@code compress} or {@code write}.
+         */
+        public String getName() {
+            return name;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        /**
+         * @return How many blocks of strips the stage went through.
+         */
+        public long getBlocks() {
+            return blocks;
+        }
+
+        public long getStrips() {
+            return strips;
+        }
+
+        /**
+         * @return How many bytes the stage produced: packed cells, encoded or rendered strips, compressed strips,
+         * or file content, respectively.
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * @return Time spent working, summed across the stage's threads.
+         */
+        public long getBusyNanos() {
+            return busyNanos;
+        }
+
+        /**
+         * @return Time spent waiting for a block to work on, summed across the stage's threads.
+         */
+        public long getIdleNanos() {
+            return idleNanos;
+        }
+
+        /**
+         * @return How many blocks wait in the stage's input queue. For the generators, these are free blocks.
+         */
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        /**
+         * @return How many blocks waited in the stage's input queue, on average, whenever a block was taken off it.
+         * A queue that stays full feeds a stage slower than the one before it, and an empty one a faster stage.
+         */
+        public double getMeanQueueDepth() {
+            return meanQueueDepth;
+        }
+
+        /**
+         * @return Share of the elapsed time the stage's threads were busy, from 0 to 1.
+         */
+        public double getUtilisation(long elapsedNanos) {
+            return elapsedNanos == 0 ? 0 : (double) busyNanos / elapsedNanos / threads;
+        }
+
+        /**
+         * @return Share of the elapsed time the stage's threads waited for blocks, from 0 to 1.
+         */
+        public double getIdleShare(long elapsedNanos) {
+            return elapsedNanos == 0 ? 0 : (double) idleNanos / elapsedNanos / threads;
+        }
+
+        public double getStripsPerSecond(long elapsedNanos) {
+            return elapsedNanos == 0 ? 0 : strips * 1e9 / elapsedNanos;
+        }
+
+        public double getMegabytesPerSecond(long elapsedNanos) {
+            return elapsedNanos == 0 ? 0 : bytes * 1e9 / elapsedNanos / (1 << 20);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: threads=%d, blocks=%d, strips=%d, bytes=%d, queue=%d/%d", name, threads, blocks, strips, bytes, queueDepth, queueCapacity);
+        }
+
+    }
+
+}
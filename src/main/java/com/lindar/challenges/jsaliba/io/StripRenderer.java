@@ -0,0 +1,49 @@
+package com.lindar.challenges.jsaliba.io;
+
+import com.lindar.challenges.jsaliba.beans.ValidationException;
+
+import static java.lang.String.format;
+
+/**
+ * Renders strips, given as packed cells (see {@link com.lindar.challenges.jsaliba.beans.TicketStrip}),
+ * as text straight into a byte array, without going through {@link String}s.
+ * <br><br>
+ * Strips are labelled with their number, i.e. their index within the sequence plus one.
+ * Renderers are stateless, and hence thread-safe.
+ */
+public interface StripRenderer {
+
+    /**
+     * @return The most bytes {@link #render(long, byte[], int, byte[], int)} writes for a single strip.
+     */
+    int maxStripSize();
+
+    /**
+     * Renders the strip at {@code cells[offset]} into {@code out}, starting at {@code position}.
+     * {@code out} must have room for at least {@link #maxStripSize()} bytes.
+     *
+     * @param index The strip's index within its sequence.
+     * @return The position following the last byte written.
+     */
+    int render(long index, byte[] cells, int offset, byte[] out, int position);
+
+    /**
+     * @return Bytes to write once, before the first strip.
+     */
+    default byte[] header() {
+        return new byte[0];
+    }
+
+    /**
+     * @param format One of {@code text}, {@code csv} or {@code json}.
+     */
+    static StripRenderer forFormat(String format) {
+        return switch (format.trim().toLowerCase()) {
+            case "text" -> new AsciiGridRenderer();
+            case "csv" -> new CsvRenderer();
+            case "json" -> new JsonRenderer();
+            default -> throw new ValidationException(format("Unknown format '%s', expected one of text, csv or json", format));
+        };
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.lindar.challenges.jsaliba.io;
+
+import com.lindar.challenges.jsaliba.beans.StripSink;
+import com.lindar.challenges.jsaliba.metrics.GenerationPhase;
+import com.lindar.challenges.jsaliba.metrics.GenerationRecorder;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Writes strips to a channel, rendered by a {@link StripRenderer}.
+ * <br><br>
+ * Every thread renders into a buffer of its own, which is written to the channel
+ * in one go whenever it fills up. Hence, with more than one generating thread, strips
+ * are written in chunks, in the order the chunks fill up - each strip is labelled
+ * with its number regardless.
+ * <br><br>
+ * When given a {@link GenerationRecorder}, the time spent rendering every strip is recorded
+ * as its {@link GenerationPhase#RENDER} phase.
+ */
+public class StripTextWriter implements StripSink, Closeable {
+
+    static final int BUFFER_SIZE = 1 << 20;
+
+    private final WritableByteChannel channel;
+    private final StripRenderer renderer;
+    private final List<Buffer> buffers = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Buffer> threadBuffers = ThreadLocal.withInitial(this::newBuffer);
+    private final GenerationRecorder recorder;
+    private final boolean instrumented;
+
+    public StripTextWriter(Path file, StripRenderer renderer) throws IOException {
+        this(file, renderer, GenerationRecorder.NOOP);
+    }
+
+    public StripTextWriter(Path file, StripRenderer renderer, GenerationRecorder recorder) throws IOException {
+        this(FileChannel.open(file, CREATE, TRUNCATE_EXISTING, WRITE), renderer, recorder);
+    }
+
+    public StripTextWriter(WritableByteChannel channel, StripRenderer renderer) throws IOException {
+        this(channel, renderer, GenerationRecorder.NOOP);
+    }
+
+    public StripTextWriter(WritableByteChannel channel, StripRenderer renderer, GenerationRecorder recorder) throws IOException {
+        this.channel = channel;
+        this.renderer = renderer;
+        this.recorder = recorder;
+        this.instrumented = recorder != GenerationRecorder.NOOP;
+
+        final ByteBuffer header = ByteBuffer.wrap(renderer.header());
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+    }
+
+    @Override
+    public void accept(long index, byte[] cells, int offset) {
+        final Buffer buffer = threadBuffers.get();
+        if (buffer.position + renderer.maxStripSize() > buffer.bytes.length) {
+            drain(buffer);
+        }
+        if (instrumented) {
+            final long start = System.nanoTime();
+            buffer.position = renderer.render(index, cells, offset, buffer.bytes, buffer.position);
+            recorder.recordPhase(GenerationPhase.RENDER, System.nanoTime() - start);
+        }
+        else {
+            buffer.position = renderer.render(index, cells, offset, buffer.bytes, buffer.position);
+        }
+    }
+
+    /**
+     * Writes out whatever has been rendered so far, by any thread. Must not be
+     * called while strips are still being handed over to this writer.
+     */
+    public void flush() throws IOException {
+        try {
+            buffers.forEach(this::drain);
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        }
+        finally {
+            channel.close();
+        }
+    }
+
+    private Buffer newBuffer() {
+        final Buffer buffer = new Buffer(new byte[Math.max(BUFFER_SIZE, renderer.maxStripSize())]);
+        buffers.add(buffer);
+        return buffer;
+    }
+
+    private void drain(Buffer buffer) {
+        final ByteBuffer pending = ByteBuffer.wrap(buffer.bytes, 0, buffer.position);
+        try {
+            synchronized (channel) {
+                while (pending.hasRemaining()) {
+                    channel.write(pending);
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.position = 0;
+    }
+
+    private static final class Buffer {
+        private final byte[] bytes;
+        private int position;
+
+        private Buffer(byte[] bytes) {
+            this.bytes = bytes;
+        }
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.lindar.challenges.jsaliba.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Exposes a {@link GenerationRecorder} bean publishing to Spring Boot's {@link MeterRegistry}
+ * when {@code bingo90.metrics.enabled=true}. Otherwise, generation is not instrumented at all.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "bingo90.metrics", name = "enabled", havingValue = "true")
+public class GenerationMetricsConfiguration {
+
+    @Bean
+    public GenerationRecorder generationRecorder(MeterRegistry registry) {
+        return new MicrometerGenerationRecorder(registry);
+    }
+
+}
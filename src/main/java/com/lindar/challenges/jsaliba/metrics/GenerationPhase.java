@@ -0,0 +1,27 @@
+package com.lindar.challenges.jsaliba.metrics;
+
+/**
+ * The phases a strip goes through, from being generated to being rendered.
+ */
+public enum GenerationPhase {
+
+    NUMBER_POOL("pool"),
+    FIRST_PASS("first-pass"),
+    SPREAD("spread"),
+    EMPTY_SPACES("empty-spaces"),
+    RENDER("render");
+
+    private final String tag;
+
+    GenerationPhase(String tag) {
+        this.tag = tag;
+    }
+
+    /**
+     * @return The value of the {@code phase} tag of this phase's timer.
+     */
+    public String getTag() {
+        return tag;
+    }
+
+}
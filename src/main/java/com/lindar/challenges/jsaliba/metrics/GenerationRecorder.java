@@ -0,0 +1,37 @@
+package com.lindar.challenges.jsaliba.metrics;
+
+/**
+ * Receives timings from the generator's hot path.
+ * <br><br>
+ * Instrumented classes compare their recorder against {@link #NOOP} once, when constructed,
+ * and skip reading the clock altogether when instrumentation is disabled.
+ */
+public interface GenerationRecorder {
+
+    GenerationRecorder NOOP = new GenerationRecorder() {
+        @Override
+        public void recordPhase(GenerationPhase phase, long nanos) { }
+
+        @Override
+        public void recordStrip(long nanos) { }
+
+        @Override
+        public void recordBatch(long strips, long nanos) { }
+    };
+
+    /**
+     * Records how long a single strip spent in one phase.
+     */
+    void recordPhase(GenerationPhase phase, long nanos);
+
+    /**
+     * Records how long it took to generate a single strip, from start to finish.
+     */
+    void recordStrip(long nanos);
+
+    /**
+     * Records how long it took to generate (and hand over) a batch of consecutive strips.
+     */
+    void recordBatch(long strips, long nanos);
+
+}
@@ -0,0 +1,116 @@
+package com.lindar.challenges.jsaliba.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+import java.text.DecimalFormat;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.String.format;
+
+/**
+ * Publishes generation timings as Micrometer meters:
+ * <ul>
+ * <li>{@code bingo90.generation.phase} - time spent by each strip in each phase, tagged by {@code phase}</li>
+ * <li>{@code bingo90.generation.strip} - time taken to generate each strip</li>
+ * <li>{@code bingo90.generation.batch} - time taken to generate each batch of strips</li>
+ * <li>{@code bingo90.generation.strips} - strips generated so far</li>
+ * <li>{@code bingo90.generation.throughput} - strips per second over the last batch</li>
+ * </ul>
+ * Per-strip timers publish their 50th, 90th, 99th and 99.9th percentiles, tracked by
+ * Micrometer's HdrHistogram-backed, time-windowed histograms.
+ */
+public class MicrometerGenerationRecorder implements GenerationRecorder {
+
+    private static final double[] PERCENTILES = { 0.5, 0.9, 0.99, 0.999 };
+
+    private final Map<GenerationPhase, Timer> phases = new EnumMap<>(GenerationPhase.class);
+    private final Timer strip;
+    private final Timer batch;
+    private final Counter strips;
+    // Strips per second over the last batch, as the bits of a double.
+    private final AtomicLong throughput = new AtomicLong();
+
+    public MicrometerGenerationRecorder(MeterRegistry registry) {
+        for (GenerationPhase phase : GenerationPhase.values()) {
+            phases.put(phase, Timer.builder("bingo90.generation.phase")
+                                   .description("Time spent by a single strip in a phase of its generation")
+                                   .tag("phase", phase.getTag())
+                                   .publishPercentiles(PERCENTILES)
+                                   .register(registry));
+        }
+        strip = Timer.builder("bingo90.generation.strip")
+                     .description("Time taken to generate a single strip")
+                     .publishPercentiles(PERCENTILES)
+                     .register(registry);
+        batch = Timer.builder("bingo90.generation.batch")
+                     .description("Time taken to generate a batch of consecutive strips")
+                     .register(registry);
+        strips = Counter.builder("bingo90.generation.strips")
+                        .description("Strips generated")
+                        .register(registry);
+        registry.gauge("bingo90.generation.throughput", throughput, t -> Double.longBitsToDouble(t.get()));
+    }
+
+    @Override
+    public void recordPhase(GenerationPhase phase, long nanos) {
+        phases.get(phase).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordStrip(long nanos) {
+        strip.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordBatch(long count, long nanos) {
+        batch.record(nanos, TimeUnit.NANOSECONDS);
+        strips.increment(count);
+        throughput.set(Double.doubleToRawLongBits(nanos > 0 ? count * 1e9 / nanos : 0));
+    }
+
+    public Timer getPhaseTimer(GenerationPhase phase) {
+        return phases.get(phase);
+    }
+
+    public Timer getStripTimer() {
+        return strip;
+    }
+
+    public Timer getBatchTimer() {
+        return batch;
+    }
+
+    public long getStrips() {
+        return (long) strips.count();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder(format("strips=%s, throughput=%.0f strips/s, strip=[%s]",
+                                                          getStrips(),
+                                                          Double.longBitsToDouble(throughput.get()),
+                                                          describe(strip)));
+        phases.forEach((phase, timer) -> {
+            if (timer.count() > 0) {
+                sb.append(format(", %s=[%s]", phase.getTag(), describe(timer)));
+            }
+        });
+        return sb.toString();
+    }
+
+    private static String describe(Timer timer) {
+        final DecimalFormat percentileFormat = new DecimalFormat("0.#");
+        final StringBuilder sb = new StringBuilder(format("mean %.0f ns", timer.mean(TimeUnit.NANOSECONDS)));
+        for (ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+            sb.append(format(", p%s %.0f ns", percentileFormat.format(percentile.percentile() * 100), percentile.value(TimeUnit.NANOSECONDS)));
+        }
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.lindar.challenges.jsaliba.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event covering the generation of a batch of consecutive strips of a sequence,
+ * i.e. a chunk claimed by one thread. Costs next to nothing unless a recording is running.
+ */
+@Name("bingo90.StripBatch")
+@Label("Strip Batch")
+@Category("Bingo90")
+@Description("Generation of a batch of consecutive ticket strips")
+public class StripBatchEvent extends Event {
+
+    @Label("Master Seed")
+    public long masterSeed;
+
+    @Label("First Index")
+    public long firstIndex;
+
+    @Label("Strips")
+    public long count;
+
+}
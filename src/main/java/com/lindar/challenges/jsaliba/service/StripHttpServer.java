@@ -0,0 +1,280 @@
+package com.lindar.challenges.jsaliba.service;
+
+import com.lindar.challenges.jsaliba.beans.StripGenerationStrategy;
+import com.lindar.challenges.jsaliba.beans.StripSequence;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+import com.lindar.challenges.jsaliba.beans.ValidationException;
+import com.lindar.challenges.jsaliba.io.StripCodec;
+import com.lindar.challenges.jsaliba.io.StripFileFormat;
+import com.lindar.challenges.jsaliba.io.StripRenderer;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.lang.String.format;
+
+/**
+ * Issues strips over HTTP, through {@code GET /strips?count=N[&seed=S][&format=json|csv|text|binary|compact]}.
+ * <br><br>
+ * Strips {@code [0, count)} of the {@link StripSequence} of the given seed (or a random one, returned in the
+ * {@code X-Strip-Seed} header) are generated as the response is written, and streamed in chunks of
+ * {@link #BUFFER_SIZE} bytes using chunked transfer encoding, so that memory use does not depend on
+ * {@code count}. A slow client simply slows generation down. Responses fitting in a single chunk are
+ * sent whole instead, with their length. Formats:
+ * <ul>
+ * <li>{@code json} (default) - JSON Lines, one strip per line (see {@link StripRenderer})</li>
+ * <li>{@code csv} and {@code text} - as rendered by {@link StripRenderer}</li>
+ * <li>{@code binary} - a binary strip file, header and all (see {@link StripFileFormat})</li>
+ * <li>{@code compact} - the header of a binary strip file, followed by 36-byte records (see {@link StripCodec})</li>
+ * </ul>
+ * Every request is served on a thread of its own: a virtual thread when running on Java 21 onwards,
+ * or a thread from an unbounded cached pool otherwise - either way, there is no pool to tune.
+ */
+public class StripHttpServer implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StripHttpServer.class);
+
+    static final int BUFFER_SIZE = 1 << 16;
+    private static final int BACKLOG = 4096;
+
+    private final InetSocketAddress address;
+    private final long maxCount;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * @param port     The port to listen on, or {@code 0} for any free port (see {@link #getPort()}).
+     * @param maxCount The most strips issued per request.
+     */
+    public StripHttpServer(String host, int port, long maxCount) {
+        if (maxCount < 1) {
+            throw new ValidationException(format("Max count must be at least 1, got %s", maxCount));
+        }
+        this.address = new InetSocketAddress(host, port);
+        this.maxCount = maxCount;
+    }
+
+    public void start() throws IOException {
+        // Otherwise, Nagle's algorithm holds back the last chunk of every response until the client acknowledges the rest
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        executor = newRequestExecutor();
+        server = HttpServer.create(address, BACKLOG);
+        server.setExecutor(executor);
+        server.createContext("/strips", this::handle);
+        server.start();
+        LOGGER.info("Issuing ticket strips at http://{}:{}/strips", address.getHostString(), getPort());
+    }
+
+    /**
+     * @return The port the server is listening on.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                respond(exchange, 405, "Only GET is supported");
+                return;
+            }
+
+            final long count;
+            final long seed;
+            final String format;
+            try {
+                final Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+                count = parseCount(query.get("count"));
+                seed = query.containsKey("seed") ? Long.parseLong(query.get("seed")) : new Random().nextLong();
+                format = query.getOrDefault("format", "json").trim().toLowerCase();
+                if (!format.equals("binary") && !format.equals("compact")) {
+                    StripRenderer.forFormat(format);
+                }
+            }
+            catch (ValidationException | NumberFormatException e) {
+                respond(exchange, 400, e.getMessage());
+                return;
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", contentType(format));
+            exchange.getResponseHeaders().set("X-Strip-Seed", Long.toString(seed));
+
+            final ResponseBody body = new ResponseBody(exchange);
+            final StripSequence sequence = new StripSequence(seed);
+            if (format.equals("binary")) {
+                final byte[] header = StripFileFormat.header(sequence, 0, count).array();
+                writeStrips(body, sequence, count, header, StripFileFormat.RECORD_SIZE, (index, cells, offset, out, position) -> {
+                    StripFileFormat.encode(cells, offset, out, position);
+                    return position + StripFileFormat.RECORD_SIZE;
+                });
+            }
+            else if (format.equals("compact")) {
+                final byte[] header = StripFileFormat.header(seed, sequence.getAlgorithm(), sequence.getRandomSource(), 0, count, StripCodec.ENCODED_SIZE).array();
+                final StripCodec codec = new StripCodec();
+                writeStrips(body, sequence, count, header, StripCodec.ENCODED_SIZE, (index, cells, offset, out, position) -> {
+                    codec.encode(cells, offset, out, position);
+                    return position + StripCodec.ENCODED_SIZE;
+                });
+            }
+            else {
+                final StripRenderer renderer = StripRenderer.forFormat(format);
+                writeStrips(body, sequence, count, renderer.header(), renderer.maxStripSize(), renderer::render);
+            }
+        }
+        catch (IOException e) {
+            // Most likely the client went away, nothing left to do about it
+            LOGGER.debug("Failed to issue ticket strips: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Generates strips {@code [0, count)} of {@code sequence} into the response, one chunk at a time, after {@code header}.
+     *
+     * @param maxStripSize The most bytes {@code encoder} writes for a single strip.
+     */
+    private static void writeStrips(ResponseBody body, StripSequence sequence, long count, byte[] header, int maxStripSize,
+                                    StripEncoder encoder) throws IOException {
+        final StripGenerationStrategy generator = sequence.getAlgorithm().newGenerator();
+        final Random random = new Random();
+        final byte[] cells = new byte[TicketStrip.CELLS];
+        final byte[] buffer = new byte[Math.max(BUFFER_SIZE, header.length + maxStripSize)];
+
+        System.arraycopy(header, 0, buffer, 0, header.length);
+        int position = header.length;
+
+        for (long index = 0; index < count; index++) {
+            if (position + maxStripSize > buffer.length) {
+                body.write(buffer, position);
+                position = 0;
+            }
+            sequence.generate(index, generator, random, cells, 0);
+            position = encoder.encode(index, cells, 0, buffer, position);
+        }
+        body.finish(buffer, position);
+    }
+
+    private long parseCount(String count) {
+        if (count == null) {
+            throw new ValidationException("No count given, please specify count: 'count=10'");
+        }
+        final long strips = Long.parseLong(count);
+        if (strips < 1 || strips > maxCount) {
+            throw new ValidationException(format("Count must be between 1 and %s, got %s", maxCount, strips));
+        }
+        return strips;
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        final Map<String, String> parameters = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return parameters;
+        }
+        for (String parameter : query.split("&")) {
+            final int equals = parameter.indexOf('=');
+            if (equals > 0) {
+                parameters.put(URLDecoder.decode(parameter.substring(0, equals), StandardCharsets.UTF_8),
+                               URLDecoder.decode(parameter.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    private static String contentType(String format) {
+        return switch (format) {
+            case "binary", "compact" -> "application/octet-stream";
+            case "json" -> "application/x-ndjson";
+            case "csv" -> "text/csv";
+            default -> "text/plain";
+        };
+    }
+
+    private static void respond(HttpExchange exchange, int status, String message) throws IOException {
+        final byte[] body = (message + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    /**
+     * Encodes a strip into the response, as per the format requested.
+     */
+    @FunctionalInterface
+    private interface StripEncoder {
+
+        /**
+         * Encodes the strip at {@code cells[offset]} into {@code out}, starting at {@code position}.
+         *
+         * @return The position following the last byte written.
+         */
+        int encode(long index, byte[] cells, int offset, byte[] out, int position);
+    }
+
+    /**
+     * Sends the response headers along with the first chunk of the body: chunked if more is to follow,
+     * or with the length of the whole body otherwise.
+     */
+    private static final class ResponseBody {
+
+        private final HttpExchange exchange;
+        private OutputStream body;
+
+        private ResponseBody(HttpExchange exchange) {
+            this.exchange = exchange;
+        }
+
+        private void write(byte[] buffer, int length) throws IOException {
+            if (body == null) {
+                // A length of 0 means chunked transfer encoding
+                exchange.sendResponseHeaders(200, 0);
+                body = exchange.getResponseBody();
+            }
+            body.write(buffer, 0, length);
+        }
+
+        private void finish(byte[] buffer, int length) throws IOException {
+            if (body == null) {
+                exchange.sendResponseHeaders(200, length);
+                body = exchange.getResponseBody();
+            }
+            body.write(buffer, 0, length);
+        }
+    }
+
+    /**
+     * @return A virtual thread per task executor when running on Java 21 onwards, a cached thread pool otherwise.
+     */
+    static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (ReflectiveOperationException e) {
+            LOGGER.info("Virtual threads are not available on Java {}, serving requests on a cached thread pool", Runtime.version().feature());
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.lindar.challenges.jsaliba.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Exposes a {@link StripHttpServer} bean when {@code bingo90.http.enabled=true}, turning the
+ * application into a long-lived service.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "bingo90.http", name = "enabled", havingValue = "true")
+public class StripHttpServerConfiguration {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public StripHttpServer stripHttpServer(@Value("${bingo90.http.host:localhost}") String host,
+                                           @Value("${bingo90.http.port:8090}") int port,
+                                           @Value("${bingo90.http.max-count:1000000}") long maxCount) {
+        return new StripHttpServer(host, port, maxCount);
+    }
+
+}
@@ -0,0 +1,218 @@
+package com.lindar.challenges.jsaliba.service;
+
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+import com.lindar.challenges.jsaliba.beans.ValidationException;
+import com.lindar.challenges.jsaliba.concurrent.BoundedMpmcQueue;
+
+import java.io.Closeable;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.lang.String.format;
+
+/**
+ * Keeps a bounded stock of pre-generated strips, so that taking a strip (e.g. when purchasing one)
+ * never has to wait for a strip to be generated.
+ * <br><br>
+ * Background producers generate strips (through {@link TicketStrip#TicketStrip(Random)}) into a
+ * lock-free queue. Producers stay idle while the pool holds at least {@code lowWatermark} strips;
+ * once it drops below that, they top it up to {@code capacity}. Taking a strip is a single poll off
+ * the queue. When the pool is empty, consumers wait for the producers to catch up (back-pressure),
+ * and the wait is counted as a stall.
+ */
+public class StripPool implements Closeable {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int SPINS = 100;
+
+    private final BoundedMpmcQueue<TicketStrip> strips;
+    private final int capacity;
+    private final int lowWatermark;
+    private final Thread[] producers;
+    private final ConcurrentLinkedQueue<Thread> waitingConsumers = new ConcurrentLinkedQueue<>();
+    // Strips in the pool, plus those being generated, such that producers never overshoot the capacity
+    private final AtomicInteger stock = new AtomicInteger();
+
+    private final LongAdder produced = new LongAdder();
+    private final LongAdder taken = new LongAdder();
+    private final LongAdder stalls = new LongAdder();
+    private final LongAdder producingNanos = new LongAdder();
+
+    private volatile boolean running;
+
+    public StripPool(int capacity, int lowWatermark, int producers) {
+        if (capacity < 1 || lowWatermark < 1 || lowWatermark > capacity || producers < 1) {
+            throw new ValidationException(format("Invalid strip pool: capacity %s, low watermark %s, %s producer(s)", capacity, lowWatermark, producers));
+        }
+        this.strips = new BoundedMpmcQueue<>(capacity);
+        this.capacity = capacity;
+        this.lowWatermark = lowWatermark;
+        this.producers = new Thread[producers];
+        for (int i = 0; i < producers; i++) {
+            this.producers[i] = new Thread(this::produce, "strip-pool-producer-" + i);
+            this.producers[i].setDaemon(true);
+        }
+    }
+
+    /**
+     * Starts the producers, which fill the pool straight away.
+     */
+    public void start() {
+        running = true;
+        for (Thread producer : producers) {
+            producer.start();
+        }
+    }
+
+    /**
+     * Takes a strip, waiting for one to be generated if the pool is empty.
+     */
+    public TicketStrip take() throws InterruptedException {
+        return take(Long.MAX_VALUE);
+    }
+
+    /**
+     * Takes a strip, waiting up to {@code timeout} for one to be generated if the pool is empty.
+     *
+     * @return {@code null} if no strip was generated in time.
+     */
+    public TicketStrip poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return take(unit.toNanos(timeout));
+    }
+
+    /**
+     * Takes a strip if one is ready.
+     *
+     * @return {@code null} if the pool is empty.
+     */
+    public TicketStrip poll() {
+        final TicketStrip strip = strips.poll();
+        if (strip != null) {
+            taken();
+        }
+        return strip;
+    }
+
+    public StripPoolMetrics getMetrics() {
+        final long producingNanosPerProducer = producingNanos.sum() / producers.length;
+        final long producedStrips = produced.sum();
+        final double refillRate = producingNanosPerProducer == 0 ? 0 : producedStrips * 1e9 / producingNanosPerProducer;
+
+        return new StripPoolMetrics(strips.size(), capacity, producedStrips, taken.sum(), stalls.sum(), refillRate);
+    }
+
+    /**
+     * Stops the producers. Strips still in the pool can be taken, but the pool is not refilled.
+     */
+    @Override
+    public void close() {
+        running = false;
+        for (Thread producer : producers) {
+            LockSupport.unpark(producer);
+        }
+        for (Thread producer : producers) {
+            try {
+                producer.join();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private TicketStrip take(long timeoutNanos) throws InterruptedException {
+        TicketStrip strip = strips.poll();
+        if (strip == null) {
+            stalls.increment();
+            strip = await(timeoutNanos);
+            if (strip == null) {
+                return null;
+            }
+        }
+        taken();
+        return strip;
+    }
+
+    private TicketStrip await(long timeoutNanos) throws InterruptedException {
+        final long deadline = System.nanoTime() + timeoutNanos;
+
+        for (int spins = 0; spins < SPINS; spins++) {
+            final TicketStrip strip = strips.poll();
+            if (strip != null) return strip;
+            Thread.onSpinWait();
+        }
+
+        final Thread consumer = Thread.currentThread();
+        try {
+            while (true) {
+                if (!waitingConsumers.contains(consumer)) {
+                    waitingConsumers.add(consumer);
+                }
+                // Re-check after registering, in case a strip was added in between
+                final TicketStrip strip = strips.poll();
+                if (strip != null) return strip;
+
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) return null;
+
+                LockSupport.parkNanos(this, timeoutNanos == Long.MAX_VALUE ? IDLE_PARK_NANOS : Math.min(remaining, IDLE_PARK_NANOS));
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        }
+        finally {
+            waitingConsumers.remove(consumer);
+        }
+    }
+
+    private void taken() {
+        taken.increment();
+        if (stock.decrementAndGet() < lowWatermark) {
+            for (Thread producer : producers) {
+                LockSupport.unpark(producer);
+            }
+        }
+    }
+
+    private void produce() {
+        final Random random = new Random();
+
+        while (running) {
+            if (stock.get() >= lowWatermark) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+
+            // Top up until full
+            final long start = System.nanoTime();
+            while (running && reserve()) {
+                strips.offer(new TicketStrip(random));
+                produced.increment();
+
+                final Thread consumer = waitingConsumers.poll();
+                if (consumer != null) {
+                    LockSupport.unpark(consumer);
+                }
+            }
+            producingNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    private boolean reserve() {
+        int current;
+        do {
+            current = stock.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!stock.compareAndSet(current, current + 1));
+        return true;
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.lindar.challenges.jsaliba.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Exposes a {@link StripPool} bean when {@code bingo90.pool.enabled=true}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "bingo90.pool", name = "enabled", havingValue = "true")
+public class StripPoolConfiguration {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public StripPool stripPool(@Value("${bingo90.pool.capacity:100000}") int capacity,
+                               @Value("${bingo90.pool.low-watermark:50000}") int lowWatermark,
+                               @Value("${bingo90.pool.producers:1}") int producers) {
+        return new StripPool(capacity, lowWatermark, producers);
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.lindar.challenges.jsaliba.service;
+
+/**
+ * A point-in-time snapshot of a {@link StripPool}'s state.
+ */
+public class StripPoolMetrics {
+
+    private final int size;
+    private final int capacity;
+    private final long produced;
+    private final long taken;
+    private final long stalls;
+    private final double refillRate;
+
+    StripPoolMetrics(int size, int capacity, long produced, long taken, long stalls, double refillRate) {
+        this.size = size;
+        this.capacity = capacity;
+        this.produced = produced;
+        this.taken = taken;
+        this.stalls = stalls;
+        this.refillRate = refillRate;
+    }
+
+    /**
+     * @return How many pre-generated strips are ready to be taken.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return The fill level, from 0 (empty) to 1 (full).
+     */
+    public double getFillLevel() {
+        return (double) size / capacity;
+    }
+
+    /**
+     * @return How many strips have been generated since the pool started.
+     */
+    public long getProduced() {
+        return produced;
+    }
+
+    /**
+     * @return How many strips have been taken since the pool started.
+     */
+    public long getTaken() {
+        return taken;
+    }
+
+    /**
+     * @return How many times a consumer found the pool empty, and had to wait for a strip.
+     */
+    public long getStalls() {
+        return stalls;
+    }
+
+    /**
+     * @return Strips generated per second, across all producers, while refilling.
+     */
+    public double getRefillRate() {
+        return refillRate;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("size=%d/%d, produced=%d, taken=%d, stalls=%d, refillRate=%.0f/s", size, capacity, produced, taken, stalls, refillRate);
+    }
+
+}
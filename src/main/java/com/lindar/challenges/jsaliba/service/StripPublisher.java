@@ -0,0 +1,156 @@
+package com.lindar.challenges.jsaliba.service;
+
+import com.lindar.challenges.jsaliba.beans.StripGenerationStrategy;
+import com.lindar.challenges.jsaliba.beans.StripSequence;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+import com.lindar.challenges.jsaliba.beans.ValidationException;
+
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.String.format;
+
+/**
+ * Publishes strips {@code [fromIndex, toIndex)} of a {@link StripSequence} to every subscriber, generating
+ * them only as subscribers request them. Every subscriber receives the same strips, in order.
+ * <br><br>
+ * Strips are generated (through {@link StripSequence#generate(long, StripGenerationStrategy, Random, byte[], int)},
+ * hence by the sequence's algorithm and random source) and delivered on the given executor, never more than requested.
+ * Every subscription keeps its own generator, and generates at most {@code batchSize} strips per task, after which
+ * it re-submits itself, so that a subscriber with unbounded demand neither hogs an executor thread nor causes
+ * anything to pile up - nothing is kept beyond the strip being delivered.
+ * <br><br>
+ * A sequence with unique tickets (see {@link StripSequence#withUniqueTickets}) registers the strips of every
+ * subscription: subscribers after the first would receive regenerated strips, so such sequences should only
+ * be subscribed to once.
+ */
+public class StripPublisher implements Flow.Publisher<TicketStrip> {
+
+    private final StripSequence sequence;
+    private final long fromIndex;
+    private final long toIndex;
+    private final Executor executor;
+    private final int batchSize;
+
+    public StripPublisher(StripSequence sequence, long fromIndex, long toIndex, Executor executor, int batchSize) {
+        if (fromIndex < 0 || toIndex < fromIndex) {
+            throw new ValidationException(format("Invalid strip range [%s, %s)", fromIndex, toIndex));
+        }
+        if (batchSize < 1) {
+            throw new ValidationException(format("Batch size must be at least 1, got %s", batchSize));
+        }
+        this.sequence = sequence;
+        this.fromIndex = fromIndex;
+        this.toIndex = toIndex;
+        this.executor = executor;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super TicketStrip> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        final StripSubscription subscription = new StripSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        // Completes straight away, without any demand, when there's nothing to publish.
+        subscription.schedule();
+    }
+
+    private final class StripSubscription implements Flow.Subscription, Runnable {
+
+        private final Flow.Subscriber<? super TicketStrip> subscriber;
+        private final AtomicLong requested = new AtomicLong();
+        // Ensures only one task delivers at a time, counting signals missed while one does.
+        private final AtomicInteger work = new AtomicInteger();
+        private final StripGenerationStrategy generator = sequence.getAlgorithm().newGenerator();
+        private final Random random = new Random();
+
+        private long next = fromIndex;
+        private volatile boolean cancelled;
+        private volatile Throwable error;
+
+        private StripSubscription(Flow.Subscriber<? super TicketStrip> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException(format("Requested %s strips, must be positive", n));
+            }
+            else {
+                requested.getAndUpdate(r -> r + n < 0 ? Long.MAX_VALUE : r + n);
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        private void schedule() {
+            if (work.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            int delivered = 0;
+            while (true) {
+                if (cancelled) {
+                    return;
+                }
+                if (error != null) {
+                    cancelled = true;
+                    subscriber.onError(error);
+                    return;
+                }
+
+                final long demand = requested.get();
+                long emitted = 0;
+                while (emitted < demand && next < toIndex && delivered < batchSize && !cancelled) {
+                    // Every strip gets its own cells, which it wraps rather than copies
+                    final byte[] cells = new byte[TicketStrip.CELLS];
+                    try {
+                        sequence.generate(next, generator, random, cells, 0);
+                    }
+                    catch (RuntimeException e) {
+                        cancelled = true;
+                        subscriber.onError(e);
+                        return;
+                    }
+                    next++;
+                    subscriber.onNext(new TicketStrip(cells));
+                    emitted++;
+                    delivered++;
+                }
+                if (emitted > 0 && demand != Long.MAX_VALUE) {
+                    requested.addAndGet(-emitted);
+                }
+
+                if (next == toIndex && !cancelled) {
+                    cancelled = true;
+                    subscriber.onComplete();
+                    return;
+                }
+                if (delivered == batchSize) {
+                    // Keep ownership of the subscription, but give other tasks a go.
+                    executor.execute(this);
+                    return;
+                }
+
+                missed = work.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+    }
+
+}
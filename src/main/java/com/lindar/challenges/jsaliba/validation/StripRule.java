@@ -0,0 +1,26 @@
+package com.lindar.challenges.jsaliba.validation;
+
+/**
+ * The rules every ticket strip abides by, in the order {@link StripValidator} reports them.
+ */
+public enum StripRule {
+
+    VALID_CELLS("Every cell holds either a blank or a number from 1 to 90"),
+    COLUMN_RANGES("Every number is housed in its own column: 1-9 in the first, 10-19 in the second ... 80-90 in the last"),
+    UNIQUE_NUMBERS("Every number from 1 to 90 appears exactly once in the strip"),
+    ASCENDING_COLUMNS("Numbers in every column of a ticket are sorted in ascending order, top to bottom"),
+    NUMBERS_PER_TICKET("Every ticket houses 15 numbers"),
+    NUMBERS_PER_ROW("Every row houses 5 numbers"),
+    NO_EMPTY_COLUMNS("Every column of every ticket houses at least one number");
+
+    private final String description;
+
+    StripRule(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+}
@@ -0,0 +1,234 @@
+package com.lindar.challenges.jsaliba.validation;
+
+import com.lindar.challenges.jsaliba.beans.StripSink;
+import com.lindar.challenges.jsaliba.beans.Ticket;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+import com.lindar.challenges.jsaliba.beans.ValidationException;
+import com.lindar.challenges.jsaliba.io.StripFileReader;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static com.lindar.challenges.jsaliba.beans.TicketStrip.BLANK;
+import static java.lang.String.format;
+
+/**
+ * Checks strips against every {@link StripRule}, straight off their packed cells.
+ * <br><br>
+ * Every rule is checked with bitmask arithmetic: the numbers seen so far are tracked as a 90-bit set
+ * (across two longs), each column's range is a 90-bit mask, and each row and ticket column's occupancy
+ * is a 9-bit mask, so checking a strip allocates nothing.
+ * <br><br>
+ * As a {@link StripSink}, the validator fails fast on the first invalid strip handed over, e.g. as a safety
+ * net right after generating strips. Whole archives are validated through {@link #validate(StripFileReader, int)}.
+ */
+public class StripValidator implements StripSink {
+
+    /**
+     * Number of consecutive strips claimed by a thread at a time during parallel validation.
+     */
+    static final int CHUNK_SIZE = 4096;
+
+    // Bits of all numbers 1-90, numbers 1-64 in the low long, 65-90 in the high long
+    private static final long ALL_LOW = -1L;
+    private static final long ALL_HIGH = (1L << 26) - 1;
+    private static final int ALL_COLUMNS = (1 << Ticket.COLUMNS) - 1;
+    private static final int NUMBERS_PER_ROW = Ticket.MAX_NUMBERS / Ticket.ROWS;
+
+    // Range of each column, as bits of the numbers it may house
+    private static final long[] COLUMN_LOW = new long[Ticket.COLUMNS];
+    private static final long[] COLUMN_HIGH = new long[Ticket.COLUMNS];
+
+    static {
+        for (int number = 1; number <= 90; number++) {
+            final int column = Ticket.columnOf(number);
+            if (number <= Long.SIZE) COLUMN_LOW[column] |= 1L << (number - 1);
+            else COLUMN_HIGH[column] |= 1L << (number - 1 - Long.SIZE);
+        }
+    }
+
+    /**
+     * Source of the strips to validate, e.g. a file or a batch.
+     */
+    @FunctionalInterface
+    public interface StripSource {
+
+        /**
+         * Loads the strip at {@code index} into {@code cells}, starting at {@code offset}.
+         */
+        void read(long index, byte[] cells, int offset);
+    }
+
+    /**
+     * @throws ValidationException If the strip breaks any rule.
+     */
+    @Override
+    public void accept(long index, byte[] cells, int offset) {
+        final StripRule rule = check(cells, offset);
+        if (rule != null) {
+            throw new ValidationException(new StripViolation(index, rule).toString());
+        }
+    }
+
+    /**
+     * Checks the strip whose 162 cells start at {@code cells[offset]} against every rule.
+     *
+     * @return The first rule the strip breaks, or {@code null} if it breaks none.
+     */
+    public static StripRule check(byte[] cells, int offset) {
+        long seenLow = 0;
+        long seenHigh = 0;
+        StripRule broken = null;
+
+        for (int ticket = 0; ticket < TicketStrip.TICKETS; ticket++) {
+            final int ticketOffset = offset + ticket * Ticket.CELLS;
+            int occupiedColumns = 0;
+            int numbers = 0;
+            boolean fullRows = true;
+
+            for (int row = 0; row < Ticket.ROWS; row++) {
+                int occupiedCells = 0;
+                for (int column = 0; column < Ticket.COLUMNS; column++) {
+                    final int cell = ticketOffset + row * Ticket.COLUMNS + column;
+                    final int number = cells[cell];
+                    if (number == BLANK) {
+                        continue;
+                    }
+                    if (number < 1 || number > 90) {
+                        return StripRule.VALID_CELLS;
+                    }
+
+                    final long lowBit = number <= Long.SIZE ? 1L << (number - 1) : 0;
+                    final long highBit = number > Long.SIZE ? 1L << (number - 1 - Long.SIZE) : 0;
+                    if ((COLUMN_LOW[column] & lowBit | COLUMN_HIGH[column] & highBit) == 0) {
+                        return StripRule.COLUMN_RANGES;
+                    }
+                    if ((seenLow & lowBit | seenHigh & highBit) != 0) {
+                        broken = first(broken, StripRule.UNIQUE_NUMBERS);
+                    }
+                    seenLow |= lowBit;
+                    seenHigh |= highBit;
+
+                    // Any number above, in the same column, must be lower
+                    for (int above = cell - Ticket.COLUMNS; above >= ticketOffset; above -= Ticket.COLUMNS) {
+                        if (cells[above] != BLANK && cells[above] >= number) {
+                            broken = first(broken, StripRule.ASCENDING_COLUMNS);
+                        }
+                    }
+                    occupiedCells |= 1 << column;
+                }
+                occupiedColumns |= occupiedCells;
+                numbers += Integer.bitCount(occupiedCells);
+                fullRows &= Integer.bitCount(occupiedCells) == NUMBERS_PER_ROW;
+            }
+
+            if (numbers != Ticket.MAX_NUMBERS) {
+                broken = first(broken, StripRule.NUMBERS_PER_TICKET);
+            }
+            if (!fullRows) {
+                broken = first(broken, StripRule.NUMBERS_PER_ROW);
+            }
+            if (occupiedColumns != ALL_COLUMNS) {
+                broken = first(broken, StripRule.NO_EMPTY_COLUMNS);
+            }
+        }
+
+        if (seenLow != ALL_LOW || seenHigh != ALL_HIGH) {
+            broken = first(broken, StripRule.UNIQUE_NUMBERS);
+        }
+        return broken;
+    }
+
+    /**
+     * Validates every strip in a strip file, spreading the work across {@code parallelism} threads.
+     * Corrupt records are reported as breaking {@link StripRule#VALID_CELLS}.
+     *
+     * @return The first strip (by position within the file) breaking a rule, or {@code null} if all are valid.
+     */
+    public static StripViolation validate(StripFileReader reader, int parallelism) {
+        return validate(reader.getCount(), parallelism, reader::read);
+    }
+
+    /**
+     * Validates strips {@code [0, count)} of {@code source}, spreading the work across {@code parallelism} threads.
+     * Each thread claims {@link #CHUNK_SIZE} consecutive strips at a time, and no more chunks are claimed past
+     * an invalid strip.
+     *
+     * @return The first strip breaking a rule, or {@code null} if all are valid.
+     */
+    public static StripViolation validate(long count, int parallelism, StripSource source) {
+        if (count < 0) {
+            throw new ValidationException(format("Invalid strip count %s", count));
+        }
+        if (parallelism < 1) {
+            throw new ValidationException(format("Parallelism must be at least 1, got %s", parallelism));
+        }
+
+        final FirstViolation first = new FirstViolation();
+        final AtomicLong nextChunk = new AtomicLong();
+        final Runnable worker = () -> {
+            final byte[] cells = new byte[TicketStrip.CELLS];
+            long chunkStart;
+            while ((chunkStart = nextChunk.getAndAdd(CHUNK_SIZE)) < count && chunkStart < first.index) {
+                validateChunk(chunkStart, Math.min(chunkStart + CHUNK_SIZE, count), source, cells, first);
+            }
+        };
+
+        if (parallelism == 1) {
+            worker.run();
+        }
+        else {
+            final ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                IntStream.range(0, parallelism)
+                  .mapToObj(i -> pool.submit(worker))
+                  .toList()
+                  .forEach(ForkJoinTask::join);
+            }
+            finally {
+                pool.shutdown();
+            }
+        }
+
+        return first.rule != null ? new StripViolation(first.index, first.rule) : null;
+    }
+
+    private static void validateChunk(long fromIndex, long toIndex, StripSource source, byte[] cells, FirstViolation first) {
+        for (long index = fromIndex; index < toIndex; index++) {
+            StripRule rule;
+            try {
+                source.read(index, cells, 0);
+                rule = check(cells, 0);
+            }
+            catch (ValidationException e) {
+                rule = StripRule.VALID_CELLS;
+            }
+            if (rule != null) {
+                first.report(index, rule);
+                return;
+            }
+        }
+    }
+
+    private static StripRule first(StripRule broken, StripRule rule) {
+        return broken == null || rule.ordinal() < broken.ordinal() ? rule : broken;
+    }
+
+    /**
+     * The lowest index of any invalid strip found so far, across threads.
+     */
+    private static final class FirstViolation {
+        private volatile long index = Long.MAX_VALUE;
+        private StripRule rule;
+
+        private synchronized void report(long index, StripRule rule) {
+            if (index < this.index) {
+                this.rule = rule;
+                this.index = index;
+            }
+        }
+    }
+
+}
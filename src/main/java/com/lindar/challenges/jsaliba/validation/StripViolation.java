@@ -0,0 +1,34 @@
+package com.lindar.challenges.jsaliba.validation;
+
+import static java.lang.String.format;
+
+/**
+ * The first strip found breaking a {@link StripRule}, and the rule it breaks.
+ */
+public class StripViolation {
+
+    private final long index;
+    private final StripRule rule;
+
+    StripViolation(long index, StripRule rule) {
+        this.index = index;
+        this.rule = rule;
+    }
+
+    /**
+     * @return The index of the offending strip, within whatever was validated.
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    public StripRule getRule() {
+        return rule;
+    }
+
+    @Override
+    public String toString() {
+        return format("Strip %s breaks rule %s: %s", index, rule, rule.getDescription());
+    }
+
+}
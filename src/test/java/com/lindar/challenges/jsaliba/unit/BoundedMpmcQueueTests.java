@@ -0,0 +1,74 @@
+package com.lindar.challenges.jsaliba.unit;
+
+import com.lindar.challenges.jsaliba.concurrent.BoundedMpmcQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class BoundedMpmcQueueTests {
+
+    @Test
+    public void capacityIsRoundedUpToAPowerOfTwoAndEnforced() {
+        final BoundedMpmcQueue<Integer> queue = new BoundedMpmcQueue<>(5);
+        assertThat(queue.capacity(), is(8));
+
+        for (int i = 0; i < 8; i++) {
+            assertThat(queue.offer(i), is(true));
+        }
+        assertThat(queue.offer(8), is(false));
+        assertThat(queue.size(), is(8));
+
+        for (int i = 0; i < 8; i++) {
+            assertThat(queue.poll(), is(i));
+        }
+        assertThat(queue.poll(), is(nullValue()));
+        assertThat(queue.isEmpty(), is(true));
+    }
+
+    @Test
+    public void everyElementIsPolledExactlyOnceAcrossThreads() throws Exception {
+        final BoundedMpmcQueue<Long> queue = new BoundedMpmcQueue<>(64);
+        final int producers = 4, consumers = 4;
+        final long perProducer = 100_000;
+        final AtomicLong sum = new AtomicLong();
+        final AtomicLong count = new AtomicLong();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(producers + consumers);
+        try {
+            final List<Future<?>> tasks = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                final long first = p * perProducer;
+                tasks.add(executor.submit(() -> {
+                    for (long value = first; value < first + perProducer; value++) {
+                        while (!queue.offer(value)) Thread.yield();
+                    }
+                }));
+            }
+            for (int c = 0; c < consumers; c++) {
+                tasks.add(executor.submit(() -> {
+                    while (count.get() < producers * perProducer) {
+                        final Long value = queue.poll();
+                        if (value == null) { Thread.yield(); continue; }
+                        sum.addAndGet(value);
+                        count.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) task.get(60, TimeUnit.SECONDS);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        final long n = producers * perProducer;
+        assertThat(count.get(), is(n));
+        assertThat(sum.get(), is(n * (n - 1) / 2));
+    }
+
+}
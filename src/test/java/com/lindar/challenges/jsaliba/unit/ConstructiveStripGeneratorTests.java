@@ -0,0 +1,56 @@
+package com.lindar.challenges.jsaliba.unit;
+
+import com.lindar.challenges.jsaliba.beans.ConstructiveStripGenerator;
+import com.lindar.challenges.jsaliba.beans.Ticket;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ConstructiveStripGeneratorTests {
+
+    @Test
+    public void generatesTheSameStripForTheSameSeed() {
+        final byte[] first = new byte[TicketStrip.CELLS];
+        final byte[] second = new byte[TicketStrip.CELLS * 2];
+
+        for (int seed = 0; seed < 100; seed++) {
+            new ConstructiveStripGenerator().generate(new Random(seed), first, 0);
+            new ConstructiveStripGenerator().generate(new Random(seed), second, TicketStrip.CELLS);
+            for (int i = 0; i < TicketStrip.CELLS; i++) {
+                assertThat(second[TicketStrip.CELLS + i], is(first[i]));
+            }
+        }
+    }
+
+    @Test
+    public void favoursNoTicketOverAnother() {
+        final ConstructiveStripGenerator generator = new ConstructiveStripGenerator();
+        final Random random = new Random(0);
+        final byte[] cells = new byte[TicketStrip.CELLS];
+        final int strips = 50_000;
+
+        // Numbers housed in the last column, and on the first row, of every ticket
+        final long[] lastColumn = new long[TicketStrip.TICKETS];
+        final long[] firstRowFirstColumn = new long[TicketStrip.TICKETS];
+        for (int i = 0; i < strips; i++) {
+            generator.generate(random, cells, 0);
+            for (int ticket = 0; ticket < TicketStrip.TICKETS; ticket++) {
+                for (int row = 0; row < Ticket.ROWS; row++) {
+                    if (cells[ticket * Ticket.CELLS + row * Ticket.COLUMNS + Ticket.COLUMNS - 1] > 0) lastColumn[ticket]++;
+                }
+                if (cells[ticket * Ticket.CELLS] > 0) firstRowFirstColumn[ticket]++;
+            }
+        }
+
+        // 11 numbers over 6 tickets, and 9 numbers over 18 rows
+        for (int ticket = 0; ticket < TicketStrip.TICKETS; ticket++) {
+            assertThat((double) lastColumn[ticket] / strips, is(closeTo(11 / 6d, 0.02)));
+            assertThat((double) firstRowFirstColumn[ticket] / strips, is(closeTo(0.5, 0.02)));
+        }
+    }
+
+}
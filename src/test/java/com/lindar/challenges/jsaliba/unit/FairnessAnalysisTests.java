@@ -0,0 +1,53 @@
+package com.lindar.challenges.jsaliba.unit;
+
+import com.lindar.challenges.jsaliba.analysis.ChiSquareTest;
+import com.lindar.challenges.jsaliba.analysis.FairnessAnalysis;
+import com.lindar.challenges.jsaliba.analysis.FairnessReport;
+import com.lindar.challenges.jsaliba.beans.StripAlgorithm;
+import com.lindar.challenges.jsaliba.beans.StripSequence;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class FairnessAnalysisTests {
+
+    private static final long MASTER_SEED = 42L;
+
+    @Test
+    public void pValuesMatchTheChiSquareDistribution() {
+        assertThat(ChiSquareTest.pValue(3.841, 1), is(closeTo(0.05, 1e-4)));
+        assertThat(ChiSquareTest.pValue(11.070, 5), is(closeTo(0.05, 1e-4)));
+        assertThat(ChiSquareTest.pValue(16.0, 17), is(closeTo(0.5238, 1e-4)));
+        assertThat(ChiSquareTest.pValue(100, 5), is(lessThan(1e-18)));
+        assertThat(ChiSquareTest.pValue(0, 5), is(1.0));
+    }
+
+    @Test
+    public void constructiveStripsAreConsistentWithUniformlyRandomStrips() {
+        final StripSequence sequence = new StripSequence(MASTER_SEED).withAlgorithm(StripAlgorithm.CONSTRUCTIVE);
+        final FairnessReport report = FairnessAnalysis.analyse(sequence, 50_000, 2);
+
+        assertThat(report.getStrips(), is(50_000L));
+        assertThat(report.isUniform(0.001), is(true));
+        assertThat(report.getOccupancy(5, 2, 8), is(closeTo(11 / 18d, 0.01)));
+        assertThat(report.getMeanColumnCount(0, 0), is(closeTo(1.5, 0.01)));
+    }
+
+    @Test
+    public void legacyStripsFavourTicketsInTheirColumnCounts() {
+        final FairnessReport report = FairnessAnalysis.analyse(new StripSequence(MASTER_SEED), 10_000, 1);
+
+        assertThat(report.isUniform(0.001), is(false));
+        assertThat(report.getTests().stream().filter(test -> test.getName().startsWith("Column counts")).mapToDouble(ChiSquareTest::getPValue).max().orElse(1),
+                   is(lessThan(1e-6)));
+    }
+
+    @Test
+    public void reportsDoNotDependOnParallelism() {
+        final StripSequence sequence = new StripSequence(MASTER_SEED);
+        assertThat(FairnessAnalysis.analyse(sequence, 10_000, 3).toString(),
+                   is(equalTo(FairnessAnalysis.analyse(sequence, 10_000, 1).toString())));
+    }
+
+}
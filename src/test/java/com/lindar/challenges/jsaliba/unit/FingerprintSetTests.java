@@ -0,0 +1,97 @@
+package com.lindar.challenges.jsaliba.unit;
+
+import com.lindar.challenges.jsaliba.concurrent.BloomFilter;
+import com.lindar.challenges.jsaliba.concurrent.FingerprintSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class FingerprintSetTests {
+
+    @Test
+    public void fingerprintsAreAddedOnlyOnce() {
+        final FingerprintSet set = new FingerprintSet(1000);
+
+        assertThat(set.add(1, 2), is(true));
+        assertThat(set.add(1, 3), is(true));
+        assertThat(set.add(2, 2), is(true));
+        assertThat(set.add(1, 2), is(false));
+
+        assertThat(set.contains(1, 2), is(true));
+        assertThat(set.contains(3, 1), is(false));
+        assertThat(set.size(), is(3L));
+    }
+
+    @Test
+    public void concurrentAddsOfOverlappingFingerprintsSucceedExactlyOnceEach() throws InterruptedException {
+        final int fingerprints = 200_000;
+        final FingerprintSet set = new FingerprintSet(fingerprints);
+        final AtomicLong added = new AtomicLong();
+
+        // Every thread adds every fingerprint, in its own order
+        final Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int offset = t * 7919;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < fingerprints; i++) {
+                    final long key = (i + offset) % fingerprints + 1;
+                    if (set.add(key, ~key)) {
+                        added.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(added.get(), is((long) fingerprints));
+        assertThat(set.size(), is((long) fingerprints));
+        for (long key = 1; key <= fingerprints; key++) {
+            assertThat(set.contains(key, ~key), is(true));
+        }
+    }
+
+    @Test
+    public void fullSetRejectsNewFingerprints() {
+        final FingerprintSet set = new FingerprintSet(8);
+        for (long key = 1; key <= set.capacity(); key++) {
+            set.add(key, key);
+        }
+        assertThat(set.add(1, 1), is(false));
+        assertThrows(IllegalStateException.class, () -> set.add(-1, -1));
+    }
+
+    @Test
+    public void zeroHalvesAreRejected() {
+        final FingerprintSet set = new FingerprintSet(8);
+        assertThrows(IllegalArgumentException.class, () -> set.add(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> set.add(1, 0));
+    }
+
+    @Test
+    public void bloomFilterHasNoFalseNegativesAndFewFalsePositives() {
+        final int entries = 100_000;
+        final BloomFilter filter = new BloomFilter(entries, 10);
+        final SplittableRandom random = new SplittableRandom(42);
+
+        final long[] added = random.longs(entries).toArray();
+        for (long hash : added) {
+            filter.put(hash);
+        }
+        for (long hash : added) {
+            assertThat(filter.mightContain(hash), is(true));
+        }
+
+        long falsePositives = random.longs(entries).filter(filter::mightContain).count();
+        assertThat((double) falsePositives / entries, is(lessThan(0.03)));
+        assertThat(filter.put(added[0]), is(false));
+    }
+
+}
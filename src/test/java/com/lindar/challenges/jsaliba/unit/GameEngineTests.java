@@ -0,0 +1,105 @@
+package com.lindar.challenges.jsaliba.unit;
+
+import com.lindar.challenges.jsaliba.beans.StripSequence;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+import com.lindar.challenges.jsaliba.beans.ValidationException;
+import com.lindar.challenges.jsaliba.game.CallResult;
+import com.lindar.challenges.jsaliba.game.GameEngine;
+import com.lindar.challenges.jsaliba.game.Prize;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class GameEngineTests {
+
+    private static final StripSequence SEQUENCE = new StripSequence(42L);
+
+    private List<TicketStrip> strips;
+    private GameEngine engine;
+
+    @BeforeEach
+    public void setUp() {
+        strips = LongStream.range(0, 500).mapToObj(SEQUENCE::get).toList();
+        engine = GameEngine.of(strips);
+    }
+
+    @Test
+    public void winnersMatchABruteForceDaubOfEveryTicket() {
+        final List<Integer> calls = IntStream.rangeClosed(1, 90).boxed().collect(Collectors.toCollection(ArrayList::new));
+        Collections.shuffle(calls, new Random(0));
+
+        final Set<Integer> called = new HashSet<>();
+        final int[] previousRows = new int[engine.getTickets()];
+
+        for (int number : calls) {
+            called.add(number);
+            final CallResult result = engine.call(number);
+            assertThat(result.getCalls(), is(called.size()));
+
+            final Map<Prize, List<Integer>> expected = new EnumMap<>(Prize.class);
+            for (Prize prize : Prize.values()) expected.put(prize, new ArrayList<>());
+
+            for (int ticket = 0; ticket < engine.getTickets(); ticket++) {
+                final int rows = completeRows(strips.get(ticket / 6), ticket % 6, called);
+                if (rows > previousRows[ticket]) {
+                    expected.get(Prize.ofLines(rows)).add(ticket);
+                }
+                previousRows[ticket] = rows;
+                assertThat(engine.getCompleteRows(ticket), is(rows));
+            }
+
+            for (Prize prize : Prize.values()) {
+                assertThat(Arrays.stream(result.getWinners(prize)).boxed().toList(), is(equalTo(expected.get(prize))));
+            }
+        }
+
+        // Everyone wins eventually ...
+        assertThat(IntStream.of(previousRows).boxed().toList(), everyItem(is(3)));
+    }
+
+    @Test
+    public void resetStartsANewGameOverTheSameStrips() {
+        IntStream.rangeClosed(1, 90).forEach(engine::call);
+        engine.reset();
+
+        assertThat(engine.getCalls(), is(0));
+        assertThat(engine.isCalled(1), is(false));
+        assertThat(engine.call(1).hasWinners(Prize.ONE_LINE), is(false));
+    }
+
+    @Test
+    public void numbersCanOnlyBeCalledOnce() {
+        engine.call(7);
+        assertThrows(ValidationException.class, () -> engine.call(7));
+        assertThrows(ValidationException.class, () -> engine.call(91));
+    }
+
+    @Test
+    public void gamesCannotStartBeforeEveryStripIsLoaded() {
+        final GameEngine partial = new GameEngine(2);
+        SEQUENCE.generate(0, 1, 1, partial);
+        assertThrows(ValidationException.class, () -> partial.call(1));
+    }
+
+    private static int completeRows(TicketStrip strip, int ticket, Set<Integer> called) {
+        int complete = 0;
+        for (int row = 0; row < 3; row++) {
+            boolean rowComplete = true;
+            for (int column = 0; column < 9; column++) {
+                final int cell = strip.getCell(ticket, row, column);
+                rowComplete &= cell == TicketStrip.BLANK || called.contains(cell);
+            }
+            if (rowComplete) complete++;
+        }
+        return complete;
+    }
+
+}
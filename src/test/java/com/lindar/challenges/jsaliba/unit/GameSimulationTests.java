@@ -0,0 +1,96 @@
+package com.lindar.challenges.jsaliba.unit;
+
+import com.lindar.challenges.jsaliba.beans.CollectionShuffler;
+import com.lindar.challenges.jsaliba.beans.RandomSource;
+import com.lindar.challenges.jsaliba.beans.StripSequence;
+import com.lindar.challenges.jsaliba.beans.ValidationException;
+import com.lindar.challenges.jsaliba.game.CallResult;
+import com.lindar.challenges.jsaliba.game.GameEngine;
+import com.lindar.challenges.jsaliba.game.GameSimulation;
+import com.lindar.challenges.jsaliba.game.GameSimulationReport;
+import com.lindar.challenges.jsaliba.game.Prize;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class GameSimulationTests {
+
+    private static final long MASTER_SEED = 42L;
+    private static final StripSequence SEQUENCE = new StripSequence(MASTER_SEED);
+
+    @Test
+    public void aSimulatedGameMatchesTheGameEngine() {
+        // 12 tickets, i.e. strips 0 and 1, called in the order drawn for game 0
+        final GameSimulationReport report = GameSimulation.simulate(SEQUENCE, 12, 1, 1);
+
+        final GameEngine engine = GameEngine.of(LongStream.range(0, 2).mapToObj(SEQUENCE::get).toList());
+        final byte[] order = new byte[GameEngine.NUMBERS];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = (byte) (i + 1);
+        }
+        CollectionShuffler.shuffle(order, RandomSource.RANDOM.seeded(null, StripSequence.seedOf(MASTER_SEED, -1)));
+
+        final int[] wonWith = new int[Prize.values().length];
+        final int[] winners = new int[Prize.values().length];
+        for (byte number : order) {
+            final CallResult result = engine.call(number);
+            for (Prize prize : Prize.values()) {
+                if (wonWith[prize.ordinal()] == 0 && result.hasWinners(prize)) {
+                    wonWith[prize.ordinal()] = result.getCalls();
+                    winners[prize.ordinal()] = result.getWinners(prize).length;
+                }
+            }
+        }
+
+        for (Prize prize : Prize.values()) {
+            assertThat(report.getGames(prize, wonWith[prize.ordinal()]), is(1L));
+            assertThat(report.getGamesWithWinners(prize, winners[prize.ordinal()]), is(1L));
+        }
+    }
+
+    @Test
+    public void prizesAreWonInOrderOnceEveryGame() {
+        final GameSimulationReport report = GameSimulation.simulate(SEQUENCE, 500, 2_000, 2);
+
+        assertThat(report.getGames(), is(2_000L));
+        assertThat(report.getTickets(), is(500));
+        for (Prize prize : Prize.values()) {
+            assertThat(IntStream.rangeClosed(1, GameEngine.NUMBERS).mapToLong(call -> report.getGames(prize, call)).sum(), is(2_000L));
+            assertThat(report.getMeanWinners(prize), is(greaterThanOrEqualTo(1.0)));
+        }
+        // A line needs at least 5 calls, a full house at least 15
+        assertThat(report.getGames(Prize.ONE_LINE, 4), is(0L));
+        assertThat(report.getGames(Prize.FULL_HOUSE, 14), is(0L));
+        assertThat(report.getMeanCalls(Prize.ONE_LINE), is(lessThan(report.getMeanCalls(Prize.TWO_LINES))));
+        assertThat(report.getMeanCalls(Prize.TWO_LINES), is(lessThan(report.getMeanCalls(Prize.FULL_HOUSE))));
+        assertThat(report.getPercentileCalls(Prize.FULL_HOUSE, 0.5), is(both(greaterThan(40)).and(lessThan(90))));
+    }
+
+    @Test
+    public void moreTicketsSoldWinSooner() {
+        final double few = GameSimulation.simulate(SEQUENCE, 6, 1_000, 1).getMeanCalls(Prize.FULL_HOUSE);
+        final double many = GameSimulation.simulate(SEQUENCE, 600, 1_000, 1).getMeanCalls(Prize.FULL_HOUSE);
+
+        assertThat(many, is(lessThan(few)));
+    }
+
+    @Test
+    public void reportsDoNotDependOnParallelism() {
+        final String sequential = GameSimulation.simulate(SEQUENCE, 100, 1_000, 1).toString().lines().skip(1).toList().toString();
+        final String parallel = GameSimulation.simulate(SEQUENCE, 100, 1_000, 3).toString().lines().skip(1).toList().toString();
+
+        assertThat(parallel, is(equalTo(sequential)));
+    }
+
+    @Test
+    public void atLeastOneTicketAndGameAreRequired() {
+        assertThrows(ValidationException.class, () -> GameSimulation.simulate(SEQUENCE, 0, 1, 1));
+        assertThrows(ValidationException.class, () -> GameSimulation.simulate(SEQUENCE, 1, 0, 1));
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.lindar.challenges.jsaliba.unit;
+
+import com.lindar.challenges.jsaliba.beans.StripSequence;
+import com.lindar.challenges.jsaliba.beans.StripSink;
+import com.lindar.challenges.jsaliba.beans.ValidationException;
+import com.lindar.challenges.jsaliba.io.GenerationCheckpoint;
+import com.lindar.challenges.jsaliba.io.StripFileFormat;
+import com.lindar.challenges.jsaliba.io.StripFileWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Properties;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class GenerationCheckpointTests {
+
+    private static final long MASTER_SEED = 42L;
+    private static final int STRIPS = 30_000;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void resumedGenerationsWriteTheSameFileAsUninterruptedOnes() throws IOException {
+        final Path expected = tempDir.resolve("expected.b90");
+        try (StripFileWriter writer = new StripFileWriter(expected, MASTER_SEED, 0, STRIPS)) {
+            new StripSequence(MASTER_SEED).generate(0, STRIPS, 4, writer);
+        }
+
+        // Dies half-way through, on whichever thread gets there first
+        final Path file = tempDir.resolve("strips.b90");
+        final Path checkpointFile = GenerationCheckpoint.pathOf(file);
+        try (StripFileWriter writer = new StripFileWriter(file, MASTER_SEED, 0, STRIPS)) {
+            final GenerationCheckpoint checkpoint = GenerationCheckpoint.start(checkpointFile, writer, MASTER_SEED, 0, STRIPS, "legacy", "random", Duration.ZERO);
+            final StripSink crashing = (index, cells, offset) -> {
+                if (index == STRIPS / 2) {
+                    throw new IllegalStateException("Crashed");
+                }
+                writer.accept(index, cells, offset);
+            };
+            assertThrows(RuntimeException.class, () -> new StripSequence(MASTER_SEED).generate(0, STRIPS, 4, crashing, checkpoint));
+        }
+
+        final Properties recorded = GenerationCheckpoint.read(checkpointFile);
+        assertThat(recorded.getProperty("seed"), is("42"));
+        assertThat(recorded.getProperty("completed"), both(startsWith("0-")).and(not("0-" + STRIPS)));
+        assertThat(Long.parseLong(recorded.getProperty("resume-offset")), is(greaterThanOrEqualTo(StripFileFormat.recordOffset(4096))));
+        assertThat(Files.exists(checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp")), is(false));
+
+        try (StripFileWriter writer = StripFileWriter.resume(file, MASTER_SEED, 0, STRIPS)) {
+            final GenerationCheckpoint checkpoint = GenerationCheckpoint.resume(checkpointFile, writer, Duration.ZERO);
+            checkpoint.check(MASTER_SEED, 0, STRIPS, "legacy", "random");
+            assertThat(checkpoint.getCompleted(), is(both(greaterThan(0L)).and(lessThan((long) STRIPS))));
+            assertThat(checkpoint.isCompleted(0, 4096), is(true));
+
+            final StripSink counting = (index, cells, offset) -> {
+                assertThat(checkpoint.isCompleted(index, index + 1), is(false));
+                writer.accept(index, cells, offset);
+            };
+            new StripSequence(MASTER_SEED).generate(0, STRIPS, 2, counting, checkpoint);
+            assertThat(checkpoint.getCompleted(), is((long) STRIPS));
+            checkpoint.finish();
+        }
+
+        assertThat(Files.readAllBytes(file), is(equalTo(Files.readAllBytes(expected))));
+        assertThat(Files.exists(checkpointFile), is(false));
+    }
+
+    @Test
+    public void checkpointsOfOtherGenerationsAreRejected() throws IOException {
+        final Path file = tempDir.resolve("strips.b90");
+        final Path checkpointFile = GenerationCheckpoint.pathOf(file);
+        try (StripFileWriter writer = new StripFileWriter(file, MASTER_SEED, 0, 100)) {
+            final GenerationCheckpoint checkpoint = GenerationCheckpoint.start(checkpointFile, writer, MASTER_SEED, 0, 100, "legacy", "random", Duration.ZERO);
+            checkpoint.completed(0, 50);
+        }
+
+        assertThrows(ValidationException.class, () -> StripFileWriter.resume(file, MASTER_SEED + 1, 0, 100));
+        try (StripFileWriter writer = StripFileWriter.resume(file, MASTER_SEED, 0, 100)) {
+            final GenerationCheckpoint checkpoint = GenerationCheckpoint.resume(checkpointFile, writer, Duration.ZERO);
+            assertThrows(ValidationException.class, () -> checkpoint.check(MASTER_SEED + 1, 0, 100, "legacy", "random"));
+            assertThrows(ValidationException.class, () -> checkpoint.check(MASTER_SEED, 0, 100, "constructive", "random"));
+            checkpoint.check(MASTER_SEED, 0, 100, "legacy", "random");
+        }
+
+        assertThat(GenerationCheckpoint.readMasterSeed(checkpointFile), is(MASTER_SEED));
+        Files.writeString(checkpointFile, "version=1\nseed=forty-two\n");
+        assertThrows(ValidationException.class, () -> GenerationCheckpoint.readMasterSeed(checkpointFile));
+        Files.writeString(checkpointFile, "version=1\n");
+        assertThrows(ValidationException.class, () -> GenerationCheckpoint.readMasterSeed(checkpointFile));
+        Files.writeString(checkpointFile, "seed=42\n");
+        assertThrows(ValidationException.class, () -> GenerationCheckpoint.read(checkpointFile));
+    }
+
+    @Test
+    public void completedRangesAreMerged() throws IOException {
+        final Path file = tempDir.resolve("strips.b90");
+        try (StripFileWriter writer = new StripFileWriter(file, MASTER_SEED, 0, 100)) {
+            final GenerationCheckpoint checkpoint = GenerationCheckpoint.start(GenerationCheckpoint.pathOf(file), writer, MASTER_SEED, 0, 100, "legacy", "random", Duration.ZERO);
+            checkpoint.completed(20, 30);
+            checkpoint.completed(0, 10);
+            checkpoint.completed(40, 50);
+            checkpoint.completed(10, 20);
+
+            assertThat(checkpoint.isCompleted(0, 30), is(true));
+            assertThat(checkpoint.isCompleted(25, 45), is(false));
+            assertThat(checkpoint.getCompleted(), is(40L));
+            assertThat(GenerationCheckpoint.read(GenerationCheckpoint.pathOf(file)).getProperty("completed"), is("0-30,40-50"));
+            assertThat(GenerationCheckpoint.read(GenerationCheckpoint.pathOf(file)).getProperty("resume-offset"), is(String.valueOf(StripFileFormat.recordOffset(30))));
+        }
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.lindar.challenges.jsaliba.unit;
+
+import com.lindar.challenges.jsaliba.beans.StripSequence;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+import com.lindar.challenges.jsaliba.io.StripRenderer;
+import com.lindar.challenges.jsaliba.io.StripTextWriter;
+import com.lindar.challenges.jsaliba.metrics.GenerationPhase;
+import com.lindar.challenges.jsaliba.metrics.MicrometerGenerationRecorder;
+import com.lindar.challenges.jsaliba.metrics.StripBatchEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GenerationMetricsTests {
+
+    private static final int STRIPS = 10_000;
+
+    @Test
+    public void everyPhaseOfEveryStripIsRecorded() throws Exception {
+        final MicrometerGenerationRecorder recorder = new MicrometerGenerationRecorder(new SimpleMeterRegistry());
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (StripTextWriter writer = new StripTextWriter(Channels.newChannel(out), StripRenderer.forFormat("csv"), recorder)) {
+            new StripSequence(42, recorder).generate(0, STRIPS, 4, writer);
+        }
+
+        assertEquals(STRIPS, recorder.getStrips());
+        assertEquals(STRIPS, recorder.getStripTimer().count());
+        for (GenerationPhase phase : GenerationPhase.values()) {
+            assertEquals(STRIPS, recorder.getPhaseTimer(phase).count(), phase.name());
+        }
+        assertTrue(recorder.getBatchTimer().count() >= 3);
+        assertTrue(recorder.getStripTimer().takeSnapshot().percentileValues().length > 0);
+        assertTrue(recorder.getStripTimer().max(TimeUnit.NANOSECONDS) > 0);
+    }
+
+    @Test
+    public void instrumentationDoesNotAlterTheGeneratedStrips() {
+        final byte[] plain = new byte[STRIPS * TicketStrip.CELLS];
+        final byte[] instrumented = new byte[STRIPS * TicketStrip.CELLS];
+
+        new StripSequence(42).generate(0, STRIPS, 1, (index, cells, offset) ->
+          System.arraycopy(cells, offset, plain, (int) index * TicketStrip.CELLS, TicketStrip.CELLS));
+        new StripSequence(42, new MicrometerGenerationRecorder(new SimpleMeterRegistry())).generate(0, STRIPS, 1, (index, cells, offset) ->
+          System.arraycopy(cells, offset, instrumented, (int) index * TicketStrip.CELLS, TicketStrip.CELLS));
+
+        assertArrayEquals(plain, instrumented);
+    }
+
+    @Test
+    public void everyBatchIsRecordedAsAJfrEvent(@TempDir Path dir) throws Exception {
+        final Path file = dir.resolve("batches.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(StripBatchEvent.class);
+            recording.start();
+            new StripSequence(7).generate(100, 100 + STRIPS, 2, (index, cells, offset) -> { });
+            recording.stop();
+            recording.dump(file);
+        }
+
+        final List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                                                        .filter(e -> e.getEventType().getName().equals("bingo90.StripBatch"))
+                                                        .toList();
+        assertEquals(STRIPS, events.stream().mapToLong(e -> e.getLong("count")).sum());
+        assertEquals(100, events.stream().mapToLong(e -> e.getLong("firstIndex")).min().orElseThrow());
+        assertTrue(events.stream().allMatch(e -> e.getLong("masterSeed") == 7));
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.lindar.challenges.jsaliba.unit;
+
+import com.lindar.challenges.jsaliba.beans.CollectionShuffler;
+import com.lindar.challenges.jsaliba.beans.RandomSource;
+import com.lindar.challenges.jsaliba.beans.StripAlgorithm;
+import com.lindar.challenges.jsaliba.beans.StripSequence;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+import com.lindar.challenges.jsaliba.beans.ValidationException;
+import com.lindar.challenges.jsaliba.validation.StripValidator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RandomSourceTests {
+
+    private static final long MASTER_SEED = 42L;
+
+    @Test
+    public void shufflingAgainstARandomGeneratorMatchesCollectionsShuffle() {
+        final List<Integer> expected = new ArrayList<>(IntStream.range(0, 90).boxed().toList());
+        final List<Integer> actual = new ArrayList<>(expected);
+
+        Collections.shuffle(expected, new Random(7));
+        CollectionShuffler.shuffle(actual, (RandomGenerator) new Random(7));
+        assertThat(actual, is(equalTo(expected)));
+    }
+
+    @Test
+    public void stripsCanBeGeneratedFromAnyRandomGenerator() {
+        final TicketStrip strip = new TicketStrip(new SplittableRandom(7));
+        assertThat(strip.toString(), is(equalTo(new TicketStrip(new SplittableRandom(7)).toString())));
+        assertThat(strip.toString(), is(not(equalTo(new TicketStrip(new Random(7)).toString()))));
+    }
+
+    @Test
+    public void everySourceGeneratesValidStrips() {
+        for (RandomSource source : RandomSource.values()) {
+            for (StripAlgorithm algorithm : StripAlgorithm.values()) {
+                final StripSequence sequence = new StripSequence(MASTER_SEED).withAlgorithm(algorithm).withRandomSource(source);
+                sequence.generate(0, 5_000, 2, (index, cells, offset) -> assertThat(StripValidator.check(cells, offset), is(nullValue())));
+            }
+        }
+    }
+
+    @Test
+    public void reproducibleSourcesAlwaysYieldTheSameStrips() {
+        for (RandomSource source : RandomSource.values()) {
+            if (!source.isReproducible()) {
+                continue;
+            }
+            final StripSequence sequence = new StripSequence(MASTER_SEED).withRandomSource(source);
+            final byte[] expected = new byte[TicketStrip.CELLS];
+            sequence.generate(0, 100, 2, (index, cells, offset) -> {
+                synchronized (expected) {
+                    sequence.get(index).copyCells(expected, 0);
+                    for (int i = 0; i < TicketStrip.CELLS; i++) {
+                        assertThat(cells[offset + i], is(expected[i]));
+                    }
+                }
+            });
+        }
+
+        // Drawing from java.util.Random yields the very same strips as always
+        assertThat(new StripSequence(MASTER_SEED).withRandomSource(RandomSource.RANDOM).get(3).toString(),
+                   is(equalTo(new TicketStrip(new Random(StripSequence.seedOf(MASTER_SEED, 3))).toString())));
+        assertThat(RandomSource.SECURE.isReproducible(), is(false));
+    }
+
+    @Test
+    public void sourcesAreLookedUpByName() {
+        assertThat(RandomSource.of("L64X128Mix"), is(RandomSource.L64X128_MIX));
+        assertThat(RandomSource.of(" thread-local"), is(RandomSource.THREAD_LOCAL));
+        assertThrows(ValidationException.class, () -> RandomSource.of("dice"));
+    }
+
+}
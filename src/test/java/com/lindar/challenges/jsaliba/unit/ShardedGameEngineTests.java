@@ -0,0 +1,51 @@
+package com.lindar.challenges.jsaliba.unit;
+
+import com.lindar.challenges.jsaliba.beans.StripSequence;
+import com.lindar.challenges.jsaliba.game.CallResult;
+import com.lindar.challenges.jsaliba.game.GameEngine;
+import com.lindar.challenges.jsaliba.game.Prize;
+import com.lindar.challenges.jsaliba.game.ShardedGameEngine;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ShardedGameEngineTests {
+
+    private static final StripSequence SEQUENCE = new StripSequence(42L);
+    private static final int STRIPS = 1001;
+
+    @Test
+    public void shardedGamesFindTheSameWinnersAsASingleEngine() {
+        final List<Integer> calls = IntStream.rangeClosed(1, 90).boxed().collect(Collectors.toCollection(ArrayList::new));
+        Collections.shuffle(calls, new Random(0));
+
+        final GameEngine single = new GameEngine(STRIPS);
+        SEQUENCE.generate(0, STRIPS, 1, single);
+
+        for (int shards : new int[] { 1, 3, 8 }) {
+            single.reset();
+            try (ShardedGameEngine sharded = new ShardedGameEngine(STRIPS, shards)) {
+                SEQUENCE.generate(0, STRIPS, 2, sharded);
+
+                for (int number : calls) {
+                    final CallResult expected = single.call(number);
+                    final CallResult actual = sharded.call(number);
+
+                    assertThat(actual.getCalls(), is(expected.getCalls()));
+                    for (Prize prize : Prize.values()) {
+                        assertThat(actual.getWinners(prize), is(equalTo(expected.getWinners(prize))));
+                    }
+                }
+            }
+        }
+    }
+
+}
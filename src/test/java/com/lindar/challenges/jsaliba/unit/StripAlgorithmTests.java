@@ -0,0 +1,81 @@
+package com.lindar.challenges.jsaliba.unit;
+
+import com.lindar.challenges.jsaliba.beans.StripAlgorithm;
+import com.lindar.challenges.jsaliba.beans.StripGenerationStrategy;
+import com.lindar.challenges.jsaliba.beans.StripSequence;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+import com.lindar.challenges.jsaliba.beans.ValidationException;
+import com.lindar.challenges.jsaliba.validation.StripValidator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Properties every {@link StripAlgorithm} shares, see the tests of each generator for the rest.
+ */
+public class StripAlgorithmTests {
+
+    @ParameterizedTest
+    @EnumSource(StripAlgorithm.class)
+    public void generatingAndCheckingStripsDoesNotAllocateInSteadyState(StripAlgorithm algorithm) {
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final StripGenerationStrategy generator = algorithm.newGenerator();
+        final Random random = new Random(0);
+        final byte[] cells = new byte[TicketStrip.CELLS];
+        int invalid = 0;
+
+        // warm up ...
+        for (int i = 0; i < 10_000; i++) {
+            generator.generate(random, cells, 0);
+            if (StripValidator.check(cells, 0) != null) invalid++;
+        }
+
+        final long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 100_000; i++) {
+            generator.generate(random, cells, 0);
+            if (StripValidator.check(cells, 0) != null) invalid++;
+        }
+        final long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        // Leave some leeway for the measurement itself ...
+        assertThat(algorithm.name(), allocated, is(lessThan(1024L)));
+        assertThat(algorithm.name(), invalid, is(0));
+    }
+
+    @ParameterizedTest
+    @EnumSource(StripAlgorithm.class)
+    public void bulkGenerationMatchesPerIndexGeneration(StripAlgorithm algorithm) {
+        final StripSequence sequence = new StripSequence(42L).withAlgorithm(algorithm);
+        final byte[] cells = new byte[TicketStrip.CELLS];
+        final byte[] expected = new byte[TicketStrip.CELLS];
+
+        sequence.generate(0, 100, 2, (index, generated, offset) -> {
+            final TicketStrip strip = sequence.get(index);
+            synchronized (cells) {
+                System.arraycopy(generated, offset, cells, 0, TicketStrip.CELLS);
+                strip.copyCells(expected, 0);
+                assertThat(algorithm.name(), cells, is(equalTo(expected)));
+            }
+        });
+
+        // The same seed yields different strips with different algorithms
+        if (algorithm != StripAlgorithm.LEGACY) {
+            assertThat(algorithm.name(), sequence.get(7).toString(), is(not(equalTo(new StripSequence(42L).get(7).toString()))));
+        }
+    }
+
+    @Test
+    public void algorithmsAreLookedUpByName() {
+        assertThat(StripAlgorithm.of(" Constructive"), is(StripAlgorithm.CONSTRUCTIVE));
+        assertThat(StripAlgorithm.of("template"), is(StripAlgorithm.TEMPLATE));
+        assertThrows(ValidationException.class, () -> StripAlgorithm.of("quantum"));
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.lindar.challenges.jsaliba.unit;
+
+import com.lindar.challenges.jsaliba.beans.StripAlgorithm;
+import com.lindar.challenges.jsaliba.beans.StripSequence;
+import com.lindar.challenges.jsaliba.beans.Ticket;
+import com.lindar.challenges.jsaliba.beans.TicketLayouts;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+import com.lindar.challenges.jsaliba.beans.ValidationException;
+import com.lindar.challenges.jsaliba.io.StripCodec;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StripCodecTests {
+
+    private static final long MASTER_SEED = 42L;
+
+    @Test
+    public void everyLayoutRoundTripsThroughItsRank() {
+        int previous = -1;
+        for (int rank = 0; rank < TicketLayouts.COUNT; rank++) {
+            final int layout = TicketLayouts.unrank(rank);
+            assertThat(TicketLayouts.rank(layout), is(rank));
+
+            // Ranks follow the order of the layouts' column masks, first column first
+            int key = 0;
+            for (int column = 0; column < Ticket.COLUMNS; column++) {
+                key = key << 3 | TicketLayouts.columnMask(layout, column);
+            }
+            assertThat(key, is(greaterThan(previous)));
+            previous = key;
+        }
+        assertThrows(ValidationException.class, () -> TicketLayouts.unrank(TicketLayouts.COUNT));
+        // Six numbers in the first row, none in the last
+        assertThrows(ValidationException.class, () -> TicketLayouts.rank(0_111_111_222));
+    }
+
+    @Test
+    public void stripsRoundTripToTheSameStrip() {
+        final StripCodec codec = new StripCodec();
+        final int count = 5_000;
+        final byte[] cells = new byte[count * TicketStrip.CELLS];
+        final byte[] encoded = new byte[count * StripCodec.ENCODED_SIZE];
+        final byte[] decoded = new byte[count * TicketStrip.CELLS];
+
+        for (StripAlgorithm algorithm : StripAlgorithm.values()) {
+            final StripSequence sequence = new StripSequence(MASTER_SEED).withAlgorithm(algorithm);
+            for (int index = 0; index < count; index++) {
+                sequence.get(index).copyCells(cells, index * TicketStrip.CELLS);
+            }
+
+            codec.encode(cells, 0, count, encoded, 0);
+            codec.decode(encoded, 0, count, decoded, 0);
+            assertThat(decoded, is(equalTo(cells)));
+        }
+
+        final TicketStrip strip = new StripSequence(MASTER_SEED).get(7);
+        final byte[] single = codec.encode(strip);
+        assertThat(single.length, is(StripCodec.ENCODED_SIZE));
+        assertThat(codec.decode(single).toString(), is(equalTo(strip.toString())));
+    }
+
+    @Test
+    public void differentStripsEncodeDifferently() {
+        final StripCodec codec = new StripCodec();
+        final byte[] first = codec.encode(new StripSequence(MASTER_SEED).get(0));
+        final byte[] second = codec.encode(new StripSequence(MASTER_SEED).get(1));
+
+        assertThat(Arrays.equals(first, second), is(false));
+    }
+
+    @Test
+    public void invalidStripsAreRejected() {
+        final StripCodec codec = new StripCodec();
+        final byte[] cells = new byte[TicketStrip.CELLS];
+        new StripSequence(MASTER_SEED).get(0).copyCells(cells, 0);
+
+        // Two numbers of the same column of the first ticket, swapped
+        final byte[] unsorted = cells.clone();
+        int top = 0;
+        while (unsorted[top] == TicketStrip.BLANK || unsorted[top + Ticket.COLUMNS] == TicketStrip.BLANK) {
+            top++;
+        }
+        final byte swapped = unsorted[top];
+        unsorted[top] = unsorted[top + Ticket.COLUMNS];
+        unsorted[top + Ticket.COLUMNS] = swapped;
+        assertThrows(ValidationException.class, () -> codec.encode(unsorted, 0, new byte[StripCodec.ENCODED_SIZE], 0));
+
+        final byte[] repeated = cells.clone();
+        int first = 0;
+        while (repeated[first] == TicketStrip.BLANK) {
+            first++;
+        }
+        // The first number of the first ticket, repeated in the same cell of the second
+        repeated[first + Ticket.CELLS] = repeated[first];
+        assertThrows(ValidationException.class, () -> codec.encode(repeated, 0, new byte[StripCodec.ENCODED_SIZE], 0));
+
+        final byte[] corrupt = new byte[StripCodec.ENCODED_SIZE];
+        Arrays.fill(corrupt, (byte) 0xFF);
+        assertThrows(ValidationException.class, () -> codec.decode(corrupt, 0, new byte[TicketStrip.CELLS], 0));
+    }
+
+}
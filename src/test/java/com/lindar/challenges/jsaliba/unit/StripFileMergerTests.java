@@ -0,0 +1,249 @@
+package com.lindar.challenges.jsaliba.unit;
+
+import com.lindar.challenges.jsaliba.BatchTicketGenerator;
+import com.lindar.challenges.jsaliba.beans.RandomSource;
+import com.lindar.challenges.jsaliba.beans.StripAlgorithm;
+import com.lindar.challenges.jsaliba.beans.StripPartition;
+import com.lindar.challenges.jsaliba.beans.StripSequence;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+import com.lindar.challenges.jsaliba.beans.ValidationException;
+import com.lindar.challenges.jsaliba.io.StripFileFormat;
+import com.lindar.challenges.jsaliba.io.StripFileMerger;
+import com.lindar.challenges.jsaliba.io.StripFileReader;
+import com.lindar.challenges.jsaliba.io.StripFileWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StripFileMergerTests {
+
+    private static final long MASTER_SEED = 42L;
+    private static final StripSequence SEQUENCE = new StripSequence(MASTER_SEED);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void partitionsCoverEveryStripOnce() {
+        for (int count : new int[] { 1, 3, 7, 64 }) {
+            long next = 0;
+            for (int index = 1; index <= count; index++) {
+                final StripPartition partition = new StripPartition(index, count);
+                assertThat(partition.fromIndex(1_000_003), is(next));
+                assertThat(partition.toIndex(1_000_003) - next, is(either(is(1_000_003L / count)).or(is(1_000_003L / count + 1))));
+                next = partition.toIndex(1_000_003);
+            }
+            assertThat(next, is(1_000_003L));
+        }
+
+        assertThat(StripPartition.of(" 2/4 ").fromIndex(Long.MAX_VALUE), is(Long.MAX_VALUE / 4));
+        assertThat(StripPartition.of("4/4").toIndex(Long.MAX_VALUE), is(Long.MAX_VALUE));
+        assertThrows(ValidationException.class, () -> StripPartition.of("0/4"));
+        assertThrows(ValidationException.class, () -> StripPartition.of("5/4"));
+        assertThrows(ValidationException.class, () -> StripPartition.of("1-4"));
+    }
+
+    @Test
+    public void completeFilesRecordTheirChecksum() throws IOException {
+        final Path file = tempDir.resolve("strips.b90");
+        try (StripFileWriter writer = new StripFileWriter(file, MASTER_SEED, 0, 1000)) {
+            SEQUENCE.generate(0, 1000, 1, writer);
+            try (StripFileReader reader = new StripFileReader(file)) {
+                assertThat(reader.isChecksummed(), is(false));
+            }
+            writer.seal();
+        }
+
+        try (StripFileReader reader = new StripFileReader(file)) {
+            assertThat(reader.isChecksummed(), is(true));
+            assertThat(reader.getChecksum(), is(reader.computeChecksum()));
+        }
+
+        // Resuming the file invalidates its checksum
+        StripFileWriter.resume(file, MASTER_SEED, 0, 1000).close();
+        try (StripFileReader reader = new StripFileReader(file)) {
+            assertThat(reader.isChecksummed(), is(false));
+        }
+    }
+
+    @Test
+    public void mergedPartitionsMatchASingleGeneration() throws IOException {
+        final int strips = 10_000;
+        final Path single = writeShard("single.b90", 0, strips);
+
+        final List<Path> shards = new ArrayList<>();
+        // Listed out of order on purpose
+        for (int index : new int[] { 3, 1, 2 }) {
+            final StripPartition partition = new StripPartition(index, 3);
+            shards.add(writeShard("strips-" + index + ".b90", partition.fromIndex(strips), partition.toIndex(strips)));
+        }
+
+        final Path merged = tempDir.resolve("merged.b90");
+        final StripFileMerger merger = new StripFileMerger(shards);
+        assertThat(merger.getCount(), is((long) strips));
+        assertThat(merger.getShards(), is(3));
+        final int checksum = merger.merge(merged);
+
+        assertThat(Files.readAllBytes(merged), is(equalTo(Files.readAllBytes(single))));
+        try (StripFileReader reader = new StripFileReader(merged)) {
+            assertThat(reader.getChecksum(), is(checksum));
+        }
+
+        final Properties index = new Properties();
+        try (var in = Files.newBufferedReader(StripFileMerger.indexPathOf(merged))) {
+            index.load(in);
+        }
+        assertThat(index.getProperty("strips"), is("10000"));
+        assertThat(index.getProperty("shards"), is("3"));
+        assertThat(index.getProperty("shard.2.file"), is("strips-2.b90"));
+        assertThat(index.getProperty("shard.2.first-index"), is("3333"));
+        assertThat(index.getProperty("shard.2.offset"), is(String.valueOf(StripFileFormat.recordOffset(3333))));
+    }
+
+    @Test
+    public void incompleteOrMismatchedShardsAreNotMerged() throws IOException {
+        final Path first = writeShard("first.b90", 0, 1000);
+        final Path gap = writeShard("gap.b90", 1001, 2000);
+        final Path overlap = writeShard("overlap.b90", 999, 2000);
+        final Path incomplete = tempDir.resolve("incomplete.b90");
+        try (StripFileWriter writer = new StripFileWriter(incomplete, MASTER_SEED, 1000, 1000)) {
+            SEQUENCE.generate(1000, 2000, 1, writer);
+        }
+
+        assertThrows(ValidationException.class, () -> new StripFileMerger(List.of(first, gap)));
+        assertThrows(ValidationException.class, () -> new StripFileMerger(List.of(first, overlap)));
+        assertThrows(ValidationException.class, () -> new StripFileMerger(List.of(first, incomplete)));
+        assertThrows(ValidationException.class, () -> new StripFileMerger(List.of()));
+    }
+
+    @Test
+    public void shardsOfOtherAlgorithmsOrRandomSourcesAreNotMerged() throws IOException {
+        final StripSequence constructive = SEQUENCE.withAlgorithm(StripAlgorithm.CONSTRUCTIVE);
+        final Path first = writeShard("first.b90", SEQUENCE, 0, 1000);
+        final Path second = writeShard("second.b90", constructive, 1000, 2000);
+        final Path third = writeShard("third.b90", SEQUENCE.withRandomSource(RandomSource.SPLITTABLE), 1000, 2000);
+
+        try (StripFileReader reader = new StripFileReader(second)) {
+            assertThat(reader.getAlgorithm(), is(StripAlgorithm.CONSTRUCTIVE));
+            assertThat(reader.getRandomSource(), is(RandomSource.RANDOM));
+        }
+        assertThrows(ValidationException.class, () -> new StripFileMerger(List.of(first, second)));
+        assertThrows(ValidationException.class, () -> new StripFileMerger(List.of(first, third)));
+
+        // Resuming with another algorithm would mix up the strips of both
+        assertThrows(ValidationException.class, () -> StripFileWriter.resume(first, constructive, 0, 1000).close());
+        try (StripFileWriter writer = StripFileWriter.resume(second, constructive, 1000, 1000)) {
+            writer.seal();
+        }
+
+        final Path merged = tempDir.resolve("merged.b90");
+        final StripFileMerger merger = new StripFileMerger(List.of(writeShard("zeroth.b90", constructive, 0, 1000), second));
+        merger.merge(merged);
+        try (StripFileReader reader = new StripFileReader(merged)) {
+            assertThat(reader.getAlgorithm(), is(StripAlgorithm.CONSTRUCTIVE));
+            assertThat(reader.getChecksum(), is(reader.computeChecksum()));
+        }
+    }
+
+    @Test
+    public void corruptShardsFailTheMerge() throws IOException {
+        final Path first = writeShard("first.b90", 0, 1000);
+        final Path second = writeShard("second.b90", 1000, 2000);
+        try (FileChannel channel = FileChannel.open(second, READ, WRITE)) {
+            final ByteBuffer record = ByteBuffer.allocate(StripFileFormat.RECORD_SIZE);
+            channel.read(record, StripFileFormat.recordOffset(10));
+            channel.write(record.flip(), StripFileFormat.recordOffset(500));
+        }
+
+        final Path merged = tempDir.resolve("merged.b90");
+        final StripFileMerger merger = new StripFileMerger(List.of(first, second));
+        assertThrows(ValidationException.class, () -> merger.merge(merged));
+        assertThat(Files.exists(merged), is(false));
+    }
+
+    @Test
+    public void partitionsGeneratedBySeparateProcessesMergeIntoASingleGeneration() throws Exception {
+        final int strips = 20_000;
+        final String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+        final List<Process> processes = new ArrayList<>();
+        final List<Path> shards = new ArrayList<>();
+        for (int index = 1; index <= 3; index++) {
+            final Path shard = tempDir.resolve("strips-" + index + ".b90");
+            shards.add(shard);
+            processes.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), BatchTicketGenerator.class.getName(),
+                                             "--strips=" + strips, "--seed=" + MASTER_SEED, "--partition=" + index + "/3", "--output=" + shard)
+                            .redirectErrorStream(true)
+                            .redirectOutput(tempDir.resolve("strips-" + index + ".log").toFile())
+                            .start());
+        }
+        for (Process process : processes) {
+            assertThat(process.waitFor(2, TimeUnit.MINUTES), is(true));
+            assertThat(process.exitValue(), is(0));
+        }
+
+        final Path merged = tempDir.resolve("merged.b90");
+        new StripFileMerger(shards).merge(merged);
+
+        final Path single = writeShard("single.b90", 0, strips);
+        assertThat(Arrays.equals(Files.readAllBytes(merged), Files.readAllBytes(single)), is(true));
+    }
+
+    @Test
+    public void partitionsOfMoreStripsThanAnIntHoldsAreGenerated() throws Exception {
+        final long strips = 3_000_000_000L;
+        final Path shard = tempDir.resolve("strips-last.b90");
+        final Process process = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                                                   "-cp", System.getProperty("java.class.path"), BatchTicketGenerator.class.getName(),
+                                                   "--strips=" + strips, "--seed=" + MASTER_SEED, "--partition=1000000/1000000", "--output=" + shard)
+          .redirectErrorStream(true)
+          .redirectOutput(tempDir.resolve("strips-last.log").toFile())
+          .start();
+        assertThat(process.waitFor(2, TimeUnit.MINUTES), is(true));
+        assertThat(process.exitValue(), is(0));
+
+        try (StripFileReader reader = new StripFileReader(shard)) {
+            assertThat(reader.getFirstIndex() + reader.getCount(), is(strips));
+            final byte[] expected = new byte[TicketStrip.CELLS];
+            final byte[] actual = new byte[TicketStrip.CELLS];
+            SEQUENCE.get(strips - 1).copyCells(expected, 0);
+            reader.read(reader.getCount() - 1, actual, 0);
+            assertThat(actual, is(equalTo(expected)));
+        }
+    }
+
+    private Path writeShard(String name, long fromIndex, long toIndex) throws IOException {
+        final Path file = tempDir.resolve(name);
+        try (StripFileWriter writer = new StripFileWriter(file, MASTER_SEED, fromIndex, toIndex - fromIndex)) {
+            SEQUENCE.generate(fromIndex, toIndex, 2, writer);
+            writer.seal();
+        }
+        return file;
+    }
+
+    private Path writeShard(String name, StripSequence sequence, long fromIndex, long toIndex) throws IOException {
+        final Path file = tempDir.resolve(name);
+        try (StripFileWriter writer = new StripFileWriter(file, sequence, fromIndex, toIndex - fromIndex)) {
+            sequence.generate(fromIndex, toIndex, 2, writer);
+            writer.seal();
+        }
+        return file;
+    }
+
+}
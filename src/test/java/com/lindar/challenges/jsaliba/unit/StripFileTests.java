@@ -0,0 +1,85 @@
+package com.lindar.challenges.jsaliba.unit;
+
+import com.lindar.challenges.jsaliba.beans.StripBatch;
+import com.lindar.challenges.jsaliba.beans.StripSequence;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+import com.lindar.challenges.jsaliba.beans.ValidationException;
+import com.lindar.challenges.jsaliba.io.StripFileFormat;
+import com.lindar.challenges.jsaliba.io.StripFileReader;
+import com.lindar.challenges.jsaliba.io.StripFileWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StripFileTests {
+
+    private static final long MASTER_SEED = 42L;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void recordsRoundTripToTheSameStrip() {
+        final byte[] cells = new byte[TicketStrip.CELLS];
+        final byte[] record = new byte[StripFileFormat.RECORD_SIZE];
+        final byte[] decoded = new byte[TicketStrip.CELLS];
+
+        for (int index = 0; index < 1000; index++) {
+            new StripSequence(MASTER_SEED).get(index).copyCells(cells, 0);
+            StripFileFormat.encode(cells, 0, record, 0);
+            StripFileFormat.decode(record, 0, decoded, 0);
+            assertThat(decoded, is(equalTo(cells)));
+        }
+    }
+
+    @Test
+    public void stripsWrittenConcurrentlyCanBeReadBackInAnyOrder() throws IOException {
+        final Path file = tempDir.resolve("strips.b90");
+        final int count = 20_000;
+
+        try (StripFileWriter writer = new StripFileWriter(file, MASTER_SEED, 0, count)) {
+            new StripSequence(MASTER_SEED).generate(0, count, 4, writer);
+        }
+        assertThat(Files.size(file), is(StripFileFormat.fileSize(count)));
+
+        final StripBatch expected = StripBatch.generate(count, MASTER_SEED, 1);
+        try (StripFileReader reader = new StripFileReader(file)) {
+            assertThat(reader.getMasterSeed(), is(MASTER_SEED));
+            assertThat(reader.getFirstIndex(), is(0L));
+            assertThat(reader.getCount(), is((long) count));
+
+            for (int position : new int[] { 19_999, 0, 4096, 12_345, 1 }) {
+                assertThat(reader.get(position).toString(), is(equalTo(expected.getStrip(position).toString())));
+            }
+        }
+    }
+
+    @Test
+    public void filesCanHoldAnyRangeOfTheSequence() throws IOException {
+        final Path file = tempDir.resolve("range.b90");
+
+        try (StripFileWriter writer = new StripFileWriter(file, MASTER_SEED, 1000, 10)) {
+            new StripSequence(MASTER_SEED).generate(1000, 1010, 1, writer);
+            assertThrows(ValidationException.class, () -> writer.accept(1010, new byte[TicketStrip.CELLS], 0));
+        }
+
+        try (StripFileReader reader = new StripFileReader(file)) {
+            assertThat(reader.getFirstIndex(), is(1000L));
+            assertThat(reader.get(3).toString(), is(equalTo(new StripSequence(MASTER_SEED).get(1003).toString())));
+        }
+    }
+
+    @Test
+    public void filesWhichAreNotStripFilesAreRejected() throws IOException {
+        final Path file = Files.write(tempDir.resolve("bogus.b90"), new byte[128]);
+        assertThrows(ValidationException.class, () -> new StripFileReader(file));
+    }
+
+}
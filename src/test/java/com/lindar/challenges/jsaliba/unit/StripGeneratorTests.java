@@ -0,0 +1,42 @@
+package com.lindar.challenges.jsaliba.unit;
+
+import com.lindar.challenges.jsaliba.beans.StripGenerator;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class StripGeneratorTests {
+
+    @Test
+    public void generatesTheSameStripAsTicketStripForTheSameSeed() {
+        final StripGenerator generator = new StripGenerator();
+        final byte[] cells = new byte[TicketStrip.CELLS];
+
+        for (int seed = 0; seed < 100; seed++) {
+            generator.generate(new Random(seed), cells, 0);
+            assertThat(new TicketStrip(cells).toString(), is(equalTo(new TicketStrip(new Random(seed)).toString())));
+        }
+    }
+
+    @Test
+    public void generatesIntoTheRequestedOffsetOnly() {
+        final byte[] cells = new byte[TicketStrip.CELLS * 3];
+        new StripGenerator().generate(new Random(0), cells, TicketStrip.CELLS);
+
+        for (int i = 0; i < TicketStrip.CELLS; i++) {
+            assertThat(cells[i], is((byte) 0));
+            assertThat(cells[i + 2 * TicketStrip.CELLS], is((byte) 0));
+        }
+
+        final byte[] expected = new byte[TicketStrip.CELLS];
+        new StripGenerator().generate(new Random(0), expected, 0);
+        for (int i = 0; i < TicketStrip.CELLS; i++) {
+            assertThat(cells[i + TicketStrip.CELLS], is(expected[i]));
+        }
+    }
+
+}
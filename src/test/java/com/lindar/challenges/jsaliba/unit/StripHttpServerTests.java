@@ -0,0 +1,147 @@
+package com.lindar.challenges.jsaliba.unit;
+
+import com.lindar.challenges.jsaliba.beans.StripSequence;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+import com.lindar.challenges.jsaliba.beans.ValidationException;
+import com.lindar.challenges.jsaliba.io.StripCodec;
+import com.lindar.challenges.jsaliba.io.StripFileFormat;
+import com.lindar.challenges.jsaliba.io.StripFileReader;
+import com.lindar.challenges.jsaliba.io.StripRenderer;
+import com.lindar.challenges.jsaliba.service.StripHttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StripHttpServerTests {
+
+    private static final long MASTER_SEED = 42L;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private StripHttpServer server;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new StripHttpServer("localhost", 0, 100_000);
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.close();
+    }
+
+    @Test
+    public void stripsAreIssuedAsJsonLines() throws Exception {
+        final HttpResponse<String> response = get("/strips?count=1000&seed=" + MASTER_SEED + "&format=json", HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode(), is(200));
+        assertThat(response.headers().firstValue("Content-Type").orElseThrow(), is("application/x-ndjson"));
+        assertThat(response.body(), is(equalTo(render("json", 1000))));
+    }
+
+    @Test
+    public void stripsAreIssuedAsABinaryStripFile() throws Exception {
+        final int count = 5000;
+        final HttpResponse<byte[]> response = get("/strips?count=" + count + "&seed=" + MASTER_SEED + "&format=binary", HttpResponse.BodyHandlers.ofByteArray());
+
+        assertThat(response.statusCode(), is(200));
+        assertThat((long) response.body().length, is(StripFileFormat.fileSize(count)));
+        assertThat(ByteBuffer.wrap(response.body()).getInt(), is(StripFileFormat.MAGIC));
+
+        final byte[] expected = new byte[TicketStrip.CELLS];
+        final byte[] actual = new byte[TicketStrip.CELLS];
+        for (int index : new int[] { 0, 1, 4999 }) {
+            new StripSequence(MASTER_SEED).get(index).copyCells(expected, 0);
+            StripFileFormat.decode(response.body(), (int) StripFileFormat.recordOffset(index), actual, 0);
+            assertThat(Arrays.equals(actual, expected), is(true));
+        }
+    }
+
+    @Test
+    public void stripsAreIssuedAsCompactRecords() throws Exception {
+        final int count = 5000;
+        final HttpResponse<byte[]> response = get("/strips?count=" + count + "&seed=" + MASTER_SEED + "&format=compact", HttpResponse.BodyHandlers.ofByteArray());
+
+        assertThat(response.statusCode(), is(200));
+        assertThat(response.body().length, is(StripFileFormat.HEADER_SIZE + count * StripCodec.ENCODED_SIZE));
+        assertThat(ByteBuffer.wrap(response.body()).getShort(6), is((short) StripCodec.ENCODED_SIZE));
+
+        final StripCodec codec = new StripCodec();
+        final byte[] expected = new byte[TicketStrip.CELLS];
+        final byte[] actual = new byte[TicketStrip.CELLS];
+        for (int index : new int[] { 0, 1, 4999 }) {
+            new StripSequence(MASTER_SEED).get(index).copyCells(expected, 0);
+            codec.decode(response.body(), StripFileFormat.HEADER_SIZE + index * StripCodec.ENCODED_SIZE, actual, 0);
+            assertThat(Arrays.equals(actual, expected), is(true));
+        }
+
+        // Compact records are for the wire only, they are not mistaken for a strip file
+        final Path file = Files.write(tempDir.resolve("strips.b90"), response.body());
+        final ValidationException e = assertThrows(ValidationException.class, () -> new StripFileReader(file));
+        assertThat(e.getMessage(), containsString("compact records"));
+    }
+
+    @Test
+    public void randomSeedsAreReturnedAlongsideTheStrips() throws Exception {
+        final HttpResponse<String> response = get("/strips?count=3&format=csv", HttpResponse.BodyHandlers.ofString());
+
+        final long seed = Long.parseLong(response.headers().firstValue("X-Strip-Seed").orElseThrow());
+        assertThat(response.body(), is(equalTo(render("csv", 3, seed))));
+    }
+
+    @Test
+    public void invalidRequestsAreRejected() throws Exception {
+        assertThat(get("/strips", HttpResponse.BodyHandlers.ofString()).statusCode(), is(400));
+        assertThat(get("/strips?count=0", HttpResponse.BodyHandlers.ofString()).statusCode(), is(400));
+        assertThat(get("/strips?count=100001", HttpResponse.BodyHandlers.ofString()).statusCode(), is(400));
+        assertThat(get("/strips?count=abc", HttpResponse.BodyHandlers.ofString()).statusCode(), is(400));
+        assertThat(get("/strips?count=1&format=xml", HttpResponse.BodyHandlers.ofString()).statusCode(), is(400));
+
+        final HttpRequest post = HttpRequest.newBuilder(uri("/strips?count=1")).POST(HttpRequest.BodyPublishers.noBody()).build();
+        assertThat(client.send(post, HttpResponse.BodyHandlers.ofString()).statusCode(), is(405));
+    }
+
+    private <T> HttpResponse<T> get(String path, HttpResponse.BodyHandler<T> handler) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(path)).GET().build(), handler);
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.getPort() + path);
+    }
+
+    private static String render(String format, int count) {
+        return render(format, count, MASTER_SEED);
+    }
+
+    private static String render(String format, int count, long seed) {
+        final StripRenderer renderer = StripRenderer.forFormat(format);
+        final StringBuilder expected = new StringBuilder(new String(renderer.header(), StandardCharsets.US_ASCII));
+        final byte[] cells = new byte[TicketStrip.CELLS];
+        final byte[] out = new byte[renderer.maxStripSize()];
+        for (int index = 0; index < count; index++) {
+            new StripSequence(seed).get(index).copyCells(cells, 0);
+            expected.append(new String(out, 0, renderer.render(index, cells, 0, out, 0), StandardCharsets.US_ASCII));
+        }
+        return expected.toString();
+    }
+
+}
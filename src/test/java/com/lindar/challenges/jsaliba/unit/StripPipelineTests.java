@@ -0,0 +1,157 @@
+package com.lindar.challenges.jsaliba.unit;
+
+import com.lindar.challenges.jsaliba.beans.StripSequence;
+import com.lindar.challenges.jsaliba.beans.ValidationException;
+import com.lindar.challenges.jsaliba.io.StripFileReader;
+import com.lindar.challenges.jsaliba.io.StripFileWriter;
+import com.lindar.challenges.jsaliba.io.StripPipeline;
+import com.lindar.challenges.jsaliba.io.StripPipelineMetrics;
+import com.lindar.challenges.jsaliba.io.StripRenderer;
+import com.lindar.challenges.jsaliba.io.StripTextWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StripPipelineTests {
+
+    private static final long MASTER_SEED = 42L;
+    private static final StripSequence SEQUENCE = new StripSequence(MASTER_SEED);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void binaryFilesMatchTheStripFileWriter() throws IOException {
+        // Not a whole number of blocks, on purpose
+        final Path expected = tempDir.resolve("expected.b90");
+        try (StripFileWriter writer = new StripFileWriter(expected, MASTER_SEED, 1000, 9000)) {
+            SEQUENCE.generate(1000, 10_000, 1, writer);
+            writer.seal();
+        }
+
+        final Path actual = tempDir.resolve("actual.b90");
+        final AtomicLong inspected = new AtomicLong();
+        new StripPipeline(SEQUENCE, null, (index, cells, offset) -> inspected.incrementAndGet(), 3, 2, 0).write(actual, 1000, 10_000);
+
+        assertThat(Arrays.equals(Files.readAllBytes(actual), Files.readAllBytes(expected)), is(true));
+        assertThat(inspected.get(), is(9000L));
+        try (StripFileReader reader = new StripFileReader(actual)) {
+            assertThat(reader.getChecksum(), is(reader.computeChecksum()));
+        }
+    }
+
+    @Test
+    public void renderedFilesMatchTheStripTextWriter() throws IOException {
+        for (String format : new String[] { "text", "csv", "json" }) {
+            final Path expected = tempDir.resolve("expected." + format);
+            try (StripTextWriter writer = new StripTextWriter(expected, StripRenderer.forFormat(format))) {
+                SEQUENCE.generate(0, 3000, 1, writer);
+            }
+
+            final Path actual = tempDir.resolve("actual." + format);
+            new StripPipeline(SEQUENCE, StripRenderer.forFormat(format), null, 2, 1, 0).write(actual, 0, 3000);
+
+            assertThat(format, Files.readString(actual), is(equalTo(Files.readString(expected))));
+        }
+    }
+
+    @Test
+    public void compressedFilesAreGzipped() throws IOException {
+        final Path uncompressed = tempDir.resolve("strips.csv");
+        new StripPipeline(SEQUENCE, StripRenderer.forFormat("csv"), null, 2, 1, 0).write(uncompressed, 0, 5000);
+
+        final Path compressed = tempDir.resolve("strips.csv.gz");
+        new StripPipeline(SEQUENCE, StripRenderer.forFormat("csv"), null, 2, 1, 3).write(compressed, 0, 5000);
+
+        final byte[] decompressed;
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(compressed))) {
+            decompressed = in.readAllBytes();
+        }
+        assertThat(Arrays.equals(decompressed, Files.readAllBytes(uncompressed)), is(true));
+        assertThat(Files.size(compressed), is(lessThan(Files.size(uncompressed))));
+
+        // Binary files are checksummed all the same, their header only makes it to the file once all strips were written
+        final Path uncompressedBinary = tempDir.resolve("strips.b90");
+        new StripPipeline(SEQUENCE, null, null, 2, 1, 0).write(uncompressedBinary, 1000, 6000);
+
+        final Path compressedBinary = tempDir.resolve("strips.b90.gz");
+        new StripPipeline(SEQUENCE, null, null, 2, 1, 3).write(compressedBinary, 1000, 6000);
+
+        final Path decompressedBinary = tempDir.resolve("decompressed.b90");
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(compressedBinary))) {
+            Files.copy(in, decompressedBinary);
+        }
+        assertThat(Arrays.equals(Files.readAllBytes(decompressedBinary), Files.readAllBytes(uncompressedBinary)), is(true));
+        try (StripFileReader reader = new StripFileReader(decompressedBinary)) {
+            assertThat(reader.isChecksummed(), is(true));
+            assertThat(reader.getChecksum(), is(reader.computeChecksum()));
+        }
+    }
+
+    @Test
+    public void everyStageCountsEveryStrip() throws IOException {
+        final StripPipeline pipeline = new StripPipeline(SEQUENCE, null, null, 2, 1, 1);
+        final StripPipelineMetrics metrics = pipeline.write(tempDir.resolve("strips.b90.gz"), 0, 5000);
+
+        assertThat(metrics.getStages().stream().map(StripPipelineMetrics.Stage::getName).toList(), contains("generate", "encode", "compress", "write"));
+        for (StripPipelineMetrics.Stage stage : metrics.getStages()) {
+            assertThat(stage.getName(), stage.getStrips(), is(5000L));
+            assertThat(stage.getName(), stage.getBlocks(), is(5L));
+            assertThat(stage.getName(), stage.getUtilisation(metrics.getElapsedNanos()), is(both(greaterThan(0.0)).and(lessThanOrEqualTo(1.0))));
+        }
+        // Blocks only, leaving out the gzip header and trailer, and the compressed file header
+        assertThat(metrics.getStage("write").getBytes(), is(both(greaterThan(0L)).and(lessThan(Files.size(tempDir.resolve("strips.b90.gz"))))));
+        assertThat(metrics.getStage("encode").getBytes(), is(5000L * 90));
+        assertThat(metrics.getBottleneck(), is(notNullValue()));
+        assertThat(new StripPipeline(SEQUENCE, null, null, 1, 1, 0).getMetrics().getStage("compress"), is(nullValue()));
+    }
+
+    @Test
+    public void failuresStopThePipelineAndDeleteTheOutput() throws IOException {
+        final Path file = tempDir.resolve("strips.b90");
+        final StripPipeline failingGenerator = new StripPipeline(SEQUENCE, null, (index, cells, offset) -> {
+            if (index == 2500) {
+                throw new ValidationException("Strip 2500 is invalid");
+            }
+        }, 2, 1, 0);
+
+        final ValidationException e = assertThrows(ValidationException.class, () -> failingGenerator.write(file, 0, 100_000));
+        assertThat(e.getMessage(), is("Strip 2500 is invalid"));
+        assertThat(Files.exists(file), is(false));
+
+        // Fails once the file was written to already, past the first few blocks
+        final StripRenderer csv = StripRenderer.forFormat("csv");
+        final StripRenderer failingRenderer = new StripRenderer() {
+            @Override
+            public int maxStripSize() {
+                return csv.maxStripSize();
+            }
+
+            @Override
+            public int render(long index, byte[] cells, int offset, byte[] out, int position) {
+                if (index == 60_000) {
+                    throw new IllegalStateException("Rendering failed");
+                }
+                return csv.render(index, cells, offset, out, position);
+            }
+        };
+        final Path csvFile = tempDir.resolve("strips.csv.gz");
+        final StripPipeline failingEncoder = new StripPipeline(SEQUENCE, failingRenderer, null, 1, 1, 1);
+        assertThrows(IllegalStateException.class, () -> failingEncoder.write(csvFile, 0, 100_000));
+        assertThat(Files.exists(csvFile), is(false));
+
+        assertThrows(ValidationException.class, () -> new StripPipeline(SEQUENCE, null, null, 0, 1, 0));
+    }
+
+}
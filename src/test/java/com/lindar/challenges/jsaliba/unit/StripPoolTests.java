@@ -0,0 +1,64 @@
+package com.lindar.challenges.jsaliba.unit;
+
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+import com.lindar.challenges.jsaliba.service.StripPool;
+import com.lindar.challenges.jsaliba.service.StripPoolMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class StripPoolTests {
+
+    @Test
+    public void poolIsToppedUpToCapacityAndRefilledBelowTheLowWatermark() throws Exception {
+        try (StripPool pool = new StripPool(100, 50, 2)) {
+            pool.start();
+            awaitSize(pool, 100);
+
+            // Dropping below the low watermark triggers a refill ...
+            for (int i = 0; i < 60; i++) {
+                assertThat(pool.take().getTickets(), hasSize(6));
+            }
+            Thread.sleep(200);
+
+            final StripPoolMetrics metrics = pool.getMetrics();
+            assertThat(metrics.getTaken(), is(60L));
+            assertThat(metrics.getProduced(), is(greaterThan(100L)));
+            assertThat(metrics.getSize(), is(both(greaterThanOrEqualTo(50)).and(lessThanOrEqualTo(100))));
+            assertThat((long) metrics.getSize(), is(metrics.getProduced() - metrics.getTaken()));
+            assertThat(metrics.getRefillRate(), is(greaterThan(0.0)));
+        }
+    }
+
+    @Test
+    public void consumersWaitForStripsWhenThePoolIsDrained() throws Exception {
+        try (StripPool pool = new StripPool(16, 8, 1)) {
+            pool.start();
+            for (int i = 0; i < 1000; i++) {
+                final TicketStrip strip = pool.poll(10, TimeUnit.SECONDS);
+                assertThat(strip, is(notNullValue()));
+            }
+            assertThat(pool.getMetrics().getTaken(), is(1000L));
+        }
+    }
+
+    @Test
+    public void pollingAStoppedEmptyPoolTimesOut() throws Exception {
+        final StripPool pool = new StripPool(16, 8, 1);
+        assertThat(pool.poll(), is(nullValue()));
+        assertThat(pool.poll(10, TimeUnit.MILLISECONDS), is(nullValue()));
+        assertThat(pool.getMetrics().getStalls(), is(1L));
+    }
+
+    private static void awaitSize(StripPool pool, int size) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 10_000;
+        while (pool.getMetrics().getSize() < size && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(pool.getMetrics().getSize(), is(size));
+    }
+
+}
@@ -0,0 +1,172 @@
+package com.lindar.challenges.jsaliba.unit;
+
+import com.lindar.challenges.jsaliba.beans.RandomSource;
+import com.lindar.challenges.jsaliba.beans.StripAlgorithm;
+import com.lindar.challenges.jsaliba.beans.StripSequence;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+import com.lindar.challenges.jsaliba.service.StripPublisher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.BooleanSupplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class StripPublisherTests {
+
+    private static final long MASTER_SEED = 42L;
+
+    private final StripSequence sequence = new StripSequence(MASTER_SEED);
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void subscriberReceivesTheSequenceInOrderThenCompletes() throws Exception {
+        final RecordingSubscriber subscriber = new RecordingSubscriber(7);
+        new StripPublisher(sequence, 100, 1100, executor, 64).subscribe(subscriber);
+
+        assertThat(subscriber.completed.await(10, TimeUnit.SECONDS), is(true));
+        assertThat(subscriber.strips, hasSize(1000));
+        for (int i = 0; i < 1000; i += 99) {
+            assertThat(subscriber.strips.get(i), is(equalTo(sequence.get(100 + i).toString())));
+        }
+        assertThat(subscriber.error, is(nullValue()));
+    }
+
+    @Test
+    public void stripsAreGeneratedByTheSequencesAlgorithmAndRandomSource() throws Exception {
+        final StripSequence template = sequence.withAlgorithm(StripAlgorithm.TEMPLATE).withRandomSource(RandomSource.SPLITTABLE);
+        final RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        new StripPublisher(template, 0, 300, executor, 64).subscribe(subscriber);
+
+        assertThat(subscriber.completed.await(10, TimeUnit.SECONDS), is(true));
+        for (int i = 0; i < 300; i++) {
+            assertThat(subscriber.strips.get(i), is(equalTo(template.get(i).toString())));
+        }
+        assertThat(subscriber.strips.get(0), is(not(equalTo(sequence.get(0).toString()))));
+    }
+
+    @Test
+    public void nothingIsDeliveredBeyondWhatIsRequested() throws Exception {
+        final RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        new StripPublisher(sequence, 0, 1000, executor, 4).subscribe(subscriber);
+
+        subscriber.subscription.request(10);
+        waitFor(() -> subscriber.strips.size() == 10);
+        Thread.sleep(100);
+        assertThat(subscriber.strips, hasSize(10));
+
+        subscriber.subscription.request(5);
+        waitFor(() -> subscriber.strips.size() == 15);
+        Thread.sleep(100);
+        assertThat(subscriber.strips, hasSize(15));
+        assertThat(subscriber.completed.getCount(), is(1L));
+    }
+
+    @Test
+    public void unboundedDemandIsDeliveredInBatches() throws Exception {
+        final RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        new StripPublisher(sequence, 0, 10_000, executor, 100).subscribe(subscriber);
+
+        assertThat(subscriber.completed.await(10, TimeUnit.SECONDS), is(true));
+        assertThat(subscriber.strips, hasSize(10_000));
+    }
+
+    @Test
+    public void cancellingStopsDelivery() throws Exception {
+        final RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        new StripPublisher(sequence, 0, 1000, executor, 4).subscribe(subscriber);
+
+        subscriber.subscription.request(3);
+        waitFor(() -> subscriber.strips.size() == 3);
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(10);
+        Thread.sleep(100);
+
+        assertThat(subscriber.strips, hasSize(3));
+        assertThat(subscriber.completed.getCount(), is(1L));
+    }
+
+    @Test
+    public void nonPositiveRequestsAreSignalledAsErrors() throws Exception {
+        final RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        new StripPublisher(sequence, 0, 1000, executor, 4).subscribe(subscriber);
+
+        subscriber.subscription.request(0);
+        waitFor(() -> subscriber.error != null);
+        assertThat(subscriber.error, is(instanceOf(IllegalArgumentException.class)));
+    }
+
+    @Test
+    public void emptyRangeCompletesWithoutDemand() throws Exception {
+        final RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        new StripPublisher(sequence, 10, 10, executor, 4).subscribe(subscriber);
+
+        assertThat(subscriber.completed.await(10, TimeUnit.SECONDS), is(true));
+        assertThat(subscriber.strips, is(empty()));
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Timed out");
+            }
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * Records every strip received, requesting {@code initialDemand} strips upon subscribing,
+     * and that many again every time they have all been received.
+     */
+    private static final class RecordingSubscriber implements Flow.Subscriber<TicketStrip> {
+
+        private final long initialDemand;
+        private final List<String> strips = new CopyOnWriteArrayList<>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private volatile Flow.Subscription subscription;
+        private volatile Throwable error;
+        private long outstanding;
+
+        private RecordingSubscriber(long initialDemand) {
+            this.initialDemand = initialDemand;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialDemand > 0) {
+                outstanding = initialDemand;
+                subscription.request(initialDemand);
+            }
+        }
+
+        @Override
+        public void onNext(TicketStrip strip) {
+            strips.add(strip.toString());
+            if (initialDemand > 0 && initialDemand != Long.MAX_VALUE && --outstanding == 0) {
+                outstanding = initialDemand;
+                subscription.request(initialDemand);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.lindar.challenges.jsaliba.unit;
+
+import com.lindar.challenges.jsaliba.beans.StripSequence;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+import com.lindar.challenges.jsaliba.io.StripRenderer;
+import com.lindar.challenges.jsaliba.io.StripTextWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static java.lang.System.lineSeparator;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class StripRendererTests {
+
+    private static final StripSequence SEQUENCE = new StripSequence(42L);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void textRendersTheSameGridAsTicketStrip() {
+        final TicketStrip strip = SEQUENCE.get(6);
+        assertThat(render("text", 6, strip), is(equalTo("Strip 7" + lineSeparator() + strip)));
+    }
+
+    @Test
+    public void csvRendersOneLinePerRowWithEmptyBlanks() {
+        final TicketStrip strip = SEQUENCE.get(0);
+        final String[] lines = render("csv", 0, strip).split("\n");
+
+        assertThat(lines.length, is(18));
+        for (int line = 0; line < lines.length; line++) {
+            final String[] values = lines[line].split(",", -1);
+            assertThat(values.length, is(12));
+            assertThat(values[0], is("1"));
+            assertThat(values[1], is(String.valueOf(line / 3 + 1)));
+            assertThat(values[2], is(String.valueOf(line % 3 + 1)));
+            for (int column = 0; column < 9; column++) {
+                final int cell = strip.getCell(line / 3, line % 3, column);
+                assertThat(values[column + 3], is(cell == TicketStrip.BLANK ? "" : String.valueOf(cell)));
+            }
+        }
+    }
+
+    @Test
+    public void jsonRendersTicketsAsArraysOfRows() {
+        final TicketStrip strip = SEQUENCE.get(41);
+        final StringBuilder expected = new StringBuilder("{\"strip\":42,\"tickets\":[");
+        for (int ticket = 0; ticket < 6; ticket++) {
+            expected.append(ticket > 0 ? ",[" : "[");
+            for (int row = 0; row < 3; row++) {
+                expected.append(row > 0 ? ",[" : "[");
+                for (int column = 0; column < 9; column++) {
+                    final int cell = strip.getCell(ticket, row, column);
+                    expected.append(column > 0 ? "," : "").append(cell == TicketStrip.BLANK ? "null" : String.valueOf(cell));
+                }
+                expected.append("]");
+            }
+            expected.append("]");
+        }
+        expected.append("]}\n");
+
+        assertThat(render("json", 41, strip), is(equalTo(expected.toString())));
+    }
+
+    @Test
+    public void writerRendersEveryStripFromEveryThread() throws IOException {
+        final Path file = tempDir.resolve("strips.csv");
+        try (StripTextWriter writer = new StripTextWriter(file, StripRenderer.forFormat("csv"))) {
+            SEQUENCE.generate(0, 10_000, 4, writer);
+        }
+
+        final List<String> lines = Files.readAllLines(file, US_ASCII);
+        assertThat(lines.get(0), startsWith("strip,ticket,row"));
+        assertThat(lines, hasSize(1 + 10_000 * 18));
+        assertThat(lines.stream().skip(1).map(line -> line.substring(0, line.indexOf(','))).distinct().count(), is(10_000L));
+    }
+
+    private static String render(String format, long index, TicketStrip strip) {
+        final StripRenderer renderer = StripRenderer.forFormat(format);
+        final byte[] cells = new byte[TicketStrip.CELLS];
+        final byte[] out = new byte[renderer.maxStripSize()];
+        strip.copyCells(cells, 0);
+
+        final int length = renderer.render(index, cells, 0, out, 0);
+        return new String(out, 0, length, US_ASCII);
+    }
+
+}
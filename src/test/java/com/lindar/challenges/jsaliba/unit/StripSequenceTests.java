@@ -0,0 +1,102 @@
+package com.lindar.challenges.jsaliba.unit;
+
+import com.lindar.challenges.jsaliba.beans.StripBatch;
+import com.lindar.challenges.jsaliba.beans.StripSequence;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+import com.lindar.challenges.jsaliba.beans.ValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StripSequenceTests {
+
+    private static final long MASTER_SEED = 42L;
+
+    @Test
+    public void batchIsIdenticalRegardlessOfParallelism() {
+        final StripBatch sequential = StripBatch.generate(10_000, MASTER_SEED, 1);
+
+        for (int parallelism : new int[] { 2, 3, 8 }) {
+            final StripBatch parallel = StripBatch.generate(10_000, MASTER_SEED, parallelism);
+            for (int i = 0; i < sequential.getCount(); i++) {
+                assertThat(cellsOf(parallel, i), is(equalTo(cellsOf(sequential, i))));
+            }
+        }
+    }
+
+    @Test
+    public void anyStripCanBeReproducedFromSeedAndIndex() {
+        final StripBatch batch = StripBatch.generate(10_000, MASTER_SEED, 4);
+        final StripSequence sequence = new StripSequence(MASTER_SEED);
+
+        for (int index : new int[] { 0, 1, 4095, 4096, 9999 }) {
+            assertThat(sequence.get(index).toString(), is(equalTo(batch.getStrip(index).toString())));
+        }
+    }
+
+    @Test
+    public void everyStripInTheRangeIsHandedOverExactlyOnce() {
+        final ConcurrentMap<Long, Integer> seen = new ConcurrentHashMap<>();
+        new StripSequence(MASTER_SEED).generate(100, 20_100, 4, (index, cells, offset) -> seen.merge(index, 1, Integer::sum));
+
+        assertThat(seen.size(), is(20_000));
+        assertThat(seen.values(), everyItem(is(1)));
+        assertThat(seen.keySet(), everyItem(both(greaterThanOrEqualTo(100L)).and(lessThan(20_100L))));
+    }
+
+    @Test
+    public void failuresStopEveryThreadBeforeBeingRethrown() throws InterruptedException {
+        final AtomicLong accepted = new AtomicLong();
+        final ValidationException e = assertThrows(ValidationException.class, () -> new StripSequence(MASTER_SEED).generate(0, 10_000_000, 4, (index, cells, offset) -> {
+            accepted.incrementAndGet();
+            if (index == 0) {
+                throw new ValidationException("Strip 0 is invalid");
+            }
+        }));
+        assertThat(e.getMessage(), is("Strip 0 is invalid"));
+
+        // At most the chunks other threads had claimed already were handed over, and none is once generate() threw
+        final long acceptedOnReturn = accepted.get();
+        assertThat(acceptedOnReturn, is(lessThanOrEqualTo(4L * 4096)));
+        Thread.sleep(100);
+        assertThat(accepted.get(), is(acceptedOnReturn));
+    }
+
+    @Test
+    public void streamIsLazyAndYieldsTheSequenceInOrder() {
+        final StripSequence sequence = new StripSequence(MASTER_SEED);
+
+        final List<String> sequential = sequence.stream(5_000, 5_500).map(TicketStrip::toString).toList();
+        final List<String> parallel = sequence.stream(5_000, 5_500).parallel().map(TicketStrip::toString).toList();
+        assertThat(parallel, is(equalTo(sequential)));
+        assertThat(sequential.get(0), is(equalTo(sequence.get(5_000).toString())));
+
+        // Unbounded, yet only what's consumed gets generated
+        assertThat(sequence.stream().skip(3).findFirst().orElseThrow().toString(), is(equalTo(sequence.get(3).toString())));
+    }
+
+    @Test
+    public void differentMasterSeedsYieldDifferentStrips() {
+        assertThat(cellsOf(StripBatch.generate(1, 1L, 1), 0), is(not(equalTo(cellsOf(StripBatch.generate(1, 2L, 1), 0)))));
+    }
+
+    @Test
+    public void invalidParallelismIsRejected() {
+        assertThrows(ValidationException.class, () -> StripBatch.generate(10, MASTER_SEED, 0));
+    }
+
+    private static byte[] cellsOf(StripBatch batch, int index) {
+        final byte[] cells = new byte[TicketStrip.CELLS];
+        batch.copyCells(index, cells, 0);
+        return cells;
+    }
+
+}
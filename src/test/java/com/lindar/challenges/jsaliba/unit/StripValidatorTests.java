@@ -0,0 +1,161 @@
+package com.lindar.challenges.jsaliba.unit;
+
+import com.lindar.challenges.jsaliba.beans.StripBatch;
+import com.lindar.challenges.jsaliba.beans.StripSequence;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+import com.lindar.challenges.jsaliba.beans.ValidationException;
+import com.lindar.challenges.jsaliba.io.StripFileFormat;
+import com.lindar.challenges.jsaliba.io.StripFileReader;
+import com.lindar.challenges.jsaliba.io.StripFileWriter;
+import com.lindar.challenges.jsaliba.validation.StripRule;
+import com.lindar.challenges.jsaliba.validation.StripValidator;
+import com.lindar.challenges.jsaliba.validation.StripViolation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StripValidatorTests {
+
+    private static final long MASTER_SEED = 42L;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void generatedStripsAreValid() {
+        final StripBatch batch = StripBatch.generate(20_000, MASTER_SEED, 4);
+        final StripViolation violation = StripValidator.validate(batch.getCount(), 4, (index, cells, offset) -> batch.copyCells((int) index, cells, offset));
+
+        assertThat(violation, is(nullValue()));
+    }
+
+    @Test
+    public void everyRuleIsEnforced() {
+        // Same column, swapped rows
+        assertThat(StripValidator.check(mutate(cells -> swapRows(cells, 0)), 0), is(StripRule.ASCENDING_COLUMNS));
+
+        assertThat(StripValidator.check(mutate(cells -> cells[firstNumber(cells)] = 91), 0), is(StripRule.VALID_CELLS));
+        assertThat(StripValidator.check(mutate(cells -> cells[firstNumber(cells)] = 0), 0), is(StripRule.VALID_CELLS));
+
+        // A number moved to the column next door
+        assertThat(StripValidator.check(mutate(cells -> {
+            final int cell = firstNumber(cells);
+            cells[cell + 1] = cells[cell];
+            cells[cell] = (byte) TicketStrip.BLANK;
+        }), 0), is(StripRule.COLUMN_RANGES));
+
+        // A number replaced by another one from the same column, of another ticket
+        assertThat(StripValidator.check(mutate(cells -> cells[firstNumberInColumn(cells, 27, 4)] = cells[firstNumberInColumn(cells, 0, 4)]), 0), is(StripRule.UNIQUE_NUMBERS));
+
+        // A lone number moved to another row of the same column
+        assertThat(StripValidator.check(mutate(cells -> {
+            for (int column = 0; column < 9; column++) {
+                if (cells[column] != TicketStrip.BLANK && cells[column + 9] == TicketStrip.BLANK && cells[column + 18] == TicketStrip.BLANK) {
+                    cells[column + 9] = cells[column];
+                    cells[column] = (byte) TicketStrip.BLANK;
+                    return;
+                }
+            }
+            throw new AssertionError("No column housing a single number in its top row");
+        }), 0), is(StripRule.NUMBERS_PER_ROW));
+
+        // A number removed altogether
+        assertThat(StripValidator.check(mutate(cells -> cells[firstNumber(cells)] = (byte) TicketStrip.BLANK), 0), is(StripRule.UNIQUE_NUMBERS));
+    }
+
+    @Test
+    public void validatingAFileReportsTheFirstInvalidStrip() throws IOException {
+        final Path file = tempDir.resolve("strips.b90");
+        final int count = 20_000;
+        try (StripFileWriter writer = new StripFileWriter(file, MASTER_SEED, 0, count)) {
+            new StripSequence(MASTER_SEED).generate(0, count, 4, writer);
+        }
+
+        try (StripFileReader reader = new StripFileReader(file)) {
+            assertThat(StripValidator.validate(reader, 4), is(nullValue()));
+        }
+
+        try (FileChannel channel = FileChannel.open(file, READ, WRITE)) {
+            // Number 1 placed alongside number 2, i.e. in the same cell
+            final ByteBuffer position = ByteBuffer.allocate(1);
+            channel.read(position, StripFileFormat.recordOffset(15_000) + 1);
+            channel.write(position.flip(), StripFileFormat.recordOffset(15_000));
+            // Number 90 placed on a seventh ticket
+            channel.write(ByteBuffer.wrap(new byte[] { 20 }), StripFileFormat.recordOffset(7_000) + 89);
+        }
+
+        try (StripFileReader reader = new StripFileReader(file)) {
+            for (int parallelism : new int[] { 1, 4 }) {
+                final StripViolation violation = StripValidator.validate(reader, parallelism);
+                assertThat(violation.getIndex(), is(7_000L));
+                assertThat(violation.getRule(), is(StripRule.VALID_CELLS));
+            }
+
+            final StripViolation violation = StripValidator.validate(20_000 - 7_001, 2, (index, cells, offset) -> reader.read(index + 7_001, cells, offset));
+            assertThat(violation.getIndex(), is(15_000L - 7_001));
+            assertThat(violation.getRule(), is(StripRule.UNIQUE_NUMBERS));
+        }
+    }
+
+    @Test
+    public void validatorSinkFailsOnTheFirstInvalidStrip() {
+        final StripValidator validator = new StripValidator();
+        final byte[] cells = mutate(c -> swapRows(c, 0));
+
+        final ValidationException e = assertThrows(ValidationException.class, () -> validator.accept(12, cells, 0));
+        assertThat(e.getMessage(), containsString("Strip 12 breaks rule ASCENDING_COLUMNS"));
+    }
+
+    private interface Mutation {
+        void apply(byte[] cells);
+    }
+
+    private static byte[] mutate(Mutation mutation) {
+        final byte[] cells = new byte[TicketStrip.CELLS];
+        new StripSequence(MASTER_SEED).get(0).copyCells(cells, 0);
+        mutation.apply(cells);
+        return cells;
+    }
+
+    private static int firstNumber(byte[] cells) {
+        return firstNumberInColumn(cells, 0, 0);
+    }
+
+    private static int firstNumberInColumn(byte[] cells, int ticketOffset, int column) {
+        for (int cell = ticketOffset + column; ; cell += 9) {
+            if (cells[cell] != TicketStrip.BLANK) return cell;
+        }
+    }
+
+    /**
+     * Swaps the two lowest numbers of the first column of the first ticket housing two or more.
+     */
+    private static void swapRows(byte[] cells, int column) {
+        for (int ticket = 0; ticket < TicketStrip.TICKETS; ticket++) {
+            int first = -1;
+            for (int row = 0; row < 3; row++) {
+                final int cell = ticket * 27 + row * 9 + column;
+                if (cells[cell] == TicketStrip.BLANK) continue;
+                if (first < 0) first = cell;
+                else {
+                    final byte swapped = cells[first];
+                    cells[first] = cells[cell];
+                    cells[cell] = swapped;
+                    return;
+                }
+            }
+        }
+        throw new AssertionError("No column housing two numbers");
+    }
+
+}
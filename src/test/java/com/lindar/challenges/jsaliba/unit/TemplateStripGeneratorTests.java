@@ -0,0 +1,53 @@
+package com.lindar.challenges.jsaliba.unit;
+
+import com.lindar.challenges.jsaliba.analysis.FairnessAnalysis;
+import com.lindar.challenges.jsaliba.analysis.FairnessReport;
+import com.lindar.challenges.jsaliba.beans.LayoutTable;
+import com.lindar.challenges.jsaliba.beans.StripAlgorithm;
+import com.lindar.challenges.jsaliba.beans.StripSequence;
+import com.lindar.challenges.jsaliba.beans.Ticket;
+import com.lindar.challenges.jsaliba.beans.TicketLayouts;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class TemplateStripGeneratorTests {
+
+    @Test
+    public void layoutsAreGroupedByColumnCounts() {
+        assertThat(LayoutTable.size(), is(1554));
+
+        int layouts = 0;
+        for (int index = 0; index < LayoutTable.size(); index++) {
+            final long counts = LayoutTable.counts(index);
+            assertThat(LayoutTable.indexOf(counts), is(index));
+
+            int previous = -1;
+            for (int n = 0; n < LayoutTable.layoutCount(index); n++) {
+                final int layout = LayoutTable.layout(index, n);
+                assertThat(LayoutTable.packedCounts(layout), is(counts));
+                assertThat(TicketLayouts.rank(layout), is(greaterThan(previous)));
+                previous = TicketLayouts.rank(layout);
+            }
+            layouts += LayoutTable.layoutCount(index);
+        }
+        assertThat(layouts, is(TicketLayouts.COUNT));
+
+        // 16 numbers, and an empty column
+        assertThat(LayoutTable.indexOf(0x333211111L), is(-1));
+        assertThat(LayoutTable.indexOf(0x333311110L), is(-1));
+        assertThat(LayoutTable.indexOf(0), is(-1));
+    }
+
+    @Test
+    public void stripsAreConsistentWithUniformlyRandomStrips() {
+        final StripSequence sequence = new StripSequence(42L).withAlgorithm(StripAlgorithm.TEMPLATE);
+        final FairnessReport report = FairnessAnalysis.analyse(sequence, 50_000, 2);
+
+        assertThat(report.isUniform(0.001), is(true));
+        assertThat(report.getOccupancy(5, 2, 8), is(closeTo(11 / 18d, 0.01)));
+        assertThat(report.getMeanColumnCount(3, Ticket.COLUMNS - 1), is(closeTo(11 / 6d, 0.01)));
+    }
+
+}
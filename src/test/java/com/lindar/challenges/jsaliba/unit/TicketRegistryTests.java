@@ -0,0 +1,99 @@
+package com.lindar.challenges.jsaliba.unit;
+
+import com.lindar.challenges.jsaliba.beans.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class TicketRegistryTests {
+
+    private static final long MASTER_SEED = 42L;
+
+    @Test
+    public void ticketFingerprintsMatchOnlyIdenticalTickets() {
+        final StripSequence sequence = new StripSequence(MASTER_SEED);
+        final Map<Fingerprint, String> tickets = new ConcurrentHashMap<>();
+
+        sequence.stream(0, 20_000).flatMap(strip -> strip.getTickets().stream()).forEach(ticket -> {
+            final Fingerprint fingerprint = ticket.getFingerprint();
+            assertThat(fingerprint.getHigh(), is(not(0L)));
+            assertThat(fingerprint.getLow(), is(not(0L)));
+
+            final String previous = tickets.putIfAbsent(fingerprint, layoutOf(ticket));
+            if (previous != null) {
+                assertThat(previous, is(equalTo(layoutOf(ticket))));
+            }
+        });
+
+        // Re-generating the same strip yields the same fingerprints
+        assertThat(sequence.get(7).getFingerprint(), is(equalTo(sequence.get(7).getFingerprint())));
+        assertThat(sequence.get(7).getTickets().get(2).getFingerprint(), is(equalTo(sequence.get(7).getTickets().get(2).getFingerprint())));
+        assertThat(sequence.get(7).getFingerprint(), is(not(equalTo(sequence.get(8).getFingerprint()))));
+    }
+
+    @Test
+    public void ticketFingerprintIsItsPackedLayout() {
+        final byte[] cells = new byte[TicketStrip.CELLS];
+        new StripSequence(MASTER_SEED).get(0).copyCells(cells, 0);
+        final Fingerprint fingerprint = Fingerprint.ofTicket(cells, 0);
+
+        // Top-left cell is the most significant nibble of the low half
+        final int topLeft = cells[0];
+        assertThat((int) (fingerprint.getLow() >>> 60), is(topLeft == TicketStrip.BLANK ? 0 : topLeft));
+        assertThat(fingerprint.toString(), matchesPattern("[0-9a-f]{32}"));
+    }
+
+    @Test
+    public void stripsHousingRegisteredTicketsAreRejected() {
+        final TicketRegistry registry = new TicketRegistry(12);
+        final byte[] first = new byte[TicketStrip.CELLS];
+        final byte[] second = new byte[TicketStrip.CELLS];
+        new StripSequence(MASTER_SEED).get(0).copyCells(first, 0);
+        new StripSequence(MASTER_SEED).get(1).copyCells(second, 0);
+
+        assertThat(registry.register(first, 0), is(true));
+        assertThat(registry.register(first, 0), is(false));
+        assertThat(registry.register(second, 0), is(true));
+        assertThat(registry.getTickets(), is(12L));
+        assertThat(registry.getRejected(), is(1L));
+        assertThat(registry.contains(Fingerprint.ofTicket(second, 3 * Ticket.CELLS)), is(true));
+    }
+
+    @Test
+    public void uniqueSequencesRegenerateStripsHousingRepeatedTickets() {
+        final TicketRegistry registry = new TicketRegistry(2 * 10_000 * TicketStrip.TICKETS);
+        final StripSequence sequence = new StripSequence(MASTER_SEED).withUniqueTickets(registry);
+        final Set<Fingerprint> tickets = ConcurrentHashMap.newKeySet();
+
+        sequence.generate(0, 10_000, 4, (index, cells, offset) -> collectTickets(cells, offset, tickets));
+        assertThat(registry.getRejected(), is(0L));
+
+        // Same strips all over again: every one of them houses tickets generated before
+        sequence.generate(0, 10_000, 4, (index, cells, offset) -> collectTickets(cells, offset, tickets));
+        assertThat(registry.getRejected(), is(greaterThanOrEqualTo(10_000L)));
+        assertThat(tickets, hasSize(2 * 10_000 * TicketStrip.TICKETS));
+        assertThat(registry.getTickets(), is((long) tickets.size()));
+    }
+
+    private static void collectTickets(byte[] cells, int offset, Set<Fingerprint> tickets) {
+        for (int ticket = 0; ticket < TicketStrip.TICKETS; ticket++) {
+            tickets.add(Fingerprint.ofTicket(cells, offset + ticket * Ticket.CELLS));
+        }
+    }
+
+    private static String layoutOf(Ticket ticket) {
+        final StringBuilder layout = new StringBuilder();
+        for (int row = 0; row < Ticket.ROWS; row++) {
+            for (int column = 0; column < Ticket.COLUMNS; column++) {
+                layout.append(ticket.getCell(row, column)).append(',');
+            }
+        }
+        return layout.toString();
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.lindar.challenges.jsaliba.unit;
+
+import com.lindar.challenges.jsaliba.beans.PostingIterator;
+import com.lindar.challenges.jsaliba.beans.StripSequence;
+import com.lindar.challenges.jsaliba.beans.Ticket;
+import com.lindar.challenges.jsaliba.beans.TicketStore;
+import com.lindar.challenges.jsaliba.beans.TicketStrip;
+import com.lindar.challenges.jsaliba.beans.ValidationException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TicketStoreTests {
+
+    private static final int STRIPS = 20_000;
+    private static final int TICKETS = STRIPS * TicketStrip.TICKETS;
+
+    private static TicketStore store;
+    private static byte[] cells;
+
+    @BeforeAll
+    public static void fillStore() {
+        // Expect far fewer tickets than added, so that the store has to grow
+        store = new TicketStore(1000);
+        cells = new byte[TICKETS * Ticket.CELLS];
+
+        final StripSequence sequence = new StripSequence(42L);
+        final byte[] strip = new byte[TicketStrip.CELLS];
+        for (int index = 0; index < STRIPS; index++) {
+            sequence.get(index).copyCells(strip, 0);
+            assertThat(store.addStrip(strip, 0), is((long) index * TicketStrip.TICKETS));
+            System.arraycopy(strip, 0, cells, index * TicketStrip.CELLS, TicketStrip.CELLS);
+        }
+    }
+
+    @Test
+    public void ticketsAreFetchedBySerial() {
+        assertThat(store.size(), is((long) TICKETS));
+
+        final byte[] ticket = new byte[Ticket.CELLS];
+        for (long serial : new long[] { 0, 1, 999, 1000, 65_432, TICKETS - 1 }) {
+            store.copyCells(serial, ticket, 0);
+            assertThat(ticket, is(equalTo(Arrays.copyOfRange(cells, (int) serial * Ticket.CELLS, (int) (serial + 1) * Ticket.CELLS))));
+        }
+        assertThat(store.get(6).getTicketNumber(), is(7));
+        assertThat(store.get(6).isComplete(), is(true));
+        assertThrows(ValidationException.class, () -> store.get(TICKETS));
+        // Serials beyond an int can not be numbered
+        assertThrows(ValidationException.class, () -> new TicketStore(TicketStore.MAX_TICKETS + 1));
+    }
+
+    @Test
+    public void postingsListEveryTicketHousingANumberInARow() {
+        for (int number : new int[] { 1, 37, 90 }) {
+            for (int row = 0; row < Ticket.ROWS; row++) {
+                final long[] expected = housing(number, row);
+                assertThat(store.count(number, row), is((long) expected.length));
+                assertThat(store.postings(number, row).next(TICKETS), is(equalTo(expected)));
+            }
+        }
+        assertThat(store.postings(37).count(), is((long) STRIPS));
+    }
+
+    @Test
+    public void postingsCanBeSkippedAndCombined() {
+        final long[] expected = LongStream.of(housing(37, 1)).filter(serial -> LongStream.of(housing(52, 1)).anyMatch(s -> s == serial)).toArray();
+        assertThat(expected.length, is(greaterThan(0)));
+        assertThat(PostingIterator.and(store.postings(37, 1), store.postings(52, 1)).next(TICKETS), is(equalTo(expected)));
+
+        final long[] thirtySeven = housing(37, 1);
+        final PostingIterator postings = store.postings(37, 1);
+        assertThat(postings.advance(thirtySeven[500]), is(thirtySeven[500]));
+        assertThat(postings.advance(thirtySeven[900] - 1), is(thirtySeven[900]));
+        assertThat(postings.next(), is(thirtySeven[901]));
+        assertThat(postings.advance(TICKETS), is(PostingIterator.NO_MORE));
+    }
+
+    @Test
+    public void queriesDoNotSeeTicketsAddedAfterThem() {
+        final TicketStore growing = new TicketStore(10);
+        final byte[] strip = new byte[TicketStrip.CELLS];
+        new StripSequence(1L).get(0).copyCells(strip, 0);
+        growing.addStrip(strip, 0);
+
+        int number = 0;
+        for (int column = 0; number <= 0; column++) {
+            number = strip[column];
+        }
+
+        final PostingIterator before = growing.postings(number, 0);
+        growing.addStrip(strip, 0);
+        assertThat(before.count(), is(1L));
+        assertThat(growing.postings(number, 0).count(), is(2L));
+    }
+
+    private static long[] housing(int number, int row) {
+        return LongStream.range(0, TICKETS)
+          .filter(serial -> {
+              for (int column = 0; column < Ticket.COLUMNS; column++) {
+                  if (cells[(int) serial * Ticket.CELLS + row * Ticket.COLUMNS + column] == number) return true;
+              }
+              return false;
+          })
+          .toArray();
+    }
+
+}
@@ -136,4 +136,17 @@ public class TicketStripTests {
           });
     }
 
+    @Test
+    public void packedCellsCanBeWrappedIntoAnEquivalentStrip() {
+        final byte[] cells = new byte[TicketStrip.CELLS];
+        ticketStrip.copyCells(cells, 0);
+
+        final TicketStrip wrapped = new TicketStrip(cells);
+        for (int t = 0; t < TicketStrip.TICKETS; t++) {
+            assertThat(wrapped.getTickets().get(t).getColumns(), is(equalTo(ticketStrip.getTickets().get(t).getColumns())));
+            assertThat(wrapped.getTickets().get(t).getRows(), is(equalTo(ticketStrip.getTickets().get(t).getRows())));
+        }
+        assertThat(wrapped.toString(), is(equalTo(ticketStrip.toString())));
+    }
+
 }